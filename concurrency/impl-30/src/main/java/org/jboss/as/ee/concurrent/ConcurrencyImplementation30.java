@@ -25,16 +25,39 @@ public class ConcurrencyImplementation30 extends AbstractConcurrencyImplementati
         return new ManagedThreadFactoryImpl(name, contextService, priority);
     }
 
+    @Override
+    public WildFlyManagedThreadFactory newManagedThreadFactory(String name, WildFlyContextService contextService, int priority, boolean virtual) {
+        return new ManagedThreadFactoryImpl(name, contextService, priority, virtual);
+    }
+
     @Override
     public WildFlyManagedExecutorService newManagedExecutorService(String name, WildFlyManagedThreadFactory managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, WildFlyContextService contextService, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, BlockingQueue<Runnable> queue, ControlPoint controlPoint, ProcessStateNotifier processStateNotifier) {
+        if (isVirtual(managedThreadFactory)) {
+            return newThreadPerTaskExecutorService(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, contextService, rejectPolicy, controlPoint, processStateNotifier);
+        }
         return new ManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, contextService, rejectPolicy, queue, controlPoint, processStateNotifier);
     }
 
     @Override
     public WildFlyManagedExecutorService newManagedExecutorService(String name, WildFlyManagedThreadFactory managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, WildFlyContextService contextService, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, ControlPoint controlPoint, ProcessStateNotifier processStateNotifier) {
+        if (isVirtual(managedThreadFactory)) {
+            return newThreadPerTaskExecutorService(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, contextService, rejectPolicy, controlPoint, processStateNotifier);
+        }
         return new ManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService, rejectPolicy, controlPoint, processStateNotifier);
     }
 
+    private static boolean isVirtual(WildFlyManagedThreadFactory managedThreadFactory) {
+        return managedThreadFactory instanceof ManagedThreadFactoryImpl && ((ManagedThreadFactoryImpl) managedThreadFactory).isVirtual();
+    }
+
+    /**
+     * Virtual threads are cheap to create and must not be pooled, so an executor using them runs each task in a new thread:
+     * no core threads, no max threads, no keep alive, and a direct hand-off instead of a task queue.
+     */
+    private static WildFlyManagedExecutorService newThreadPerTaskExecutorService(String name, WildFlyManagedThreadFactory managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, WildFlyContextService contextService, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, ControlPoint controlPoint, ProcessStateNotifier processStateNotifier) {
+        return new ManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, 0, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS, 0, 0, contextService, rejectPolicy, controlPoint, processStateNotifier);
+    }
+
     @Override
     public WildFlyManagedScheduledExecutorService newManagedScheduledExecutorService(String name, WildFlyManagedThreadFactory managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, WildFlyContextService contextService, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, ControlPoint controlPoint, ProcessStateNotifier processStateNotifier) {
         return new ManagedScheduledExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, contextService, rejectPolicy, controlPoint, processStateNotifier);
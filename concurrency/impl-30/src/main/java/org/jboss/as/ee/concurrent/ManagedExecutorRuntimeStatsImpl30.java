@@ -8,6 +8,7 @@ import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
 
 import java.util.Collection;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntSupplier;
 
 /**
  * Executor runtime stats obtained from a thread pool executor.
@@ -17,15 +18,18 @@ class ManagedExecutorRuntimeStatsImpl30 implements ManagedExecutorRuntimeStats {
 
     private final AbstractManagedExecutorService abstractManagedExecutorService;
     private final ThreadPoolExecutor threadPoolExecutor;
+    private final IntSupplier hungVirtualThreadsCount;
 
     ManagedExecutorRuntimeStatsImpl30(ManagedExecutorServiceImpl executorService) {
         this.abstractManagedExecutorService = executorService;
         this.threadPoolExecutor = executorService.getThreadPoolExecutor();
+        this.hungVirtualThreadsCount = executorService::getHungVirtualThreadsCount;
     }
 
     ManagedExecutorRuntimeStatsImpl30(ManagedScheduledExecutorServiceImpl executorService) {
         this.abstractManagedExecutorService = executorService;
         this.threadPoolExecutor = executorService.getThreadPoolExecutor();
+        this.hungVirtualThreadsCount = executorService::getHungVirtualThreadsCount;
     }
 
     @Override
@@ -46,7 +50,7 @@ class ManagedExecutorRuntimeStatsImpl30 implements ManagedExecutorRuntimeStats {
     @Override
     public int getHungThreadsCount() {
         final Collection hungThreads = abstractManagedExecutorService.getHungThreads();
-        return hungThreads != null ? hungThreads.size() : 0;
+        return (hungThreads != null ? hungThreads.size() : 0) + hungVirtualThreadsCount.getAsInt();
     }
 
     @Override
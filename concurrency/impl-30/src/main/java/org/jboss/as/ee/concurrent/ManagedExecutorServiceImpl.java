@@ -30,11 +30,16 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
     private final ControlPoint controlPoint;
     private final ProcessStateNotifier processStateNotifier;
     private final ManagedExecutorRuntimeStats runtimeStats;
+    /**
+     * the threshold to detect hung tasks running in virtual threads, 0 if disabled
+     */
+    private final long hungTaskThreshold;
 
     public ManagedExecutorServiceImpl(String name, WildFlyManagedThreadFactory managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, WildFlyContextService contextService, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, BlockingQueue<Runnable> queue, ControlPoint controlPoint, ProcessStateNotifier processStateNotifier) {
         super(name, (ManagedThreadFactoryImpl) managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, (ContextServiceImpl) contextService, convertRejectPolicy(rejectPolicy), queue);
         this.controlPoint = controlPoint;
         this.processStateNotifier = processStateNotifier;
+        this.hungTaskThreshold = longRunningTasks ? 0 : hungTaskThreshold;
         this.runtimeStats = new ManagedExecutorRuntimeStatsImpl30(this);
     }
 
@@ -42,6 +47,7 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
         super(name, (ManagedThreadFactoryImpl) managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, (ContextServiceImpl) contextService, convertRejectPolicy(rejectPolicy));
         this.controlPoint = controlPoint;
         this.processStateNotifier = processStateNotifier;
+        this.hungTaskThreshold = longRunningTasks ? 0 : hungTaskThreshold;
         this.runtimeStats = new ManagedExecutorRuntimeStatsImpl30(this);
     }
 
@@ -111,6 +117,14 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
         return runtimeStats;
     }
 
+    /**
+     *
+     * @return the number of hung tasks running in virtual threads
+     */
+    int getHungVirtualThreadsCount() {
+        return ((ManagedThreadFactoryImpl) getManagedThreadFactory()).getHungVirtualThreadTasks(hungTaskThreshold).size();
+    }
+
     @Override
     public void terminateHungTasks() {
         final String executorName = getClass().getSimpleName() + ":" + getName();
@@ -132,5 +146,6 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
                 }
             }
         }
+        ((ManagedThreadFactoryImpl) getManagedThreadFactory()).terminateHungVirtualThreadTasks(executorName, hungTaskThreshold);
     }
 }
@@ -30,11 +30,16 @@ public class ManagedScheduledExecutorServiceImpl extends org.glassfish.enterpris
     private final ControlPoint controlPoint;
     private final ProcessStateNotifier processStateNotifier;
     private final ManagedExecutorRuntimeStats runtimeStats;
+    /**
+     * the threshold to detect hung tasks running in virtual threads, 0 if disabled
+     */
+    private final long hungTaskThreshold;
 
     public ManagedScheduledExecutorServiceImpl(String name, WildFlyManagedThreadFactory managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, WildFlyContextService contextService, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, ControlPoint controlPoint, ProcessStateNotifier processStateNotifier) {
         super(name, (ManagedThreadFactoryImpl) managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, (ContextServiceImpl) contextService, ManagedExecutorServiceImpl.convertRejectPolicy(rejectPolicy));
         this.controlPoint = controlPoint;
         this.processStateNotifier = processStateNotifier;
+        this.hungTaskThreshold = longRunningTasks ? 0 : hungTaskThreshold;
         this.runtimeStats = new ManagedExecutorRuntimeStatsImpl30(this);
     }
 
@@ -110,6 +115,14 @@ public class ManagedScheduledExecutorServiceImpl extends org.glassfish.enterpris
         return runtimeStats;
     }
 
+    /**
+     *
+     * @return the number of hung tasks running in virtual threads
+     */
+    int getHungVirtualThreadsCount() {
+        return ((ManagedThreadFactoryImpl) getManagedThreadFactory()).getHungVirtualThreadTasks(hungTaskThreshold).size();
+    }
+
     /**
      * A {@link jakarta.enterprise.concurrent.Trigger} wrapper that stops scheduling if the related {@link java.util.concurrent.ScheduledFuture} is cancelled.
      */
@@ -158,5 +171,6 @@ public class ManagedScheduledExecutorServiceImpl extends org.glassfish.enterpris
                 }
             }
         }
+        ((ManagedThreadFactoryImpl) getManagedThreadFactory()).terminateHungVirtualThreadTasks(executorName, hungTaskThreshold);
     }
 }
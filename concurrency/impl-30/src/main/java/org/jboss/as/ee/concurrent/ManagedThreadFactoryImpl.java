@@ -9,6 +9,8 @@ import org.glassfish.enterprise.concurrent.AbstractManagedThread;
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
 import org.glassfish.enterprise.concurrent.internal.ManagedFutureTask;
 import org.glassfish.enterprise.concurrent.spi.ContextHandle;
+import org.glassfish.enterprise.concurrent.spi.ContextSetupProvider;
+import org.jboss.as.ee.logging.EeLogger;
 import org.wildfly.security.auth.server.SecurityIdentity;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -16,9 +18,19 @@ import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * {@link ManagedThreadFactory} implementation ensuring {@link SecurityIdentity} propagation into new threads.
+ * <p/>
+ * If configured to use virtual threads, and these are supported by the Java runtime, the factory creates virtual threads,
+ * which cannot extend {@link AbstractManagedThread}, and so the factory itself tracks their context and running tasks.
  * @author <a href="mailto:jkalina@redhat.com">Jan Kalina</a>
  * @author emmartins
  */
@@ -34,10 +46,41 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
      */
     private final AccessControlContext accessControlContext;
 
+    /**
+     * the factory's context service, used to capture the context of virtual threads
+     */
+    private final ContextServiceImpl contextService;
+
+    /**
+     * the factory of virtual threads, null if the factory creates platform threads
+     */
+    private final ThreadFactory virtualThreadFactory;
+
+    /**
+     * the virtual threads created, which were not terminated yet
+     */
+    private final Set<Thread> virtualThreads = ConcurrentHashMap.newKeySet();
+
+    /**
+     * the tasks running in virtual threads
+     */
+    private final Map<Thread, VirtualThreadTask> virtualThreadTasks = new ConcurrentHashMap<>();
+
+    private volatile boolean stopped;
+
     public ManagedThreadFactoryImpl(String name, WildFlyContextService contextService, int priority) {
+        this(name, contextService, priority, false);
+    }
+
+    public ManagedThreadFactoryImpl(String name, WildFlyContextService contextService, int priority, boolean virtual) {
         super(name, (ContextServiceImpl) contextService, priority);
         this.priority = priority;
         this.accessControlContext = AccessController.getContext();
+        this.contextService = (ContextServiceImpl) contextService;
+        if (virtual && !VirtualThreads.isSupported()) {
+            EeLogger.ROOT_LOGGER.virtualThreadsNotSupported(name);
+        }
+        this.virtualThreadFactory = virtual ? VirtualThreads.newFactory(name + "-") : null;
     }
 
     /**
@@ -48,6 +91,44 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
         return priority;
     }
 
+    /**
+     *
+     * @return true if the factory creates virtual threads
+     */
+    public boolean isVirtual() {
+        return virtualThreadFactory != null;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        if (virtualThreadFactory == null) {
+            return super.newThread(r);
+        }
+        if (stopped) {
+            throw EeLogger.ROOT_LOGGER.managedThreadFactoryStopped(getName());
+        }
+        // same as with platform threads, app threads run with the context captured on creation, while executor threads have none, the context is set by each task
+        final ContextSetupProvider contextSetupProvider = contextService != null ? contextService.getContextSetupProvider() : null;
+        final ContextHandle contextHandleForSetup = contextSetupProvider != null ? contextSetupProvider.saveContext(contextService) : null;
+        if (contextHandleForSetup != null) {
+            // app thread, do identity wrap
+            r = SecurityIdentityUtils.doIdentityWrap(r);
+        }
+        final Thread t = AccessController.doPrivileged(new CreateVirtualThreadAction(new VirtualThreadRunnable(r, contextSetupProvider, contextHandleForSetup)), accessControlContext);
+        resetContextClassLoader(t);
+        virtualThreads.add(t);
+        return t;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        super.stop();
+        for (Thread t : virtualThreads) {
+            t.interrupt();
+        }
+    }
+
     protected AbstractManagedThread createThread(Runnable r, final ContextHandle contextHandleForSetup) {
         if (contextHandleForSetup != null) {
             // app thread, do identity wrap
@@ -55,6 +136,11 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
         }
         // use the factory's acc as privileged, otherwise the new thread inherits current thread's acc
         final AbstractManagedThread t = AccessController.doPrivileged(new CreateThreadAction(r, contextHandleForSetup), accessControlContext);
+        resetContextClassLoader(t);
+        return t;
+    }
+
+    private static void resetContextClassLoader(Thread t) {
         // reset thread classloader to prevent leaks
         if (!WildFlySecurityManager.isChecking()) {
             t.setContextClassLoader(null);
@@ -64,22 +150,139 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
                 return null;
             });
         }
-        return t;
     }
 
     @Override
     public void taskStarting(Thread t, ManagedFutureTask task) {
-        super.taskStarting(t, task);
-        if (t instanceof ManagedThread) {
-            ((ManagedThread)t).task = task;
+        if (t instanceof AbstractManagedThread) {
+            super.taskStarting(t, task);
+            if (t instanceof ManagedThread) {
+                ((ManagedThread)t).task = task;
+            }
+        } else if (virtualThreadFactory != null) {
+            virtualThreadTasks.put(t, new VirtualThreadTask(task, System.currentTimeMillis()));
         }
     }
 
     @Override
     public void taskDone(Thread t) {
-        super.taskDone(t);
-        if (t instanceof ManagedThread) {
-            ((ManagedThread)t).task = null;
+        if (t instanceof AbstractManagedThread) {
+            super.taskDone(t);
+            if (t instanceof ManagedThread) {
+                ((ManagedThread)t).task = null;
+            }
+        } else if (virtualThreadFactory != null) {
+            virtualThreadTasks.remove(t);
+        }
+    }
+
+    /**
+     * Retrieves the tasks running in virtual threads for longer than the specified threshold.
+     * @param hungTaskThreshold the hung task threshold, in milliseconds
+     * @return the hung tasks
+     */
+    Collection<VirtualThreadTask> getHungVirtualThreadTasks(long hungTaskThreshold) {
+        if (hungTaskThreshold <= 0 || virtualThreadTasks.isEmpty()) {
+            return List.of();
+        }
+        final long now = System.currentTimeMillis();
+        final Collection<VirtualThreadTask> hungTasks = new ArrayList<>();
+        for (VirtualThreadTask task : virtualThreadTasks.values()) {
+            if (now - task.startTime > hungTaskThreshold) {
+                hungTasks.add(task);
+            }
+        }
+        return hungTasks;
+    }
+
+    /**
+     * Cancels the tasks running in virtual threads for longer than the specified threshold.
+     * @param executorName the name of the executor running the tasks
+     * @param hungTaskThreshold the hung task threshold, in milliseconds
+     */
+    void terminateHungVirtualThreadTasks(String executorName, long hungTaskThreshold) {
+        for (VirtualThreadTask task : getHungVirtualThreadTasks(hungTaskThreshold)) {
+            final String taskIdentityName = task.getTaskIdentityName();
+            try {
+                if (task.cancelTask()) {
+                    EeLogger.ROOT_LOGGER.hungTaskCancelled(executorName, taskIdentityName);
+                } else {
+                    EeLogger.ROOT_LOGGER.hungTaskNotCancelled(executorName, taskIdentityName);
+                }
+            } catch (Throwable throwable) {
+                EeLogger.ROOT_LOGGER.huntTaskTerminationFailure(throwable, executorName, taskIdentityName);
+            }
+        }
+    }
+
+    private final class CreateVirtualThreadAction implements PrivilegedAction<Thread> {
+        private final Runnable r;
+
+        private CreateVirtualThreadAction(Runnable r) {
+            this.r = r;
+        }
+
+        @Override
+        public Thread run() {
+            return virtualThreadFactory.newThread(r);
+        }
+    }
+
+    /**
+     * The runnable of a virtual thread, which sets up the thread's context, if any, and untracks the thread once terminated.
+     */
+    private final class VirtualThreadRunnable implements Runnable {
+        private final Runnable target;
+        private final ContextSetupProvider contextSetupProvider;
+        private final ContextHandle contextHandleForSetup;
+
+        private VirtualThreadRunnable(Runnable target, ContextSetupProvider contextSetupProvider, ContextHandle contextHandleForSetup) {
+            this.target = target;
+            this.contextSetupProvider = contextSetupProvider;
+            this.contextHandleForSetup = contextHandleForSetup;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (contextHandleForSetup == null) {
+                    target.run();
+                } else {
+                    final ContextHandle contextHandleForReset = contextSetupProvider.setup(contextHandleForSetup);
+                    try {
+                        target.run();
+                    } finally {
+                        contextSetupProvider.reset(contextHandleForReset);
+                    }
+                }
+            } finally {
+                virtualThreads.remove(Thread.currentThread());
+            }
+        }
+    }
+
+    /**
+     * A task running in a virtual thread, to allow detecting and canceling it if hung.
+     */
+    static final class VirtualThreadTask {
+        private final ManagedFutureTask task;
+        private final long startTime;
+
+        VirtualThreadTask(ManagedFutureTask task, long startTime) {
+            this.task = task;
+            this.startTime = startTime;
+        }
+
+        String getTaskIdentityName() {
+            return task.getTaskIdentityName();
+        }
+
+        /**
+         * Cancel the task.
+         * @return
+         */
+        boolean cancelTask() {
+            return task.cancel(true);
         }
     }
 
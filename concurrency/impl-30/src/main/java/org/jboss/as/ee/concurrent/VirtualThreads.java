@@ -0,0 +1,78 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual thread factories, on Java runtimes which support them.
+ * The server is built for Java 17, thus the {@code Thread.ofVirtual()} API is looked up at runtime.
+ */
+final class VirtualThreads {
+
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle FACTORY;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+            name = lookup.findVirtual(builderClass, "name", MethodType.methodType(builderClass, String.class, long.class));
+            factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+            // on Java 19 and 20 the API exists, but throws UnsupportedOperationException unless preview features are enabled
+            ofVirtual.invoke();
+        } catch (Throwable e) {
+            // virtual threads not supported
+            ofVirtual = null;
+            name = null;
+            factory = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the Java runtime supports virtual threads
+     */
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a factory of virtual threads, named with the specified prefix followed by a counter.
+     * @param namePrefix the prefix of the thread names
+     * @return a virtual thread factory, or null if the Java runtime does not support virtual threads
+     */
+    static ThreadFactory newFactory(String namePrefix) {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke();
+            builder = NAME.invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (UnsupportedOperationException e) {
+            return null;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
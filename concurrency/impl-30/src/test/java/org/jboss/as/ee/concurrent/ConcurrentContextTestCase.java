@@ -0,0 +1,191 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.concurrent.ContextService;
+import org.jboss.as.ee.concurrent.handle.ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.EE10ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
+import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
+import org.junit.Test;
+
+/**
+ * Tests the context saving pipelines of {@link ConcurrentContext}, compiled for each context service types configuration.
+ */
+public class ConcurrentContextTestCase {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    public void testPipelineOrder() {
+        final ConcurrentContext context = new ConcurrentContext();
+        // added out of the order of their priorities
+        context.addFactory(new TestEE10Factory("cleared", 300, "ClearedType"));
+        context.addFactory(new TestFactory("legacy", 100));
+        context.addFactory(new TestEE10Factory("propagated", 200, "PropagatedType"));
+        context.addFactory(new TestEE10Factory("unchanged", 400, "UnchangedType"));
+        final ContextService contextService = contextService(new ContextServiceTypesConfiguration.Builder()
+                .setCleared(new String[] { "ClearedType" })
+                .setUnchanged(new String[] { "UnchangedType" })
+                .build());
+
+        final SetupContextHandle handle = context.saveContext(contextService, Map.of());
+        // the unchanged context type of the factory returns no handle, which is left out of the chain
+        assertEquals(List.of("save:legacy", "propagated:propagated", "cleared:cleared", "unchanged:unchanged"), this.events);
+        this.events.clear();
+
+        final ResetContextHandle reset = handle.setup();
+        assertSame(context, ConcurrentContext.current());
+        reset.reset();
+        assertNull(ConcurrentContext.current());
+        assertEquals(List.of("setup:legacy", "setup:propagated", "setup:cleared", "reset:cleared", "reset:propagated", "reset:legacy"), this.events);
+    }
+
+    @Test
+    public void testPipelinePerConfiguration() {
+        final ConcurrentContext context = new ConcurrentContext();
+        context.addFactory(new TestEE10Factory("transaction", 100, "TransactionType"));
+        context.saveContext(contextService(ContextServiceTypesConfiguration.DEFAULT), Map.of());
+        context.saveContext(contextService(new ContextServiceTypesConfiguration.Builder().setCleared(new String[] { "TransactionType" }).build()), Map.of());
+        context.saveContext(contextService(ContextServiceTypesConfiguration.DEFAULT), Map.of());
+        assertEquals(List.of("propagated:transaction", "cleared:transaction", "propagated:transaction"), this.events);
+    }
+
+    @Test
+    public void testAddFactoryResetsPipelines() {
+        final ConcurrentContext context = new ConcurrentContext();
+        final ContextService contextService = contextService(ContextServiceTypesConfiguration.DEFAULT);
+        context.addFactory(new TestEE10Factory("second", 200, "SecondType"));
+        context.saveContext(contextService, Map.of());
+        assertEquals(List.of("propagated:second"), this.events);
+        this.events.clear();
+
+        // the pipeline compiled before must not be reused once a factory is added
+        context.addFactory(new TestFactory("first", 100));
+        context.saveContext(contextService, Map.of());
+        assertEquals(List.of("save:first", "propagated:second"), this.events);
+
+        assertThrows(IllegalArgumentException.class, () -> context.addFactory(new TestFactory("first", 300)));
+    }
+
+    private static ContextService contextService(ContextServiceTypesConfiguration configuration) {
+        return (ContextService) Proxy.newProxyInstance(ConcurrentContextTestCase.class.getClassLoader(), new Class<?>[] { WildFlyContextService.class }, (proxy, method, args) -> {
+            if (method.getName().equals("getContextServiceTypesConfiguration")) {
+                return configuration;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private SetupContextHandle handle(String name) {
+        return new SetupContextHandle() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public ResetContextHandle setup() {
+                ConcurrentContextTestCase.this.events.add("setup:" + name);
+                return new ResetContextHandle() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public void reset() {
+                        ConcurrentContextTestCase.this.events.add("reset:" + name);
+                    }
+
+                    @Override
+                    public String getFactoryName() {
+                        return name;
+                    }
+                };
+            }
+
+            @Override
+            public String getFactoryName() {
+                return name;
+            }
+        };
+    }
+
+    private class TestFactory implements ContextHandleFactory {
+        private final String name;
+        private final int priority;
+
+        TestFactory(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            ConcurrentContextTestCase.this.events.add("save:" + this.name);
+            return handle(this.name);
+        }
+
+        @Override
+        public int getChainPriority() {
+            return this.priority;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SetupContextHandle readSetupContextHandle(ObjectInputStream in) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class TestEE10Factory extends TestFactory implements EE10ContextHandleFactory {
+        private final String contextType;
+
+        TestEE10Factory(String name, int priority, String contextType) {
+            super(name, priority);
+            this.contextType = contextType;
+        }
+
+        @Override
+        public String getContextType() {
+            return this.contextType;
+        }
+
+        @Override
+        public SetupContextHandle clearedContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            ConcurrentContextTestCase.this.events.add("cleared:" + this.getName());
+            return handle(this.getName());
+        }
+
+        @Override
+        public SetupContextHandle propagatedContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            ConcurrentContextTestCase.this.events.add("propagated:" + this.getName());
+            return handle(this.getName());
+        }
+
+        @Override
+        public SetupContextHandle unchangedContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            ConcurrentContextTestCase.this.events.add("unchanged:" + this.getName());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.enterprise.concurrent.ContextService;
+import org.glassfish.enterprise.concurrent.spi.ContextHandle;
+import org.glassfish.enterprise.concurrent.spi.ContextSetupProvider;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests the virtual threads created by {@link ManagedThreadFactoryImpl}, and the fallback to platform threads.
+ */
+public class ManagedThreadFactoryImplTestCase {
+
+    @Test
+    public void testFallback() throws InterruptedException {
+        final ManagedThreadFactoryImpl factory = new ManagedThreadFactoryImpl("fallback", new TestContextService(new RecordingContextSetupProvider()), Thread.NORM_PRIORITY, true);
+        try {
+            // platform threads are used whenever the runtime does not support virtual threads
+            assertEquals(VirtualThreads.isSupported(), factory.isVirtual());
+            final CountDownLatch latch = new CountDownLatch(1);
+            final Thread thread = factory.newThread(latch::countDown);
+            thread.start();
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            factory.stop();
+        }
+    }
+
+    @Test
+    public void testPlatformThreads() {
+        final ManagedThreadFactoryImpl factory = new ManagedThreadFactoryImpl("platform", new TestContextService(new RecordingContextSetupProvider()), Thread.NORM_PRIORITY, false);
+        try {
+            assertFalse(factory.isVirtual());
+        } finally {
+            factory.stop();
+        }
+    }
+
+    @Test
+    public void testHungTasks() throws InterruptedException {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+        final ManagedThreadFactoryImpl factory = new ManagedThreadFactoryImpl("hung", new TestContextService(new RecordingContextSetupProvider()), Thread.NORM_PRIORITY, true);
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            final Thread thread = factory.newThread(() -> {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            factory.taskStarting(thread, null);
+            Thread.sleep(50);
+            assertEquals(1, factory.getHungVirtualThreadTasks(10).size());
+            assertTrue(factory.getHungVirtualThreadTasks(TimeUnit.MINUTES.toMillis(1)).isEmpty());
+            // a threshold of 0 disables the detection of hung tasks
+            assertTrue(factory.getHungVirtualThreadTasks(0).isEmpty());
+            factory.taskDone(thread);
+            assertTrue(factory.getHungVirtualThreadTasks(10).isEmpty());
+            done.countDown();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } finally {
+            factory.stop();
+        }
+    }
+
+    @Test
+    public void testContextPropagation() throws InterruptedException {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+        final RecordingContextSetupProvider provider = new RecordingContextSetupProvider();
+        final ManagedThreadFactoryImpl factory = new ManagedThreadFactoryImpl("context", new TestContextService(provider), Thread.NORM_PRIORITY, true);
+        try {
+            final AtomicReference<ClassLoader> classLoader = new AtomicReference<>(this.getClass().getClassLoader());
+            final Thread thread = factory.newThread(() -> {
+                provider.events.add("run");
+                classLoader.set(Thread.currentThread().getContextClassLoader());
+            });
+            // the context is captured when the thread is created, by the thread creating it
+            assertEquals(List.of("save"), provider.events);
+            thread.start();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(thread.isAlive());
+            // and set up in the new thread, around its runnable
+            assertEquals(List.of("save", "setup", "run", "reset"), provider.events);
+            assertSame(provider.setupHandle, provider.resetHandle);
+            // the creator's class loader is not leaked into the new thread
+            assertNull(classLoader.get());
+        } finally {
+            factory.stop();
+        }
+    }
+
+    private static class TestContextService extends org.glassfish.enterprise.concurrent.ContextServiceImpl implements WildFlyContextService {
+        private static final long serialVersionUID = 1L;
+
+        TestContextService(ContextSetupProvider contextSetupProvider) {
+            super("test", contextSetupProvider, null);
+        }
+
+        @Override
+        public ContextServiceTypesConfiguration getContextServiceTypesConfiguration() {
+            return ContextServiceTypesConfiguration.DEFAULT;
+        }
+    }
+
+    private static class RecordingContextSetupProvider implements ContextSetupProvider {
+        private static final long serialVersionUID = 1L;
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        volatile ContextHandle setupHandle;
+        volatile ContextHandle resetHandle;
+
+        @Override
+        public ContextHandle saveContext(ContextService contextService) {
+            this.events.add("save");
+            return new ContextHandle() {
+                private static final long serialVersionUID = 1L;
+            };
+        }
+
+        @Override
+        public ContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            return this.saveContext(contextService);
+        }
+
+        @Override
+        public ContextHandle setup(ContextHandle contextHandle) {
+            this.events.add("setup");
+            this.setupHandle = new ContextHandle() {
+                private static final long serialVersionUID = 1L;
+            };
+            return this.setupHandle;
+        }
+
+        @Override
+        public void reset(ContextHandle contextHandle) {
+            this.events.add("reset");
+            this.resetHandle = contextHandle;
+        }
+    }
+}
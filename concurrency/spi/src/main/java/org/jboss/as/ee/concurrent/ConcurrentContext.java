@@ -25,13 +25,15 @@ import java.io.ObjectOutputStream;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 import static java.lang.Thread.currentThread;
 
@@ -82,6 +84,11 @@ public class ConcurrentContext {
     private final Map<String, ContextHandleFactory> factoryMap = new HashMap<>();
     private List<ContextHandleFactory> factoryOrderedList;
 
+    /**
+     * the context saving pipelines, compiled for each context service types configuration, and discarded when a factory is added
+     */
+    private volatile Map<ContextServiceTypesConfiguration, List<ContextSaver>> pipelines = new ConcurrentHashMap<>();
+
     private volatile ServiceName serviceName;
 
     /**
@@ -112,6 +119,7 @@ public class ConcurrentContext {
         sortedSet.addAll(factoryMap.values());
         // TODO *FOLLOW UP* now that we have factories coming from deployments, rework the ordering approach to no use treeset, which does not supports factories with same priority (the order param)
         factoryOrderedList = new ArrayList<>(sortedSet);
+        pipelines = new ConcurrentHashMap<>();
     }
 
     /**
@@ -121,33 +129,69 @@ public class ConcurrentContext {
      * @return
      */
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        final ContextServiceTypesConfiguration contextServiceTypesConfiguration = ((WildFlyContextService)contextService).getContextServiceTypesConfiguration();
-        final List<SetupContextHandle> handles = new ArrayList<>(factoryOrderedList.size());
+        final List<ContextSaver> pipeline = getPipeline(((WildFlyContextService)contextService).getContextServiceTypesConfiguration());
+        final SetupContextHandle[] handles = new SetupContextHandle[pipeline.size()];
+        int handleCount = 0;
+        for (ContextSaver contextSaver : pipeline) {
+            final SetupContextHandle setupContextHandle = contextSaver.apply(contextService, contextObjectProperties);
+            if (setupContextHandle != null) {
+                handles[handleCount++] = setupContextHandle;
+            }
+        }
+        return new ChainedSetupContextHandle(this, handleCount == handles.length ? handles : Arrays.copyOf(handles, handleCount));
+    }
+
+    /**
+     * Retrieves the context saving pipeline for the specified configuration, compiling it if needed.
+     * @param contextServiceTypesConfiguration
+     * @return
+     */
+    private List<ContextSaver> getPipeline(ContextServiceTypesConfiguration contextServiceTypesConfiguration) {
+        final Map<ContextServiceTypesConfiguration, List<ContextSaver>> pipelines = this.pipelines;
+        List<ContextSaver> pipeline = pipelines.get(contextServiceTypesConfiguration);
+        if (pipeline == null) {
+            pipeline = compilePipeline(contextServiceTypesConfiguration);
+            final List<ContextSaver> existingPipeline = pipelines.putIfAbsent(contextServiceTypesConfiguration, pipeline);
+            if (existingPipeline != null) {
+                pipeline = existingPipeline;
+            }
+        }
+        return pipeline;
+    }
+
+    /**
+     * Resolves, for each factory, if its context type is cleared, propagated or unchanged by the specified configuration, so that
+     * saving the context of a task only invokes the factories of the context types which are handled, without further lookups.
+     * @param contextServiceTypesConfiguration
+     * @return
+     */
+    private List<ContextSaver> compilePipeline(ContextServiceTypesConfiguration contextServiceTypesConfiguration) {
+        final List<ContextSaver> pipeline = new ArrayList<>(factoryOrderedList.size());
         for (ContextHandleFactory factory : factoryOrderedList) {
             // TODO *FOLLOW UP* migrate all factories on other subsystems to use the new EE10ContextHandleFactory API, and once all done replace the legacy ContextHandleFactory API with the new one, no need to keep both
             if (factory instanceof EE10ContextHandleFactory) {
                 final EE10ContextHandleFactory ee10ContextHandleFactory = (EE10ContextHandleFactory) factory;
                 final String contextType = ee10ContextHandleFactory.getContextType();
-                final SetupContextHandle setupContextHandle;
                 if (contextServiceTypesConfiguration.isCleared(contextType)) {
-                    setupContextHandle = ee10ContextHandleFactory.clearedContext(contextService, contextObjectProperties);
+                    pipeline.add(ee10ContextHandleFactory::clearedContext);
                 } else if (contextServiceTypesConfiguration.isPropagated(contextType)) {
-                    setupContextHandle = ee10ContextHandleFactory.propagatedContext(contextService, contextObjectProperties);
+                    pipeline.add(ee10ContextHandleFactory::propagatedContext);
                 } else if (contextServiceTypesConfiguration.isUnchanged(contextType)) {
-                    setupContextHandle = ee10ContextHandleFactory.unchangedContext(contextService, contextObjectProperties);
-                } else {
-                    setupContextHandle = null;
-                }
-                if (setupContextHandle != null) {
-                    handles.add(setupContextHandle);
+                    pipeline.add(ee10ContextHandleFactory::unchangedContext);
                 }
             } else {
                 if (contextServiceTypesConfiguration.isPropagated(ContextServiceDefinition.APPLICATION)) {
-                    handles.add(factory.saveContext(contextService, contextObjectProperties));
+                    pipeline.add(factory::saveContext);
                 }
             }
         }
-        return new ChainedSetupContextHandle(this, handles);
+        return List.copyOf(pipeline);
+    }
+
+    /**
+     * A step of a context saving pipeline, which saves a context type.
+     */
+    private interface ContextSaver extends BiFunction<ContextService, Map<String, String>, SetupContextHandle> {
     }
 
     /**
@@ -157,21 +201,21 @@ public class ConcurrentContext {
 
         private static final long serialVersionUID = 3609876437062603461L;
         private transient ConcurrentContext concurrentContext;
-        private transient List<SetupContextHandle> setupHandles;
+        private transient SetupContextHandle[] setupHandles;
 
-        private ChainedSetupContextHandle(ConcurrentContext concurrentContext, List<SetupContextHandle> setupHandles) {
+        private ChainedSetupContextHandle(ConcurrentContext concurrentContext, SetupContextHandle[] setupHandles) {
             this.concurrentContext = concurrentContext;
             this.setupHandles = setupHandles;
         }
 
         @Override
         public ResetContextHandle setup() throws IllegalStateException {
-            final LinkedList<ResetContextHandle> resetHandles = new LinkedList<>();
+            final ResetContextHandle[] resetHandles = new ResetContextHandle[setupHandles.length];
             final ResetContextHandle resetContextHandle = new ChainedResetContextHandle(resetHandles);
             try {
                 ConcurrentContext.pushCurrent(concurrentContext);
-                for (SetupContextHandle handle : setupHandles) {
-                    resetHandles.addFirst(handle.setup());
+                for (int i = 0; i < setupHandles.length; i++) {
+                    resetHandles[i] = setupHandles[i].setup();
                 }
             } catch (Error | RuntimeException e) {
                 resetContextHandle.reset();
@@ -190,7 +234,7 @@ public class ConcurrentContext {
             // write the concurrent context service name
             out.writeObject(concurrentContext.serviceName);
             // write the number of setup handles
-            out.write(setupHandles.size());
+            out.write(setupHandles.length);
             // write each handle
             ContextHandleFactory factory = null;
             String factoryName = null;
@@ -238,16 +282,16 @@ public class ConcurrentContext {
                 }
                 concurrentContext = (ConcurrentContext) serviceController.getValue();
                 // read setup handles
-                setupHandles = new ArrayList<>();
+                setupHandles = new SetupContextHandle[in.read()];
                 ContextHandleFactory factory = null;
                 String factoryName = null;
-                for(int i = in.read(); i > 0; i--) {
+                for(int i = 0; i < setupHandles.length; i++) {
                     factoryName = in.readUTF();
                     factory = concurrentContext.factoryMap.get(factoryName);
                     if(factory == null) {
                         throw EeLogger.ROOT_LOGGER.factoryNotFound(concurrentContext.toString(), factoryName);
                     }
-                    setupHandles.add(factory.readSetupContextHandle(in));
+                    setupHandles[i] = factory.readSetupContextHandle(in);
                 }
             } finally {
                 if (sm == null) {
@@ -268,16 +312,21 @@ public class ConcurrentContext {
     private static class ChainedResetContextHandle implements ResetContextHandle {
 
         private static final long serialVersionUID = 8329909590327062062L;
-        private transient List<ResetContextHandle> resetHandles;
+        private transient ResetContextHandle[] resetHandles;
 
-        private ChainedResetContextHandle(List<ResetContextHandle> resetHandles) {
+        private ChainedResetContextHandle(ResetContextHandle[] resetHandles) {
             this.resetHandles = resetHandles;
         }
 
         @Override
         public void reset() {
             if(resetHandles != null) {
-                for (ResetContextHandle handle : resetHandles) {
+                // reset in the reverse order of setup, skipping the handles not set up due to a setup failure
+                for (int i = resetHandles.length - 1; i >= 0; i--) {
+                    final ResetContextHandle handle = resetHandles[i];
+                    if (handle == null) {
+                        continue;
+                    }
                     try {
                         handle.reset();
                     } catch (Throwable e) {
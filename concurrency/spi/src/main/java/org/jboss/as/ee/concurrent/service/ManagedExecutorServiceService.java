@@ -50,6 +50,7 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
     private final DelegatingSupplier<WildFlyContextService> contextServiceSupplier = new DelegatingSupplier<>();
     private final WildFlyManagedExecutorService.RejectPolicy rejectPolicy;
     private final Integer threadPriority;
+    private final boolean virtual;
     private final Supplier<ProcessStateNotifier> processStateNotifierSupplier;
     private final Supplier<RequestController> requestControllerSupplier;
     private ControlPoint controlPoint;
@@ -76,13 +77,14 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
      * @param queueCapacity
      * @param rejectPolicy
      * @param threadPriority
+     * @param virtual
      */
     public ManagedExecutorServiceService(final Consumer<ManagedExecutorServiceAdapter> consumer,
                                          final Supplier<WildFlyContextService> contextServiceSupplier,
                                          final Supplier<WildFlyManagedThreadFactory> managedThreadFactorySupplier,
                                          final Supplier<ProcessStateNotifier> processStateNotifierSupplier,
                                          final Supplier<RequestController> requestControllerSupplier,
-                                         String name, String jndiName, long hungTaskThreshold, long hungTaskTerminationPeriod, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, Integer threadPriority, final Supplier<ManagedExecutorHungTasksPeriodicTerminationService> hungTasksPeriodicTerminationService) {
+                                         String name, String jndiName, long hungTaskThreshold, long hungTaskTerminationPeriod, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, Integer threadPriority, boolean virtual, final Supplier<ManagedExecutorHungTasksPeriodicTerminationService> hungTasksPeriodicTerminationService) {
         super(jndiName);
         this.consumer = consumer;
         this.contextServiceSupplier.set(contextServiceSupplier);
@@ -101,6 +103,7 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
         this.queueCapacity = queueCapacity;
         this.rejectPolicy = rejectPolicy;
         this.threadPriority = threadPriority;
+        this.virtual = virtual;
         this.hungTasksPeriodicTerminationService = hungTasksPeriodicTerminationService;
     }
 
@@ -113,7 +116,7 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
             WildFlyManagedThreadFactory managedThreadFactory = managedThreadFactorySupplier != null ? managedThreadFactorySupplier.get() : null;
             priority = managedThreadFactory != null ? managedThreadFactory.getPriority() : Thread.NORM_PRIORITY;
         }
-        WildFlyManagedThreadFactory managedThreadFactory = ConcurrencyImplementation.INSTANCE.newManagedThreadFactory("EE-ManagedExecutorService-"+name, null, priority);
+        WildFlyManagedThreadFactory managedThreadFactory = ConcurrencyImplementation.INSTANCE.newManagedThreadFactory("EE-ManagedExecutorService-"+name, null, priority, virtual);
         if (requestControllerSupplier != null) {
             final RequestController requestController = requestControllerSupplier.get();
             controlPoint = requestController != null ? requestController.getControlPoint(name, "managed-executor-service") : null;
@@ -48,6 +48,7 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
     private final DelegatingSupplier<WildFlyContextService> contextServiceSupplier = new DelegatingSupplier<>();
     private final WildFlyManagedExecutorService.RejectPolicy rejectPolicy;
     private final Integer threadPriority;
+    private final boolean virtual;
     private final Supplier<ProcessStateNotifier> processStateNotifierSupplier;
     private final Supplier<RequestController> requestControllerSupplier;
     private ControlPoint controlPoint;
@@ -71,13 +72,14 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
      * @param threadLifeTime
      * @param rejectPolicy
      * @param threadPriority
+     * @param virtual
      */
     public ManagedScheduledExecutorServiceService(final Consumer<ManagedScheduledExecutorServiceAdapter> consumer,
                                                   final Supplier<WildFlyContextService> contextServiceSupplier,
                                                   final Supplier<WildFlyManagedThreadFactory> managedThreadFactorySupplier,
                                                   final Supplier<ProcessStateNotifier> processStateNotifierSupplier,
                                                   final Supplier<RequestController> requestControllerSupplier,
-                                                  String name, String jndiName, long hungTaskThreshold, long hungTaskTerminationPeriod, boolean longRunningTasks, int corePoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, Integer threadPriority, final Supplier<ManagedExecutorHungTasksPeriodicTerminationService> hungTasksPeriodicTerminationService) {
+                                                  String name, String jndiName, long hungTaskThreshold, long hungTaskTerminationPeriod, boolean longRunningTasks, int corePoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, WildFlyManagedExecutorService.RejectPolicy rejectPolicy, Integer threadPriority, boolean virtual, final Supplier<ManagedExecutorHungTasksPeriodicTerminationService> hungTasksPeriodicTerminationService) {
         super(jndiName);
         this.consumer = consumer;
         this.contextServiceSupplier.set(contextServiceSupplier);
@@ -94,6 +96,7 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
         this.threadLifeTime = threadLifeTime;
         this.rejectPolicy = rejectPolicy;
         this.threadPriority = threadPriority;
+        this.virtual = virtual;
         this.hungTasksPeriodicTerminationService = hungTasksPeriodicTerminationService;
     }
 
@@ -106,7 +109,7 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
             WildFlyManagedThreadFactory managedThreadFactory = managedThreadFactorySupplier != null ? managedThreadFactorySupplier.get() : null;
             priority = managedThreadFactory != null ? managedThreadFactory.getPriority() : Thread.NORM_PRIORITY;
         }
-        WildFlyManagedThreadFactory managedThreadFactory = ConcurrencyImplementation.INSTANCE.newManagedThreadFactory("EE-ManagedScheduledExecutorService-" + name, null, priority);
+        WildFlyManagedThreadFactory managedThreadFactory = ConcurrencyImplementation.INSTANCE.newManagedThreadFactory("EE-ManagedScheduledExecutorService-" + name, null, priority, virtual);
         if (requestControllerSupplier != null) {
             final RequestController requestController = requestControllerSupplier.get();
             controlPoint = requestController != null ? requestController.getControlPoint(name, "managed-scheduled-executor-service") : null;
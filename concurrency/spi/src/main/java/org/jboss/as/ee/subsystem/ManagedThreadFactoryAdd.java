@@ -44,7 +44,7 @@ public class ManagedThreadFactoryAdd extends AbstractAddStepHandler {
         }
         final Consumer<WildFlyManagedThreadFactory> consumer = serviceBuilder.provides(ManagedThreadFactoryResourceDefinition.CAPABILITY);
         final Supplier<WildFlyContextService> ctxServiceSupplier = contextService != null ? serviceBuilder.requiresCapability(ContextServiceResourceDefinition.CAPABILITY.getName(), ContextService.class, contextService) : null;
-        final ManagedThreadFactoryService service = new ManagedThreadFactoryService(consumer, ctxServiceSupplier, name, jndiName, priority);
+        final ManagedThreadFactoryService service = new ManagedThreadFactoryService(consumer, ctxServiceSupplier, name, jndiName, priority, VirtualThreadsConfiguration.isVirtual(name));
         serviceBuilder.setInstance(service);
         serviceBuilder.install();
     }
@@ -0,0 +1,39 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ee.subsystem;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Selects the managed executor services, managed scheduled executor services and managed thread factories which use virtual threads.
+ * <p/>
+ * These are listed by resource name, in the comma separated value of the {@value #VIRTUAL_THREADS_PROPERTY} system property,
+ * e.g. {@code -Djboss.ee.concurrent.virtual-threads=default,fan-out}. Managed executor services run each task in a new virtual
+ * thread, ignoring their core threads, max threads and queue length, while managed scheduled executor services keep their pool
+ * of core threads, which are virtual.
+ */
+final class VirtualThreadsConfiguration {
+
+    static final String VIRTUAL_THREADS_PROPERTY = "jboss.ee.concurrent.virtual-threads";
+
+    private VirtualThreadsConfiguration() {
+    }
+
+    /**
+     * @param name the resource name
+     * @return true if the resource with the specified name uses virtual threads
+     */
+    static boolean isVirtual(String name) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(VIRTUAL_THREADS_PROPERTY, null);
+        if (value != null) {
+            for (String virtualName : value.split(",")) {
+                if (virtualName.trim().equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -5,6 +5,7 @@
 
 package org.jboss.as.connector.dynamicresource;
 
+import org.jboss.as.connector.services.workmanager.StatisticsExecutorImpl;
 import org.jboss.as.connector.subsystems.resourceadapters.Constants;
 import org.jboss.as.connector.subsystems.resourceadapters.ResourceAdaptersExtension;
 import org.jboss.as.controller.OperationContext;
@@ -39,6 +40,9 @@ public class ClearWorkManagerStatisticsHandler implements OperationStepHandler {
             context.addStep(new OperationStepHandler() {
                 public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
                     wm.getStatistics().clear();
+                    for (StatisticsExecutorImpl executor : StatisticsExecutorImpl.getStatisticsExecutors(wm)) {
+                        executor.clearStatistics();
+                    }
                     context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
                 }
             }, OperationContext.Stage.RUNTIME);
@@ -13,6 +13,7 @@ import static org.jboss.logging.Logger.Level.WARN;
 import java.lang.invoke.MethodHandles;
 import java.sql.Driver;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.security.auth.Subject;
 import javax.xml.stream.XMLStreamException;
@@ -977,4 +978,7 @@ public interface ConnectorLogger extends BasicLogger {
 
     @Message(id = 135, value = "The jdbc driver: %s is not installed")
     OperationFailedException jdbcDriverNotInstalled(String jdbcDriver);
+
+    @Message(id = 136, value = "Work manager %s rejected a work, all its work-stealing threads are busy and %d works are waiting")
+    RejectedExecutionException workStealingQueueFull(String workManagerName, int queueLength);
 }
@@ -8,6 +8,7 @@ package org.jboss.as.connector.services.workmanager;
 import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.connector.security.ElytronSecurityIntegration;
 import org.jboss.as.connector.services.workmanager.transport.CommandDispatcherTransport;
@@ -42,6 +43,12 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
 
     private final InjectedValue<CommandDispatcherFactory> dispatcherFactory = new InjectedValue<>();
 
+    private final InjectedValue<ThreadFactory> threadFactoryShort = new InjectedValue<>();
+
+    private volatile int queueLengthShort = Integer.MAX_VALUE;
+
+    private volatile WorkStealingExecutor workStealingExecutor;
+
     /**
      * create an instance
      *
@@ -66,13 +73,20 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
 
         this.value.setTransport(transport);
 
+        Executor shortRunning = executorShort.getValue();
+        if (WorkStealingExecutor.isEnabled(value.getName())) {
+            workStealingExecutor = new WorkStealingExecutor(value.getName(), WorkStealingExecutor.getMaxThreads(shortRunning), queueLengthShort, threadFactoryShort.getOptionalValue());
+            shortRunning = workStealingExecutor;
+        }
+
         Executor longRunning = executorLong.getOptionalValue();
         if (longRunning != null) {
             this.value.setLongRunningThreadPool(new StatisticsExecutorImpl(longRunning));
-            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(executorShort.getValue()));
+            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(shortRunning));
         } else {
+            // long running works are never run by the work-stealing pool
             this.value.setLongRunningThreadPool(new StatisticsExecutorImpl(executorShort.getValue()));
-            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(executorShort.getValue()));
+            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(shortRunning));
 
         }
 
@@ -109,6 +123,11 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
 
         value.shutdown();
 
+        if (workStealingExecutor != null) {
+            workStealingExecutor.shutdown();
+            workStealingExecutor = null;
+        }
+
         WorkManagerCoordinator.getInstance().unregisterWorkManager(value);
 
         ROOT_LOGGER.debugf("Stopped Jakarta Connectors DistributedWorkManager: ", value.getName());
@@ -122,6 +141,19 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
         return executorLong;
     }
 
+    public Injector<ThreadFactory> getThreadFactoryShortInjector() {
+        return threadFactoryShort;
+    }
+
+    /**
+     * Sets the queue length of the short running thread pool, which also bounds the works waiting in a work-stealing pool.
+     *
+     * @param queueLengthShort the queue length
+     */
+    public void setQueueLengthShort(int queueLengthShort) {
+        this.queueLengthShort = queueLengthShort;
+    }
+
     public Injector<JBossContextXATerminator> getXaTerminatorInjector() {
         return xaTerminator;
     }
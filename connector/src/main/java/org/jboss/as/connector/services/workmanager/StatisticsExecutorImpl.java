@@ -5,16 +5,23 @@
 
 package org.jboss.as.connector.services.workmanager;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
 import org.jboss.as.threads.ManagedQueueExecutorService;
 import org.jboss.as.threads.ManagedQueuelessExecutorService;
 import org.jboss.as.threads.ManagedScheduledExecutorService;
 import org.jboss.jca.core.api.workmanager.StatisticsExecutor;
+import org.jboss.jca.core.api.workmanager.WorkManager;
+import org.jboss.jca.core.workmanager.WorkManagerImpl;
 
 /**
- * A StatisticsExecutor implementation keeping track of numberOfFreeThreads
+ * A StatisticsExecutor implementation keeping track of numberOfFreeThreads, and of the number of works waiting for a thread
+ * and the time they waited.
  *
  * @author Stefano Maestri
  */
@@ -23,6 +30,10 @@ public class StatisticsExecutorImpl implements StatisticsExecutor {
 
     private final Executor realExecutor;
 
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+
     /**
      * StatisticsExecutorImpl constructor
      *
@@ -35,11 +46,21 @@ public class StatisticsExecutorImpl implements StatisticsExecutor {
 
     @Override
     public void execute(Runnable runnable) {
-        realExecutor.execute(runnable);
+        queued.increment();
+        try {
+            realExecutor.execute(new QueuedRunnable(runnable, System.nanoTime()));
+        } catch (RuntimeException | Error e) {
+            // rejected
+            queued.decrement();
+            throw e;
+        }
     }
 
     @Override
     public long getNumberOfFreeThreads() {
+        if (realExecutor instanceof WorkStealingExecutor) {
+            return ((WorkStealingExecutor) realExecutor).getNumberOfFreeThreads();
+        }
         if (realExecutor instanceof ManagedQueueExecutorService) {
             return (long) ((ManagedQueueExecutorService) realExecutor).getMaxThreads()
                     - ((ManagedQueueExecutorService) realExecutor).getCurrentThreadCount();
@@ -58,4 +79,89 @@ public class StatisticsExecutorImpl implements StatisticsExecutor {
         }
         return 0L;
     }
+
+    /**
+     * @return the number of works submitted and waiting for a thread
+     */
+    public long getNumberOfQueuedWorks() {
+        return queued.sum();
+    }
+
+    /**
+     * @return the number of works which started running
+     */
+    public long getNumberOfStartedWorks() {
+        return started.sum();
+    }
+
+    /**
+     * @return the total time the started works waited for a thread, in nanoseconds
+     */
+    public long getTotalWaitTime() {
+        return waitTime.sum();
+    }
+
+    /**
+     * Clears the number of started works and their wait time.
+     */
+    public void clearStatistics() {
+        started.reset();
+        waitTime.reset();
+    }
+
+    /**
+     * Retrieves the executors of a work manager which are instances of this class, if any.
+     *
+     * @param wm the work manager
+     * @return the short and long running thread pools of the work manager keeping statistics
+     */
+    public static List<StatisticsExecutorImpl> getStatisticsExecutors(WorkManager wm) {
+        final List<StatisticsExecutorImpl> executors = new ArrayList<>(2);
+        if (wm instanceof WorkManagerImpl) {
+            final WorkManagerImpl wmImpl = (WorkManagerImpl) wm;
+            for (StatisticsExecutor executor : new StatisticsExecutor[] { wmImpl.getShortRunningThreadPool(), wmImpl.getLongRunningThreadPool() }) {
+                if (executor instanceof StatisticsExecutorImpl && !executors.contains(executor)) {
+                    executors.add((StatisticsExecutorImpl) executor);
+                }
+            }
+        }
+        return executors;
+    }
+
+    /**
+     * Computes the average time the works of a work manager waited for a thread.
+     *
+     * @param wm the work manager
+     * @return the average wait time, in milliseconds
+     */
+    public static long getAverageWaitTime(WorkManager wm) {
+        long started = 0L;
+        long waitTime = 0L;
+        for (StatisticsExecutorImpl executor : getStatisticsExecutors(wm)) {
+            started += executor.getNumberOfStartedWorks();
+            waitTime += executor.getTotalWaitTime();
+        }
+        return started > 0 ? TimeUnit.NANOSECONDS.toMillis(waitTime / started) : 0L;
+    }
+
+    /**
+     * A work submitted to the real executor, which records when it stops waiting for a thread.
+     */
+    private class QueuedRunnable implements Runnable {
+        private final Runnable runnable;
+        private final long queueTime;
+
+        QueuedRunnable(Runnable runnable, long queueTime) {
+            this.runnable = runnable;
+            this.queueTime = queueTime;
+        }
+
+        @Override
+        public void run() {
+            waitTime.add(System.nanoTime() - queueTime);
+            started.increment();
+            queued.decrement();
+            runnable.run();
+        }
+    }
 }
@@ -9,6 +9,7 @@ import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
 import static org.jboss.as.connector.subsystems.jca.Constants.DEFAULT_NAME;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.connector.security.ElytronSecurityIntegration;
 import org.jboss.as.connector.util.ConnectorServices;
@@ -38,6 +39,12 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
 
     private final InjectedValue<JBossContextXATerminator> xaTerminator = new InjectedValue<JBossContextXATerminator>();
 
+    private final InjectedValue<ThreadFactory> threadFactoryShort = new InjectedValue<>();
+
+    private volatile int queueLengthShort = Integer.MAX_VALUE;
+
+    private volatile WorkStealingExecutor workStealingExecutor;
+
     /**
      * create an instance
      *
@@ -58,13 +65,20 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
     public void start(StartContext context) throws StartException {
         ROOT_LOGGER.debugf("Starting Jakarta Connectors WorkManager: ", value.getName());
 
+        Executor shortRunning = executorShort.getValue();
+        if (WorkStealingExecutor.isEnabled(value.getName())) {
+            workStealingExecutor = new WorkStealingExecutor(value.getName(), WorkStealingExecutor.getMaxThreads(shortRunning), queueLengthShort, threadFactoryShort.getOptionalValue());
+            shortRunning = workStealingExecutor;
+        }
+
         Executor longRunning = executorLong.getOptionalValue();
         if (longRunning != null) {
-            this.value.setLongRunningThreadPool(longRunning);
-            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(executorShort.getValue()));
+            this.value.setLongRunningThreadPool(new StatisticsExecutorImpl(longRunning));
+            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(shortRunning));
         } else {
+            // long running works are never run by the work-stealing pool
             this.value.setLongRunningThreadPool(new StatisticsExecutorImpl(executorShort.getValue()));
-            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(executorShort.getValue()));
+            this.value.setShortRunningThreadPool(new StatisticsExecutorImpl(shortRunning));
 
         }
 
@@ -92,6 +106,11 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
         //shutting down immediately (synchronous method) the workmanager and release all works
         value.shutdown();
 
+        if (workStealingExecutor != null) {
+            workStealingExecutor.shutdown();
+            workStealingExecutor = null;
+        }
+
         if (value.getName().equals(DEFAULT_NAME)) {
             WorkManagerCoordinator.getInstance().setDefaultWorkManager(null);
         } else {
@@ -109,6 +128,19 @@ public final class WorkManagerService implements Service<NamedWorkManager> {
         return executorLong;
     }
 
+    public Injector<ThreadFactory> getThreadFactoryShortInjector() {
+        return threadFactoryShort;
+    }
+
+    /**
+     * Sets the queue length of the short running thread pool, which also bounds the works waiting in a work-stealing pool.
+     *
+     * @param queueLengthShort the queue length
+     */
+    public void setQueueLengthShort(int queueLengthShort) {
+        this.queueLengthShort = queueLengthShort;
+    }
+
     public Injector<JBossContextXATerminator> getXaTerminatorInjector() {
         return xaTerminator;
     }
@@ -0,0 +1,195 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.connector.services.workmanager;
+
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.connector.logging.ConnectorLogger;
+import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
+import org.jboss.as.threads.ManagedQueueExecutorService;
+import org.jboss.as.threads.ManagedQueuelessExecutorService;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A short running thread pool for a work manager, backed by a work-stealing {@link ForkJoinPool} in FIFO mode.
+ * <p>
+ * Each worker thread has its own queue, and idle workers steal works from the others, which avoids the contention and
+ * hand-off latency of the single queue of the JBoss threads executors, for resource adapters submitting many short works.
+ * Works expected to block for long should not be submitted to such a pool, long running works are thus never executed by it.
+ * <p>
+ * The work managers using it are listed by name, in the comma separated value of the {@value #WORK_STEALING_PROPERTY}
+ * system property. The parallelism of the pool is the max threads of the configured short running thread pool, and at most
+ * its queue length of works wait for a worker thread, further works are rejected with a {@link RejectedExecutionException},
+ * which the work manager reports as a {@code WorkRejectedException}. The worker threads take their priority and context class
+ * loader from the configured thread factory, and are created with the access control context of the work manager.
+ */
+public class WorkStealingExecutor implements Executor {
+
+    static final String WORK_STEALING_PROPERTY = "jboss.jca.workmanager.work-stealing";
+
+    private final String name;
+
+    private final ForkJoinPool pool;
+
+    private final int queueLength;
+
+    /**
+     * the max number of works running or waiting for a worker thread
+     */
+    private final long maxWorks;
+
+    /**
+     * the number of works running or waiting for a worker thread
+     */
+    private final AtomicLong works = new AtomicLong();
+
+    /**
+     * WorkStealingExecutor constructor
+     *
+     * @param name the name of the work manager, used to name the worker threads
+     * @param parallelism the number of worker threads
+     * @param queueLength the max number of works waiting for a worker thread
+     * @param threadFactory the thread factory of the configured short running thread pool, or null if unknown
+     */
+    public WorkStealingExecutor(String name, int parallelism, int queueLength, ThreadFactory threadFactory) {
+        this.name = name;
+        this.queueLength = queueLength;
+        this.maxWorks = (long) parallelism + queueLength;
+        this.pool = new ForkJoinPool(parallelism, new WorkerThreadFactory(name, threadFactory), null, true);
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        if (works.incrementAndGet() > maxWorks) {
+            works.decrementAndGet();
+            throw ConnectorLogger.ROOT_LOGGER.workStealingQueueFull(name, queueLength);
+        }
+        try {
+            pool.execute(new WorkRunnable(runnable));
+        } catch (RuntimeException | Error e) {
+            works.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of worker threads not running a work
+     */
+    public long getNumberOfFreeThreads() {
+        return Math.max(0L, (long) pool.getParallelism() - pool.getActiveThreadCount());
+    }
+
+    /**
+     * Shuts down the pool, interrupting the works running.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param workManagerName the name of a work manager
+     * @return true if the work manager with the specified name should use a work-stealing short running thread pool
+     */
+    public static boolean isEnabled(String workManagerName) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(WORK_STEALING_PROPERTY, null);
+        if (value != null) {
+            for (String name : value.split(",")) {
+                if (name.trim().equals(workManagerName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param executor the configured short running thread pool
+     * @return the max threads of the specified thread pool, or the number of processors if unknown
+     */
+    static int getMaxThreads(Executor executor) {
+        int maxThreads = 0;
+        if (executor instanceof ManagedQueueExecutorService) {
+            maxThreads = ((ManagedQueueExecutorService) executor).getMaxThreads();
+        } else if (executor instanceof ManagedJBossThreadPoolExecutorService) {
+            maxThreads = ((ManagedJBossThreadPoolExecutorService) executor).getMaxThreads();
+        } else if (executor instanceof ManagedQueuelessExecutorService) {
+            maxThreads = ((ManagedQueuelessExecutorService) executor).getMaxThreads();
+        }
+        return maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * A work submitted to the pool, which is no longer counted once done.
+     */
+    private class WorkRunnable implements Runnable {
+        private final Runnable runnable;
+
+        WorkRunnable(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                runnable.run();
+            } finally {
+                works.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Creates the worker threads of the pool, with the settings of the configured thread factory.
+     */
+    private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final String name;
+        private final AtomicInteger threadCount = new AtomicInteger();
+        private final AccessControlContext accessControlContext;
+        private final int priority;
+        private final ClassLoader contextClassLoader;
+
+        WorkerThreadFactory(String name, ThreadFactory threadFactory) {
+            this.name = name;
+            // worker threads are created by the threads submitting works, use the work manager's ACC instead of theirs
+            this.accessControlContext = AccessController.getContext();
+            if (threadFactory != null) {
+                // a thread of the configured factory, never started, provides the settings of the worker threads
+                final Thread thread = threadFactory.newThread(() -> { });
+                this.priority = thread.getPriority();
+                this.contextClassLoader = AccessController.doPrivileged((PrivilegedAction<ClassLoader>) thread::getContextClassLoader);
+            } else {
+                this.priority = Thread.NORM_PRIORITY;
+                this.contextClassLoader = null;
+            }
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            return AccessController.doPrivileged((PrivilegedAction<ForkJoinWorkerThread>) () -> {
+                final ForkJoinWorkerThread thread = new WorkerThread(pool);
+                thread.setName(name + "-work-stealing-" + threadCount.incrementAndGet());
+                thread.setPriority(priority);
+                thread.setContextClassLoader(contextClassLoader);
+                return thread;
+            }, accessControlContext);
+        }
+    }
+
+    private static final class WorkerThread extends ForkJoinWorkerThread {
+        WorkerThread(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+}
@@ -87,6 +87,9 @@ public class WorkManagerStatisticsService implements Service<ManagementResourceR
                 for (SimpleAttributeDefinition metric : Constants.WORKMANAGER_METRICS) {
                     wmSubRegistration.registerMetric(metric, metricHandler);
                 }
+                for (SimpleAttributeDefinition metric : Constants.WORKMANAGER_EXECUTOR_METRICS) {
+                    wmSubRegistration.registerMetric(metric, metricHandler);
+                }
 
                 OperationStepHandler readHandler = new WorkManagerRuntimeAttributeReadHandler(wm, wm.getStatistics(), false);
                 OperationStepHandler writeHandler = new WorkManagerRuntimeAttributeWriteHandler(wm, false, Constants.WORKMANAGER_RW_ATTRIBUTES);
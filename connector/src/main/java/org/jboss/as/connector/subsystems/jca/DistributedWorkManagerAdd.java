@@ -10,9 +10,11 @@ import static org.jboss.as.connector.subsystems.jca.Constants.WORKMANAGER_SHORT_
 
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.connector.services.workmanager.DistributedWorkManagerService;
 import org.jboss.as.connector.services.workmanager.NamedDistributedWorkManager;
+import org.jboss.as.connector.services.workmanager.WorkStealingExecutor;
 import org.jboss.as.connector.services.workmanager.statistics.DistributedWorkManagerStatisticsService;
 import org.jboss.as.connector.services.workmanager.statistics.WorkManagerStatisticsService;
 import org.jboss.as.connector.subsystems.resourceadapters.IronJacamarResource;
@@ -134,6 +136,11 @@ public class DistributedWorkManagerAdd extends AbstractAddStepHandler {
             builder.addDependency(ThreadsServices.EXECUTOR.append(WORKMANAGER_LONG_RUNNING).append(name), Executor.class, wmService.getExecutorLongInjector());
         }
         builder.addDependency(ThreadsServices.EXECUTOR.append(WORKMANAGER_SHORT_RUNNING).append(name), Executor.class, wmService.getExecutorShortInjector());
+        if (WorkStealingExecutor.isEnabled(name)) {
+            final ModelNode shortRunning = WorkManagerAdd.getShortRunningThreadPoolModel(resource, name);
+            wmService.setQueueLengthShort(WorkManagerAdd.resolveQueueLength(context, shortRunning));
+            builder.addDependency(WorkManagerAdd.getThreadFactoryServiceName(shortRunning, name), ThreadFactory.class, wmService.getThreadFactoryShortInjector());
+        }
 
         builder.addDependency(TxnServices.JBOSS_TXN_CONTEXT_XA_TERMINATOR, JBossContextXATerminator.class, wmService.getXaTerminatorInjector())
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
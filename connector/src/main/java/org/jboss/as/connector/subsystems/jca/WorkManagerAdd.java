@@ -8,9 +8,11 @@ import static org.jboss.as.connector.subsystems.jca.Constants.WORKMANAGER_LONG_R
 import static org.jboss.as.connector.subsystems.jca.Constants.WORKMANAGER_SHORT_RUNNING;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.connector.services.workmanager.NamedWorkManager;
 import org.jboss.as.connector.services.workmanager.WorkManagerService;
+import org.jboss.as.connector.services.workmanager.WorkStealingExecutor;
 import org.jboss.as.connector.services.workmanager.statistics.WorkManagerStatisticsService;
 import org.jboss.as.connector.subsystems.resourceadapters.IronJacamarResource;
 import org.jboss.as.connector.util.ConnectorServices;
@@ -19,6 +21,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.threads.CommonAttributes;
 import org.jboss.as.threads.ThreadsServices;
 import org.jboss.as.txn.integration.JBossContextXATerminator;
 import org.jboss.as.txn.service.TxnServices;
@@ -26,6 +29,7 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.jca.core.api.workmanager.WorkManager;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 
 /**
@@ -57,6 +61,11 @@ public class WorkManagerAdd extends AbstractAddStepHandler {
             builder.addDependency(ThreadsServices.EXECUTOR.append(WORKMANAGER_LONG_RUNNING).append(name), Executor.class, wmService.getExecutorLongInjector());
         }
         builder.addDependency(ThreadsServices.EXECUTOR.append(WORKMANAGER_SHORT_RUNNING).append(name), Executor.class, wmService.getExecutorShortInjector());
+        if (WorkStealingExecutor.isEnabled(name)) {
+            final ModelNode shortRunning = getShortRunningThreadPoolModel(resource, name);
+            wmService.setQueueLengthShort(resolveQueueLength(context, shortRunning));
+            builder.addDependency(getThreadFactoryServiceName(shortRunning, name), ThreadFactory.class, wmService.getThreadFactoryShortInjector());
+        }
 
         builder.addDependency(TxnServices.JBOSS_TXN_CONTEXT_XA_TERMINATOR, JBossContextXATerminator.class, wmService.getXaTerminatorInjector())
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
@@ -76,4 +85,36 @@ public class WorkManagerAdd extends AbstractAddStepHandler {
             resource.registerChild(peLocaldWm, wmResource);
 
     }
+
+    /**
+     * @param resource the work manager resource
+     * @param name the work manager name
+     * @return the model of the short running thread pool of the work manager, undefined if there is none
+     */
+    static ModelNode getShortRunningThreadPoolModel(Resource resource, String name) {
+        final PathElement path = PathElement.pathElement(WORKMANAGER_SHORT_RUNNING, name);
+        return resource.hasChild(path) ? resource.getChild(path).getModel() : new ModelNode();
+    }
+
+    /**
+     * @param context the operation context
+     * @param threadPool the model of a bounded queue thread pool
+     * @return the queue length of the thread pool, unbounded if not defined
+     */
+    static int resolveQueueLength(OperationContext context, ModelNode threadPool) throws OperationFailedException {
+        return context.resolveExpressions(threadPool.get(CommonAttributes.QUEUE_LENGTH)).asInt(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param threadPool the model of the short running thread pool of a work manager
+     * @param name the work manager name
+     * @return the name of the service providing the thread factory of the thread pool
+     */
+    static ServiceName getThreadFactoryServiceName(ModelNode threadPool, String name) {
+        if (threadPool.hasDefined(CommonAttributes.THREAD_FACTORY)) {
+            return ThreadsServices.threadFactoryName(threadPool.get(CommonAttributes.THREAD_FACTORY).asString());
+        }
+        // the thread factory installed by the thread pool, when none is configured
+        return ThreadsServices.EXECUTOR.append(WORKMANAGER_SHORT_RUNNING).append(name).append("thread-factory");
+    }
 }
@@ -657,6 +657,10 @@ public class Constants {
 
     static final String START_WORK_REJECTED_NAME = "startwork-rejected";
 
+    static final String WORK_QUEUED_NAME = "work-queued";
+
+    static final String WORK_AVERAGE_WAIT_TIME_NAME = "work-average-wait-time";
+
 
     static SimpleAttributeDefinition WORK_ACTIVE = new SimpleAttributeDefinitionBuilder(WORK_ACTIVE_NAME, ModelType.INT)
             .setStorageRuntime()
@@ -704,9 +708,26 @@ public class Constants {
             .build();
 
 
+    static SimpleAttributeDefinition WORK_QUEUED = new SimpleAttributeDefinitionBuilder(WORK_QUEUED_NAME, ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .build();
+
+    static SimpleAttributeDefinition WORK_AVERAGE_WAIT_TIME = new SimpleAttributeDefinitionBuilder(WORK_AVERAGE_WAIT_TIME_NAME, ModelType.LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+
     public static final SimpleAttributeDefinition[] WORKMANAGER_METRICS = new SimpleAttributeDefinition[]{WORK_ACTIVE, WORK_SUCCESSFUL, WORK_FAILED, DO_WORK_ACCEPTED,
             DO_WORK_REJECTED, SCHEDULED_WORK_ACCEPTED, SCHEDULED_WORK_REJECTED, START_WORK_ACCEPTED, START_WORK_REJECTED};
 
+    /**
+     * the metrics of the thread pools of a local work manager
+     */
+    public static final SimpleAttributeDefinition[] WORKMANAGER_EXECUTOR_METRICS = new SimpleAttributeDefinition[]{WORK_QUEUED, WORK_AVERAGE_WAIT_TIME};
+
     public static final String WORKMANAGER_STATISTICS_ENABLED_NAME = "workmanager-statistics-enabled";
     public static final SimpleAttributeDefinition WORKMANAGER_STATISTICS_ENABLED = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.STATISTICS_ENABLED, ModelType.BOOLEAN)
             .setStorageRuntime()
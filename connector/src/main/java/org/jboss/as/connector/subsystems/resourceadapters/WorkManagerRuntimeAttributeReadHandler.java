@@ -6,6 +6,7 @@
 package org.jboss.as.connector.subsystems.resourceadapters;
 
 import org.jboss.as.connector.logging.ConnectorLogger;
+import org.jboss.as.connector.services.workmanager.StatisticsExecutorImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -75,6 +76,18 @@ public class WorkManagerRuntimeAttributeReadHandler implements OperationStepHand
                                 result.set(wmStat.getStartWorkRejected());
                                 break;
                             }
+                            case Constants.WORK_QUEUED_NAME: {
+                                long queued = 0L;
+                                for (StatisticsExecutorImpl executor : StatisticsExecutorImpl.getStatisticsExecutors(wm)) {
+                                    queued += executor.getNumberOfQueuedWorks();
+                                }
+                                result.set(queued);
+                                break;
+                            }
+                            case Constants.WORK_AVERAGE_WAIT_TIME_NAME: {
+                                result.set(StatisticsExecutorImpl.getAverageWaitTime(wm));
+                                break;
+                            }
                             case ModelDescriptionConstants.STATISTICS_ENABLED: {
                                 if (distributed) {
                                     result.set(((DistributedWorkManager) wm).isDistributedStatisticsEnabled());
@@ -0,0 +1,77 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.connector.services.workmanager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for the statistics of {@link StatisticsExecutorImpl}, backed by a {@link WorkStealingExecutor}.
+ */
+public class StatisticsExecutorImplTestCase {
+
+    @Test
+    public void testStatistics() throws InterruptedException {
+        WorkStealingExecutor workStealingExecutor = new WorkStealingExecutor("test", 1, Integer.MAX_VALUE, null);
+        try {
+            StatisticsExecutorImpl executor = new StatisticsExecutorImpl(workStealingExecutor);
+            Assert.assertEquals(1L, executor.getNumberOfFreeThreads());
+
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch completed = new CountDownLatch(3);
+            executor.execute(() -> {
+                running.countDown();
+                await(release);
+                completed.countDown();
+            });
+            Assert.assertTrue(running.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(0L, executor.getNumberOfFreeThreads());
+
+            // the only thread is busy, so these works wait
+            executor.execute(completed::countDown);
+            executor.execute(completed::countDown);
+            Assert.assertEquals(2L, executor.getNumberOfQueuedWorks());
+
+            release.countDown();
+            Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(0L, executor.getNumberOfQueuedWorks());
+            Assert.assertEquals(3L, executor.getNumberOfStartedWorks());
+            Assert.assertTrue(executor.getTotalWaitTime() > 0L);
+
+            executor.clearStatistics();
+            Assert.assertEquals(0L, executor.getNumberOfStartedWorks());
+            Assert.assertEquals(0L, executor.getTotalWaitTime());
+        } finally {
+            workStealingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedWorkIsNotQueued() {
+        StatisticsExecutorImpl executor = new StatisticsExecutorImpl(runnable -> {
+            throw new RejectedExecutionException();
+        });
+        try {
+            executor.execute(() -> { });
+            Assert.fail();
+        } catch (RejectedExecutionException expected) {
+            Assert.assertEquals(0L, executor.getNumberOfQueuedWorks());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.connector.services.workmanager;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for the queue bound and the worker threads of {@link WorkStealingExecutor}.
+ */
+public class WorkStealingExecutorTestCase {
+
+    @Test
+    public void testQueueLength() throws InterruptedException {
+        WorkStealingExecutor executor = new WorkStealingExecutor("test", 1, 2, null);
+        try {
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch completed = new CountDownLatch(4);
+            executor.execute(() -> {
+                running.countDown();
+                await(release);
+                completed.countDown();
+            });
+            Assert.assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            // the only thread is busy, so these works wait, up to the queue length
+            executor.execute(completed::countDown);
+            executor.execute(completed::countDown);
+            try {
+                executor.execute(completed::countDown);
+                Assert.fail();
+            } catch (RejectedExecutionException expected) {
+            }
+
+            release.countDown();
+            Assert.assertFalse(completed.await(100, TimeUnit.MILLISECONDS));
+            Assert.assertEquals(1L, completed.getCount());
+
+            // works are accepted again once the queue drained
+            executor.execute(completed::countDown);
+            Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testThreadFactory() throws InterruptedException {
+        ClassLoader loader = new URLClassLoader(new URL[0]);
+        WorkStealingExecutor executor = new WorkStealingExecutor("test", 1, Integer.MAX_VALUE, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.setContextClassLoader(loader);
+            return thread;
+        });
+        try {
+            AtomicReference<Thread> worker = new AtomicReference<>();
+            AtomicReference<ClassLoader> workerLoader = new AtomicReference<>();
+            CountDownLatch completed = new CountDownLatch(1);
+            executor.execute(() -> {
+                worker.set(Thread.currentThread());
+                workerLoader.set(Thread.currentThread().getContextClassLoader());
+                completed.countDown();
+            });
+            Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals("test-work-stealing-1", worker.get().getName());
+            Assert.assertEquals(Thread.MIN_PRIORITY, worker.get().getPriority());
+            Assert.assertSame(loader, workerLoader.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
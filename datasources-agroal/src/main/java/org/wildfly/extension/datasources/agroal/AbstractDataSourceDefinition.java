@@ -35,6 +35,7 @@ import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ParameterValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.security.CredentialReference;
 import org.jboss.dmr.ModelNode;
@@ -298,6 +299,46 @@ abstract class AbstractDataSourceDefinition extends PersistentResourceDefinition
             .setStorageRuntime()
             .build();
 
+    // --- Metrics of the statements, available when a prepared statement cache or a slow statement threshold is configured //
+
+    static final SimpleAttributeDefinition PREPARED_STATEMENT_CACHE_HIT_COUNT_ATTRIBUTE = create("prepared-statement-cache-hit-count", ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition PREPARED_STATEMENT_CACHE_MISS_COUNT_ATTRIBUTE = create("prepared-statement-cache-miss-count", ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition PREPARED_STATEMENT_CACHE_EVICTION_COUNT_ATTRIBUTE = create("prepared-statement-cache-eviction-count", ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STATEMENT_EXECUTION_COUNT_ATTRIBUTE = create("statement-execution-count", ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STATEMENT_EXECUTION_TIME_TOTAL_ATTRIBUTE = create("statement-execution-time-total-ms", ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STATEMENT_EXECUTION_TIME_MAX_ATTRIBUTE = create("statement-execution-time-max-ms", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition SLOW_STATEMENT_COUNT_ATTRIBUTE = create("slow-statement-count", ModelType.LONG)
+            .setFlags(AttributeAccess.Flag.COUNTER_METRIC)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition[] STATEMENT_METRICS = { PREPARED_STATEMENT_CACHE_HIT_COUNT_ATTRIBUTE, PREPARED_STATEMENT_CACHE_MISS_COUNT_ATTRIBUTE, PREPARED_STATEMENT_CACHE_EVICTION_COUNT_ATTRIBUTE, STATEMENT_EXECUTION_COUNT_ATTRIBUTE, STATEMENT_EXECUTION_TIME_TOTAL_ATTRIBUTE, STATEMENT_EXECUTION_TIME_MAX_ATTRIBUTE, SLOW_STATEMENT_COUNT_ATTRIBUTE };
+
     private static final ObjectTypeAttributeDefinition STATISTICS = ObjectTypeAttributeDefinition.create("statistics", STATISTICS_ACQUIRE_COUNT_ATTRIBUTE, STATISTICS_ACTIVE_COUNT_ATTRIBUTE, STATISTICS_AVAILABLE_COUNT_ATTRIBUTE, STATISTICS_AWAITING_COUNT_ATTRIBUTE, STATISTICS_CREATION_COUNT_ATTRIBUTE, STATISTICS_DESTOY_COUNT_ATTRIBUTE, STATISTICS_FLUSH_COUNT_ATTRIBUTE, STATISTICS_INVALID_COUNT_ATTRIBUTE, STATISTICS_LEAK_DETECTION_COUNT_ATTRIBUTE, STATISTICS_MAX_USED_COUNT_ATTRIBUTE, STATISTICS_REAP_COUNT_ATTRIBUTE, STATISTICS_BLOCKING_TIME_AVERAGE_ATTRIBUTE, STATISTICS_BLOCKING_TIME_MAX_ATTRIBUTE, STATISTICS_BLOCKING_TIME_TOTAL_ATTRIBUTE, STATISTICS_CREATION_TIME_AVERAGE_ATTRIBUTE, STATISTICS_CREATION_TIME_MAX_ATTRIBUTE, STATISTICS_CREATION_TIME_TOTAL_ATTRIBUTE)
             .setRequired(false)
             .setStorageRuntime()
@@ -337,6 +378,9 @@ abstract class AbstractDataSourceDefinition extends PersistentResourceDefinition
         // Runtime attributes
         if (resourceRegistration.getProcessType().isServer()) {
             resourceRegistration.registerReadOnlyAttribute(STATISTICS, AbstractDataSourceOperations.STATISTICS_GET_OPERATION);
+            for (AttributeDefinition metric : STATEMENT_METRICS) {
+                resourceRegistration.registerMetric(metric, AbstractDataSourceOperations.STATEMENT_METRIC_GET_OPERATION);
+            }
         }
     }
 
@@ -39,6 +39,7 @@ import java.util.function.Supplier;
 import static io.agroal.api.configuration.AgroalConnectionPoolConfiguration.ConnectionValidator.defaultValidator;
 import static java.time.Duration.ofMillis;
 import static java.time.Duration.ofMinutes;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 
 /**
  * Operations common to XA and non-XA DataSources
@@ -70,6 +71,8 @@ class AbstractDataSourceOperations {
 
     static final OperationStepHandler TEST_CONNECTION_OPERATION = new TestConnectionOperation();
 
+    static final OperationStepHandler STATEMENT_METRIC_GET_OPERATION = new StatementMetricGetOperation();
+
     // --- //
 
     protected static AgroalConnectionFactoryConfigurationSupplier connectionFactoryConfiguration(OperationContext context, ModelNode model) throws OperationFailedException {
@@ -297,12 +300,49 @@ class AbstractDataSourceOperations {
         }
     }
 
+    private static class StatementMetricGetOperation implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            if (context.isNormalServer()) {
+                StatementStatistics statistics = StatementCachingDataSource.getStatistics(getDataSource(context));
+                if (statistics == null) {
+                    // no statement is cached nor timed
+                    context.getResult().set(0L);
+                    return;
+                }
+
+                String attributeName = operation.require(NAME).asString();
+                if (AbstractDataSourceDefinition.PREPARED_STATEMENT_CACHE_HIT_COUNT_ATTRIBUTE.getName().equals(attributeName)) {
+                    context.getResult().set(statistics.getCacheHitCount());
+                } else if (AbstractDataSourceDefinition.PREPARED_STATEMENT_CACHE_MISS_COUNT_ATTRIBUTE.getName().equals(attributeName)) {
+                    context.getResult().set(statistics.getCacheMissCount());
+                } else if (AbstractDataSourceDefinition.PREPARED_STATEMENT_CACHE_EVICTION_COUNT_ATTRIBUTE.getName().equals(attributeName)) {
+                    context.getResult().set(statistics.getCacheEvictionCount());
+                } else if (AbstractDataSourceDefinition.STATEMENT_EXECUTION_COUNT_ATTRIBUTE.getName().equals(attributeName)) {
+                    context.getResult().set(statistics.getExecutionCount());
+                } else if (AbstractDataSourceDefinition.STATEMENT_EXECUTION_TIME_TOTAL_ATTRIBUTE.getName().equals(attributeName)) {
+                    context.getResult().set(statistics.getExecutionTimeTotal());
+                } else if (AbstractDataSourceDefinition.STATEMENT_EXECUTION_TIME_MAX_ATTRIBUTE.getName().equals(attributeName)) {
+                    context.getResult().set(statistics.getExecutionTimeMax());
+                } else if (AbstractDataSourceDefinition.SLOW_STATEMENT_COUNT_ATTRIBUTE.getName().equals(attributeName)) {
+                    context.getResult().set(statistics.getSlowExecutionCount());
+                }
+            }
+        }
+    }
+
     private static class ResetStatisticsOperation implements OperationStepHandler {
 
         @Override
         public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
             if (context.isNormalServer()) {
-                getDataSource(context).getMetrics().reset();
+                AgroalDataSource dataSource = getDataSource(context);
+                dataSource.getMetrics().reset();
+                StatementStatistics statistics = StatementCachingDataSource.getStatistics(dataSource);
+                if (statistics != null) {
+                    statistics.reset();
+                }
             }
         }
     }
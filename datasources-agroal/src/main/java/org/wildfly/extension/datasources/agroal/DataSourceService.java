@@ -168,7 +168,12 @@ public class DataSourceService implements Service<AgroalDataSource>, Supplier<Ag
         }
 
         try {
-            agroalDataSource = AgroalDataSource.from(dataSourceConfiguration, new LoggingDataSourceListener(dataSourceName));
+            StatementCachingDataSource statementCachingDataSource = StatementCachingDataSource.create(dataSourceName);
+            if (statementCachingDataSource != null) {
+                agroalDataSource = statementCachingDataSource.wrap(AgroalDataSource.from(dataSourceConfiguration, new LoggingDataSourceListener(dataSourceName), statementCachingDataSource));
+            } else {
+                agroalDataSource = AgroalDataSource.from(dataSourceConfiguration, new LoggingDataSourceListener(dataSourceName));
+            }
 
             ContextNames.BindInfo bindInfo = ContextNames.bindInfoFor(jndiName);
             BinderService binderService = new BinderService(bindInfo.getBindName());
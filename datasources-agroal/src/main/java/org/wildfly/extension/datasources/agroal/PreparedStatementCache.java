@@ -0,0 +1,112 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.datasources.agroal;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wildfly.extension.datasources.agroal.logging.AgroalLogger;
+
+/**
+ * LRU cache of the prepared statements of a physical connection.
+ * <p>
+ * Only the statements not in use are held by the cache: a statement is removed from it when handed out to an application,
+ * and put back when the application closes it. When the cache is full, the least recently used statement is closed.
+ */
+class PreparedStatementCache {
+
+    private final Map<List<Object>, PreparedStatement> statements;
+    private final StatementStatistics statistics;
+
+    PreparedStatementCache(int maxSize, StatementStatistics statistics) {
+        this.statistics = statistics;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    statistics.cacheEviction();
+                    close(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Takes a statement out of the cache.
+     *
+     * @param key the SQL and the options of the statement
+     * @return the cached statement, or null if there is none not in use
+     */
+    synchronized PreparedStatement acquire(List<Object> key) {
+        PreparedStatement statement = statements.remove(key);
+        if (statement != null) {
+            statistics.cacheHit();
+        } else {
+            statistics.cacheMiss();
+        }
+        return statement;
+    }
+
+    /**
+     * Puts a statement closed by the application back in the cache.
+     *
+     * @param key the SQL and the options of the statement
+     * @param statement the statement
+     * @param batched whether rows were added to the batch of the statement
+     */
+    void release(List<Object> key, PreparedStatement statement, boolean batched) {
+        try {
+            statement.clearParameters();
+            statement.clearWarnings();
+            if (batched) {
+                // the rows not executed would otherwise be executed by the next application borrowing the statement
+                statement.clearBatch();
+            }
+            ResultSet resultSet = statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        } catch (SQLException e) {
+            close(statement);
+            return;
+        }
+        PreparedStatement previous;
+        synchronized (this) {
+            previous = statements.put(key, statement);
+        }
+        if (previous != null && previous != statement) {
+            // the same statement was prepared twice while in use, keep only one
+            close(previous);
+        }
+    }
+
+    /**
+     * Closes all the statements held by the cache.
+     */
+    void clear() {
+        PreparedStatement[] cached;
+        synchronized (this) {
+            cached = statements.values().toArray(new PreparedStatement[0]);
+            statements.clear();
+        }
+        for (PreparedStatement statement : cached) {
+            close(statement);
+        }
+    }
+
+    private static void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            AgroalLogger.POOL_LOGGER.debug("Failed to close cached prepared statement", e);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.datasources.agroal;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceListener;
+import org.wildfly.extension.datasources.agroal.logging.AgroalLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps an Agroal DataSource to cache the prepared statements of its physical connections, and to time the statements
+ * executed on them while statistics are enabled.
+ * <p>
+ * The size of the LRU cache of each connection is set by the {@value #CACHE_SIZE_PROPERTY}{@code .<datasource-name>} system
+ * property, and the execution time above which a statement is counted as slow, in milliseconds, by the
+ * {@value #SLOW_THRESHOLD_PROPERTY}{@code .<datasource-name>} system property. A DataSource is wrapped only if one of them is set.
+ * <p>
+ * Cached statements are prepared on the physical connection, so that the pool does not close them when the connection is returned.
+ * The statements an application did not close are put back in the cache when it closes the connection, with the settings it
+ * changed restored. The physical connection and statements are never handed out, neither by the statements, result sets or
+ * database metadata.
+ */
+class StatementCachingDataSource implements InvocationHandler, AgroalDataSourceListener {
+
+    static final String CACHE_SIZE_PROPERTY = "jboss.agroal.prepared-statement-cache-size";
+    static final String SLOW_THRESHOLD_PROPERTY = "jboss.agroal.slow-statement-threshold";
+
+    private static final long DEFAULT_SLOW_THRESHOLD = 1000L;
+
+    // the setters of the statement settings, with the getters of their value
+    private static final Map<Method, Method> SETTINGS = getSettings();
+
+    private final String dataSourceName;
+    private final int cacheSize;
+    private final StatementStatistics statistics;
+    // the caches of the physical connections created by the pool
+    private final Map<Connection, PreparedStatementCache> caches = new ConcurrentHashMap<>();
+    private volatile AgroalDataSource dataSource;
+
+    private StatementCachingDataSource(String dataSourceName, int cacheSize, long slowThreshold) {
+        this.dataSourceName = dataSourceName;
+        this.cacheSize = cacheSize;
+        this.statistics = new StatementStatistics(slowThreshold);
+    }
+
+    /**
+     * @param dataSourceName the name of the DataSource
+     * @return the wrapper of the DataSource with the specified name, to be registered as a listener of its pool, or null if it does not need one
+     */
+    static StatementCachingDataSource create(String dataSourceName) {
+        String cacheSize = WildFlySecurityManager.getPropertyPrivileged(CACHE_SIZE_PROPERTY + '.' + dataSourceName, null);
+        String slowThreshold = WildFlySecurityManager.getPropertyPrivileged(SLOW_THRESHOLD_PROPERTY + '.' + dataSourceName, null);
+        if (cacheSize == null && slowThreshold == null) {
+            return null;
+        }
+        return new StatementCachingDataSource(dataSourceName,
+                cacheSize != null ? Integer.parseInt(cacheSize.trim()) : 0,
+                slowThreshold != null ? Long.parseLong(slowThreshold.trim()) : DEFAULT_SLOW_THRESHOLD);
+    }
+
+    /**
+     * @param dataSource the Agroal DataSource, created with this object as a listener
+     * @return the wrapped DataSource
+     */
+    AgroalDataSource wrap(AgroalDataSource dataSource) {
+        this.dataSource = dataSource;
+        return (AgroalDataSource) Proxy.newProxyInstance(StatementCachingDataSource.class.getClassLoader(), new Class<?>[] { AgroalDataSource.class }, this);
+    }
+
+    /**
+     * @param dataSource a DataSource
+     * @return the statement statistics of the DataSource, or null if it is not wrapped
+     */
+    static StatementStatistics getStatistics(AgroalDataSource dataSource) {
+        if (dataSource != null && Proxy.isProxyClass(dataSource.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(dataSource);
+            if (handler instanceof StatementCachingDataSource) {
+                return ((StatementCachingDataSource) handler).statistics;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "getConnection":
+                return new ConnectionHandler((Connection) delegate(dataSource, method, args)).proxy;
+            case "close":
+                delegate(dataSource, method, args);
+                caches.clear();
+                return null;
+            default:
+                return delegate(dataSource, method, args);
+        }
+    }
+
+    @Override
+    public void onConnectionCreation(Connection connection) {
+        if (cacheSize > 0) {
+            caches.put(connection, new PreparedStatementCache(cacheSize, statistics));
+        }
+    }
+
+    @Override
+    public void onConnectionDestroy(Connection connection) {
+        PreparedStatementCache cache = caches.remove(connection);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Map<Method, Method> getSettings() {
+        Map<Method, Method> settings = new HashMap<>();
+        for (Method setter : Statement.class.getMethods()) {
+            String name = setter.getName();
+            if (name.startsWith("set") && setter.getParameterCount() == 1) {
+                for (String getter : new String[] { "get" + name.substring(3), "is" + name.substring(3) }) {
+                    try {
+                        settings.put(setter, Statement.class.getMethod(getter));
+                        break;
+                    } catch (NoSuchMethodException e) {
+                        // try the next one
+                    }
+                }
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * @param resultSet a result set of the driver, or null
+     * @param statement the statement handed out to the application which created the result set, or null if created by the metadata
+     * @return the result set to hand out to the application
+     */
+    private static ResultSet wrap(ResultSet resultSet, Object statement) {
+        if (resultSet == null) {
+            return null;
+        }
+        return (ResultSet) Proxy.newProxyInstance(StatementCachingDataSource.class.getClassLoader(), new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getStatement":
+                    return statement;
+                default:
+                    return delegate(resultSet, method, args);
+            }
+        });
+    }
+
+    private static boolean isCacheable(Object[] args) {
+        // the variants with column indexes or names are not cached
+        for (Object arg : args) {
+            if (!(arg instanceof String) && !(arg instanceof Integer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A connection handed out to an application
+     */
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final Connection proxy;
+        private final List<StatementHandler> leased = new ArrayList<>();
+        private Connection physicalConnection;
+        private PreparedStatementCache cache;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+            this.proxy = (Connection) Proxy.newProxyInstance(StatementCachingDataSource.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                    if (cacheSize > 0 && isCacheable(args) && getCache() != null) {
+                        return prepareCached(method, args);
+                    }
+                    // fall through
+                case "prepareCall":
+                case "createStatement":
+                    Statement statement = (Statement) delegate(connection, method, args);
+                    return new StatementHandler(method.getReturnType(), statement, args != null && args[0] instanceof String ? (String) args[0] : null, null).proxy;
+                case "getMetaData":
+                    return wrap((DatabaseMetaData) delegate(connection, method, args));
+                case "close":
+                    for (StatementHandler handler : leased.toArray(new StatementHandler[0])) {
+                        handler.release();
+                    }
+                    // fall through
+                default:
+                    return delegate(connection, method, args);
+            }
+        }
+
+        private DatabaseMetaData wrap(DatabaseMetaData metaData) {
+            return (DatabaseMetaData) Proxy.newProxyInstance(StatementCachingDataSource.class.getClassLoader(), new Class<?>[] { DatabaseMetaData.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "getConnection":
+                        return this.proxy;
+                    default:
+                        Object result = delegate(metaData, method, args);
+                        return method.getReturnType() == ResultSet.class ? StatementCachingDataSource.wrap((ResultSet) result, null) : result;
+                }
+            });
+        }
+
+        private PreparedStatementCache getCache() {
+            if (physicalConnection == null) {
+                try {
+                    physicalConnection = connection.unwrap(Connection.class);
+                } catch (SQLException e) {
+                    AgroalLogger.POOL_LOGGER.debugv("{0}: Unable to unwrap connection {1}", dataSourceName, connection);
+                }
+                if (physicalConnection == null) {
+                    physicalConnection = connection;
+                }
+                // only the physical connections created by the pool have a cache
+                cache = caches.get(physicalConnection);
+            }
+            return cache;
+        }
+
+        private Object prepareCached(Method method, Object[] args) throws Throwable {
+            // goes through the pool connection, which checks it is still open and enlisted in the current transaction
+            connection.getAutoCommit();
+
+            List<Object> key = Arrays.asList(args.clone());
+            PreparedStatement statement = cache.acquire(key);
+            if (statement == null) {
+                statement = (PreparedStatement) delegate(physicalConnection, method, args);
+            }
+            StatementHandler handler = new StatementHandler(method.getReturnType(), statement, (String) args[0], key);
+            leased.add(handler);
+            return handler.proxy;
+        }
+
+        /**
+         * A statement handed out to an application
+         */
+        private class StatementHandler implements InvocationHandler {
+
+            private final Statement statement;
+            private final Object proxy;
+            private final String sql;
+            // the key of a cached statement, null if the statement is not cached
+            private final List<Object> key;
+            private boolean closed;
+            private boolean discard;
+            private boolean batched;
+            // the settings changed by the application, with their values to restore before the statement is cached again
+            private Map<Method, Object> settings;
+
+            StatementHandler(Class<?> type, Statement statement, String sql, List<Object> key) {
+                this.statement = statement;
+                this.sql = sql;
+                this.key = key;
+                this.proxy = Proxy.newProxyInstance(StatementCachingDataSource.class.getClassLoader(), new Class<?>[] { type }, this);
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                switch (name) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "getConnection":
+                        return ConnectionHandler.this.proxy;
+                    case "close":
+                        if (key != null) {
+                            release();
+                            return null;
+                        }
+                        break;
+                    case "isClosed":
+                        if (closed) {
+                            return true;
+                        }
+                        break;
+                    case "closeOnCompletion":
+                        // the driver would close the statement once its results are consumed, so it cannot be cached
+                        discard = true;
+                        break;
+                    case "addBatch":
+                        batched = true;
+                        break;
+                    default:
+                        if (closed) {
+                            throw new SQLException("Statement is closed");
+                        }
+                        if (key != null && name.startsWith("set") && method.getDeclaringClass() == Statement.class) {
+                            change(method);
+                        }
+                        if (name.startsWith("execute") && dataSource.getConfiguration().metricsEnabled()) {
+                            return wrap(method, execute(method, args));
+                        }
+                }
+                return wrap(method, delegate(statement, method, args));
+            }
+
+            private Object wrap(Method method, Object result) {
+                return method.getReturnType() == ResultSet.class ? StatementCachingDataSource.wrap((ResultSet) result, proxy) : result;
+            }
+
+            private void change(Method setter) throws Throwable {
+                if (discard) {
+                    return;
+                }
+                if (settings == null) {
+                    settings = new LinkedHashMap<>();
+                } else if (settings.containsKey(setter)) {
+                    return;
+                }
+                Method getter = SETTINGS.get(setter);
+                if (getter != null) {
+                    settings.put(setter, delegate(statement, getter, null));
+                } else if (setter.getName().equals("setEscapeProcessing")) {
+                    // no getter, the statement was prepared with the default
+                    settings.put(setter, Boolean.TRUE);
+                } else {
+                    // e.g. a cursor name, which cannot be restored
+                    discard = true;
+                }
+            }
+
+            private boolean restoreSettings() {
+                if (settings != null) {
+                    // in reverse order, as some settings are related, e.g. max rows and large max rows
+                    List<Map.Entry<Method, Object>> changed = new ArrayList<>(settings.entrySet());
+                    for (int i = changed.size() - 1; i >= 0; --i) {
+                        try {
+                            changed.get(i).getKey().invoke(statement, changed.get(i).getValue());
+                        } catch (ReflectiveOperationException e) {
+                            AgroalLogger.POOL_LOGGER.debugv("{0}: Unable to restore statement setting {1}", dataSourceName, changed.get(i).getKey().getName());
+                            return false;
+                        }
+                    }
+                    settings = null;
+                }
+                return true;
+            }
+
+            private Object execute(Method method, Object[] args) throws Throwable {
+                long start = System.nanoTime();
+                try {
+                    return delegate(statement, method, args);
+                } finally {
+                    long time = System.nanoTime() - start;
+                    if (statistics.execution(time)) {
+                        String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                        AgroalLogger.POOL_LOGGER.debugv("{0}: Slow statement executed in {1} ms: {2}", dataSourceName, TimeUnit.NANOSECONDS.toMillis(time), executed);
+                    }
+                }
+            }
+
+            void release() throws SQLException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                leased.remove(this);
+                if (discard || statement.isClosed() || !restoreSettings()) {
+                    statement.close();
+                } else {
+                    cache.release(key, (PreparedStatement) statement, batched);
+                }
+            }
+        }
+    }
+}
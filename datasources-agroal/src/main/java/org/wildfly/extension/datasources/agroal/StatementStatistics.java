@@ -0,0 +1,98 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.datasources.agroal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the prepared statement cache and of the statements executed on the connections of a DataSource
+ */
+class StatementStatistics {
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheEvictions = new LongAdder();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder executionTime = new LongAdder();
+    private final LongAccumulator executionTimeMax = new LongAccumulator(Math::max, 0L);
+    private final LongAdder slowExecutions = new LongAdder();
+
+    private final long slowThreshold;
+
+    /**
+     * @param slowThreshold the execution time above which a statement is counted as slow, in milliseconds
+     */
+    StatementStatistics(long slowThreshold) {
+        this.slowThreshold = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+    }
+
+    void cacheHit() {
+        cacheHits.increment();
+    }
+
+    void cacheMiss() {
+        cacheMisses.increment();
+    }
+
+    void cacheEviction() {
+        cacheEvictions.increment();
+    }
+
+    /**
+     * @param time the execution time of a statement, in nanoseconds
+     * @return true if the execution is slow
+     */
+    boolean execution(long time) {
+        executions.increment();
+        executionTime.add(time);
+        executionTimeMax.accumulate(time);
+        if (time > slowThreshold) {
+            slowExecutions.increment();
+            return true;
+        }
+        return false;
+    }
+
+    long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    long getCacheEvictionCount() {
+        return cacheEvictions.sum();
+    }
+
+    long getExecutionCount() {
+        return executions.sum();
+    }
+
+    long getExecutionTimeTotal() {
+        return TimeUnit.NANOSECONDS.toMillis(executionTime.sum());
+    }
+
+    long getExecutionTimeMax() {
+        return TimeUnit.NANOSECONDS.toMillis(executionTimeMax.get());
+    }
+
+    long getSlowExecutionCount() {
+        return slowExecutions.sum();
+    }
+
+    void reset() {
+        cacheHits.reset();
+        cacheMisses.reset();
+        cacheEvictions.reset();
+        executions.reset();
+        executionTime.reset();
+        executionTimeMax.reset();
+        slowExecutions.reset();
+    }
+}
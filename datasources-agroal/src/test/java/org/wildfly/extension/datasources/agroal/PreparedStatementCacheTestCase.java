@@ -0,0 +1,82 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.datasources.agroal;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the LRU eviction and the statistics of {@link PreparedStatementCache}
+ */
+public class PreparedStatementCacheTestCase {
+
+    private final Set<PreparedStatement> closed = new HashSet<>();
+
+    @Test
+    public void testCache() {
+        StatementStatistics statistics = new StatementStatistics(1000L);
+        PreparedStatementCache cache = new PreparedStatementCache(2, statistics);
+
+        List<Object> first = key("select 1");
+        List<Object> second = key("select 2");
+        List<Object> third = key("select 3");
+
+        Assert.assertNull(cache.acquire(first));
+        PreparedStatement firstStatement = statement();
+        cache.release(first, firstStatement, false);
+
+        // a statement in use is not handed out twice
+        Assert.assertSame(firstStatement, cache.acquire(first));
+        Assert.assertNull(cache.acquire(first));
+        cache.release(first, firstStatement, false);
+
+        PreparedStatement secondStatement = statement();
+        cache.release(second, secondStatement, false);
+        // uses the first statement, so the second one is the least recently used
+        cache.release(first, cache.acquire(first), false);
+
+        PreparedStatement thirdStatement = statement();
+        cache.release(third, thirdStatement, false);
+        Assert.assertTrue(closed.contains(secondStatement));
+        Assert.assertFalse(closed.contains(firstStatement));
+        Assert.assertNull(cache.acquire(second));
+
+        Assert.assertEquals(2L, statistics.getCacheHitCount());
+        Assert.assertEquals(3L, statistics.getCacheMissCount());
+        Assert.assertEquals(1L, statistics.getCacheEvictionCount());
+
+        cache.clear();
+        Assert.assertTrue(closed.contains(firstStatement));
+        Assert.assertTrue(closed.contains(thirdStatement));
+        Assert.assertNull(cache.acquire(first));
+    }
+
+    private static List<Object> key(String sql) {
+        return Arrays.asList(sql);
+    }
+
+    private PreparedStatement statement() {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    closed.add((PreparedStatement) proxy);
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+}
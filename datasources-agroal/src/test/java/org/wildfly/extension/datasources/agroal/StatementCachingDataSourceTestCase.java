@@ -0,0 +1,270 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.datasources.agroal;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.AgroalDataSourceConfiguration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link StatementCachingDataSource} restores the settings of the cached statements, and never hands out the
+ * physical connection or statements.
+ */
+public class StatementCachingDataSourceTestCase {
+
+    private static final String NAME = "test";
+
+    // the statements prepared on the physical connection
+    private final List<PreparedStatement> prepared = new ArrayList<>();
+    private final Map<PreparedStatement, Map<String, Object>> settings = new HashMap<>();
+    private Connection physicalConnection;
+    private AgroalDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        System.setProperty(StatementCachingDataSource.CACHE_SIZE_PROPERTY + '.' + NAME, "10");
+        StatementCachingDataSource cachingDataSource = StatementCachingDataSource.create(NAME);
+        physicalConnection = connection();
+        cachingDataSource.onConnectionCreation(physicalConnection);
+        dataSource = cachingDataSource.wrap(dataSource(physicalConnection));
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(StatementCachingDataSource.CACHE_SIZE_PROPERTY + '.' + NAME);
+    }
+
+    @Test
+    public void testSettingsRestored() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("select 1");
+            statement.setFetchSize(100);
+            statement.setQueryTimeout(5);
+            statement.setMaxRows(10);
+            statement.setPoolable(false);
+            statement.setEscapeProcessing(false);
+            statement.close();
+
+            statement = connection.prepareStatement("select 1");
+            Assert.assertEquals(1, prepared.size());
+            Assert.assertEquals(0, statement.getFetchSize());
+            Assert.assertEquals(0, statement.getQueryTimeout());
+            Assert.assertEquals(0, statement.getMaxRows());
+            Assert.assertTrue(statement.isPoolable());
+            Assert.assertEquals(Boolean.TRUE, settings.get(prepared.get(0)).get("EscapeProcessing"));
+            statement.close();
+        }
+        Assert.assertEquals(1L, StatementCachingDataSource.getStatistics(dataSource).getCacheHitCount());
+    }
+
+    @Test
+    public void testUnrestorableSettingDiscards() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("select 1");
+            statement.setCursorName("cursor");
+            statement.close();
+            Assert.assertTrue(prepared.get(0).isClosed());
+
+            connection.prepareStatement("select 1").close();
+            Assert.assertEquals(2, prepared.size());
+            Assert.assertFalse(prepared.get(1).isClosed());
+        }
+        Assert.assertEquals(0L, StatementCachingDataSource.getStatistics(dataSource).getCacheHitCount());
+    }
+
+    @Test
+    public void testPendingBatchCleared() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("insert into test values (?)");
+            statement.setInt(1, 1);
+            statement.addBatch();
+            statement.setInt(1, 2);
+            statement.addBatch();
+            statement.close();
+
+            statement = connection.prepareStatement("insert into test values (?)");
+            Assert.assertEquals(1, prepared.size());
+            statement.setInt(1, 3);
+            statement.addBatch();
+            Assert.assertArrayEquals(new int[] { 1 }, statement.executeBatch());
+            statement.close();
+        }
+    }
+
+    @Test
+    public void testOpenResultSetClosed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("select 1");
+            ResultSet resultSet = statement.executeQuery();
+            statement.close();
+            Assert.assertFalse(prepared.get(0).isClosed());
+            Assert.assertTrue(resultSet.isClosed());
+        }
+    }
+
+    @Test
+    public void testPhysicalObjectsNotExposed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("select 1");
+            Assert.assertSame(connection, statement.getConnection());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                Assert.assertSame(statement, resultSet.getStatement());
+            }
+            try (ResultSet resultSet = statement.getResultSet()) {
+                Assert.assertSame(statement, resultSet.getStatement());
+            }
+
+            DatabaseMetaData metaData = connection.getMetaData();
+            Assert.assertSame(connection, metaData.getConnection());
+            try (ResultSet resultSet = metaData.getTables(null, null, null, null)) {
+                Assert.assertNull(resultSet.getStatement());
+            }
+            statement.close();
+        }
+    }
+
+    private static AgroalDataSource dataSource(Connection connection) {
+        AgroalDataSourceConfiguration configuration = (AgroalDataSourceConfiguration) Proxy.newProxyInstance(StatementCachingDataSourceTestCase.class.getClassLoader(), new Class<?>[] { AgroalDataSourceConfiguration.class }, (proxy, method, args) -> {
+            if (method.getName().equals("metricsEnabled")) {
+                return false;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        return (AgroalDataSource) Proxy.newProxyInstance(StatementCachingDataSourceTestCase.class.getClassLoader(), new Class<?>[] { AgroalDataSource.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection;
+                case "getConfiguration":
+                    return configuration;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private Connection connection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "unwrap":
+                    return proxy;
+                case "getAutoCommit":
+                    return true;
+                case "prepareStatement":
+                    PreparedStatement statement = statement();
+                    prepared.add(statement);
+                    return statement;
+                case "getMetaData":
+                    return metaData((Connection) proxy);
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private PreparedStatement statement() {
+        Map<String, Object> values = new HashMap<>();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+            String name = method.getName();
+            switch (name) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "close":
+                    values.put("Closed", true);
+                    return null;
+                case "isClosed":
+                    return values.getOrDefault("Closed", false);
+                case "isPoolable":
+                    return values.getOrDefault("Poolable", true);
+                case "executeQuery":
+                    values.put("ResultSet", resultSet((PreparedStatement) proxy));
+                    return values.get("ResultSet");
+                case "getResultSet":
+                    return values.get("ResultSet");
+                case "addBatch":
+                    values.merge("Batch", 1, (x, y) -> (Integer) x + 1);
+                    return null;
+                case "clearBatch":
+                    values.remove("Batch");
+                    return null;
+                case "executeBatch":
+                    int[] counts = new int[(Integer) values.getOrDefault("Batch", 0)];
+                    Arrays.fill(counts, 1);
+                    values.remove("Batch");
+                    return counts;
+                case "clearParameters":
+                case "clearWarnings":
+                    return null;
+                default:
+                    if (name.startsWith("set") && args.length == 1) {
+                        values.put(name.substring(3), args[0]);
+                        return null;
+                    }
+                    if (name.startsWith("set") && args.length == 2) {
+                        // a parameter
+                        return null;
+                    }
+                    if (name.startsWith("get") && method.getReturnType() == int.class) {
+                        return values.getOrDefault(name.substring(3), 0);
+                    }
+                    throw new UnsupportedOperationException(name);
+            }
+        });
+        settings.put(statement, values);
+        return statement;
+    }
+
+    private ResultSet resultSet(PreparedStatement statement) {
+        boolean[] closed = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getStatement":
+                    return statement;
+                case "close":
+                    closed[0] = true;
+                    return null;
+                case "isClosed":
+                    return closed[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private DatabaseMetaData metaData(Connection connection) {
+        return (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { DatabaseMetaData.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection;
+                case "getTables":
+                    return resultSet(statement());
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
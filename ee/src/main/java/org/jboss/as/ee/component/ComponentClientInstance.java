@@ -31,6 +31,8 @@ public class ComponentClientInstance implements Serializable {
 
     private final Map<Object, Object> contextInformation = new HashMap<Object, Object>();
     private volatile boolean constructionComplete = false;
+    // the context information, copied once construction is complete so that invocations do not iterate the map
+    private transient volatile ContextInformation contextInformationCopy;
 
     public Object getViewInstanceData(final Object key) {
         return contextInformation.get(key);
@@ -44,13 +46,42 @@ public class ComponentClientInstance implements Serializable {
     }
 
     void prepareInterceptorContext(InterceptorContext interceptorContext){
+        final ContextInformation copy = contextInformationCopy;
+        if (copy != null) {
+            final Object[] keys = copy.keys;
+            final Object[] values = copy.values;
+            for (int i = 0; i < keys.length; i++) {
+                interceptorContext.putPrivateData(keys[i], values[i]);
+            }
+            return;
+        }
         for(Map.Entry<Object, Object> entry : contextInformation.entrySet()) {
             interceptorContext.putPrivateData(entry.getKey(), entry.getValue());
         }
     }
 
     void constructionComplete() {
+        final Object[] keys = new Object[contextInformation.size()];
+        final Object[] values = new Object[keys.length];
+        int i = 0;
+        for(Map.Entry<Object, Object> entry : contextInformation.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        contextInformationCopy = new ContextInformation(keys, values);
         constructionComplete = true;
     }
 
+    /**
+     * The keys and values of the context information, published together.
+     */
+    private static final class ContextInformation {
+        private final Object[] keys;
+        private final Object[] values;
+
+        ContextInformation(Object[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+    }
 }
@@ -26,6 +26,7 @@ public final class ProxyInvocationHandler implements InvocationHandler {
 
     private final Map<Method, Interceptor> interceptors;
     private final ComponentView componentView;
+    private final Component component;
     private final ComponentClientInstance instance;
 
     /**
@@ -39,10 +40,13 @@ public final class ProxyInvocationHandler implements InvocationHandler {
         this.interceptors = interceptors;
         this.instance = instance;
         this.componentView = componentView;
+        this.component = componentView.getComponent();
     }
 
     /** {@inheritDoc} */
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        // the proxies generated by jboss-invocation only pass the Method to the handler, so the chain, built once per
+        // view method, is resolved by identity
         final Interceptor interceptor = interceptors.get(method);
         if (interceptor == null) {
             throw new NoSuchMethodError(method.toString());
@@ -50,15 +54,16 @@ public final class ProxyInvocationHandler implements InvocationHandler {
         final InterceptorContext context = new InterceptorContext();
         // special location for original proxy
         context.putPrivateData(Object.class, proxy);
-        context.putPrivateData(Component.class, componentView.getComponent());
+        context.putPrivateData(Component.class, component);
         context.putPrivateData(ComponentView.class, componentView);
+        // the domain of the caller, privileged only when a security manager is installed
         context.putPrivateData(SecurityDomain.class, WildFlySecurityManager.isChecking() ?
                 AccessController.doPrivileged((PrivilegedAction<SecurityDomain>) SecurityDomain::getCurrent) :
                 SecurityDomain.getCurrent());
         instance.prepareInterceptorContext(context);
         context.setParameters(args);
         context.setMethod(method);
-        // setup the public context data
+        // setup the public context data, which InterceptorContext requires to be set, its table is only allocated on first put
         context.setContextData(new HashMap<String, Object>());
         context.setBlockingCaller(true);
         return interceptor.processInvocation(context);
@@ -113,6 +113,15 @@ public interface ConcurrencyImplementation {
      */
     WildFlyManagedThreadFactory newManagedThreadFactory(String name, WildFlyContextService contextService, int priority);
 
+    /**
+     * @param name the instance name
+     * @param contextService the context service to use
+     * @param priority the thread factory priority
+     * @param virtual if the thread factory should create virtual threads
+     * @return a new WildFlyManagedThreadFactory instance with the specified params.
+     */
+    WildFlyManagedThreadFactory newManagedThreadFactory(String name, WildFlyContextService contextService, int priority, boolean virtual);
+
     /**
      *
      * @param name the instance name
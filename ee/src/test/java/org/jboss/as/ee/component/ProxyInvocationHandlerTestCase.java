@@ -0,0 +1,90 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ee.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.junit.Test;
+
+/**
+ * Tests that {@link ProxyInvocationHandler} dispatches to the interceptor chain of the invoked method, with the private
+ * data of the view and of the client instance.
+ */
+public class ProxyInvocationHandlerTestCase {
+
+    @Test
+    public void testInvoke() throws Throwable {
+        Component component = proxy(Component.class, null);
+        ComponentView view = proxy(ComponentView.class, component);
+        Method hashCode = Object.class.getMethod("hashCode");
+        Method toString = Object.class.getMethod("toString");
+
+        Map<Method, Interceptor> interceptors = new IdentityHashMap<>();
+        interceptors.put(hashCode, context -> 42);
+        interceptors.put(toString, context -> {
+            assertSame(toString, context.getMethod());
+            assertSame(component, context.getPrivateData(Component.class));
+            assertSame(view, context.getPrivateData(ComponentView.class));
+            assertEquals("session", context.getPrivateData(String.class));
+            // the context data must be mutable
+            context.getContextData().put("key", "value");
+            return "dispatched:" + context.getPrivateData(Object.class);
+        });
+
+        ComponentClientInstance instance = new ComponentClientInstance();
+        instance.setViewInstanceData(String.class, "session");
+        instance.constructionComplete();
+
+        ProxyInvocationHandler handler = new ProxyInvocationHandler(interceptors, instance, view);
+        assertEquals(42, handler.invoke("proxy", hashCode, null));
+        // each invocation gets its own context
+        for (int i = 0; i < 2; ++i) {
+            assertEquals("dispatched:proxy", handler.invoke("proxy", toString, null));
+        }
+        assertThrows(NoSuchMethodError.class, () -> handler.invoke("proxy", Object.class.getMethod("getClass"), null));
+    }
+
+    @Test
+    public void testInstanceDataBeforeConstructionComplete() throws Exception {
+        ComponentClientInstance instance = new ComponentClientInstance();
+        instance.setViewInstanceData(String.class, "session");
+        InterceptorContext context = new InterceptorContext();
+        instance.prepareInterceptorContext(context);
+        assertEquals("session", context.getPrivateData(String.class));
+
+        instance.constructionComplete();
+        assertThrows(IllegalStateException.class, () -> instance.setViewInstanceData(String.class, "other"));
+        context = new InterceptorContext();
+        instance.prepareInterceptorContext(context);
+        assertEquals("session", context.getPrivateData(String.class));
+        assertNull(context.getPrivateData(Integer.class));
+    }
+
+    private static <T> T proxy(Class<T> type, Component component) {
+        return type.cast(Proxy.newProxyInstance(ProxyInvocationHandlerTestCase.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getComponent":
+                    return component;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }));
+    }
+}
@@ -8,6 +8,7 @@ import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 import static org.jboss.as.ejb3.subsystem.IdentityResourceDefinition.IDENTITY_CAPABILITY_NAME;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.rmi.Remote;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -366,7 +367,12 @@ public abstract class EJBComponentDescription extends ComponentDescription {
                     });
                 }
 
-                configuration.addComponentInterceptor(ExecutionTimeInterceptor.FACTORY, InterceptorOrder.Component.EJB_EXECUTION_TIME_INTERCEPTOR, true);
+                // one interceptor per public method, each bound to the metrics of its method
+                for (Method method : configuration.getDefinedComponentMethods()) {
+                    if (Modifier.isPublic(method.getModifiers())) {
+                        configuration.addComponentInterceptor(method, ExecutionTimeInterceptor.factory(method), InterceptorOrder.Component.EJB_EXECUTION_TIME_INTERCEPTOR);
+                    }
+                }
                 configuration.getCreateDependencies().add(new DependencyConfigurator<EJBComponentCreateService>() {
                     @Override
                     public void configureDependency(ServiceBuilder<?> serviceBuilder, EJBComponentCreateService service) throws DeploymentUnitProcessingException {
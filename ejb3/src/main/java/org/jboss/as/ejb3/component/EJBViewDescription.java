@@ -45,11 +45,12 @@ public class EJBViewDescription extends ViewDescription {
         this.ejb2xView = ejb2xView;
         hasJNDIBindings = initHasJNDIBindings(methodIntf);
 
-        //add a configurator to attach the MethodInterfaceType for this view
+        //add a configurator to attach the MethodInterfaceType and the method index for this view
         getConfigurators().add(new ViewConfigurator() {
             @Override
             public void configure(final DeploymentPhaseContext context, final ComponentConfiguration componentConfiguration, final ViewDescription description, final ViewConfiguration configuration) throws DeploymentUnitProcessingException {
                 configuration.putPrivateData(MethodInterfaceType.class, getMethodIntf());
+                configuration.putPrivateData(EJBViewMethodIndex.class, new EJBViewMethodIndex());
             }
         });
         // add a view configurator for setting up application specific container interceptors for the EJB view
@@ -0,0 +1,72 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.component;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.ee.component.ComponentView;
+import org.jboss.ejb.client.EJBMethodLocator;
+
+/**
+ * Index of the methods of a Jakarta Enterprise Beans view by {@link EJBMethodLocator}, attached to the view as private data,
+ * so that remote invocations resolve the invoked method without scanning the view methods.
+ * <p>
+ * The index is built on first use, from the methods of the view.
+ */
+public final class EJBViewMethodIndex {
+
+    private volatile Map<EJBMethodLocator, Method> methods;
+
+    /**
+     * Finds the method of a view for the specified locator.
+     *
+     * @param componentView the view
+     * @param locator the method locator
+     * @return the view method, or null if the view has no such method
+     */
+    public static Method findMethod(final ComponentView componentView, final EJBMethodLocator locator) {
+        final EJBViewMethodIndex index = componentView.getPrivateData(EJBViewMethodIndex.class);
+        if (index != null) {
+            return index.getMethods(componentView).get(locator);
+        }
+        for (final Method method : componentView.getViewMethods()) {
+            if (matches(method, locator)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private Map<EJBMethodLocator, Method> getMethods(final ComponentView componentView) {
+        Map<EJBMethodLocator, Method> methods = this.methods;
+        if (methods == null) {
+            methods = new HashMap<>();
+            for (final Method method : componentView.getViewMethods()) {
+                methods.putIfAbsent(EJBMethodLocator.forMethod(method), method);
+            }
+            this.methods = methods;
+        }
+        return methods;
+    }
+
+    private static boolean matches(final Method method, final EJBMethodLocator locator) {
+        if (!method.getName().equals(locator.getMethodName())) {
+            return false;
+        }
+        final Class<?>[] methodParamTypes = method.getParameterTypes();
+        if (methodParamTypes.length != locator.getParameterCount()) {
+            return false;
+        }
+        for (int i = 0; i < methodParamTypes.length; i++) {
+            if (!methodParamTypes[i].getName().equals(locator.getParameterTypeName(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
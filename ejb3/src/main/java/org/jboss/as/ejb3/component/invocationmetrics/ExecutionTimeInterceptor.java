@@ -4,35 +4,62 @@
  */
 package org.jboss.as.ejb3.component.invocationmetrics;
 
+import java.lang.reflect.Method;
+
+import org.jboss.as.ee.component.Component;
+import org.jboss.as.ee.component.ComponentInterceptorFactory;
 import org.jboss.as.ejb3.component.EJBComponent;
-import org.jboss.as.ejb3.component.interceptors.AbstractEJBInterceptor;
-import org.jboss.invocation.ImmediateInterceptorFactory;
+import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactory;
+import org.jboss.invocation.InterceptorFactoryContext;
 
 /**
+ * Records the invocation metrics of a single method of a component. The counters of the method are resolved when
+ * the interceptor is created, so that recording an invocation does not look them up.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
-public class ExecutionTimeInterceptor extends AbstractEJBInterceptor {
-    public static final InterceptorFactory FACTORY = new ImmediateInterceptorFactory(new ExecutionTimeInterceptor());
+public class ExecutionTimeInterceptor implements Interceptor {
+
+    private final EJBComponent component;
+    private final InvocationMetrics metrics;
+    private final InvocationMetrics.MethodMetrics methodMetrics;
+
+    private ExecutionTimeInterceptor(final EJBComponent component, final Method method) {
+        this.component = component;
+        this.metrics = component.getInvocationMetrics();
+        this.methodMetrics = this.metrics.getMethodMetrics(method);
+    }
 
-    private ExecutionTimeInterceptor() {
+    /**
+     * Returns the factory of the interceptor recording the metrics of the given component method.
+     *
+     * @param method the component method
+     * @return the interceptor factory
+     */
+    public static InterceptorFactory factory(final Method method) {
+        return new ComponentInterceptorFactory() {
+            @Override
+            protected Interceptor create(final Component component, final InterceptorFactoryContext context) {
+                return new ExecutionTimeInterceptor((EJBComponent) component, method);
+            }
+        };
     }
 
     @Override
     public Object processInvocation(final InterceptorContext context) throws Exception {
-        final EJBComponent component = getComponent(context, EJBComponent.class);
         if (!component.isStatisticsEnabled())
             return context.proceed();
         final Long startWaitTime = (Long) context.getPrivateData(WaitTimeInterceptor.START_WAIT_TIME);
-        final long waitTime = startWaitTime != null && startWaitTime != 0L ? System.currentTimeMillis() - startWaitTime : 0L;
-        component.getInvocationMetrics().startInvocation();
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        final long waitTime = startWaitTime != null ? start - startWaitTime : 0L;
+        metrics.startInvocation();
         try {
             return context.proceed();
         } finally {
-            final long executionTime = System.currentTimeMillis() - start;
-            component.getInvocationMetrics().finishInvocation(context.getMethod(), waitTime, executionTime);
+            final long executionTime = System.nanoTime() - start;
+            metrics.finishInvocation(methodMetrics, waitTime, executionTime);
         }
     }
 }
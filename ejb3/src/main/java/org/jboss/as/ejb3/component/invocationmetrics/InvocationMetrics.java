@@ -7,13 +7,17 @@ package org.jboss.as.ejb3.component.invocationmetrics;
 import java.lang.reflect.Method;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
@@ -23,11 +27,19 @@ public class InvocationMetrics {
         final long invocations;
         final long executionTime;
         final long waitTime;
+        final LatencyHistogram executionTimeHistogram;
+        final LatencyHistogram waitTimeHistogram;
 
         private Values(final long invocations, final long waitTime, final long executionTime) {
+            this(invocations, waitTime, executionTime, null, null);
+        }
+
+        private Values(final long invocations, final long waitTime, final long executionTime, final LatencyHistogram waitTimeHistogram, final LatencyHistogram executionTimeHistogram) {
             this.invocations = invocations;
             this.executionTime = executionTime;
             this.waitTime = waitTime;
+            this.executionTimeHistogram = executionTimeHistogram;
+            this.waitTimeHistogram = waitTimeHistogram;
         }
 
         public long getExecutionTime() {
@@ -41,40 +53,95 @@ public class InvocationMetrics {
         public long getWaitTime() {
             return waitTime;
         }
+
+        /**
+         * @return the execution time histogram of the method, or null if histograms are disabled
+         */
+        public LatencyHistogram getExecutionTimeHistogram() {
+            return executionTimeHistogram;
+        }
+
+        /**
+         * @return the wait time histogram of the method, or null if histograms are disabled
+         */
+        public LatencyHistogram getWaitTimeHistogram() {
+            return waitTimeHistogram;
+        }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    /**
+     * The counters of all the methods sharing a name. Interceptors resolve their slot once, so that recording an
+     * invocation neither looks up the method nor allocates.
+     */
+    static final class MethodMetrics {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder executionTime = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
+        final LatencyHistogram executionTimeHistogram;
+        final LatencyHistogram waitTimeHistogram;
+
+        MethodMetrics(final boolean histograms) {
+            this.executionTimeHistogram = histograms ? new LatencyHistogram() : null;
+            this.waitTimeHistogram = histograms ? new LatencyHistogram() : null;
+        }
+
+        Values getValues() {
+            return new Values(invocations.sum(), toMillis(waitTime), toMillis(executionTime), waitTimeHistogram, executionTimeHistogram);
+        }
+    }
+
+    // times are accumulated in nanoseconds and reported in milliseconds
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder executionTime = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
+    private final LatencyHistogram executionTimeHistogram;
+    private final LatencyHistogram waitTimeHistogram;
+
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<String, MethodMetrics>();
+
+    public InvocationMetrics() {
+        this(false);
+    }
+
+    /**
+     * @param histograms whether to also record the distribution of the execution and wait times
+     */
+    public InvocationMetrics(final boolean histograms) {
+        this.executionTimeHistogram = histograms ? new LatencyHistogram() : null;
+        this.waitTimeHistogram = histograms ? new LatencyHistogram() : null;
+    }
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+    /**
+     * Returns the slot holding the counters of the given method, creating it if needed.
+     */
+    MethodMetrics getMethodMetrics(final Method method) {
+        return methods.computeIfAbsent(method.getName(), name -> new MethodMetrics(this.executionTimeHistogram != null));
+    }
 
-    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
+    void finishInvocation(final Method method, final long invocationWaitNanos, final long invocationExecutionNanos) {
+        finishInvocation(getMethodMetrics(method), invocationWaitNanos, invocationExecutionNanos);
+    }
+
+    void finishInvocation(final MethodMetrics methodMetrics, final long invocationWaitNanos, final long invocationExecutionNanos) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
+        invocations.increment();
+        waitTime.add(invocationWaitNanos);
+        executionTime.add(invocationExecutionNanos);
+        methodMetrics.invocations.increment();
+        methodMetrics.waitTime.add(invocationWaitNanos);
+        methodMetrics.executionTime.add(invocationExecutionNanos);
+        if (executionTimeHistogram != null) {
+            waitTimeHistogram.record(invocationWaitNanos);
+            executionTimeHistogram.record(invocationExecutionNanos);
+            methodMetrics.waitTimeHistogram.record(invocationWaitNanos);
+            methodMetrics.executionTimeHistogram.record(invocationExecutionNanos);
         }
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
-        }
-        return ref;
+    private static long toMillis(final LongAdder nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
     }
 
     public long getConcurrent() {
@@ -82,11 +149,18 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return toMillis(executionTime);
+    }
+
+    /**
+     * @return the histogram of the execution times of all methods, or null if histograms are disabled
+     */
+    public LatencyHistogram getExecutionTimeHistogram() {
+        return executionTimeHistogram;
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return invocations.sum();
     }
 
     public Map<String, Values> getMethods() {
@@ -96,7 +170,8 @@ public class InvocationMetrics {
                 return new AbstractSet<Entry<String, Values>>() {
                     @Override
                     public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
+                        // slots are created ahead of the first invocation, only report the methods actually invoked
+                        final Iterator<Entry<String, MethodMetrics>> delegate = invokedMethods().iterator();
                         return new Iterator<Entry<String, Values>>() {
                             @Override
                             public boolean hasNext() {
@@ -105,7 +180,7 @@ public class InvocationMetrics {
 
                             @Override
                             public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
+                                final Entry<String, MethodMetrics> next = delegate.next();
                                 return new Entry<String, Values>() {
                                     @Override
                                     public String getKey() {
@@ -114,7 +189,7 @@ public class InvocationMetrics {
 
                                     @Override
                                     public Values getValue() {
-                                        return next.getValue().get();
+                                        return next.getValue().getValues();
                                     }
 
                                     @Override
@@ -133,25 +208,44 @@ public class InvocationMetrics {
 
                     @Override
                     public int size() {
-                        return methods.size();
+                        return invokedMethods().size();
                     }
                 };
             }
         };
     }
 
+    private List<Entry<String, MethodMetrics>> invokedMethods() {
+        final List<Entry<String, MethodMetrics>> invoked = new ArrayList<>(methods.size());
+        for (Entry<String, MethodMetrics> entry : methods.entrySet()) {
+            if (entry.getValue().invocations.sum() > 0) {
+                invoked.add(entry);
+            }
+        }
+        return invoked;
+    }
+
     public long getPeakConcurrent() {
         return peakConcurrent.get();
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return toMillis(waitTime);
+    }
+
+    /**
+     * @return the histogram of the wait times of all methods, or null if histograms are disabled
+     */
+    public LatencyHistogram getWaitTimeHistogram() {
+        return waitTimeHistogram;
     }
 
     void startInvocation() {
         final long v = concurrent.incrementAndGet();
-        // concurrent might decrement here, but we take that missing peak for granted.
-        if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+        // only contend on the peak while it actually moves
+        for (long peak = peakConcurrent.get(); peak < v; peak = peakConcurrent.get()) {
+            if (peakConcurrent.compareAndSet(peak, v))
+                break;
+        }
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size histogram of durations, bucketed the way HdrHistogram does: every power of two of microseconds is split
+ * into {@link #SUB_BUCKETS} linear sub-buckets, which bounds the relative error of a reported value to about 6%.
+ * <p/>
+ * Recording a value only increments a counter of a preallocated array, it neither allocates nor retries.
+ * Percentiles are computed from a walk over the counters, so they are only as consistent as concurrent recording allows.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Durations are recorded in microseconds, anything above 2^36 us (about 19 hours) ends up in the last bucket.
+     */
+    private static final int MAX_EXPONENT = 36;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(final long nanos) {
+        this.counts.getAndIncrement(index(TimeUnit.NANOSECONDS.toMicros(Math.max(0L, nanos))));
+    }
+
+    static int index(final long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int shift = exponent - SUB_BUCKET_BITS;
+        // the top SUB_BUCKET_BITS bits below the leading one select the sub-bucket
+        final int subBucket = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * The largest value, in microseconds, which falls into the given bucket.
+     */
+    static long highestValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        final long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        final long lowest = (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += this.counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the duration below which the given percentage of the recorded durations fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the duration in microseconds, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        // rounded as HdrHistogram does, as the percentage of the count is rarely exact in floating point
+        final long rank = Math.max(1L, (long) (Math.min(100d, Math.max(0d, percentile)) / 100d * count + 0.5d));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(BUCKETS - 1);
+    }
+}
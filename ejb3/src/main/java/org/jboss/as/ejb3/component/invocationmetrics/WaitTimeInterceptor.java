@@ -25,7 +25,7 @@ public class WaitTimeInterceptor extends AbstractEJBInterceptor {
     public Object processInvocation(final InterceptorContext context) throws Exception {
         final EJBComponent component = getComponent(context, EJBComponent.class);
         if (component.isStatisticsEnabled()) {
-            context.putPrivateData(START_WAIT_TIME, System.currentTimeMillis());
+            context.putPrivateData(START_WAIT_TIME, System.nanoTime());
         }
         return context.proceed();
     }
@@ -120,7 +120,7 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
             this.poolName = null;
         } else {
             ROOT_LOGGER.debugf("Using pool config %s to create pool for MDB %s", poolConfig, ejbComponentCreateService.getComponentName());
-            this.pool = poolConfig.createPool(factory);
+            this.pool = poolConfig.createPool(factory, ejbComponentCreateService.getPoolType());
             this.poolName = poolConfig.getPoolName();
         }
         this.classLoader = ejbComponentCreateService.getModuleClassLoader();
@@ -23,6 +23,7 @@ import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.EJBComponentCreateService;
 import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.deployment.ApplicationExceptions;
+import org.jboss.as.ejb3.pool.PoolType;
 import org.jboss.as.server.suspend.SuspendController;
 import org.jboss.common.beans.property.BeanUtils;
 import org.jboss.jca.core.spi.rar.Activation;
@@ -51,6 +52,7 @@ public class MessageDrivenComponentCreateService extends EJBComponentCreateServi
     private final InjectedValue<PoolConfig> poolConfig = new InjectedValue<PoolConfig>();
     private final InjectedValue<SuspendController> suspendControllerInjectedValue = new InjectedValue<>();
     private final ClassLoader moduleClassLoader;
+    private final PoolType poolType;
 
     /**
      * Construct a new instance.
@@ -69,6 +71,7 @@ public class MessageDrivenComponentCreateService extends EJBComponentCreateServi
 
         this.activationProps = componentDescription.getActivationProps();
         this.moduleClassLoader = componentConfiguration.getModuleClassLoader();
+        this.poolType = componentDescription.getPoolType();
     }
 
     @Override
@@ -231,6 +234,10 @@ public class MessageDrivenComponentCreateService extends EJBComponentCreateServi
         return this.poolConfig;
     }
 
+    PoolType getPoolType() {
+        return this.poolType;
+    }
+
     private ClassLoader getDeploymentClassLoader() {
         return getComponentClass().getClassLoader();
     }
@@ -33,6 +33,7 @@ import org.jboss.as.ejb3.component.interceptors.CurrentInvocationContextIntercep
 import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
 import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.PoolType;
 import org.jboss.as.ejb3.tx.CMTTxInterceptor;
 import org.jboss.as.ejb3.tx.EjbBMTInterceptor;
 import org.jboss.as.ejb3.tx.LifecycleCMTTxInterceptor;
@@ -68,6 +69,7 @@ public class MessageDrivenComponentDescription extends EJBComponentDescription {
     private String[] deliveryGroups;
     private boolean clusteredSingleton;
     private String mdbPoolConfigName;
+    private PoolType poolType;
     private final String messageListenerInterfaceName;
     private final boolean defaultMdbPoolAvailable;
 
@@ -363,4 +365,11 @@ public class MessageDrivenComponentDescription extends EJBComponentDescription {
         return (MessageDrivenBeanMetaData) super.getDescriptorData();
     }
 
+    public void setPoolType(final PoolType poolType) {
+        this.poolType = poolType;
+    }
+
+    public PoolType getPoolType() {
+        return this.poolType;
+    }
 }
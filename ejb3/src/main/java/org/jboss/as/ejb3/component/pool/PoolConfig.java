@@ -7,6 +7,7 @@ package org.jboss.as.ejb3.component.pool;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.PoolType;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
 
 /**
@@ -28,4 +29,15 @@ public abstract class PoolConfig {
     }
 
     public abstract <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory);
+
+    /**
+     * Creates a pool of the requested type. Configurations which only know a single kind of pool ignore the type.
+     *
+     * @param statelessObjectFactory the factory of the pooled instances
+     * @param poolType the type of pool selected for the bean, or null for the default of this configuration
+     * @return the pool
+     */
+    public <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory, final PoolType poolType) {
+        return this.createPool(statelessObjectFactory);
+    }
 }
@@ -6,8 +6,11 @@
 package org.jboss.as.ejb3.component.pool;
 
 import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.PoolType;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.adaptive.AdaptivePool;
 import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
+import org.jboss.as.ejb3.pool.striped.StripedMaxPool;
 
 import java.util.concurrent.TimeUnit;
 
@@ -41,6 +44,19 @@ public class StrictMaxPoolConfig extends PoolConfig {
         return new StrictMaxPool<T>(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
     }
 
+    @Override
+    public <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory, final PoolType poolType) {
+        if (poolType == PoolType.STRIPED_MAX) {
+            return new StripedMaxPool<T>(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        }
+        if (poolType == PoolType.ADAPTIVE) {
+            // the configured max size is the ceiling, start from what the CPUs can actually keep busy
+            int minPoolSize = Math.min(this.maxPoolSize, Runtime.getRuntime().availableProcessors());
+            return new AdaptivePool<T>(statelessObjectFactory, minPoolSize, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        }
+        return this.createPool(statelessObjectFactory);
+    }
+
     public int getMaxPoolSize() {
         return maxPoolSize;
     }
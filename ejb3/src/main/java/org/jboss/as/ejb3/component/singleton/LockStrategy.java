@@ -0,0 +1,62 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.component.singleton;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * The lock implementations that can back the container managed concurrency of a singleton bean. A bean selects one via
+ * the <code>urn:ejb-concurrency</code> deployment descriptor elements, otherwise the {@code jboss.ejb.singleton.lock-strategy}
+ * system property decides for all the singleton beans.
+ */
+public enum LockStrategy {
+    /**
+     * A single {@link java.util.concurrent.locks.ReentrantReadWriteLock}, see {@link EJBReadWriteLock}
+     */
+    REENTRANT("reentrant", EJBReadWriteLock::new),
+    /**
+     * Readers striped per core, at the expense of writers, see {@link ReaderBiasedEJBReadWriteLock}
+     */
+    READER_BIASED("reader-biased", ReaderBiasedEJBReadWriteLock::new),
+    ;
+
+    private static final LockStrategy DEFAULT = forName(WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.singleton.lock-strategy", REENTRANT.localName));
+
+    private final String localName;
+    private final Supplier<ReadWriteLock> factory;
+
+    LockStrategy(final String localName, final Supplier<ReadWriteLock> factory) {
+        this.localName = localName;
+        this.factory = factory;
+    }
+
+    public String getLocalName() {
+        return this.localName;
+    }
+
+    public ReadWriteLock createLock() {
+        return this.factory.get();
+    }
+
+    /**
+     * @return the strategy of the singleton beans which do not select one
+     */
+    public static LockStrategy getDefault() {
+        return (DEFAULT != null) ? DEFAULT : REENTRANT;
+    }
+
+    public static LockStrategy forName(final String localName) {
+        for (LockStrategy strategy : values()) {
+            if (strategy.localName.equals(localName)) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.component.singleton;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * A reader biased alternative to {@link EJBReadWriteLock}, for singletons whose methods are mostly {@code @Lock(READ)}.
+ * <p/>
+ * Readers do not share any state: each thread registers itself into one of several counters, each on its own cache line,
+ * and only checks that no writer is around. A writer first takes a {@link ReentrantLock}, which orders it with the other
+ * writers, then announces itself to the readers and waits for the counters to drain. A reader which finds a writer backs
+ * off from its counter and waits on that same {@link ReentrantLock}, so that it gets in right after the writer leaves.
+ * Writes are therefore more expensive than with a {@link java.util.concurrent.locks.ReentrantReadWriteLock}, in exchange
+ * for reads which scale with the number of cores.
+ * <p/>
+ * The semantics are those of {@link EJBReadWriteLock}:
+ * <ul>
+ * <li>both locks are reentrant, and a thread holding the write lock can obtain the read lock</li>
+ * <li>a thread holding the read lock which asks for the write lock gets an {@link jakarta.ejb.IllegalLoopbackException}</li>
+ * <li>the timed {@link Lock#tryLock(long, TimeUnit)} gives up once the timeout elapsed, which backs {@code @AccessTimeout}</li>
+ * </ul>
+ * The reentrancy of the read lock is tracked with a mutable per thread counter, so that acquiring the read lock does not
+ * allocate.
+ */
+public class ReaderBiasedEJBReadWriteLock implements ReadWriteLock {
+
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1);
+    // 16 longs per stripe, so that two counters never share a cache line
+    private static final int PADDING = 16;
+    // bounds the wait of a writer in case it misses the wake up of the last reader
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final AtomicInteger NEXT_STRIPE = new AtomicInteger();
+
+    private final AtomicLongArray readers = new AtomicLongArray(STRIPES * PADDING);
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final ThreadLocal<ReadHolds> readHolds = ThreadLocal.withInitial(ReadHolds::new);
+    // the thread acquiring or holding the write lock, readers back off while it is set
+    private volatile Thread writer;
+
+    private final Lock readLock = new ReadLock();
+    private final Lock writeLock = new WriteLock();
+
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+
+    /**
+     * The read locks held by a thread, and the counter this thread registers into.
+     */
+    private static class ReadHolds {
+        final int index = (NEXT_STRIPE.getAndIncrement() & (STRIPES - 1)) * PADDING;
+        int count;
+    }
+
+    private class ReadLock implements Lock {
+
+        @Override
+        public void lock() {
+            ReadHolds holds = readHolds.get();
+            if (!tryFastRead(holds)) {
+                writerLock.lock();
+                readLocked(holds);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            ReadHolds holds = readHolds.get();
+            if (!tryFastRead(holds)) {
+                writerLock.lockInterruptibly();
+                readLocked(holds);
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            ReadHolds holds = readHolds.get();
+            if (tryFastRead(holds)) {
+                return true;
+            }
+            if (writerLock.tryLock()) {
+                readLocked(holds);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            ReadHolds holds = readHolds.get();
+            if (tryFastRead(holds)) {
+                return true;
+            }
+            if (writerLock.tryLock(time, unit)) {
+                readLocked(holds);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            ReadHolds holds = readHolds.get();
+            if (holds.count == 0) {
+                throw new IllegalMonitorStateException();
+            }
+            holds.count--;
+            releaseReader(holds.index);
+        }
+
+        /**
+         * No implementation provided
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class WriteLock implements Lock {
+
+        @Override
+        public void lock() {
+            checkLoopback();
+            if (writerLock.isHeldByCurrentThread()) {
+                writerLock.lock();
+                return;
+            }
+            writerLock.lock();
+            try {
+                awaitReaders(false, false, 0L);
+            } catch (InterruptedException e) {
+                // not interruptible
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            checkLoopback();
+            if (writerLock.isHeldByCurrentThread()) {
+                writerLock.lock();
+                return;
+            }
+            writerLock.lockInterruptibly();
+            awaitReaders(true, false, 0L);
+        }
+
+        @Override
+        public boolean tryLock() {
+            checkLoopback();
+            if (writerLock.isHeldByCurrentThread()) {
+                writerLock.lock();
+                return true;
+            }
+            if (!writerLock.tryLock()) {
+                return false;
+            }
+            try {
+                return awaitReaders(false, true, System.nanoTime());
+            } catch (InterruptedException e) {
+                // not interruptible
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            checkLoopback();
+            if (writerLock.isHeldByCurrentThread()) {
+                writerLock.lock();
+                return true;
+            }
+            final long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!writerLock.tryLock(time, unit)) {
+                return false;
+            }
+            return awaitReaders(true, true, deadline);
+        }
+
+        @Override
+        public void unlock() {
+            if (!writerLock.isHeldByCurrentThread()) {
+                throw new IllegalMonitorStateException();
+            }
+            if (writerLock.getHoldCount() == 1) {
+                writer = null;
+            }
+            writerLock.unlock();
+        }
+
+        /**
+         * Not implemented
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Registers a reader without waiting, unless a writer is around.
+     */
+    private boolean tryFastRead(ReadHolds holds) {
+        if (holds.count > 0 || this.writer == Thread.currentThread()) {
+            // reentrant, a writer waiting for the readers to drain must not be waited for
+            this.readers.incrementAndGet(holds.index);
+            holds.count++;
+            return true;
+        }
+        if (this.writer == null) {
+            this.readers.incrementAndGet(holds.index);
+            // check again, a writer which announced itself meanwhile might not have seen us
+            if (this.writer == null) {
+                holds.count++;
+                return true;
+            }
+            this.releaseReader(holds.index);
+        }
+        return false;
+    }
+
+    /**
+     * Registers a reader once it obtained the writer lock, so no writer can be around.
+     */
+    private void readLocked(ReadHolds holds) {
+        try {
+            this.readers.incrementAndGet(holds.index);
+            holds.count++;
+        } finally {
+            this.writerLock.unlock();
+        }
+    }
+
+    private void releaseReader(int index) {
+        this.readers.decrementAndGet(index);
+        Thread writer = this.writer;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Announces the current thread, which holds the writer lock, to the readers and waits for them to leave.
+     * On failure, the writer lock is released.
+     * @return false if the deadline elapsed first
+     */
+    private boolean awaitReaders(boolean interruptible, boolean timed, long deadline) throws InterruptedException {
+        this.writer = Thread.currentThread();
+        boolean interrupted = false;
+        try {
+            while (!this.drained()) {
+                long park = MAX_PARK_NANOS;
+                if (timed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L) {
+                        this.abortWrite();
+                        return false;
+                    }
+                    park = Math.min(park, remaining);
+                }
+                if (Thread.interrupted()) {
+                    if (interruptible) {
+                        this.abortWrite();
+                        throw new InterruptedException();
+                    }
+                    interrupted = true;
+                }
+                LockSupport.parkNanos(this, park);
+            }
+            return true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void abortWrite() {
+        this.writer = null;
+        this.writerLock.unlock();
+    }
+
+    private boolean drained() {
+        for (int i = 0; i < STRIPES; ++i) {
+            if (this.readers.get(i * PADDING) != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ensures that the current thread doesn't hold any read locks. If
+     * the thread holds any read locks, this method throws a {@link jakarta.ejb.IllegalLoopbackException}.
+     */
+    private void checkLoopback() {
+        if (this.readHolds.get().count > 0) {
+            throw EjbLogger.ROOT_LOGGER.failToUpgradeToWriteLock();
+        }
+    }
+}
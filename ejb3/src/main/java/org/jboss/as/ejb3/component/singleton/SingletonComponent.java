@@ -57,9 +57,9 @@ public class SingletonComponent extends SessionBeanComponent {
     private final Object creationLock = new Object();
 
     /**
-     * A spec compliant {@link EJBReadWriteLock}
+     * A spec compliant lock, an {@link EJBReadWriteLock} unless the bean selected another {@link LockStrategy}
      */
-    private final ReadWriteLock readWriteLock = new EJBReadWriteLock();
+    private final ReadWriteLock readWriteLock;
 
     /**
      * Construct a new instance.
@@ -77,6 +77,7 @@ public class SingletonComponent extends SessionBeanComponent {
         this.methodLockTypes = singletonComponentCreateService.getMethodApplicableLockTypes();
         this.methodAccessTimeouts = singletonComponentCreateService.getMethodApplicableAccessTimeouts();
         this.defaultAccessTimeoutProvider = singletonComponentCreateService.getDefaultAccessTimeoutService();
+        this.readWriteLock = singletonComponentCreateService.getLockStrategy().createLock();
     }
 
     @Override
@@ -65,6 +65,8 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
     private final List<ServiceName> dependsOn = new ArrayList<ServiceName>();
 
+    private LockStrategy lockStrategy = LockStrategy.getDefault();
+
     /**
      * Construct a new instance.
      *
@@ -94,7 +96,7 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
         ComponentConfiguration singletonComponentConfiguration = new ComponentConfiguration(this, classIndex, moduleClassLoader, moduleLoader);
         // setup the component create service
-        singletonComponentConfiguration.setComponentCreateServiceFactory(new SingletonComponentCreateServiceFactory(this.isInitOnStartup(), dependsOn));
+        singletonComponentConfiguration.setComponentCreateServiceFactory(new SingletonComponentCreateServiceFactory(this.isInitOnStartup(), dependsOn, this.lockStrategy));
         final String definedSecurityDomain = getDefinedSecurityDomain();
         final boolean securityRequired = hasBeanLevelSecurityMetadata();
         if (securityRequired) {
@@ -179,6 +181,17 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
     }
 
+    public LockStrategy getLockStrategy() {
+        return this.lockStrategy;
+    }
+
+    /**
+     * Selects the lock backing the container managed concurrency of the singleton bean
+     */
+    public void setLockStrategy(final LockStrategy lockStrategy) {
+        this.lockStrategy = lockStrategy;
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.SINGLETON;
@@ -0,0 +1,210 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache.simple;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local store of passivated bean instances, in the form of a log split into segments.
+ * <p/>
+ * Passivated instances are appended to the current segment, and the location of each instance is kept in memory.
+ * Activating or removing an instance only forgets its location; a segment file is deleted once none of its instances
+ * is left, so the disk space follows the number of passivated instances without ever rewriting a file.
+ * Reads use positional reads of the segment files, so activations do not contend with each other.
+ * <p/>
+ * The store does not survive a restart: its directory is emptied when it is closed.
+ * @param <K> the bean identifier type
+ */
+class SegmentedPassivationStore<K> implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final Map<K, Location> locations = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private Segment current;
+    private int nextSegment = 0;
+
+    /**
+     * @param directory the directory of the segment files, created if needed
+     * @param segmentSize the size beyond which a new segment is started
+     */
+    SegmentedPassivationStore(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Stores the serialized form of a bean instance, replacing any previous one.
+     * @param id a bean identifier
+     * @param bytes the serialized bean instance
+     * @throws IOException if the instance could not be written
+     */
+    void write(K id, byte[] bytes) throws IOException {
+        Location location;
+        synchronized (this) {
+            if ((this.current == null) || (this.current.size >= this.segmentSize)) {
+                this.roll();
+            }
+            Segment segment = this.current;
+            long position = segment.size;
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer, position + buffer.position());
+            }
+            segment.size += bytes.length;
+            segment.live.incrementAndGet();
+            location = new Location(segment, position, bytes.length);
+        }
+        Location previous = this.locations.put(id, location);
+        if (previous != null) {
+            this.release(previous.segment);
+        }
+    }
+
+    /**
+     * Removes the serialized form of a bean instance from this store.
+     * @param id a bean identifier
+     * @return the serialized bean instance, or null if this store does not contain it
+     * @throws IOException if the instance could not be read
+     */
+    byte[] read(K id) throws IOException {
+        Location location = this.locations.remove(id);
+        if (location == null) return null;
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(location.length);
+            while (buffer.hasRemaining()) {
+                if (location.segment.channel.read(buffer, location.position + buffer.position()) < 0) {
+                    throw new IOException(location.segment.file.toString());
+                }
+            }
+            return buffer.array();
+        } finally {
+            this.release(location.segment);
+        }
+    }
+
+    /**
+     * Forgets the serialized form of a bean instance.
+     * @param id a bean identifier
+     * @return true, if this store contained the bean instance, false otherwise
+     */
+    boolean remove(K id) {
+        Location location = this.locations.remove(id);
+        if (location == null) return false;
+        this.release(location.segment);
+        return true;
+    }
+
+    /**
+     * Returns the number of bean instances in this store.
+     * @return the number of bean instances
+     */
+    int size() {
+        return this.locations.size();
+    }
+
+    /**
+     * Returns the number of segment files of this store.
+     * @return the number of segment files
+     */
+    int getSegmentCount() {
+        try (var files = Files.list(this.directory)) {
+            return (int) files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)).count();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Drops all the bean instances, and deletes the segment files.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.current != null) {
+                this.current.delete();
+                this.current = null;
+            }
+        }
+        for (Location location : this.locations.values()) {
+            location.segment.delete();
+        }
+        this.locations.clear();
+        try (var files = Files.list(this.directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            // nothing was ever written
+        }
+    }
+
+    // guarded by this
+    private void roll() throws IOException {
+        Segment previous = this.current;
+        Files.createDirectories(this.directory);
+        Path file = this.directory.resolve(SEGMENT_PREFIX + (this.nextSegment++) + SEGMENT_SUFFIX);
+        this.current = new Segment(file, FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        if ((previous != null) && (previous.live.get() == 0)) {
+            previous.delete();
+        }
+    }
+
+    private void release(Segment segment) {
+        if (segment.live.decrementAndGet() == 0) {
+            synchronized (this) {
+                // the current segment is kept open for the next writes, its emptiness is checked again when rolling
+                if ((segment != this.current) && (segment.live.get() == 0)) {
+                    segment.delete();
+                }
+            }
+        }
+    }
+
+    private static class Segment {
+        final Path file;
+        final FileChannel channel;
+        // the number of instances stored in this segment
+        final AtomicInteger live = new AtomicInteger();
+        // guarded by the store
+        long size = 0;
+
+        Segment(Path file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+
+        void delete() {
+            try {
+                this.channel.close();
+                Files.deleteIfExists(this.file);
+            } catch (IOException e) {
+                // the directory is emptied on close
+            }
+        }
+    }
+
+    private static class Location {
+        final Segment segment;
+        final long position;
+        final int length;
+
+        Location(Segment segment, long position, int length) {
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
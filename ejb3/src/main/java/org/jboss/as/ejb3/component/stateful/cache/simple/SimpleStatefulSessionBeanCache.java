@@ -5,12 +5,24 @@
 
 package org.jboss.as.ejb3.component.stateful.cache.simple;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -32,12 +44,16 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 /**
  * A simple stateful session bean cache implementation.
  * Bean instances are stored in memory and are lost on undeploy, shutdown, or server crash.
+ * <p/>
+ * When configured with a maximum size, the least recently used idle bean instances beyond that size are passivated to a
+ * local {@link SegmentedPassivationStore}, and activated again on their next access. Bean instances in use are never evicted.
  * @author Paul Ferraro
  * @param <K> the bean identifier type
  * @param <V> the bean instance type
  */
 public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInstance<K>> implements StatefulSessionBeanCache<K, V>, Predicate<K>, Consumer<StatefulSessionBean<K, V>> {
     private static final ThreadFactory THREAD_FACTORY = new DefaultThreadFactory(SimpleStatefulSessionBeanCache.class, WildFlySecurityManager.getClassLoaderPrivileged(SimpleStatefulSessionBeanCache.class));
+    private static final long SEGMENT_SIZE = 16 * 1024 * 1024;
 
     private final String componentName;
     private final Map<K, V> instances = new ConcurrentHashMap<>();
@@ -47,6 +63,15 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
     private final Duration timeout;
     private final Affinity strongAffinity;
     private final AtomicBoolean started = new AtomicBoolean();
+    private final int maxSize;
+    private final ClassLoader loader;
+    private final SimpleStatefulSessionBeanCacheStatistics statistics;
+    // null if the cache is unbounded
+    private final SegmentedPassivationStore<K> store;
+    // the closed bean instances which can be evicted, least recently used first, guarded by itself
+    private final Set<K> idle = new LinkedHashSet<>();
+    // the bean instances being passivated or activated, completed once they are either in memory or in the store
+    private final Map<K, CompletableFuture<Void>> transitions = new ConcurrentHashMap<>();
 
     private volatile Scheduler<K, Instant> scheduler;
 
@@ -56,6 +81,11 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
         this.identifierFactory = configuration.getIdentifierFactory();
         this.timeout = configuration.getTimeout();
         this.strongAffinity = new NodeAffinity(configuration.getEnvironment().getNodeName());
+        this.maxSize = configuration.getMaxSize();
+        this.loader = configuration.getClassLoader();
+        this.statistics = configuration.getStatistics();
+        Path directory = configuration.getEnvironment().getServerTempDir().toPath().resolve("ejb3-passivation").resolve(this.componentName + "-" + Integer.toHexString(System.identityHashCode(this)));
+        this.store = (this.maxSize > 0) ? new SegmentedPassivationStore<>(directory, SEGMENT_SIZE) : null;
     }
 
     @Override
@@ -107,6 +137,12 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
                 instance.removed();
             }
             this.instances.clear();
+            if (this.store != null) {
+                synchronized (this.idle) {
+                    this.idle.clear();
+                }
+                this.store.close();
+            }
         }
     }
 
@@ -122,23 +158,44 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
 
     @Override
     public void accept(StatefulSessionBean<K, V> bean) {
+        K id = bean.getId();
         if (this.timeout != null) {
-            K id = bean.getId();
             if (this.scheduler != null) {
                 // Timeout > 0, schedule bean to expire
                 this.scheduler.schedule(id, Instant.now().plus(this.timeout));
             } else {
                 // Timeout = 0, remove bean immediately
                 this.test(id);
+                return;
+            }
+        }
+        if (this.store != null) {
+            synchronized (this.idle) {
+                this.idle.add(id);
             }
+            this.evict();
         }
     }
 
     @Override
     public boolean test(K id) {
+        if (this.store != null) {
+            CompletableFuture<Void> transition;
+            synchronized (this.idle) {
+                this.idle.remove(id);
+                transition = this.transitions.get(id);
+            }
+            if (transition != null) {
+                // Wait until the bean instance is either in memory or in the store
+                transition.join();
+            }
+        }
         V instance = this.instances.remove(id);
         if (instance != null) {
             instance.removed();
+        } else if (this.store != null) {
+            // Expired while passivated, its pre-destroy callbacks are not invoked
+            this.store.remove(id);
         }
         return true;
     }
@@ -152,16 +209,22 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
         V instance = this.factory.createInstance();
         K id = instance.getId();
         this.instances.put(id, instance);
+        if (this.store != null) {
+            this.evict();
+        }
         return new SimpleStatefulSessionBean<>(instance, this.remover, this);
     }
 
     @Override
     public StatefulSessionBean<K, V> findStatefulSessionBean(K id) {
-        V instance = this.instances.get(id);
+        V instance = (this.store != null) ? this.acquire(id) : this.instances.get(id);
         if (instance == null) return null;
         if (this.scheduler != null) {
             this.scheduler.cancel(id);
         }
+        if (this.store != null) {
+            this.evict();
+        }
         return new SimpleStatefulSessionBean<>(instance, this.remover, this);
     }
 
@@ -172,11 +235,167 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
 
     @Override
     public int getPassiveCount() {
-        return 0;
+        return (this.store != null) ? this.store.size() : 0;
+    }
+
+    /**
+     * Marks a bean instance as in use, activating it if needed.
+     * The bean instance is read from the store outside of its map entry, while other threads looking it up wait for its activation.
+     */
+    private V acquire(K id) {
+        while (true) {
+            V instance = this.instances.computeIfPresent(id, this::markInUse);
+            if (instance != null) return instance;
+            CompletableFuture<Void> activation = new CompletableFuture<>();
+            CompletableFuture<Void> transition = this.transitions.putIfAbsent(id, activation);
+            if (transition != null) {
+                // Being passivated or activated by another thread
+                transition.join();
+                continue;
+            }
+            try {
+                // A failed passivation may have put the bean instance back in the meantime
+                instance = this.instances.computeIfPresent(id, this::markInUse);
+                if (instance == null) {
+                    instance = this.activate(id);
+                    if (instance != null) {
+                        this.instances.put(id, instance);
+                    }
+                }
+                return instance;
+            } finally {
+                this.transitions.remove(id, activation);
+                activation.complete(null);
+            }
+        }
+    }
+
+    private V markInUse(K id, V instance) {
+        synchronized (this.idle) {
+            this.idle.remove(id);
+        }
+        return instance;
+    }
+
+    /**
+     * Passivates the least recently used idle bean instances, until the cache fits its maximum size.
+     * A bean instance is only marked as passivating while holding its map entry, its callbacks and its serialization run outside of it.
+     */
+    private void evict() {
+        while (this.instances.size() > this.maxSize) {
+            K id;
+            synchronized (this.idle) {
+                Iterator<K> ids = this.idle.iterator();
+                if (!ids.hasNext()) {
+                    // All remaining bean instances are in use
+                    return;
+                }
+                id = ids.next();
+            }
+            CompletableFuture<Void> passivation = new CompletableFuture<>();
+            AtomicReference<V> evicted = new AtomicReference<>();
+            this.instances.compute(id, (key, instance) -> {
+                synchronized (this.idle) {
+                    if (!this.idle.remove(key)) {
+                        // Acquired meanwhile
+                        return instance;
+                    }
+                    if (instance != null) {
+                        this.transitions.put(key, passivation);
+                    }
+                }
+                evicted.set(instance);
+                return null;
+            });
+            V instance = evicted.get();
+            if (instance != null) {
+                try {
+                    if (!this.passivate(id, instance)) {
+                        this.instances.put(id, instance);
+                    }
+                } finally {
+                    this.transitions.remove(id, passivation);
+                    passivation.complete(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the specified bean instance to the passivation store.
+     * @return true if the bean instance was passivated, false if it must stay in memory
+     */
+    private boolean passivate(K id, V instance) {
+        long start = System.nanoTime();
+        try {
+            instance.prePassivate();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                output.writeObject(instance);
+            }
+            this.store.write(id, bytes.toByteArray());
+            this.statistics.evicted();
+            this.statistics.passivated(System.nanoTime() - start);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            EjbLogger.ROOT_LOGGER.failedToPassivateBean(id, e);
+            instance.postActivate();
+            return false;
+        }
+    }
+
+    /**
+     * Reads the specified bean instance from the passivation store.
+     * @return the activated bean instance, or null if no such bean instance was passivated
+     */
+    private V activate(K id) {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = this.store.read(id);
+            if (bytes == null) return null;
+            V instance;
+            try (ObjectInputStream input = new ClassLoaderObjectInputStream(bytes, this.loader)) {
+                @SuppressWarnings("unchecked")
+                V result = (V) input.readObject();
+                instance = result;
+            }
+            instance.postActivate();
+            this.statistics.activated(System.nanoTime() - start);
+            return instance;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            EjbLogger.ROOT_LOGGER.failedToActivateBean(id, e);
+            return null;
+        }
     }
 
     @Override
     public Supplier<K> getIdentifierFactory() {
         return this.identifierFactory;
     }
+
+    /**
+     * Resolves classes using the class loader of the deployment, then the class loader of this module.
+     */
+    private static class ClassLoaderObjectInputStream extends ObjectInputStream {
+        private final ClassLoader loader;
+
+        ClassLoaderObjectInputStream(byte[] bytes, ClassLoader loader) throws IOException {
+            super(new ByteArrayInputStream(bytes));
+            this.loader = loader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(description.getName(), false, this.loader);
+            } catch (ClassNotFoundException e) {
+                try {
+                    return Class.forName(description.getName(), false, SimpleStatefulSessionBeanCache.class.getClassLoader());
+                } catch (ClassNotFoundException ignored) {
+                    // e.g. primitive types
+                    return super.resolveClass(description);
+                }
+            }
+        }
+    }
 }
@@ -18,4 +18,28 @@ import org.jboss.as.server.ServerEnvironment;
 public interface SimpleStatefulSessionBeanCacheConfiguration<K, V extends StatefulSessionBeanInstance<K>> extends StatefulSessionBeanCacheConfiguration<K, V> {
 
     ServerEnvironment getEnvironment();
+
+    /**
+     * Returns the maximum number of bean instances held in memory, beyond which the least recently used idle instances are passivated.
+     * @return a maximum size, or 0 if the cache is unbounded
+     */
+    default int getMaxSize() {
+        return 0;
+    }
+
+    /**
+     * Returns the class loader resolving the classes of passivated bean instances.
+     * @return a class loader
+     */
+    default ClassLoader getClassLoader() {
+        return SimpleStatefulSessionBeanCacheConfiguration.class.getClassLoader();
+    }
+
+    /**
+     * Returns the statistics to which the cache reports evictions, passivations and activations.
+     * @return cache statistics
+     */
+    default SimpleStatefulSessionBeanCacheStatistics getStatistics() {
+        return new SimpleStatefulSessionBeanCacheStatistics();
+    }
 }
@@ -16,6 +16,7 @@ import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstance;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstanceFactory;
 import org.jboss.as.server.ServerEnvironment;
 import org.wildfly.clustering.function.Supplier;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.wildfly.subsystem.service.ServiceDependency;
 import org.wildfly.subsystem.service.ServiceInstaller;
 
@@ -27,10 +28,24 @@ import org.wildfly.subsystem.service.ServiceInstaller;
  * @param <V> the bean instance type
  */
 public class SimpleStatefulSessionBeanCacheFactoryServiceInstallerFactory<K, V extends StatefulSessionBeanInstance<K>> implements Function<StatefulComponentDescription, ServiceInstaller> {
+    // the maximum number of bean instances held in memory by each cache, 0 for unbounded
+    private static final int MAX_SIZE = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.stateful.simple-cache.max-size", "0"));
+
+    private final SimpleStatefulSessionBeanCacheStatistics statistics;
+    private final ClassLoader loader;
+
+    public SimpleStatefulSessionBeanCacheFactoryServiceInstallerFactory(SimpleStatefulSessionBeanCacheStatistics statistics, ClassLoader loader) {
+        this.statistics = statistics;
+        this.loader = loader;
+    }
 
     @Override
     public ServiceInstaller apply(StatefulComponentDescription description) {
         ServiceDependency<ServerEnvironment> environment = ServiceDependency.on(ServerEnvironment.SERVICE_DESCRIPTOR);
+        // only beans which can be passivated can be evicted
+        int maxSize = description.isPassivationApplicable() ? MAX_SIZE : 0;
+        SimpleStatefulSessionBeanCacheStatistics statistics = this.statistics;
+        ClassLoader loader = this.loader;
         StatefulSessionBeanCacheFactory<K, V> factory = new StatefulSessionBeanCacheFactory<>() {
             @Override
             public StatefulSessionBeanCache<K, V> createStatefulBeanCache(StatefulSessionBeanCacheConfiguration<K, V> configuration) {
@@ -59,6 +74,21 @@ public class SimpleStatefulSessionBeanCacheFactoryServiceInstallerFactory<K, V e
                     public String getComponentName() {
                         return configuration.getComponentName();
                     }
+
+                    @Override
+                    public int getMaxSize() {
+                        return maxSize;
+                    }
+
+                    @Override
+                    public ClassLoader getClassLoader() {
+                        return loader;
+                    }
+
+                    @Override
+                    public SimpleStatefulSessionBeanCacheStatistics getStatistics() {
+                        return statistics;
+                    }
                 });
             }
         };
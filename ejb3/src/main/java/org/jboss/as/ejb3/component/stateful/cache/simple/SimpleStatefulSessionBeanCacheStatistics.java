@@ -0,0 +1,74 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache.simple;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Eviction, passivation and activation statistics, shared by the simple caches of a given cache provider.
+ */
+public class SimpleStatefulSessionBeanCacheStatistics {
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder passivations = new LongAdder();
+    private final LongAdder passivationTime = new LongAdder();
+    private final LongAdder activations = new LongAdder();
+    private final LongAdder activationTime = new LongAdder();
+
+    void evicted() {
+        this.evictions.increment();
+    }
+
+    void passivated(long nanos) {
+        this.passivations.increment();
+        this.passivationTime.add(nanos);
+    }
+
+    void activated(long nanos) {
+        this.activations.increment();
+        this.activationTime.add(nanos);
+    }
+
+    /**
+     * @return the number of bean instances evicted from memory because their cache reached its maximum size
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * @return the number of evicted bean instances which were successfully written to the passivation store
+     */
+    public long getPassivationCount() {
+        return this.passivations.sum();
+    }
+
+    /**
+     * @return the number of bean instances restored from the passivation store
+     */
+    public long getActivationCount() {
+        return this.activations.sum();
+    }
+
+    /**
+     * @return the average time to passivate a bean instance, in microseconds
+     */
+    public long getAveragePassivationTime() {
+        return average(this.passivationTime.sum(), this.passivations.sum());
+    }
+
+    /**
+     * @return the average time to activate a bean instance, in microseconds
+     */
+    public long getAverageActivationTime() {
+        return average(this.activationTime.sum(), this.activations.sum());
+    }
+
+    private static long average(long nanos, long count) {
+        return (count > 0) ? TimeUnit.NANOSECONDS.toMicros(nanos / count) : 0L;
+    }
+}
@@ -34,6 +34,7 @@ import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.component.session.StatelessRemoteViewInstanceFactory;
 import org.jboss.as.ejb3.component.session.StatelessWriteReplaceInterceptor;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
+import org.jboss.as.ejb3.pool.PoolType;
 import org.jboss.as.ejb3.tx.EjbBMTInterceptor;
 import org.jboss.as.ejb3.tx.LifecycleCMTTxInterceptor;
 import org.jboss.as.ejb3.tx.TimerCMTTxInterceptor;
@@ -58,6 +59,7 @@ public class StatelessComponentDescription extends SessionBeanComponentDescripti
     private static final String DEFAULT_SLSB_POOL_CONFIG_CAPABILITY_NAME = "org.wildfly.ejb3.pool-config.slsb-default";
 
     private String poolConfigName;
+    private PoolType poolType;
     private final boolean defaultSlsbPoolAvailable;
 
     /**
@@ -221,4 +223,11 @@ public class StatelessComponentDescription extends SessionBeanComponentDescripti
         return this.poolConfigName;
     }
 
+    public void setPoolType(final PoolType poolType) {
+        this.poolType = poolType;
+    }
+
+    public PoolType getPoolType() {
+        return this.poolType;
+    }
 }
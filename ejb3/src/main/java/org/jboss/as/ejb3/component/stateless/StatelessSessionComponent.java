@@ -59,7 +59,7 @@ public class StatelessSessionComponent extends SessionBeanComponent implements P
             this.poolName = null;
         } else {
             ROOT_LOGGER.debugf("Using pool config %s to create pool for Stateless EJB %s", poolConfig, slsbComponentCreateService.getComponentName());
-            this.pool = poolConfig.createPool(factory);
+            this.pool = poolConfig.createPool(factory, slsbComponentCreateService.getPoolType());
             this.poolName = poolConfig.getPoolName();
         }
 
@@ -10,6 +10,7 @@ import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentCreateService;
 import org.jboss.as.ejb3.deployment.ApplicationExceptions;
+import org.jboss.as.ejb3.pool.PoolType;
 import org.jboss.ejb.client.Affinity;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.value.InjectedValue;
@@ -20,6 +21,7 @@ import org.jboss.msc.value.InjectedValue;
 public class StatelessSessionComponentCreateService extends SessionBeanComponentCreateService {
 
     private final InjectedValue<PoolConfig> poolConfig = new InjectedValue<>();
+    private final PoolType poolType;
 
     /**
      * Construct a new instance.
@@ -28,6 +30,7 @@ public class StatelessSessionComponentCreateService extends SessionBeanComponent
      */
     public StatelessSessionComponentCreateService(final ComponentConfiguration componentConfiguration, final ApplicationExceptions ejbJarConfiguration) {
         super(componentConfiguration, ejbJarConfiguration);
+        this.poolType = ((StatelessComponentDescription) componentConfiguration.getComponentDescription()).getPoolType();
     }
 
     @Override
@@ -43,6 +46,10 @@ public class StatelessSessionComponentCreateService extends SessionBeanComponent
         return this.poolConfig;
     }
 
+    public PoolType getPoolType() {
+        return this.poolType;
+    }
+
     public Affinity getWeakAffinity() {
         return Affinity.NONE;
     }
@@ -0,0 +1,25 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.concurrency;
+
+import org.jboss.as.ejb3.component.singleton.LockStrategy;
+import org.jboss.metadata.ejb.parser.jboss.ejb3.AbstractEJBBoundMetaData;
+
+/**
+ * Metadata represents the lock strategy configured for singleton beans via the jboss-ejb3.xml deployment descriptor
+ */
+public class EJBBoundConcurrencyMetaData extends AbstractEJBBoundMetaData {
+
+    private LockStrategy lockStrategy;
+
+    public LockStrategy getLockStrategy() {
+        return lockStrategy;
+    }
+
+    public void setLockStrategy(final LockStrategy lockStrategy) {
+        this.lockStrategy = lockStrategy;
+    }
+}
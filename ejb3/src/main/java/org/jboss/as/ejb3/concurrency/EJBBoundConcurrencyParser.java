@@ -0,0 +1,56 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.concurrency;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.as.ejb3.component.singleton.LockStrategy;
+import org.jboss.metadata.ejb.parser.jboss.ejb3.AbstractEJBBoundMetaDataParser;
+import org.jboss.metadata.property.PropertyReplacer;
+
+/**
+ * Parser for <code>urn:ejb-concurrency</code> namespace. The <code>urn:ejb-concurrency</code> namespace elements
+ * can be used to select the lock strategy of singleton beans with container managed concurrency.
+ */
+public class EJBBoundConcurrencyParser extends AbstractEJBBoundMetaDataParser<EJBBoundConcurrencyMetaData> {
+
+    public static final String NAMESPACE_URI_1_0 = "urn:ejb-concurrency:1.0";
+
+    private static final String ROOT_ELEMENT_CONCURRENCY = "concurrency";
+    private static final String ELEMENT_LOCK_STRATEGY = "lock-strategy";
+
+    @Override
+    public EJBBoundConcurrencyMetaData parse(final XMLStreamReader reader, final PropertyReplacer propertyReplacer) throws XMLStreamException {
+        final String element = reader.getLocalName();
+        // we only parse <concurrency> (root) element
+        if (!ROOT_ELEMENT_CONCURRENCY.equals(element)) {
+            throw unexpectedElement(reader);
+        }
+        final EJBBoundConcurrencyMetaData metaData = new EJBBoundConcurrencyMetaData();
+        this.processElements(metaData, reader, propertyReplacer);
+        return metaData;
+    }
+
+    @Override
+    protected void processElement(final EJBBoundConcurrencyMetaData metaData, final XMLStreamReader reader, final PropertyReplacer propertyReplacer) throws XMLStreamException {
+        // if it doesn't belong to our namespace then let the super handle this
+        if (!NAMESPACE_URI_1_0.equals(reader.getNamespaceURI())) {
+            super.processElement(metaData, reader, propertyReplacer);
+            return;
+        }
+        if (ELEMENT_LOCK_STRATEGY.equals(reader.getLocalName())) {
+            final String name = getElementText(reader, propertyReplacer);
+            final LockStrategy lockStrategy = LockStrategy.forName(name == null ? null : name.trim());
+            if (lockStrategy == null) {
+                throw new XMLStreamException("Unknown " + ELEMENT_LOCK_STRATEGY + " " + name, reader.getLocation());
+            }
+            metaData.setLockStrategy(lockStrategy);
+        } else {
+            throw unexpectedElement(reader);
+        }
+    }
+}
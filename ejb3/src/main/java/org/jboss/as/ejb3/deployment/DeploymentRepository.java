@@ -31,14 +31,14 @@ public interface DeploymentRepository {
     /**
      * Returns all deployments. These deployments may not be in a started state, i.e. not all components might be ready to receive invocations.
      *
-     * @return all deployments
+     * @return an immutable snapshot of all deployments
      */
     Map<DeploymentModuleIdentifier, ModuleDeployment> getModules();
 
     /**
      * Returns all deployments that are in a started state, i.e. all components are ready to receive invocations.
      *
-     * @return all started deployments
+     * @return an immutable snapshot of all started deployments
      */
     Map<DeploymentModuleIdentifier, ModuleDeployment> getStartedModules();
 
@@ -35,6 +35,13 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
      */
     private volatile Map<DeploymentModuleIdentifier, DeploymentHolder> modules;
 
+    /**
+     * Immutable snapshots of all the deployed modules and of the started ones, returned by {@link #getModules()} and
+     * {@link #getStartedModules()}. They are rebuilt when a module is added, started or removed, and read on every invocation.
+     */
+    private volatile Map<DeploymentModuleIdentifier, ModuleDeployment> allModules = Collections.emptyMap();
+    private volatile Map<DeploymentModuleIdentifier, ModuleDeployment> startedModules = Collections.emptyMap();
+
     private final List<DeploymentRepositoryListener> listeners = new ArrayList<DeploymentRepositoryListener>();
 
     /**
@@ -44,13 +51,15 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
 
 
     @Override
-    public void start(StartContext context) throws StartException {
+    public synchronized void start(StartContext context) throws StartException {
         modules = Collections.emptyMap();
+        updateSnapshots();
     }
 
     @Override
-    public void stop(StopContext context) {
+    public synchronized void stop(StopContext context) {
         modules = Collections.emptyMap();
+        updateSnapshots();
     }
 
     @Override
@@ -66,6 +75,7 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
             final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
             modules.put(identifier, new DeploymentHolder(deployment));
             this.modules = Collections.unmodifiableMap(modules);
+            updateSnapshots();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
             suspended = this.suspended;
         }
@@ -89,6 +99,7 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
             deployment = modules.get(identifier);
             if (deployment == null) return false;
             deployment.started = true;
+            updateSnapshots();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
         }
         for (final DeploymentRepositoryListener listener : listeners) {
@@ -121,6 +132,7 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
             final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
             modules.remove(identifier);
             this.modules = Collections.unmodifiableMap(modules);
+            updateSnapshots();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
         }
         for (final DeploymentRepositoryListener listener : listeners) {
@@ -177,22 +189,28 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
 
     @Override
     public Map<DeploymentModuleIdentifier, ModuleDeployment> getModules() {
-        Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
-        for(Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
-            modules.put(entry.getKey(), entry.getValue().deployment);
-        }
-        return modules;
+        return allModules;
     }
 
     @Override
     public Map<DeploymentModuleIdentifier, ModuleDeployment> getStartedModules() {
-        Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
-        for(Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
-            if(entry.getValue().started) {
-                modules.put(entry.getKey(), entry.getValue().deployment);
+        return startedModules;
+    }
+
+    /**
+     * Rebuilds the module snapshots, must be called while holding the lock of this repository
+     */
+    private void updateSnapshots() {
+        Map<DeploymentModuleIdentifier, ModuleDeployment> allModules = new HashMap<>();
+        Map<DeploymentModuleIdentifier, ModuleDeployment> startedModules = new HashMap<>();
+        for (Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
+            allModules.put(entry.getKey(), entry.getValue().deployment);
+            if (entry.getValue().started) {
+                startedModules.put(entry.getKey(), entry.getValue().deployment);
             }
         }
-        return modules;
+        this.allModules = Collections.unmodifiableMap(allModules);
+        this.startedModules = Collections.unmodifiableMap(startedModules);
     }
 
     private static final class DeploymentHolder {
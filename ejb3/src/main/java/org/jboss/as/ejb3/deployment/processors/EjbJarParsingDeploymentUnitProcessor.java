@@ -25,6 +25,7 @@ import org.jboss.as.ee.structure.SpecDescriptorPropertyReplacement;
 import org.jboss.as.ejb3.cache.EJBBoundCacheParser;
 import org.jboss.as.ejb3.clustering.ClusteringSchema;
 import org.jboss.as.ejb3.clustering.EJBBoundClusteringMetaDataParser;
+import org.jboss.as.ejb3.concurrency.EJBBoundConcurrencyParser;
 import org.jboss.as.ejb3.delivery.parser.EJBBoundMdbDeliveryMetaDataParser;
 import org.jboss.as.ejb3.delivery.parser.EjbBoundMdbDeliveryMetaDataSchema;
 import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
@@ -317,10 +318,13 @@ public class EjbJarParsingDeploymentUnitProcessor implements DeploymentUnitProce
 
         parsers.put(EJBBoundPoolParser.NAMESPACE_URI_1_0, new EJBBoundPoolParser());
         parsers.put(EJBBoundPoolParser.NAMESPACE_URI_2_0, new EJBBoundPoolParser());
+        parsers.put(EJBBoundPoolParser.NAMESPACE_URI_3_0, new EJBBoundPoolParser());
 
         parsers.put(EJBBoundCacheParser.NAMESPACE_URI_1_0, new EJBBoundCacheParser());
         parsers.put(EJBBoundCacheParser.NAMESPACE_URI_2_0, new EJBBoundCacheParser());
 
+        parsers.put(EJBBoundConcurrencyParser.NAMESPACE_URI_1_0, new EJBBoundConcurrencyParser());
+
         parsers.put(ContainerInterceptorsParser.NAMESPACE_URI_1_0, ContainerInterceptorsParser.INSTANCE);
         parsers.put(ContainerInterceptorsParser.NAMESPACE_URI_2_0, ContainerInterceptorsParser.INSTANCE);
 
@@ -14,6 +14,7 @@ import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.EJBComponentDescription;
 import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.ejb3.pool.EJBBoundPoolMetaData;
+import org.jboss.as.ejb3.pool.PoolType;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
@@ -68,20 +69,26 @@ public abstract class AbstractPoolMergingProcessor<T extends EJBComponentDescrip
         final List<EJBBoundPoolMetaData> pools = assemblyDescriptor.getAny(EJBBoundPoolMetaData.class);
 
         String poolName = null;
+        PoolType poolType = null;
         if (pools != null) {
             for (final EJBBoundPoolMetaData poolMetaData : pools) {
                 // if this applies for all Jakarta Enterprise Beans and if there isn't a pool name already explicitly specified
                 // for the specific bean (i.e. via an ejb-name match)
                 if ("*".equals(poolMetaData.getEjbName()) && poolName == null) {
                     poolName = poolMetaData.getPoolName();
+                    poolType = poolMetaData.getPoolType();
                 } else if (ejbName.equals(poolMetaData.getEjbName())) {
                     poolName = poolMetaData.getPoolName();
+                    poolType = poolMetaData.getPoolType();
                 }
             }
         }
         if (poolName != null) {
             this.setPoolName(description, poolName);
         }
+        if (poolType != null) {
+            this.setPoolType(description, poolType);
+        }
     }
 
     /**
@@ -92,4 +99,12 @@ public abstract class AbstractPoolMergingProcessor<T extends EJBComponentDescrip
      */
     protected abstract void setPoolName(final T componentDescription, final String poolName);
 
+    /**
+     * Set the type of pool to create for the component
+     *
+     * @param componentDescription The component description
+     * @param poolType             The pool type
+     */
+    protected abstract void setPoolType(final T componentDescription, final PoolType poolType);
+
 }
@@ -18,7 +18,11 @@ import org.jboss.as.ee.metadata.MethodAnnotationAggregator;
 import org.jboss.as.ee.metadata.RuntimeAnnotationInformation;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
+import org.jboss.as.ejb3.component.singleton.LockStrategy;
+import org.jboss.as.ejb3.component.singleton.SingletonComponentDescription;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
+import org.jboss.as.ejb3.concurrency.EJBBoundConcurrencyMetaData;
+import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.reflect.ClassReflectionIndex;
@@ -26,6 +30,7 @@ import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
 import org.jboss.invocation.proxy.MethodIdentifier;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodMetaData;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodsMetaData;
+import org.jboss.metadata.ejb.spec.EjbJarMetaData;
 import org.jboss.metadata.ejb.spec.NamedMethodMetaData;
 import org.jboss.metadata.ejb.spec.SessionBean31MetaData;
 import org.jboss.metadata.ejb.spec.SessionBeanMetaData;
@@ -73,6 +78,14 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
 
     protected void handleDeploymentDescriptor(final DeploymentUnit deploymentUnit, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription componentConfiguration) throws DeploymentUnitProcessingException {
 
+        //handle lock strategy, configured in jboss-ejb3.xml only
+        if (componentConfiguration instanceof SingletonComponentDescription) {
+            final LockStrategy lockStrategy = getLockStrategy(deploymentUnit, componentConfiguration.getComponentName());
+            if (lockStrategy != null) {
+                ((SingletonComponentDescription) componentConfiguration).setLockStrategy(lockStrategy);
+            }
+        }
+
         if (componentConfiguration.getDescriptorData() == null) {
             return;
         }
@@ -110,6 +123,26 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
     }
 
 
+    private static LockStrategy getLockStrategy(final DeploymentUnit deploymentUnit, final String ejbName) {
+        final EjbJarMetaData ejbJarMetaData = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA);
+        if (ejbJarMetaData == null || ejbJarMetaData.getAssemblyDescriptor() == null) {
+            return null;
+        }
+        final List<EJBBoundConcurrencyMetaData> concurrencyMetaDatas = ejbJarMetaData.getAssemblyDescriptor().getAny(EJBBoundConcurrencyMetaData.class);
+        if (concurrencyMetaDatas == null) {
+            return null;
+        }
+        LockStrategy allBeansLockStrategy = null;
+        for (final EJBBoundConcurrencyMetaData concurrencyMetaData : concurrencyMetaDatas) {
+            if (ejbName.equals(concurrencyMetaData.getEjbName())) {
+                return concurrencyMetaData.getLockStrategy();
+            } else if ("*".equals(concurrencyMetaData.getEjbName())) {
+                allBeansLockStrategy = concurrencyMetaData.getLockStrategy();
+            }
+        }
+        return allBeansLockStrategy;
+    }
+
     private Method resolveMethod(final DeploymentReflectionIndex index, final Class<?> currentClass, final Class<?> componentClass, final NamedMethodMetaData methodData) throws DeploymentUnitProcessingException {
         if (currentClass == null) {
             throw EjbLogger.ROOT_LOGGER.failToFindMethodWithParameterTypes(componentClass.getName(), methodData.getMethodName(), methodData.getMethodParams());
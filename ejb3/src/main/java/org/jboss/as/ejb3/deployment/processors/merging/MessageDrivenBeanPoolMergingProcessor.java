@@ -6,6 +6,7 @@
 package org.jboss.as.ejb3.deployment.processors.merging;
 
 import org.jboss.as.ejb3.component.messagedriven.MessageDrivenComponentDescription;
+import org.jboss.as.ejb3.pool.PoolType;
 
 /**
  * Sets up the component description for a MDB with the pool name configured via {@link org.jboss.ejb3.annotation.Pool}
@@ -23,4 +24,9 @@ public class MessageDrivenBeanPoolMergingProcessor extends AbstractPoolMergingPr
     protected void setPoolName(final MessageDrivenComponentDescription componentDescription, final String poolName) {
         componentDescription.setPoolConfigName(poolName);
     }
+
+    @Override
+    protected void setPoolType(final MessageDrivenComponentDescription componentDescription, final PoolType poolType) {
+        componentDescription.setPoolType(poolType);
+    }
 }
@@ -6,6 +6,7 @@
 package org.jboss.as.ejb3.deployment.processors.merging;
 
 import org.jboss.as.ejb3.component.stateless.StatelessComponentDescription;
+import org.jboss.as.ejb3.pool.PoolType;
 
 /**
  * Sets up the stateless bean component description with the pool name configured for the bean via the {@link org.jboss.ejb3.annotation.Pool}
@@ -24,4 +25,9 @@ public class StatelessSessionBeanPoolMergingProcessor extends AbstractPoolMergin
     protected void setPoolName(final StatelessComponentDescription componentDescription, final String poolName) {
         componentDescription.setPoolConfigName(poolName);
     }
+
+    @Override
+    protected void setPoolType(final StatelessComponentDescription componentDescription, final PoolType poolType) {
+        componentDescription.setPoolType(poolType);
+    }
 }
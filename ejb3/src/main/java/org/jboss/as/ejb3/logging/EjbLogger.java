@@ -3255,4 +3255,28 @@ public interface EjbLogger extends BasicLogger {
 
     @Message(id = 536, value = "Unsupported EJB receiver protocol %s")
     IllegalArgumentException unsupportedEJBReceiverProtocol(String uriScheme);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 537, value = "Failed to dispatch timeout task %s")
+    void failedToDispatchTimeout(Runnable task, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 538, value = "Failed to write %d timer updates to the file data store, they will be retried")
+    void failToWriteTimers(int count, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 539, value = "Timer journal %s ends with an incomplete or corrupt record at offset %d, truncating it")
+    void truncatingTimerJournal(File file, long offset);
+
+    @LogMessage(level = WARN)
+    @Message(id = 540, value = "Failed to passivate stateful session bean %s, it is kept in memory")
+    void failedToPassivateBean(Object id, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 541, value = "Failed to activate stateful session bean %s")
+    void failedToActivateBean(Object id, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 542, value = "Failed to compact timer journal %s, appending to the current one")
+    void failedToCompactTimerJournal(File file, @Cause Throwable cause);
 }
@@ -8,7 +8,7 @@ package org.jboss.as.ejb3.pool;
 import org.jboss.metadata.ejb.parser.jboss.ejb3.AbstractEJBBoundMetaData;
 
 /**
- * Metadata represents the pool name configured for EJBs via the jboss-ejb3.xml deployment descriptor
+ * Metadata represents the pool name, and optionally the pool type, configured for EJBs via the jboss-ejb3.xml deployment descriptor
  *
  * @author Jaikiran Pai
  */
@@ -16,6 +16,8 @@ public class EJBBoundPoolMetaData extends AbstractEJBBoundMetaData {
 
     private String poolName;
 
+    private PoolType poolType;
+
     public String getPoolName() {
         return poolName;
     }
@@ -23,4 +25,12 @@ public class EJBBoundPoolMetaData extends AbstractEJBBoundMetaData {
     public void setPoolName(final String poolName) {
         this.poolName = poolName;
     }
+
+    public PoolType getPoolType() {
+        return poolType;
+    }
+
+    public void setPoolType(final PoolType poolType) {
+        this.poolType = poolType;
+    }
 }
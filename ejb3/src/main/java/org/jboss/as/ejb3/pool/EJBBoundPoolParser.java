@@ -13,7 +13,7 @@ import org.jboss.metadata.property.PropertyReplacer;
 
 /**
  * Parser for <code>urn:ejb-pool</code> namespace. The <code>urn:ejb-pool</code> namespace elements
- * can be used to configure pool names for Jakarta Enterprise Beans.
+ * can be used to configure pool names, and since 3.0 the pool type, for Jakarta Enterprise Beans.
  *
  * @author Jaikiran Pai
  */
@@ -21,9 +21,11 @@ public class EJBBoundPoolParser extends AbstractEJBBoundMetaDataParser<EJBBoundP
 
     public static final String NAMESPACE_URI_1_0 = "urn:ejb-pool:1.0";
     public static final String NAMESPACE_URI_2_0 = "urn:ejb-pool:2.0";
+    public static final String NAMESPACE_URI_3_0 = "urn:ejb-pool:3.0";
 
     private static final String ROOT_ELEMENT_POOL = "pool";
     private static final String ELEMENT_BEAN_INSTANCE_POOL_REF = "bean-instance-pool-ref";
+    private static final String ELEMENT_BEAN_INSTANCE_POOL_TYPE = "bean-instance-pool-type";
 
     @Override
     public EJBBoundPoolMetaData parse(final XMLStreamReader reader, final PropertyReplacer propertyReplacer) throws XMLStreamException {
@@ -42,7 +44,7 @@ public class EJBBoundPoolParser extends AbstractEJBBoundMetaDataParser<EJBBoundP
         final String namespaceURI = reader.getNamespaceURI();
         final String elementName = reader.getLocalName();
         // if it doesn't belong to our namespace then let the super handle this
-        if (!NAMESPACE_URI_1_0.equals(namespaceURI) && !NAMESPACE_URI_2_0.equals(namespaceURI)) {
+        if (!NAMESPACE_URI_1_0.equals(namespaceURI) && !NAMESPACE_URI_2_0.equals(namespaceURI) && !NAMESPACE_URI_3_0.equals(namespaceURI)) {
             super.processElement(poolMetaData, reader, propertyReplacer);
             return;
         }
@@ -50,6 +52,13 @@ public class EJBBoundPoolParser extends AbstractEJBBoundMetaDataParser<EJBBoundP
             final String poolName = getElementText(reader, propertyReplacer);
             // set the pool name in the metadata
             poolMetaData.setPoolName(poolName);
+        } else if (ELEMENT_BEAN_INSTANCE_POOL_TYPE.equals(elementName) && NAMESPACE_URI_3_0.equals(namespaceURI)) {
+            final String poolTypeName = getElementText(reader, propertyReplacer);
+            final PoolType poolType = PoolType.forName(poolTypeName == null ? null : poolTypeName.trim());
+            if (poolType == null) {
+                throw new XMLStreamException("Unknown " + ELEMENT_BEAN_INSTANCE_POOL_TYPE + " " + poolTypeName, reader.getLocation());
+            }
+            poolMetaData.setPoolType(poolType);
         } else {
             throw unexpectedElement(reader);
         }
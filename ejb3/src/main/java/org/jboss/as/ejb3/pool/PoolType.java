@@ -0,0 +1,46 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.pool;
+
+/**
+ * The pool implementations that can be selected for a bean via the <code>urn:ejb-pool</code> deployment descriptor
+ * elements. The selected type decides how the instances are held, the size and timeout rules still come from the
+ * referenced pool configuration.
+ */
+public enum PoolType {
+    /**
+     * A single permit counter and a single queue of idle instances, see {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}
+     */
+    STRICT_MAX("strict-max"),
+    /**
+     * Permits and idle instances striped per core, see {@link org.jboss.as.ejb3.pool.striped.StripedMaxPool}
+     */
+    STRIPED_MAX("striped-max"),
+    /**
+     * Effective size adapted between a floor and the configured max size, see {@link org.jboss.as.ejb3.pool.adaptive.AdaptivePool}
+     */
+    ADAPTIVE("adaptive"),
+    ;
+
+    private final String localName;
+
+    PoolType(final String localName) {
+        this.localName = localName;
+    }
+
+    public String getLocalName() {
+        return this.localName;
+    }
+
+    public static PoolType forName(final String localName) {
+        for (PoolType type : values()) {
+            if (type.localName.equals(localName)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
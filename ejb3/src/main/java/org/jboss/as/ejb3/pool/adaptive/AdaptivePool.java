@@ -0,0 +1,294 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.pool.adaptive;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.wildfly.clustering.context.DefaultThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A pool whose effective maximum size moves between a floor and a ceiling.
+ * <p/>
+ * The effective size grows by one permit whenever a caller had to wait longer than the grow threshold for an
+ * instance, up to the ceiling. A background task destroys instances which stayed idle longer than the idle timeout
+ * and, provided no caller had to wait since the previous run, gives up the corresponding permits, down to the floor.
+ * Callers which cannot get a permit within the configured timeout fail just like with a strict max pool.
+ */
+public class AdaptivePool<T> extends AbstractPool<T> {
+
+    public static final long DEFAULT_GROW_THRESHOLD_MILLIS = 10;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final ThreadFactory THREAD_FACTORY = new DefaultThreadFactory(AdaptivePool.class, WildFlySecurityManager.getClassLoaderPrivileged(AdaptivePool.class));
+
+    private final AdjustableSemaphore semaphore;
+    private final int minSize;
+    /**
+     * The ceiling of the pool, guarded by this
+     */
+    private int maxSize;
+    /**
+     * The current effective max size, only modified while holding this
+     */
+    private volatile int adaptiveSize;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final long growThresholdNanos;
+    private final long idleTimeoutNanos;
+    /**
+     * Most recently released instances first, so that the instances at the tail are the ones idle for the longest time.
+     */
+    private final Deque<IdleInstance<T>> pool = new ConcurrentLinkedDeque<>();
+    /**
+     * The number of acquisitions that had to wait since the last trim.
+     */
+    private final AtomicInteger contended = new AtomicInteger(0);
+
+    private volatile ScheduledExecutorService trimmer;
+
+    public AdaptivePool(StatelessObjectFactory<T> factory, int minSize, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, minSize, maxSize, timeout, timeUnit, DEFAULT_GROW_THRESHOLD_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public AdaptivePool(StatelessObjectFactory<T> factory, int minSize, int maxSize, long timeout, TimeUnit timeUnit, long growThreshold, long idleTimeout, TimeUnit thresholdUnit) {
+        super(factory);
+        this.minSize = Math.min(Math.max(1, minSize), maxSize);
+        this.maxSize = maxSize;
+        this.adaptiveSize = this.minSize;
+        this.semaphore = new AdjustableSemaphore(this.minSize);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        this.growThresholdNanos = Math.max(1L, thresholdUnit.toNanos(growThreshold));
+        this.idleTimeoutNanos = thresholdUnit.toNanos(idleTimeout);
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return Math.max(0, semaphore.availablePermits());
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the effective maximum size the pool adapted to, which is always between the floor and the ceiling.
+     *
+     * @return the current effective maximum size
+     */
+    public int getAdaptiveSize() {
+        return adaptiveSize;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Moves the ceiling of the pool, which never goes below the floor. The effective size is lowered if it is above
+     * the new ceiling.
+     *
+     * @param maxSize the new ceiling
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(maxSize, this.minSize);
+        if (this.adaptiveSize > this.maxSize) {
+            this.semaphore.reducePermits(this.adaptiveSize - this.maxSize);
+            this.adaptiveSize = this.maxSize;
+        }
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        if (!semaphore.tryAcquire()) {
+            this.contended.incrementAndGet();
+            try {
+                if (!this.acquire()) {
+                    throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(timeout, timeUnit);
+                }
+            } catch (InterruptedException e) {
+                throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+            }
+        }
+
+        IdleInstance<T> idle = pool.pollFirst();
+
+        if (idle != null) {
+            //we found a bean instance in the pool, return it
+            return idle.instance;
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Waits for a permit, growing the effective size each time the grow threshold elapses without getting one.
+     */
+    private boolean acquire() throws InterruptedException {
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0L) {
+            if (semaphore.tryAcquire(Math.min(remaining, growThresholdNanos), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            this.grow();
+            remaining = deadline - System.nanoTime();
+        }
+        return false;
+    }
+
+    private synchronized void grow() {
+        if (this.adaptiveSize < this.maxSize) {
+            this.adaptiveSize++;
+            this.semaphore.release();
+            if (ROOT_LOGGER.isTraceEnabled()) {
+                ROOT_LOGGER.tracef("%s grown to %s/%s", this, this.adaptiveSize, this.maxSize);
+            }
+        }
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", semaphore.availablePermits(), adaptiveSize, this);
+        }
+
+        pool.offerFirst(new IdleInstance<>(obj, System.nanoTime()));
+
+        semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    /**
+     * Destroys the instances idle for longer than the idle timeout and, unless callers had to wait since the last run,
+     * shrinks the effective size by as many permits, without going below the floor.
+     */
+    void trim() {
+        final boolean uncontended = this.contended.getAndSet(0) == 0;
+        final long now = System.nanoTime();
+        int trimmed = 0;
+        for (IdleInstance<T> idle = pool.peekLast(); idle != null && now - idle.since > idleTimeoutNanos; idle = pool.peekLast()) {
+            // the instance might have just been taken by a caller, in which case it is not ours to destroy
+            if (pool.removeLastOccurrence(idle)) {
+                destroy(idle.instance);
+                trimmed++;
+            }
+        }
+        if (uncontended && trimmed > 0) {
+            synchronized (this) {
+                int shrink = Math.min(trimmed, this.adaptiveSize - this.minSize);
+                if (shrink > 0) {
+                    this.semaphore.reducePermits(shrink);
+                    this.adaptiveSize -= shrink;
+                    if (ROOT_LOGGER.isTraceEnabled()) {
+                        ROOT_LOGGER.tracef("%s shrunk to %s/%s", this, this.adaptiveSize, this.maxSize);
+                    }
+                }
+            }
+        }
+    }
+
+    public void start() {
+        if (this.idleTimeoutNanos > 0L) {
+            final long period = Math.max(1L, this.idleTimeoutNanos / 2);
+            this.trimmer = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+            this.trimmer.scheduleWithFixedDelay(this::trim, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void stop() {
+        final ScheduledExecutorService trimmer = this.trimmer;
+        if (trimmer != null) {
+            trimmer.shutdownNow();
+            this.trimmer = null;
+        }
+        for (IdleInstance<T> idle = pool.poll(); idle != null; idle = pool.poll()) {
+            destroy(idle.instance);
+        }
+    }
+
+    private static class IdleInstance<T> {
+        final T instance;
+        final long since;
+
+        IdleInstance(T instance, long since) {
+            this.instance = instance;
+            this.since = since;
+        }
+    }
+
+    private static class AdjustableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 4431361440584858218L;
+
+        AdjustableSemaphore(int permits) {
+            super(permits, false);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, which follows the same rules as {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}
+ * but splits both its permits and its idle instances into per-core stripes.
+ * <p/>
+ * A thread first works against the stripe it hashes to and only visits the other stripes when its own stripe has
+ * no permit or no idle instance left. Threads only block on the shared lock once every stripe is out of permits,
+ * so under normal load {@link #get()} and {@link #release(Object)} do not touch any state shared by all callers.
+ */
+public class StripedMaxPool<T> extends AbstractPool<T> {
+
+    private final Stripe<T>[] stripes;
+    private final int mask;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private volatile int maxSize;
+    /**
+     * The time to wait for a permit.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * Only used once all stripes ran out of permits.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = this.lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger(0);
+
+    public StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrency) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // power of two, never more stripes than permits so that each stripe starts with at least one
+        int count = 1;
+        while (count < concurrency && (count << 1) <= maxSize) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            // spread the permits as evenly as possible
+            this.stripes[i] = new Stripe<>(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        releasePermit(this.stripe());
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        int available = 0;
+        for (Stripe<T> stripe : this.stripes) {
+            available += stripe.permits.get();
+        }
+        // the permits of a stripe are negative while the pool is shrinking
+        return Math.max(available, 0);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Changes the maximum size of the pool, by adding or removing permits from the stripes.
+     * <p/>
+     * When the pool shrinks, the permits of a stripe can become negative: the instances in use above the new
+     * maximum size then give back their permits without them being handed out again.
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        final int delta = Math.max(maxSize, 1) - this.maxSize;
+        if (delta == 0) {
+            return;
+        }
+        this.maxSize += delta;
+        final int count = this.stripes.length;
+        final int remainder = Math.abs(delta) % count;
+        for (int i = 0; i < count; i++) {
+            // spread the change as evenly as possible
+            final int change = Math.abs(delta) / count + (i < remainder ? 1 : 0);
+            this.stripes[i].permits.addAndGet(delta > 0 ? change : -change);
+        }
+        if (delta > 0 && this.waiters.get() > 0) {
+            this.lock.lock();
+            try {
+                this.permitReleased.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        final int index = this.index();
+        if (!this.tryAcquirePermit(index)) {
+            try {
+                if (!this.acquirePermit(index)) {
+                    throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(timeout, timeUnit);
+                }
+            } catch (InterruptedException e) {
+                throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+            }
+        }
+
+        T bean = this.poll(index);
+
+        if (bean != null) {
+            //we found a bean instance in the pool, return it
+            return bean;
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                releasePermit(this.stripes[index]);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", getAvailableCount(), maxSize, this);
+        }
+
+        final Stripe<T> stripe = this.stripe();
+        // the instance must be visible before the permit, see StrictMaxPool
+        stripe.idle.add(obj);
+
+        releasePermit(stripe);
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        releasePermit(this.stripe());
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+        // nothing to do
+    }
+
+    public void stop() {
+        for (Stripe<T> stripe : this.stripes) {
+            for (T obj = stripe.idle.poll(); obj != null; obj = stripe.idle.poll()) {
+                destroy(obj);
+            }
+        }
+    }
+
+    private int index() {
+        // Fibonacci hashing of the thread id, so that consecutive ids end up on different stripes
+        return (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) & this.mask;
+    }
+
+    private Stripe<T> stripe() {
+        return this.stripes[this.index()];
+    }
+
+    private T poll(int index) {
+        T bean = this.stripes[index].idle.poll();
+        for (int i = 1; bean == null && i < this.stripes.length; i++) {
+            bean = this.stripes[(index + i) & this.mask].idle.poll();
+        }
+        return bean;
+    }
+
+    /**
+     * Tries to take a permit from the given stripe first, then from any other stripe, without blocking.
+     */
+    private boolean tryAcquirePermit(int index) {
+        for (int i = 0; i < this.stripes.length; i++) {
+            if (this.stripes[(index + i) & this.mask].tryAcquire()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Slow path, entered once all stripes are out of permits.
+     */
+    private boolean acquirePermit(int index) throws InterruptedException {
+        long nanos = this.timeUnit.toNanos(this.timeout);
+        this.lock.lockInterruptibly();
+        try {
+            // publish ourselves before checking again so that a concurrent release either signals us or is seen below
+            this.waiters.incrementAndGet();
+            try {
+                while (!this.tryAcquirePermit(index)) {
+                    if (nanos <= 0L) {
+                        return false;
+                    }
+                    nanos = this.permitReleased.awaitNanos(nanos);
+                }
+                return true;
+            } finally {
+                this.waiters.decrementAndGet();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void releasePermit(Stripe<T> stripe) {
+        stripe.permits.incrementAndGet();
+        if (this.waiters.get() > 0) {
+            this.lock.lock();
+            try {
+                this.permitReleased.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    private static class Stripe<T> {
+        final AtomicInteger permits;
+        final Queue<T> idle = new ConcurrentLinkedQueue<>();
+
+        Stripe(int permits) {
+            this.permits = new AtomicInteger(permits);
+        }
+
+        boolean tryAcquire() {
+            for (int current = this.permits.get(); current > 0; current = this.permits.get()) {
+                if (this.permits.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.jboss.as.ee.component.ComponentIsStoppedException;
 import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ee.component.interceptors.InvocationType;
 import org.jboss.as.ejb3.component.EJBComponentUnavailableException;
+import org.jboss.as.ejb3.component.EJBViewMethodIndex;
 import org.jboss.as.ejb3.component.interceptors.CancellationFlag;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
@@ -639,26 +640,7 @@ final class AssociationImpl implements Association, AutoCloseable {
     }
 
     private static Method findMethod(final ComponentView componentView, final EJBMethodLocator ejbMethodLocator) {
-        final Set<Method> viewMethods = componentView.getViewMethods();
-        for (final Method method : viewMethods) {
-            if (method.getName().equals(ejbMethodLocator.getMethodName())) {
-                final Class<?>[] methodParamTypes = method.getParameterTypes();
-                if (methodParamTypes.length != ejbMethodLocator.getParameterCount()) {
-                    continue;
-                }
-                boolean found = true;
-                for (int i = 0; i < methodParamTypes.length; i++) {
-                    if (!methodParamTypes[i].getName().equals(ejbMethodLocator.getParameterTypeName(i))) {
-                        found = false;
-                        break;
-                    }
-                }
-                if (found) {
-                    return method;
-                }
-            }
-        }
-        return null;
+        return EJBViewMethodIndex.findMethod(componentView, ejbMethodLocator);
     }
 
     private static Affinity getStrongAffinity(final StatefulSessionComponent statefulSessionComponent) {
@@ -5,6 +5,8 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import org.wildfly.security.manager.WildFlySecurityManager;
+
 /**
  * @author <a href="mailto:ropalka@redhat.com">Richard Opalka</a>
  */
@@ -12,6 +14,7 @@ public final class EJBStatistics {
 
     private static final EJBStatistics INSTANCE = new EJBStatistics();
     private volatile boolean enabled;
+    private final boolean histogramsEnabled = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.statistics.histograms", "false"));
 
     private EJBStatistics() {}
 
@@ -23,6 +26,14 @@ public final class EJBStatistics {
         this.enabled = enabled;
     }
 
+    /**
+     * Whether components also record the distribution of their execution and wait times, which costs a few kilobytes
+     * per component and per method. Only read at startup.
+     */
+    public boolean isHistogramsEnabled() {
+        return histogramsEnabled;
+    }
+
     public static EJBStatistics getInstance() {
         return INSTANCE;
     }
@@ -4,51 +4,123 @@
  */
 package org.jboss.as.ejb3.subsystem;
 
+import static org.jboss.as.controller.registry.AttributeAccess.Flag.COUNTER_METRIC;
+
 import java.util.List;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.EEModuleConfiguration;
 import org.jboss.as.ejb3.component.stateful.StatefulComponentDescription;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanCacheProvider;
 import org.jboss.as.ejb3.component.stateful.cache.simple.SimpleStatefulSessionBeanCacheFactoryServiceInstallerFactory;
+import org.jboss.as.ejb3.component.stateful.cache.simple.SimpleStatefulSessionBeanCacheStatistics;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.wildfly.subsystem.service.ServiceDependency;
 import org.wildfly.subsystem.service.ServiceInstaller;
 
 /**
  * Defines a CacheFactoryBuilder instance which, during deployment, is used to configure, build and install a CacheFactory for the SFSB being deployed.
  * The CacheFactory resource instances defined here produce bean caches which are non distributed and do not have passivation-enabled.
+ * Unless the {@code jboss.ejb.stateful.simple-cache.max-size} system property bounds them, in which case they passivate
+ * to a local store the least recently used bean instances beyond that size; the resource then exposes the eviction,
+ * passivation and activation metrics of all its caches.
  *
  * @author Paul Ferraro
  * @author Richard Achmatowicz
  */
 public class SimpleStatefulSessionBeanCacheProviderResourceDefinition extends StatefulSessionBeanCacheProviderResourceDefinition {
 
+    enum Metric {
+        EVICTION_COUNT("eviction-count", SimpleStatefulSessionBeanCacheStatistics::getEvictionCount, null),
+        PASSIVATION_COUNT("passivation-count", SimpleStatefulSessionBeanCacheStatistics::getPassivationCount, null),
+        ACTIVATION_COUNT("activation-count", SimpleStatefulSessionBeanCacheStatistics::getActivationCount, null),
+        AVERAGE_PASSIVATION_TIME("average-passivation-time", SimpleStatefulSessionBeanCacheStatistics::getAveragePassivationTime, MeasurementUnit.MICROSECONDS),
+        AVERAGE_ACTIVATION_TIME("average-activation-time", SimpleStatefulSessionBeanCacheStatistics::getAverageActivationTime, MeasurementUnit.MICROSECONDS),
+        ;
+        private final AttributeDefinition definition;
+        private final ToLongFunction<SimpleStatefulSessionBeanCacheStatistics> reader;
+
+        Metric(String name, ToLongFunction<SimpleStatefulSessionBeanCacheStatistics> reader, MeasurementUnit unit) {
+            SimpleAttributeDefinitionBuilder builder = new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                    .setUndefinedMetricValue(ModelNode.ZERO)
+                    .setStorageRuntime();
+            this.definition = (unit != null) ? builder.setMeasurementUnit(unit).build() : builder.setFlags(COUNTER_METRIC).build();
+            this.reader = reader;
+        }
+
+        AttributeDefinition getDefinition() {
+            return this.definition;
+        }
+    }
+
     public SimpleStatefulSessionBeanCacheProviderResourceDefinition() {
         super(EJB3SubsystemModel.SIMPLE_CACHE_PATH, UnaryOperator.identity());
     }
 
+    @Override
+    public ManagementResourceRegistration register(ManagementResourceRegistration parent) {
+        ManagementResourceRegistration registration = super.register(parent);
+        for (Metric metric : Metric.values()) {
+            registration.registerMetric(metric.getDefinition(), new MetricHandler(metric.reader));
+        }
+        return registration;
+    }
+
     @Override
     public ServiceDependency<StatefulSessionBeanCacheProvider> resolve(OperationContext context, ModelNode model) throws OperationFailedException {
-        return ServiceDependency.of(new StatefulSessionBeanCacheProvider() {
-            @Override
-            public Iterable<ServiceInstaller> getDeploymentServiceInstallers(DeploymentUnit unit, EEModuleConfiguration moduleConfiguration) {
-                return List.of();
-            }
+        return ServiceDependency.of(new SimpleStatefulSessionBeanCacheProvider());
+    }
 
-            @Override
-            public Iterable<ServiceInstaller> getStatefulBeanCacheFactoryServiceInstallers(DeploymentUnit unit, StatefulComponentDescription description, ComponentConfiguration configuration) {
-                return List.of(new SimpleStatefulSessionBeanCacheFactoryServiceInstallerFactory<>().apply(description));
-            }
+    private static class SimpleStatefulSessionBeanCacheProvider implements StatefulSessionBeanCacheProvider {
+        private final SimpleStatefulSessionBeanCacheStatistics statistics = new SimpleStatefulSessionBeanCacheStatistics();
+
+        @Override
+        public Iterable<ServiceInstaller> getDeploymentServiceInstallers(DeploymentUnit unit, EEModuleConfiguration moduleConfiguration) {
+            return List.of();
+        }
+
+        @Override
+        public Iterable<ServiceInstaller> getStatefulBeanCacheFactoryServiceInstallers(DeploymentUnit unit, StatefulComponentDescription description, ComponentConfiguration configuration) {
+            return List.of(new SimpleStatefulSessionBeanCacheFactoryServiceInstallerFactory<>(this.statistics, configuration.getModuleClassLoader()).apply(description));
+        }
+
+        @Override
+        public boolean supportsPassivation() {
+            return false;
+        }
+
+        SimpleStatefulSessionBeanCacheStatistics getStatistics() {
+            return this.statistics;
+        }
+    }
+
+    private static class MetricHandler implements OperationStepHandler {
+        private final ToLongFunction<SimpleStatefulSessionBeanCacheStatistics> reader;
+
+        MetricHandler(ToLongFunction<SimpleStatefulSessionBeanCacheStatistics> reader) {
+            this.reader = reader;
+        }
 
-            @Override
-            public boolean supportsPassivation() {
-                return false;
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(CAPABILITY.getCapabilityServiceName(context.getCurrentAddress()));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                return;
             }
-        });
+            SimpleStatefulSessionBeanCacheStatistics statistics = ((SimpleStatefulSessionBeanCacheProvider) controller.getValue()).getStatistics();
+            context.getResult().set(this.reader.applyAsLong(statistics));
+        }
     }
 }
@@ -8,6 +8,8 @@ package org.jboss.as.ejb3.subsystem;
 import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 
 import java.util.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.OperationContext;
@@ -17,10 +19,14 @@ import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
 import org.jboss.as.ejb3.timerservice.TimerServiceMetaData;
+import org.jboss.as.ejb3.timerservice.scheduler.TimerScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.TimingWheelScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
+import org.wildfly.subsystem.service.ServiceDependency;
 import org.wildfly.subsystem.service.capability.CapabilityServiceInstaller;
 
 /**
@@ -30,6 +36,18 @@ import org.wildfly.subsystem.service.capability.CapabilityServiceInstaller;
  */
 public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
 
+    /**
+     * Selects the scheduler of the timeouts of the timer services: {@value #TIMING_WHEEL}, the default, or {@value #TIMER}
+     * to fall back to a shared {@link Timer}.
+     */
+    static final String TIMEOUT_SCHEDULER = "jboss.ejb.timer.scheduler";
+    static final String TIMING_WHEEL = "timing-wheel";
+    static final String TIMER = "timer";
+    /**
+     * The resolution of the timing wheel, in milliseconds.
+     */
+    static final String TIMING_WHEEL_TICK = "jboss.ejb.timer.scheduler.tick";
+
     @Override
     protected void performBoottime(final OperationContext context, ModelNode operation, final ModelNode model) throws OperationFailedException {
 
@@ -54,6 +72,14 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
 
         if (threadPoolName != null) {
             CapabilityServiceInstaller.builder(TimerServiceResourceDefinition.TIMER_SERVICE_CAPABILITY, Timer::new).onStop(Timer::cancel).build().install(context);
+            if (TIMER.equals(WildFlySecurityManager.getPropertyPrivileged(TIMEOUT_SCHEDULER, TIMING_WHEEL))) {
+                CapabilityServiceInstaller.builder(TimerServiceResourceDefinition.TIMEOUT_SCHEDULER_CAPABILITY, ServiceDependency.on(TimerServiceResourceDefinition.TIMER_SERVICE_DESCRIPTOR).map(TimerScheduler::new)).build().install(context);
+            } else {
+                long tick = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(TIMING_WHEEL_TICK, "1"));
+                // timeouts only hand off to the thread pool of the timer service, so they are run by the thread of the wheel
+                Supplier<TimingWheelScheduler> factory = () -> new TimingWheelScheduler(Runnable::run, tick, TimeUnit.MILLISECONDS);
+                CapabilityServiceInstaller.builder(TimerServiceResourceDefinition.TIMEOUT_SCHEDULER_CAPABILITY, factory).onStart(TimingWheelScheduler::start).onStop(TimingWheelScheduler::stop).build().install(context);
+            }
         }
     }
 }
@@ -19,6 +19,7 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.dmr.ModelType;
 import org.wildfly.clustering.ejb.timer.TimerManagementProvider;
 import org.wildfly.service.descriptor.NullaryServiceDescriptor;
@@ -33,6 +34,8 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
 
     public static final NullaryServiceDescriptor<Timer> TIMER_SERVICE_DESCRIPTOR = NullaryServiceDescriptor.of("org.wildfly.ejb3.timer-service", Timer.class);
     static final RuntimeCapability<Void> TIMER_SERVICE_CAPABILITY = RuntimeCapability.Builder.of(TIMER_SERVICE_DESCRIPTOR).build();
+    public static final NullaryServiceDescriptor<TimeoutScheduler> TIMEOUT_SCHEDULER_DESCRIPTOR = NullaryServiceDescriptor.of("org.wildfly.ejb3.timer-service.timeout-scheduler", TimeoutScheduler.class);
+    static final RuntimeCapability<Void> TIMEOUT_SCHEDULER_CAPABILITY = RuntimeCapability.Builder.of(TIMEOUT_SCHEDULER_DESCRIPTOR).build();
 
     static final SimpleAttributeDefinition THREAD_POOL_NAME =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.THREAD_POOL_NAME, ModelType.STRING)
@@ -77,7 +80,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                 .setRemoveHandler(ReloadRequiredRemoveStepHandler.INSTANCE)
                 .setAddRestartLevel(OperationEntry.Flag.RESTART_ALL_SERVICES)
                 .setRemoveRestartLevel(OperationEntry.Flag.RESTART_ALL_SERVICES)
-                .setCapabilities(TIMER_SERVICE_CAPABILITY));
+                .setCapabilities(TIMER_SERVICE_CAPABILITY, TIMEOUT_SCHEDULER_CAPABILITY));
         this.pathManager = pathManager;
     }
 
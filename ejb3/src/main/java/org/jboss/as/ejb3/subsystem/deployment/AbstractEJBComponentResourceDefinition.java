@@ -23,12 +23,14 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponentInstance;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanCache;
@@ -97,14 +99,33 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
             .build();
 
+    // only defined when histograms are enabled, see EJBStatistics#isHistogramsEnabled()
+    private static final double[] PERCENTILES = { 50d, 99d, 99.9d };
+    private static final AttributeDefinition[] EXECUTION_TIME_PERCENTILES = percentiles("execution-time");
+    private static final AttributeDefinition[] WAIT_TIME_PERCENTILES = percentiles("wait-time");
+
     private static final AttributeDefinition METHODS = ObjectMapAttributeDefinition.Builder.of(
             "methods",
-            ObjectTypeAttributeDefinition.Builder.of("complex", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
+            ObjectTypeAttributeDefinition.Builder.of("complex", EXECUTION_TIME, INVOCATIONS, WAIT_TIME,
+                    EXECUTION_TIME_PERCENTILES[0], EXECUTION_TIME_PERCENTILES[1], EXECUTION_TIME_PERCENTILES[2],
+                    WAIT_TIME_PERCENTILES[0], WAIT_TIME_PERCENTILES[1], WAIT_TIME_PERCENTILES[2])
             .build())
             .setRequired(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static AttributeDefinition[] percentiles(final String prefix) {
+        final String[] suffixes = { "p50", "p99", "p999" };
+        final AttributeDefinition[] attributes = new AttributeDefinition[suffixes.length];
+        for (int i = 0; i < suffixes.length; i++) {
+            attributes[i] = new SimpleAttributeDefinitionBuilder(prefix + "-" + suffixes[i], ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+        }
+        return attributes;
+    }
+
     public static final SimpleAttributeDefinition RUN_AS_ROLE = new SimpleAttributeDefinitionBuilder("run-as-role", ModelType.STRING, true)
             .setValidator(new StringLengthValidator(1, true))
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -147,6 +168,8 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_ADAPTIVE_SIZE = new SimpleAttributeDefinitionBuilder("pool-adaptive-size", ModelType.INT, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
 
     static final ObjectTypeAttributeDefinition TIMER = new ObjectTypeAttributeDefinition.Builder("timer",
             TIME_REMAINING, NEXT_TIMEOUT, CALENDAR_TIMER, PERSISTENT, INFO, new ObjectTypeAttributeDefinition.Builder(SCHEDULE.getName(), SCHEDULE.getValueTypes()).setSuffix("schedule").build())
@@ -193,6 +216,7 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(POOL_REMOVE_COUNT, handler);
             resourceRegistration.registerReadOnlyAttribute(POOL_CURRENT_SIZE, handler);
             resourceRegistration.registerReadWriteAttribute(POOL_MAX_SIZE, handler, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_ADAPTIVE_SIZE, handler);
         }
 
         if (componentType.equals(EJBComponentType.STATEFUL)) {
@@ -243,6 +267,27 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            final double percentile = PERCENTILES[i];
+            resourceRegistration.registerMetric(EXECUTION_TIME_PERCENTILES[i], new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
+                    final LatencyHistogram histogram = component.getInvocationMetrics().getExecutionTimeHistogram();
+                    if (histogram != null) {
+                        context.getResult().set(histogram.getValueAtPercentile(percentile));
+                    }
+                }
+            });
+            resourceRegistration.registerMetric(WAIT_TIME_PERCENTILES[i], new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
+                    final LatencyHistogram histogram = component.getInvocationMetrics().getWaitTimeHistogram();
+                    if (histogram != null) {
+                        context.getResult().set(histogram.getValueAtPercentile(percentile));
+                    }
+                }
+            });
+        }
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
@@ -253,12 +298,22 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     result.get("execution-time").set(values.getExecutionTime());
                     result.get("invocations").set(values.getInvocations());
                     result.get("wait-time").set(values.getWaitTime());
+                    setPercentiles(result, EXECUTION_TIME_PERCENTILES, values.getExecutionTimeHistogram());
+                    setPercentiles(result, WAIT_TIME_PERCENTILES, values.getWaitTimeHistogram());
                     context.getResult().get(entry.getKey()).set(result);
                 }
             }
         });
     }
 
+    private static void setPercentiles(final ModelNode result, final AttributeDefinition[] attributes, final LatencyHistogram histogram) {
+        if (histogram != null) {
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                result.get(attributes[i].getName()).set(histogram.getValueAtPercentile(PERCENTILES[i]));
+            }
+        }
+    }
+
     /* (non-Javadoc)
      * @see org.jboss.as.controller.SimpleResourceDefinition#registerChildren(org.jboss.as.controller.registry.ManagementResourceRegistration)
      */
@@ -13,6 +13,7 @@ import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourc
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.COMPONENT_CLASS_NAME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.DECLARED_ROLES;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.JNDI_NAMES;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_ADAPTIVE_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_AVAILABLE_COUNT;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_CREATE_COUNT;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_CURRENT_SIZE;
@@ -71,6 +72,7 @@ import org.jboss.as.ejb3.component.EJBViewDescription;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.adaptive.AdaptivePool;
 import org.jboss.as.ejb3.security.EJBSecurityMetaData;
 import org.jboss.as.ejb3.timerservice.TimerImpl;
 import org.jboss.dmr.ModelNode;
@@ -216,6 +218,12 @@ public abstract class AbstractEJBComponentRuntimeHandler<T extends EJBComponent>
             if (pool != null) {
                 result.set(pool.getMaxSize());
             }
+        } else if (hasPool && POOL_ADAPTIVE_SIZE.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            // only adaptive pools have an effective size different from their max size
+            if (pool instanceof AdaptivePool) {
+                result.set(((AdaptivePool<?>) pool).getAdaptiveSize());
+            }
         } else {
             // Bug; we were registered for an attribute but there is no code for handling it
             throw EjbLogger.ROOT_LOGGER.unknownAttribute(attributeName);
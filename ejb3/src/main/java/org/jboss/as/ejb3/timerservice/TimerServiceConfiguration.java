@@ -5,11 +5,11 @@
 
 package org.jboss.as.ejb3.timerservice;
 
-import java.util.Timer;
 import java.util.concurrent.Executor;
 
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ManagedTimerServiceConfiguration;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 
 /**
  * @author Paul Ferraro
@@ -18,7 +18,7 @@ public interface TimerServiceConfiguration extends ManagedTimerServiceConfigurat
 
     Executor getExecutor();
 
-    Timer getTimer();
+    TimeoutScheduler getScheduler();
 
     TimerPersistence getTimerPersistence();
 }
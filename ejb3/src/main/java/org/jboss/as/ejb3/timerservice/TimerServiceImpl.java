@@ -22,6 +22,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import jakarta.ejb.EJBException;
@@ -43,6 +44,7 @@ import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
 import org.jboss.as.ejb3.timerservice.spi.AutoTimer;
 import org.jboss.as.ejb3.timerservice.spi.ManagedTimer;
 import org.jboss.as.ejb3.timerservice.spi.ManagedTimerService;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.as.ejb3.timerservice.spi.TimerListener;
 import org.jboss.as.ejb3.timerservice.spi.TimerServiceRegistry;
@@ -70,9 +72,9 @@ public class TimerServiceImpl implements ManagedTimerService {
     private final ConcurrentMap<String, TimerImpl> timers = new ConcurrentHashMap<>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the {@link Task} of each of the timers that have been scheduled
      */
-    private final ConcurrentMap<String, java.util.TimerTask> scheduledTimerFutures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Task> scheduledTimerFutures = new ConcurrentHashMap<>();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -80,7 +82,7 @@ public class TimerServiceImpl implements ManagedTimerService {
     private final Object waitingOnTxCompletionKey = new Object();
 
     private final Executor executor;
-    private final java.util.Timer timer;
+    private final TimeoutScheduler scheduler;
     private final TimedObjectInvoker invoker;
     private final TimerPersistence persistence;
     private final TimerServiceRegistry timerServiceRegistry;
@@ -100,7 +102,7 @@ public class TimerServiceImpl implements ManagedTimerService {
     public TimerServiceImpl(TimerServiceConfiguration configuration) {
         this.invoker = configuration.getInvoker();
         this.executor = configuration.getExecutor();
-        this.timer = configuration.getTimer();
+        this.scheduler = configuration.getScheduler();
         this.persistence = configuration.getTimerPersistence();
         this.timerServiceRegistry = configuration.getTimerServiceRegistry();
         this.timerListener = configuration.getTimerListener();
@@ -155,7 +157,7 @@ public class TimerServiceImpl implements ManagedTimerService {
         started = false;
         safeClose(listenerHandle);
         listenerHandle = null;
-        this.timer.purge(); //WFLY-3823
+        this.scheduler.purge(); //WFLY-3823
     }
 
     @Override
@@ -666,7 +668,7 @@ public class TimerServiceImpl implements ManagedTimerService {
             if (delay < 0) {
                 delay = 0;
             }
-            this.timer.scheduleAtFixedRate(task, delay, intervalDuration);
+            task.scheduled(this.scheduler.scheduleAtFixedRate(task, delay, intervalDuration, TimeUnit.MILLISECONDS));
         } else {
             EJB3_TIMER_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
             // if in past, then trigger immediately; if overdue by 5 minutes, set next expiration to current time
@@ -676,7 +678,7 @@ public class TimerServiceImpl implements ManagedTimerService {
                 }
                 delay = 0;
             }
-            this.timer.schedule(task, delay);
+            task.scheduled(this.scheduler.schedule(task, delay, TimeUnit.MILLISECONDS));
         }
     }
 
@@ -916,7 +918,7 @@ public class TimerServiceImpl implements ManagedTimerService {
         }
     }
 
-    private class TaskPostPersist extends java.util.TimerTask {
+    private class TaskPostPersist implements Runnable {
         private final TimerImpl timer;
         private long delta = 0;
         private long nextExpirationPristine = 0;
@@ -958,7 +960,7 @@ public class TimerServiceImpl implements ManagedTimerService {
                     if (delta == 0L) {
                         delta = nextExpirationDelay / (1L + MAX_RETRY.longValue());
                     }
-                    TimerServiceImpl.this.timer.schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta);
+                    TimerServiceImpl.this.scheduler.schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta, TimeUnit.MILLISECONDS);
                 } else {
                     EJB3_TIMER_LOGGER.exceptionPersistPostTimerState(timer, e);
                 }
@@ -966,10 +968,12 @@ public class TimerServiceImpl implements ManagedTimerService {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final TimerTask delegate;
         private final ControlPoint controlPoint;
+        private volatile TimeoutScheduler.Timeout timeout;
+        private volatile boolean cancelled = false;
         /**
          * This is true if a task is queued up to be run by the request controller,
          * used to stop timer tasks banking up when the container is suspended.
@@ -1001,10 +1005,19 @@ public class TimerServiceImpl implements ManagedTimerService {
             }
         }
 
-        @Override
-        public boolean cancel() {
+        void scheduled(TimeoutScheduler.Timeout timeout) {
+            this.timeout = timeout;
+            // the timer may have been cancelled while it was being scheduled
+            if (this.cancelled) {
+                timeout.cancel();
+            }
+        }
+
+        boolean cancel() {
+            this.cancelled = true;
             delegate.cancel();
-            return super.cancel();
+            TimeoutScheduler.Timeout timeout = this.timeout;
+            return (timeout != null) && timeout.cancel();
         }
     }
 
@@ -143,7 +143,7 @@ public class TimerTask implements Runnable {
                     }
 
                     // ensure timer service is started, and the timer has not expired or been cancelled.
-                    // Execution got here after this TimerTask instance has been scheduled on TimerServiceImpl#timer,
+                    // Execution got here after this TimerTask instance has been scheduled on TimerServiceImpl#scheduler,
                     // and TimerTask instance saved in TimerServiceImpl#scheduledTimerFutures
                     if (timer.timerState == TimerState.CANCELED || timer.timerState == TimerState.EXPIRED || !timer.timerService.isStarted()) {
                         EJB3_TIMER_LOGGER.debug("Timer is not active, skipping this scheduled execution at: " + now + "for " + timer);
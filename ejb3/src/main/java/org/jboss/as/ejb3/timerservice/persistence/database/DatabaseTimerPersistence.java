@@ -41,6 +41,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -52,7 +53,10 @@ import jakarta.transaction.HeuristicMixedException;
 import jakarta.transaction.HeuristicRollbackException;
 import jakarta.transaction.NotSupportedException;
 import jakarta.transaction.RollbackException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
 import jakarta.transaction.SystemException;
+import jakarta.transaction.Transaction;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.timerservice.CalendarTimer;
@@ -96,7 +100,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private final Map<String, TimerChangeListener> changeListeners = Collections.synchronizedMap(new HashMap<String, TimerChangeListener>());
 
 
-    private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
+    private final Map<String, Set<String>> knownTimerIds = new ConcurrentHashMap<>();
+    /** Timers created within a transaction, which are not inserted yet */
+    private final Map<Transaction, TimerBatch> batches = new ConcurrentHashMap<>();
 
     /** Identifier for the database dialect to be used for the timer-sql.properties */
     private String database;
@@ -136,6 +142,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private static final String CREATE_AUTO_TIMER = "create-auto-timer";
     private static final String UPDATE_TIMER = "update-timer";
     private static final String LOAD_ALL_TIMERS = "load-all-timers";
+    private static final String LOAD_ALL_TIMER_STATES = "load-all-timer-states";
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
@@ -144,6 +151,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
     /** Pattern to pickout MSSQL */
     private static final Pattern MSSQL_PATTERN = Pattern.compile("(sqlserver|microsoft|mssql)");
+    /** Up to this number of changed timers, a refresh loads them one by one rather than all the timers of the timed object */
+    private static final int REFRESH_LOAD_ONE_BY_ONE_LIMIT = 32;
 
     /**
      * System property {@code jboss.ejb.timer.database.clearTimerInfoCacheBeyond}
@@ -167,6 +176,19 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private final long clearTimerInfoCacheBeyond = TimeUnit.MINUTES.toMillis(Long.parseLong(
             WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.timer.database.clearTimerInfoCacheBeyond", "15")));
 
+    /**
+     * System property {@code jboss.ejb.timer.database.batchSize} to configure
+     * the maximum number of timers inserted with a single JDBC batch.
+     * The default value is 0, which inserts each timer as soon as it is created.
+     * <p>
+     * If it is set to a positive number, the timers created within a transaction are
+     * inserted in batches, when the batch is full, before any other statement of the
+     * transaction on the timer table, and at the latest before the transaction completes.
+     * Automatic timers are always inserted right away.
+     */
+    private final int batchSize = Integer.parseInt(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.timer.database.batchSize", "0"));
+
     public DatabaseTimerPersistence(final Consumer<DatabaseTimerPersistence> dbConsumer,
                                     final Supplier<ManagedReferenceFactory> dataSourceSupplier,
                                     final Supplier<ModuleLoader> moduleLoaderSupplier,
@@ -206,6 +228,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         dbConsumer.accept(null);
         refreshTask.cancel();
         knownTimerIds.clear();
+        batches.clear();
         managedReference.release();
         managedReference = null;
         dataSource = null;
@@ -409,6 +432,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
      * @return the timer loaded from database; null if nothing can be loaded
      */
     public TimerImpl loadTimer(final String timedObjectId, final String timerId, final TimerServiceImpl timerService) {
+        flushBatch();
         String loadTimer = sql.getProperty(LOAD_TIMER);
         Connection connection = null;
         PreparedStatement preparedStatement = null;
@@ -440,11 +464,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
 
     @Override
     public void addTimer(final TimerImpl timerEntity) {
-        String timedObjectId = timerEntity.getTimedObjectId();
-        synchronized (this) {
-            if(!knownTimerIds.containsKey(timedObjectId)) {
-                throw EjbLogger.EJB3_TIMER_LOGGER.timerCannotBeAdded(timerEntity);
-            }
+        final Set<String> ids = knownTimerIds.get(timerEntity.getTimedObjectId());
+        if (ids == null) {
+            throw EjbLogger.EJB3_TIMER_LOGGER.timerCannotBeAdded(timerEntity);
         }
 
         if (timerEntity.isAutoTimer()) {
@@ -452,13 +474,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             return;
         }
 
+        ids.add(timerEntity.getId());
+        final TimerBatch batch = currentBatch();
+        if (batch != null) {
+            batch.add(timerEntity);
+            return;
+        }
         String createTimer = sql.getProperty(CREATE_TIMER);
         Connection connection = null;
         PreparedStatement statement = null;
         try {
-            synchronized (this) {
-                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-            }
             connection = dataSource.getConnection();
             statement = connection.prepareStatement(createTimer);
             statementParameters(timerEntity, statement);
@@ -479,6 +504,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
 
     @Override
     public void persistTimer(final TimerImpl timerEntity) {
+        flushBatch();
         Connection connection = null;
         PreparedStatement statement = null;
         try {
@@ -491,13 +517,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
                 statement.setString(2, timerEntity.getId());
                 statement.setString(3, partition);
                 statement.execute();
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
-                }
+                knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
             } else {
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-                }
+                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
                 String updateTimer = sql.getProperty(UPDATE_TIMER);
                 statement = connection.prepareStatement(updateTimer);
                 statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
@@ -578,13 +600,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     }
 
     @Override
-    public synchronized void timerUndeployed(final String timedObjectId) {
+    public void timerUndeployed(final String timedObjectId) {
         knownTimerIds.remove(timedObjectId);
     }
 
     @Override
-    public synchronized void timerDeployed(String timedObjectId) {
-        knownTimerIds.put(timedObjectId, new HashSet<>());
+    public void timerDeployed(String timedObjectId) {
+        knownTimerIds.put(timedObjectId, ConcurrentHashMap.newKeySet());
     }
 
     @Override
@@ -625,24 +647,22 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
                     EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), timerId, e);
                 }
             }
-            synchronized (this) {
-                // ids should be always be not null
-                Set<String> ids = knownTimerIds.get(timedObjectId);
-                for (Holder timer : timers) {
-                    ids.add(timer.timer.getId());
-                }
+            // ids should be always be not null
+            Set<String> ids = knownTimerIds.get(timedObjectId);
+            for (Holder timer : timers) {
+                ids.add(timer.timer.getId());
+            }
 
-                for(Holder timer : timers) {
-                    if(timer.requiresReset) {
-                        TimerImpl ret = timer.timer;
-                        EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
-                        if(ret.getNextExpiration() == null) {
-                            ret.setTimerState(TimerState.CANCELED, null);
-                            persistTimer(ret);
-                        } else {
-                            ret.setTimerState(TimerState.ACTIVE, null);
-                            persistTimer(ret);
-                        }
+            for(Holder timer : timers) {
+                if(timer.requiresReset) {
+                    TimerImpl ret = timer.timer;
+                    EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
+                    if(ret.getNextExpiration() == null) {
+                        ret.setTimerState(TimerState.CANCELED, null);
+                        persistTimer(ret);
+                    } else {
+                        ret.setTimerState(TimerState.ACTIVE, null);
+                        persistTimer(ret);
                     }
                 }
             }
@@ -879,9 +899,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             if (affectedRows < 1) {
                 timer.setTimerState(TimerState.CANCELED, null);
             } else {
-                synchronized (this) {
-                    knownTimerIds.get(timer.getTimedObjectId()).add(timer.getId());
-                }
+                knownTimerIds.get(timer.getTimedObjectId()).add(timer.getId());
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -891,6 +909,49 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         }
     }
 
+    /**
+     * Returns the batch of the timers created within the current transaction, if batching is enabled.
+     *
+     * @return the batch of the current transaction; null if timers must be inserted right away
+     */
+    private TimerBatch currentBatch() {
+        if (batchSize <= 0) {
+            return null;
+        }
+        final ContextTransactionManager tm = ContextTransactionManager.getInstance();
+        try {
+            if (tm.getStatus() != Status.STATUS_ACTIVE) {
+                return null;
+            }
+            final Transaction transaction = tm.getTransaction();
+            TimerBatch batch = batches.get(transaction);
+            if (batch == null) {
+                batch = new TimerBatch(transaction);
+                transaction.registerSynchronization(batch);
+                batches.put(transaction, batch);
+            }
+            return batch;
+        } catch (SystemException | RollbackException e) {
+            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Inserting timers without batching");
+            return null;
+        }
+    }
+
+    /**
+     * Inserts the timers created so far within the current transaction, so that the statements
+     * which follow see them.
+     */
+    private void flushBatch() {
+        if (batches.isEmpty()) {
+            return;
+        }
+        final Transaction transaction = ContextTransactionManager.getInstance().getTransaction();
+        final TimerBatch batch = (transaction != null) ? batches.get(transaction) : null;
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
     /**
      * Retrieves the timer info from the timer database.
      *
@@ -898,6 +959,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
      * @return the timer info from database; null if {@code SQLException}
      */
     public Serializable getPersistedTimerInfo(final TimerImpl timer) {
+        flushBatch();
         String getTimerInfo = sql.getProperty(GET_TIMER_INFO);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -1033,46 +1095,42 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
 
+        /**
+         * Compares the ids and states of the timers in the database with the known ones, and only loads the timers which
+         * were added by other nodes, or which need to be put back in sync.
+         */
         @Override
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
-                    }
-                    for (String timedObjectId : timedObjects) {
+                    for (String timedObjectId : new HashSet<>(knownTimerIds.keySet())) {
                         TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
+                        final Set<String> ids = knownTimerIds.get(timedObjectId);
+                        if (listener == null || ids == null) {
                             continue;
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
-                        }
-                        String loadTimer = sql.getProperty(LOAD_ALL_TIMERS);
+                        final Set<String> existing = new HashSet<>(ids);
+                        // the lightweight query may be missing from a customized timer-sql.properties
+                        final String loadStates = sql.getProperty(LOAD_ALL_TIMER_STATES);
+                        final int stateColumn = loadStates != null ? 2 : 9;
                         Connection connection = null;
                         PreparedStatement statement = null;
                         ResultSet resultSet = null;
                         try {
                             connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
+                            statement = connection.prepareStatement(loadStates != null ? loadStates : sql.getProperty(LOAD_ALL_TIMERS));
                             statement.setString(1, timedObjectId);
                             statement.setString(2, partition);
                             resultSet = statement.executeQuery();
                             final TimerServiceImpl timerService = listener.getTimerService();
+                            // the timers to load, mapped to the timer in memory if they need to be put back in sync
+                            final Map<String, TimerImpl> changed = new HashMap<>();
                             while (resultSet.next()) {
                                 String id = null;
                                 try {
                                     id = resultSet.getString(1);
                                     if (!existing.remove(id)) {
-                                        final Holder holder = timerFromResult(resultSet, timerService, id, null);
-                                        if(holder != null) {
-                                            synchronized (DatabaseTimerPersistence.this) {
-                                                knownTimerIds.get(timedObjectId).add(id);
-                                                listener.timerAdded(holder.timer);
-                                            }
-                                        }
+                                        changed.put(id, null);
                                     } else {
                                         TimerImpl oldTimer = timerService.getTimer(id);
                                         // if it is already in memory but it is not in sync we have a problem
@@ -1080,36 +1138,51 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
                                         boolean invalidMemoryTimer = oldTimer != null && !TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(oldTimer.getState());
 
                                         // if timers memory - db are in non intersect subsets of valid/invalid states. we put them in sync
-                                        if (invalidMemoryTimer) {
-                                            TimerState dbTimerState = TimerState.valueOf(resultSet.getString(9));
-                                            boolean validDBTimer = TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(dbTimerState);
-                                            if (validDBTimer) {
-                                                final Holder holder = timerFromResult(resultSet, timerService, id, dbTimerState);
-                                                if (holder != null) {
-                                                    synchronized (DatabaseTimerPersistence.this) {
-                                                        knownTimerIds.get(timedObjectId).add(id);
-                                                        listener.timerSync(oldTimer, holder.timer);
-                                                    }
-                                                }
-                                            }
+                                        if (invalidMemoryTimer && TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(TimerState.valueOf(resultSet.getString(stateColumn)))) {
+                                            changed.put(id, oldTimer);
                                         }
                                     }
                                 } catch (Exception e) {
-                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), id, e);
+                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
                                 }
                             }
-
-                            Set<String> timers;
-                            synchronized (DatabaseTimerPersistence.this) {
-                                 timers = knownTimerIds.get(timedObjectId);
+                            safeClose(resultSet);
+                            resultSet = null;
+                            safeClose(statement);
+                            statement = null;
+
+                            if (changed.size() <= REFRESH_LOAD_ONE_BY_ONE_LIMIT) {
+                                for (String id : changed.keySet()) {
+                                    statement = connection.prepareStatement(sql.getProperty(LOAD_TIMER));
+                                    statement.setString(1, timedObjectId);
+                                    statement.setString(2, id);
+                                    statement.setString(3, partition);
+                                    resultSet = statement.executeQuery();
+                                    if (resultSet.next()) {
+                                        refreshTimer(resultSet, id, changed.get(id), timerService, listener, ids);
+                                    }
+                                    safeClose(resultSet);
+                                    resultSet = null;
+                                    safeClose(statement);
+                                    statement = null;
+                                }
+                            } else {
+                                statement = connection.prepareStatement(sql.getProperty(LOAD_ALL_TIMERS));
+                                statement.setString(1, timedObjectId);
+                                statement.setString(2, partition);
+                                resultSet = statement.executeQuery();
+                                while (resultSet.next()) {
+                                    final String id = resultSet.getString(1);
+                                    if (changed.containsKey(id)) {
+                                        refreshTimer(resultSet, id, changed.get(id), timerService, listener, ids);
+                                    }
+                                }
                             }
+
                             for (String timer : existing) {
                                 TimerImpl timer1 = timerService.getTimer(timer);
-                                if (timer1 != null && timer1.getState() != TimerState.CREATED) {
-                                    synchronized (DatabaseTimerPersistence.this) {
-                                        timers.remove(timer);
-                                        listener.timerRemoved(timer);
-                                    }
+                                if (timer1 != null && timer1.getState() != TimerState.CREATED && ids.remove(timer)) {
+                                    listener.timerRemoved(timer);
                                 }
                             }
                         } catch (SQLException e) {
@@ -1126,8 +1199,99 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             }
 
         }
+
+        /**
+         * Adds a timer created by another node, or puts a timer in memory back in sync with the database.
+         *
+         * @param oldTimer the timer in memory to put back in sync, or null if the timer is new
+         */
+        private void refreshTimer(final ResultSet resultSet, final String id, final TimerImpl oldTimer,
+                                  final TimerServiceImpl timerService, final TimerChangeListener listener, final Set<String> ids) throws SQLException {
+            try {
+                if (oldTimer == null) {
+                    final Holder holder = timerFromResult(resultSet, timerService, id, null);
+                    // the timer may have been created by this node in the meantime
+                    if (holder != null && ids.add(id)) {
+                        listener.timerAdded(holder.timer);
+                    }
+                } else {
+                    TimerState dbTimerState = TimerState.valueOf(resultSet.getString(9));
+                    if (TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(dbTimerState)) {
+                        final Holder holder = timerFromResult(resultSet, timerService, id, dbTimerState);
+                        if (holder != null) {
+                            ids.add(id);
+                            listener.timerSync(oldTimer, holder.timer);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), id, e);
+            }
+        }
     }
 
+    /**
+     * The timers created within a transaction, inserted with JDBC batches.
+     */
+    private class TimerBatch implements Synchronization {
+        private final Transaction transaction;
+        private final List<TimerImpl> timers = new ArrayList<>();
+
+        TimerBatch(final Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        void add(final TimerImpl timer) {
+            timers.add(timer);
+            if (timers.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (timers.isEmpty()) {
+                return;
+            }
+            String createTimer = sql.getProperty(CREATE_TIMER);
+            Connection connection = null;
+            PreparedStatement statement = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(createTimer);
+                for (TimerImpl timer : timers) {
+                    statementParameters(timer, statement);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                for (TimerImpl timer : timers) {
+                    if (isClearTimerInfoCache(timer)) {
+                        timer.setCachedTimerInfo(Object.class);
+                        EjbLogger.EJB3_TIMER_LOGGER.debugf("Cleared timer info for timer: %s", timer.getId());
+                    }
+                }
+            } catch (SQLException e) {
+                for (TimerImpl timer : timers) {
+                    timer.setCachedTimerInfo(null);
+                }
+                throw new RuntimeException(e);
+            } finally {
+                timers.clear();
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
+
+        @Override
+        public void beforeCompletion() {
+            flush();
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            batches.remove(transaction);
+        }
+    }
 
     static final class Holder {
         final TimerImpl timer;
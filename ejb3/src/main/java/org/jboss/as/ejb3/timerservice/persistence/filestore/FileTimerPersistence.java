@@ -8,12 +8,15 @@ import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
 import static org.jboss.as.ejb3.timerservice.TimerServiceImpl.safeClose;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
@@ -21,8 +24,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
@@ -34,6 +39,7 @@ import jakarta.transaction.TransactionSynchronizationRegistry;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 
@@ -59,12 +65,28 @@ import org.wildfly.transaction.client.ContextTransactionManager;
 /**
  * File based persistent timer store.
  * <p/>
+ * Timers are stored either as one XML file per timer, the default, or in a single {@link TimerJournal} when the
+ * {@value #FORMAT} system property is {@value #JOURNAL_FORMAT}. Switching between both formats migrates the timers of
+ * a timed object the first time they are loaded.
+ * <p/>
+ * When the {@value #WRITE_BEHIND_DELAY} system property is set to a positive number of milliseconds, writes are
+ * coalesced per timer and written in batches by a dedicated thread, with a single sync per batch for the journal.
+ * New and removed timers are written before persisting them returns, so that a crash can neither lose a timer nor bring
+ * a cancelled one back. Plain updates of existing timers, such as the next expiration of an interval timer, are
+ * written within the delay: a crash may lose them, in which case the timers are restored with their previous state
+ * and their missed expirations are handled as on any restart.
+ * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
  *
  * @author Stuart Douglas
  */
 public class FileTimerPersistence implements TimerPersistence, Service {
 
+    static final String FORMAT = "jboss.ejb.timer.file-store.format";
+    static final String JOURNAL_FORMAT = "journal";
+    static final String WRITE_BEHIND_DELAY = "jboss.ejb.timer.file-store.write-behind-delay";
+    private static final int MAX_BATCH_SIZE = 1024;
+
     private static final FilePermission FILE_PERMISSION = new FilePermission("<<ALL FILES>>", "read,write,delete");
     private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
 
@@ -83,6 +105,19 @@ public class FileTimerPersistence implements TimerPersistence, Service {
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
 
+    private final boolean journalFormat = JOURNAL_FORMAT.equals(WildFlySecurityManager.getPropertyPrivileged(FORMAT, null));
+    private final long writeBehindDelay = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(WRITE_BEHIND_DELAY, "0"));
+    /**
+     * Opened in journal format, or to migrate the timers of an existing journal to XML files
+     */
+    private volatile TimerJournal journal;
+    private volatile WriteBehindQueue<String, TimerJournal.Record> writeBehind;
+    /**
+     * The ids of the live timers of each timed object, only maintained in journal format or with write-behind, where
+     * the files on disk are either not per timer or may lag behind
+     */
+    private final ConcurrentMap<String, Set<String>> liveTimers = new ConcurrentHashMap<>();
+
     public FileTimerPersistence(final Consumer<FileTimerPersistence> consumer,
                                 final Supplier<TransactionSynchronizationRegistry> txnRegistrySupplier,
                                 final Supplier<ModuleLoader> moduleLoaderSupplier,
@@ -140,11 +175,37 @@ public class FileTimerPersistence implements TimerPersistence, Service {
         if (!baseDir.isDirectory()) {
             throw EJB3_TIMER_LOGGER.invalidTimerFileStoreDir(baseDir);
         }
+        if (journalFormat || new File(baseDir, TimerJournal.FILE_NAME).exists()) {
+            final TimerJournal journal = new TimerJournal(baseDir.toPath());
+            try {
+                journal.open();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            this.journal = journal;
+        }
+        if (writeBehindDelay > 0) {
+            final WriteBehindQueue<String, TimerJournal.Record> writeBehind = new WriteBehindQueue<>(this::write, writeBehindDelay, TimeUnit.MILLISECONDS, MAX_BATCH_SIZE);
+            writeBehind.start();
+            this.writeBehind = writeBehind;
+        }
     }
 
     @Override
     public void stop(final StopContext context) {
         consumer.accept(null);
+        final WriteBehindQueue<String, TimerJournal.Record> writeBehind = this.writeBehind;
+        if (writeBehind != null) {
+            // writes whatever is still pending
+            writeBehind.stop();
+            this.writeBehind = null;
+        }
+        final TimerJournal journal = this.journal;
+        if (journal != null) {
+            safeClose(journal);
+            this.journal = null;
+        }
+        liveTimers.clear();
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -191,6 +252,7 @@ public class FileTimerPersistence implements TimerPersistence, Service {
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
         final Lock lock = getLock(timer.getTimedObjectId());
+        long ticket = 0;
         try {
             final int status = ContextTransactionManager.getInstance().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -200,35 +262,128 @@ public class FileTimerPersistence implements TimerPersistence, Service {
             }
 
             lock.lock();
-            if (status == Status.STATUS_NO_TRANSACTION ||
-                    status == Status.STATUS_UNKNOWN || isBeforeCompletion()
-                    || status == Status.STATUS_COMMITTED) {
-                Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                if (timer.getState() == TimerState.CANCELED ||
-                        timer.getState() == TimerState.EXPIRED) {
-                    map.remove(timer.getId());
-                    writeFile(timer);
-                } else if (newTimer || map.containsKey(timer.getId())) {
-                    //if it is not a new timer and is not in the map then it has
-                    //been removed by another thread.
-                    map.put(timer.getId(), timer);
-                    writeFile(timer);
-                }
-            } else {
+            try {
+                if (status == Status.STATUS_NO_TRANSACTION ||
+                        status == Status.STATUS_UNKNOWN || isBeforeCompletion()
+                        || status == Status.STATUS_COMMITTED) {
+                    if (update(timer, newTimer)) {
+                        ticket = store(timer);
+                    }
+                } else {
 
-                final String key = timerTransactionKey(timer);
-                Object existing = txnRegistrySupplier.get().getResource(key);
-                //check is there is already a persist sync for this timer
-                if (existing == null) {
-                    txnRegistrySupplier.get().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                    final String key = timerTransactionKey(timer);
+                    Object existing = txnRegistrySupplier.get().getResource(key);
+                    //check is there is already a persist sync for this timer
+                    if (existing == null) {
+                        txnRegistrySupplier.get().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                    }
+                    //update the most recent version of the timer to be persisted
+                    txnRegistrySupplier.get().putResource(key, timer);
                 }
-                //update the most recent version of the timer to be persisted
-                txnRegistrySupplier.get().putResource(key, timer);
+            } finally {
+                lock.unlock();
             }
         } catch (SystemException e) {
             throw new RuntimeException(e);
-        } finally {
-            lock.unlock();
+        }
+        awaitIfCreatedOrRemoved(timer, newTimer, ticket);
+    }
+
+    /**
+     * Updates the known timers of the timed object of a timer, which must be called under lock.
+     *
+     * @return true, if the timer needs to be stored, false if it was removed by another thread in the meantime
+     */
+    private boolean update(final TimerImpl timer, final boolean newTimer) {
+        final boolean removed = timer.getState() == TimerState.CANCELED || timer.getState() == TimerState.EXPIRED;
+        if (journal == null && writeBehind == null) {
+            Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
+            if (removed) {
+                map.remove(timer.getId());
+                return true;
+            }
+            //if it is not a new timer and is not in the map then it has
+            //been removed by another thread.
+            return newTimer || map.containsKey(timer.getId());
+        }
+        final Set<String> timerIds = getLiveTimers(timer.getTimedObjectId(), timer.getTimerService());
+        if (removed) {
+            timerIds.remove(timer.getId());
+            return true;
+        }
+        if (newTimer || timerIds.contains(timer.getId())) {
+            timerIds.add(timer.getId());
+            return true;
+        }
+        return false;
+    }
+
+    private Set<String> getLiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        Set<String> timerIds = liveTimers.get(timedObjectId);
+        if (timerIds == null) {
+            final WriteBehindQueue<String, TimerJournal.Record> writeBehind = this.writeBehind;
+            if (writeBehind != null) {
+                // writes left behind since the timed object was undeployed
+                writeBehind.flush();
+            }
+            timerIds = ConcurrentHashMap.newKeySet();
+            timerIds.addAll(getTimers(timedObjectId, timerService).keySet());
+            liveTimers.put(timedObjectId, timerIds);
+        }
+        return timerIds;
+    }
+
+    /**
+     * Writes a timer, or hands it over to the write-behind thread, which must be called under lock so that the writes
+     * of a timer happen in order. The timer is serialized right away, so that the write-behind thread only writes the
+     * state of the timer at the time it was persisted.
+     *
+     * @return the write-behind ticket of the write, or 0 if it was written synchronously
+     */
+    private long store(final TimerImpl timer) {
+        try {
+            final TimerJournal.Record record = snapshot(timer);
+            final WriteBehindQueue<String, TimerJournal.Record> writeBehind = this.writeBehind;
+            if (writeBehind != null) {
+                return writeBehind.submit(timer.getId(), record);
+            }
+            write(Collections.singletonMap(timer.getId(), record));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return 0;
+    }
+
+    /**
+     * Serializes a timer, or records its removal if it is cancelled or expired.
+     */
+    private TimerJournal.Record snapshot(final TimerImpl timer) throws Exception {
+        final boolean removed = timer.getState() == TimerState.CANCELED || timer.getState() == TimerState.EXPIRED;
+        return new TimerJournal.Record(timer.getTimedObjectId(), timer.getId(), removed ? null : serialize(timer));
+    }
+
+    /**
+     * New and removed timers are not left behind, see the class description.
+     */
+    private void awaitIfCreatedOrRemoved(final TimerImpl timer, final boolean newTimer, final long ticket) {
+        final WriteBehindQueue<String, TimerJournal.Record> writeBehind = this.writeBehind;
+        if (ticket != 0 && writeBehind != null && (newTimer || timer.getState() == TimerState.CANCELED || timer.getState() == TimerState.EXPIRED)) {
+            writeBehind.await(ticket);
+        }
+    }
+
+    /**
+     * Writes a batch of serialized timers, deleting the cancelled and expired ones.
+     */
+    private void write(final Map<String, TimerJournal.Record> records) throws Exception {
+        if (journalFormat) {
+            journal.write(new ArrayList<>(records.values()));
+        } else {
+            for (TimerJournal.Record record : records.values()) {
+                writeFile(record);
+            }
         }
     }
 
@@ -243,6 +398,7 @@ public class FileTimerPersistence implements TimerPersistence, Service {
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            liveTimers.remove(timedObjectId);
         } finally {
             lock.unlock();
         }
@@ -259,6 +415,10 @@ public class FileTimerPersistence implements TimerPersistence, Service {
 
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        final WriteBehindQueue<String, TimerJournal.Record> writeBehind = this.writeBehind;
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
         final Lock lock = getLock(timedObjectId);
         try {
             lock.lock();
@@ -330,7 +490,7 @@ public class FileTimerPersistence implements TimerPersistence, Service {
 
         timers.putAll(LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration));
         for(Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
-            writeFile(entry.getValue()); //write legacy timers into the new format
+            store(entry.getValue()); //write legacy timers into the new format
             //the legacy code handling code will write a marker file, to make sure that the old timers will not be loaded on next restart.
         }
         final File file = new File(directory);
@@ -344,6 +504,7 @@ public class FileTimerPersistence implements TimerPersistence, Service {
 
         final XMLMapper mapper = createMapper(timerService);
 
+        final Map<String, File> timerFiles = new HashMap<>();
         for (File timerFile : file.listFiles()) {
             if (!timerFile.getName().endsWith(".xml")) {
                 continue;
@@ -352,19 +513,14 @@ public class FileTimerPersistence implements TimerPersistence, Service {
 
             try {
                 in = new FileInputStream(timerFile);
-                final XMLInputFactory inputFactory = INPUT_FACTORY;
-                setIfSupported(inputFactory, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
-                setIfSupported(inputFactory, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
-                final XMLStreamReader streamReader = inputFactory.createXMLStreamReader(in);
                 try {
-                    List<TimerImpl> timerList = new ArrayList<>();
-                    mapper.parseDocument(timerList, streamReader);
-                    for (TimerImpl timer : timerList) {
+                    for (TimerImpl timer : readTimers(mapper, in)) {
                         if (timer.getId().equals("deleted-timer")) {
                             timerFile.delete();
                             break;
                         }
                         timers.put(timer.getId(), timer);
+                        timerFiles.put(timer.getId(), timerFile);
                     }
                 } finally {
                     safeClose(in);
@@ -382,9 +538,66 @@ public class FileTimerPersistence implements TimerPersistence, Service {
                 }
             }
         }
+        final TimerJournal journal = this.journal;
+        if (journal != null) {
+            final Map<String, byte[]> journalTimers = journal.getTimers(timedObjectId);
+            for (Map.Entry<String, byte[]> entry : journalTimers.entrySet()) {
+                try {
+                    for (TimerImpl timer : readTimers(mapper, new ByteArrayInputStream(entry.getValue()))) {
+                        timers.put(timer.getId(), timer);
+                    }
+                } catch (Exception e) {
+                    EJB3_TIMER_LOGGER.failToRestoreTimersFromFile(new File(baseDir, TimerJournal.FILE_NAME), e);
+                }
+            }
+            migrate(timers, timerFiles, journalTimers);
+        }
         return timers;
     }
 
+    /**
+     * Moves the timers stored in the other format than the configured one, keeping the files of the other format
+     * until the timers are stored in the configured one.
+     */
+    private void migrate(Map<String, TimerImpl> timers, Map<String, File> timerFiles, Map<String, byte[]> journalTimers) {
+        try {
+            if (journalFormat) {
+                final Map<String, TimerJournal.Record> migrated = new HashMap<>();
+                for (String timerId : timerFiles.keySet()) {
+                    if (!journalTimers.containsKey(timerId)) {
+                        migrated.put(timerId, snapshot(timers.get(timerId)));
+                    }
+                }
+                write(migrated);
+                for (File timerFile : timerFiles.values()) {
+                    timerFile.delete();
+                }
+            } else if (!journalTimers.isEmpty()) {
+                final List<TimerJournal.Record> removals = new ArrayList<>(journalTimers.size());
+                for (String timerId : journalTimers.keySet()) {
+                    final TimerImpl timer = timers.get(timerId);
+                    if (timer != null) {
+                        writeFile(snapshot(timer));
+                        removals.add(new TimerJournal.Record(timer.getTimedObjectId(), timerId, null));
+                    }
+                }
+                journal.write(removals);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<TimerImpl> readTimers(XMLMapper mapper, InputStream in) throws XMLStreamException {
+        final XMLInputFactory inputFactory = INPUT_FACTORY;
+        setIfSupported(inputFactory, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+        setIfSupported(inputFactory, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        final XMLStreamReader streamReader = inputFactory.createXMLStreamReader(in);
+        List<TimerImpl> timerList = new ArrayList<>();
+        mapper.parseDocument(timerList, streamReader);
+        return timerList;
+    }
+
     private XMLMapper createMapper(TimerServiceImpl timerService) {
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(new QName(EjbTimerXmlParser_1_0.NAMESPACE, EjbTimerXmlPersister.TIMERS), new EjbTimerXmlParser_1_0(timerService, factory, configuration, timerService.getInvoker().getClassLoader()));
@@ -445,24 +658,18 @@ public class FileTimerPersistence implements TimerPersistence, Service {
                     if (timer == null) {
                         return null;
                     }
+                    long ticket = 0;
                     try {
                         lock.lock();
                         if (status == Status.STATUS_COMMITTED) {
-                            final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                            if (timer.getState() == TimerState.CANCELED ||
-                                    timer.getState() == TimerState.EXPIRED) {
-                                map.remove(timer.getId());
-                            } else {
-                                if (newTimer || map.containsKey(timer.getId())) {
-                                    //if an existing timer is not in the map it has been cancelled by another thread
-                                    map.put(timer.getId(), timer);
-                                }
-                            }
-                            writeFile(timer);
+                            //if an existing timer is not known it has been cancelled by another thread
+                            update(timer, newTimer);
+                            ticket = store(timer);
                         }
                     } finally {
                         lock.unlock();
                     }
+                    awaitIfCreatedOrRemoved(timer, newTimer, ticket);
                     return null;
                 }
             });
@@ -471,12 +678,11 @@ public class FileTimerPersistence implements TimerPersistence, Service {
 
     }
 
-    private void writeFile(TimerImpl timer) {
-        final File file = fileName(timer.getTimedObjectId(), timer.getId());
+    private void writeFile(TimerJournal.Record record) {
+        final File file = fileName(record.timedObjectId, record.timerId);
 
         //if the timer is expired or cancelled delete the file
-        if (timer.getState() == TimerState.CANCELED ||
-                timer.getState() == TimerState.EXPIRED) {
+        if (record.payload == null) {
             if (file.exists()) {
                 file.delete();
             }
@@ -486,11 +692,7 @@ public class FileTimerPersistence implements TimerPersistence, Service {
             FileOutputStream out = new FileOutputStream(file);
 
             try {
-                XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
-                XMLMapper mapper = createMapper(timer.getTimerService());
-                mapper.deparseDocument(new EjbTimerXmlPersister(factory, configuration), Collections.singletonList(timer), writer);
-                writer.flush();
-                writer.close();
+                out.write(record.payload);
             } finally {
                 safeClose(out);
             }
@@ -499,6 +701,16 @@ public class FileTimerPersistence implements TimerPersistence, Service {
         }
     }
 
+    private byte[] serialize(TimerImpl timer) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+        XMLMapper mapper = createMapper(timer.getTimerService());
+        mapper.deparseDocument(new EjbTimerXmlPersister(factory, configuration), Collections.singletonList(timer), writer);
+        writer.flush();
+        writer.close();
+        return out.toByteArray();
+    }
+
     private void setIfSupported(final XMLInputFactory inputFactory, final String property, final Object value) {
         if (inputFactory.isPropertySupported(property)) {
             inputFactory.setProperty(property, value);
@@ -0,0 +1,340 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal holding the serialized form of all the timers of a file data store, as an alternative to one
+ * XML file per timer.
+ * <p/>
+ * The journal starts with a header, followed by records of the form {@code [length][crc32][type][timed object id]
+ * [timer id][payload]}, where a {@code PUT} record carries the serialized timer and a {@code REMOVE} record carries no
+ * payload. A batch of records is appended with a single write, followed by a single {@link FileChannel#force(boolean)}.
+ * The live timers are also kept in memory, so that reads never touch the disk.
+ * <p/>
+ * Crash recovery:
+ * <ul>
+ * <li>A crash while appending can only leave an incomplete or corrupt record at the end of the journal, since nothing
+ * is ever written in place. When the journal is opened, records are replayed until the first one whose length exceeds
+ * the remaining bytes or whose checksum does not match, and the journal is truncated there. The timers of the last,
+ * unacknowledged, batch may therefore be lost, and all earlier batches are preserved.</li>
+ * <li>Once the journal holds many more records than live timers, it is compacted: the live timers are written to a
+ * temporary file, which is synced and then atomically renamed over the journal. A crash before the rename leaves the
+ * previous journal untouched, and the leftover temporary file is deleted when the journal is opened again. A
+ * compaction which fails leaves the journal as it was, and is retried after the next batch.</li>
+ * </ul>
+ */
+final class TimerJournal implements Closeable {
+
+    static final String FILE_NAME = "timers.journal";
+    private static final String COMPACTION_SUFFIX = ".compacting";
+    private static final int MAGIC = 0x454A544A;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final Path file;
+    private final Path compactionFile;
+    // guarded by this
+    private final Map<String, Map<String, byte[]>> timers = new HashMap<>();
+    private FileChannel channel;
+    private long records;
+
+    TimerJournal(Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+        this.compactionFile = directory.resolve(FILE_NAME + COMPACTION_SUFFIX);
+    }
+
+    /**
+     * Opens the journal, replaying its records and truncating it after the last complete record.
+     */
+    synchronized void open() throws IOException {
+        Files.deleteIfExists(this.compactionFile);
+        this.timers.clear();
+        this.records = 0;
+        if (Files.exists(this.file) && Files.size(this.file) >= HEADER_SIZE) {
+            this.channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long end = this.recover();
+            if (end < this.channel.size()) {
+                EJB3_TIMER_LOGGER.truncatingTimerJournal(this.file.toFile(), end);
+                this.channel.truncate(end);
+                this.channel.force(true);
+            }
+            this.channel.position(end);
+        } else {
+            this.channel = this.create(this.file);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Returns the serialized form of the live timers of a timed object, indexed by timer id.
+     */
+    synchronized Map<String, byte[]> getTimers(String timedObjectId) {
+        Map<String, byte[]> timers = this.timers.get(timedObjectId);
+        return (timers != null) ? new HashMap<>(timers) : Collections.emptyMap();
+    }
+
+    /**
+     * Appends a batch of records and syncs them to disk.
+     * @param batch the records to append, in order
+     */
+    synchronized void write(Collection<Record> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (Record record : batch) {
+            writeRecord(bytes, record);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        long position = this.channel.position();
+        try {
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+            this.channel.force(false);
+        } catch (IOException e) {
+            // drop what was partially written, otherwise the next batches would follow a corrupt record
+            try {
+                this.channel.truncate(position);
+                this.channel.position(position);
+            } catch (IOException ignored) {
+                // the corrupt record will be truncated on recovery, along with anything appended after it
+            }
+            throw e;
+        }
+        for (Record record : batch) {
+            this.apply(record);
+        }
+        this.records += batch.size();
+        if (this.records >= MIN_COMPACTION_RECORDS && this.records > 2 * this.size()) {
+            // the batch is already durable, a failed compaction is retried after the next one
+            try {
+                this.compact();
+            } catch (IOException e) {
+                EJB3_TIMER_LOGGER.failedToCompactTimerJournal(this.file.toFile(), e);
+                try {
+                    Files.deleteIfExists(this.compactionFile);
+                } catch (IOException ignored) {
+                    // deleted when the journal is opened again
+                }
+            }
+        }
+    }
+
+    private int size() {
+        int size = 0;
+        for (Map<String, byte[]> timers : this.timers.values()) {
+            size += timers.size();
+        }
+        return size;
+    }
+
+    private void apply(Record record) {
+        if (record.payload != null) {
+            this.timers.computeIfAbsent(record.timedObjectId, key -> new LinkedHashMap<>()).put(record.timerId, record.payload);
+        } else {
+            Map<String, byte[]> timers = this.timers.get(record.timedObjectId);
+            if (timers != null) {
+                timers.remove(record.timerId);
+                if (timers.isEmpty()) {
+                    this.timers.remove(record.timedObjectId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the live timers. The current journal is kept open until the compacted one replaced
+     * it, so that it can still be appended to if the compaction fails.
+     */
+    private void compact() throws IOException {
+        FileChannel compacted = this.create(this.compactionFile);
+        long records = 0;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            for (Map.Entry<String, Map<String, byte[]>> entry : this.timers.entrySet()) {
+                for (Map.Entry<String, byte[]> timer : entry.getValue().entrySet()) {
+                    writeRecord(bytes, new Record(entry.getKey(), timer.getKey(), timer.getValue()));
+                    records++;
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                compacted.write(buffer);
+            }
+            compacted.force(true);
+            Files.move(this.compactionFile, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            compacted.close();
+            throw e;
+        }
+        this.syncDirectory();
+        // the compacted channel now refers to the journal, and the replaced one to a file which is gone
+        FileChannel replaced = this.channel;
+        this.channel = compacted;
+        this.records = records;
+        try {
+            replaced.close();
+        } catch (IOException ignored) {
+            // nothing left to lose
+        }
+    }
+
+    private void syncDirectory() {
+        // makes the rename durable, not supported by every platform
+        try (FileChannel directory = FileChannel.open(this.file.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private FileChannel create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        return channel;
+    }
+
+    /**
+     * Replays the records of the journal, reading them one at a time so that only the largest record is held in memory.
+     * @return the offset following the last complete record
+     */
+    private long recover() throws IOException {
+        long size = this.channel.size();
+        ByteBuffer header = ByteBuffer.allocate(Math.max(HEADER_SIZE, RECORD_HEADER_SIZE));
+        header.limit(HEADER_SIZE);
+        if (!this.readFully(header, 0) || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException(this.file.toString());
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer body = ByteBuffer.allocate(0);
+        long position = HEADER_SIZE;
+        while (size - position >= RECORD_HEADER_SIZE) {
+            header.clear().limit(RECORD_HEADER_SIZE);
+            if (!this.readFully(header, position)) {
+                return position;
+            }
+            int length = header.getInt(0);
+            int checksum = header.getInt(4);
+            if (length <= 0 || length > size - position - RECORD_HEADER_SIZE) {
+                return position;
+            }
+            if (body.capacity() < length) {
+                body = ByteBuffer.allocate(length);
+            }
+            body.clear().limit(length);
+            if (!this.readFully(body, position + RECORD_HEADER_SIZE)) {
+                return position;
+            }
+            crc.reset();
+            crc.update(body.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                return position;
+            }
+            this.apply(readRecord(new DataInputStream(new ByteArrayInputStream(body.array(), 0, length))));
+            position += RECORD_HEADER_SIZE + length;
+            this.records++;
+        }
+        return position;
+    }
+
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    private static void writeRecord(ByteArrayOutputStream output, Record record) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(body);
+        data.writeByte(record.payload != null ? PUT : REMOVE);
+        data.writeUTF(record.timedObjectId);
+        data.writeUTF(record.timerId);
+        if (record.payload != null) {
+            data.write(record.payload);
+        }
+        data.flush();
+        byte[] bytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(bytes.length);
+        header.writeInt((int) crc.getValue());
+        header.write(bytes);
+        header.flush();
+    }
+
+    private static Record readRecord(DataInputStream body) throws IOException {
+        byte type = body.readByte();
+        String timedObjectId = body.readUTF();
+        String timerId = body.readUTF();
+        byte[] payload = null;
+        if (type == PUT) {
+            payload = new byte[body.available()];
+            body.readFully(payload);
+        }
+        return new Record(timedObjectId, timerId, payload);
+    }
+
+    /**
+     * A change to a timer.
+     */
+    static final class Record {
+        final String timedObjectId;
+        final String timerId;
+        final byte[] payload;
+
+        /**
+         * @param payload the serialized timer, or null if the timer was removed
+         */
+        Record(String timedObjectId, String timerId, byte[] payload) {
+            this.timedObjectId = timedObjectId;
+            this.timerId = timerId;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.wildfly.clustering.context.DefaultThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Coalesces the pending writes of a store by key and hands them over in batches to a writer running on a dedicated
+ * thread.
+ * <p/>
+ * A batch is written once the oldest pending write waited for the configured delay, once the batch is full, or as soon
+ * as a caller waits for its write to complete. Writes submitted while a batch is being written are grouped into the
+ * next one. A batch which fails is retried, unless a newer value was submitted for the same key in the meantime, and the
+ * callers waiting for its writes fail, as they would have when writing synchronously.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class WriteBehindQueue<K, V> {
+
+    private static final ThreadFactory THREAD_FACTORY = new DefaultThreadFactory(WriteBehindQueue.class, WildFlySecurityManager.getClassLoaderPrivileged(WriteBehindQueue.class));
+
+    interface BatchWriter<K, V> {
+        void write(Map<K, V> batch) throws Exception;
+    }
+
+    private final BatchWriter<K, V> writer;
+    private final long delayNanos;
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingChanged = this.lock.newCondition();
+    private final Condition written = this.lock.newCondition();
+
+    // guarded by lock
+    private Map<K, V> pending = new LinkedHashMap<>();
+    private long submitted = 0;
+    private long completed = 0;
+    // the ticket of the last batch written successfully, the batches completed since then failed with the failure below
+    private long writtenTicket = 0;
+    private Throwable failure;
+    private boolean urgent = false;
+    private boolean running = false;
+    private Thread thread;
+
+    WriteBehindQueue(BatchWriter<K, V> writer, long delay, TimeUnit unit, int maxBatchSize) {
+        this.writer = writer;
+        this.delayNanos = unit.toNanos(delay);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    void start() {
+        this.lock.lock();
+        try {
+            this.running = true;
+            this.thread = THREAD_FACTORY.newThread(this::run);
+            this.thread.start();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the writer thread, once it wrote all the pending writes.
+     */
+    void stop() {
+        Thread thread;
+        this.lock.lock();
+        try {
+            this.running = false;
+            this.urgent = true;
+            this.pendingChanged.signal();
+            thread = this.thread;
+            this.thread = null;
+        } finally {
+            this.lock.unlock();
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Submits a write, replacing any pending write of the same key.
+     * @param key the key
+     * @param value the value
+     * @return a ticket to pass to {@link #await(long)} in order to wait for the write
+     */
+    long submit(K key, V value) {
+        this.lock.lock();
+        try {
+            this.pending.put(key, value);
+            if (this.pending.size() == 1 || this.pending.size() >= this.maxBatchSize) {
+                // wake the writer up to start the delay of the batch, or to write a full batch
+                this.pendingChanged.signal();
+            }
+            return ++this.submitted;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a write is written, writing the pending batch right away.
+     * @param ticket the ticket of the write, as returned by {@link #submit(Object, Object)}
+     * @throws RuntimeException if writing the batch of the write failed, in which case it is still retried
+     */
+    void await(long ticket) {
+        this.lock.lock();
+        try {
+            this.awaitLocked(ticket);
+            if (ticket > this.writtenTicket && ticket <= this.completed && this.failure != null) {
+                throw new RuntimeException(this.failure);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every write submitted so far is written, or until writing it failed, in which case it is retried.
+     */
+    void flush() {
+        this.lock.lock();
+        try {
+            this.awaitLocked(this.submitted);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void awaitLocked(long ticket) {
+        if (this.completed >= ticket) {
+            return;
+        }
+        this.urgent = true;
+        this.pendingChanged.signal();
+        boolean interrupted = false;
+        while (this.completed < ticket && this.thread != null) {
+            try {
+                this.written.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Map<K, V> batch;
+            long ticket;
+            this.lock.lock();
+            try {
+                while (this.running && this.pending.isEmpty()) {
+                    this.pendingChanged.awaitUninterruptibly();
+                }
+                if (this.pending.isEmpty()) {
+                    return;
+                }
+                long remaining = this.delayNanos;
+                while (!this.urgent && remaining > 0L && this.pending.size() < this.maxBatchSize) {
+                    try {
+                        remaining = this.pendingChanged.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        remaining = 0L;
+                    }
+                }
+                batch = this.pending;
+                ticket = this.submitted;
+                this.pending = new LinkedHashMap<>();
+                this.urgent = false;
+            } finally {
+                this.lock.unlock();
+            }
+            Throwable failure = this.write(batch);
+            boolean success = (failure == null);
+            this.lock.lock();
+            try {
+                if (success) {
+                    // the batch also holds the retried writes of the batches which failed before it
+                    this.writtenTicket = ticket;
+                }
+                this.failure = failure;
+                if (!success && this.running) {
+                    // newer values submitted since win over the ones of the failed batch
+                    batch.putAll(this.pending);
+                    this.pending = batch;
+                }
+                this.completed = ticket;
+                this.written.signalAll();
+                if (!success && !this.running) {
+                    // do not hold the shutdown, the failure was logged
+                    return;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+            if (!success) {
+                // back off before retrying
+                LockSupport.parkNanos(Math.max(this.delayNanos, TimeUnit.MILLISECONDS.toNanos(100)));
+            }
+        }
+    }
+
+    private Throwable write(Map<K, V> batch) {
+        try {
+            this.writer.write(batch);
+            return null;
+        } catch (Throwable e) {
+            EJB3_TIMER_LOGGER.failToWriteTimers(batch.size(), e);
+            return e;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+
+/**
+ * A {@link TimeoutScheduler} backed by a {@link java.util.Timer}, whose single thread keeps its tasks in a binary heap.
+ */
+public class TimerScheduler implements TimeoutScheduler {
+
+    private final Timer timer;
+
+    public TimerScheduler(Timer timer) {
+        this.timer = timer;
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        TimerTaskAdapter adapter = new TimerTaskAdapter(task);
+        this.timer.schedule(adapter, unit.toMillis(Math.max(0L, delay)));
+        return adapter;
+    }
+
+    @Override
+    public Timeout scheduleAtFixedRate(Runnable task, long delay, long period, TimeUnit unit) {
+        TimerTaskAdapter adapter = new TimerTaskAdapter(task);
+        this.timer.scheduleAtFixedRate(adapter, unit.toMillis(Math.max(0L, delay)), Math.max(1L, unit.toMillis(period)));
+        return adapter;
+    }
+
+    @Override
+    public void purge() {
+        this.timer.purge();
+    }
+
+    private static class TimerTaskAdapter extends TimerTask implements Timeout {
+        private final Runnable task;
+
+        TimerTaskAdapter(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            this.task.run();
+        }
+
+        @Override
+        public String toString() {
+            return this.task.toString();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+import org.wildfly.clustering.context.DefaultThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A {@link TimeoutScheduler} backed by a hierarchical timing wheel, which schedules and cancels in constant time.
+ * <p/>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. A slot of level {@code n} covers {@code 64^n} ticks, so
+ * that with the default tick of 1 millisecond the wheel spans more than a century. A timeout due within 64 ticks sits in
+ * the first level, and a timeout further away sits in a higher level until the wheel turns to its slot, at which point
+ * it cascades to a lower level.
+ * <p/>
+ * Callers only append to lock free queues, all the structure of the wheel is owned by a single worker thread.
+ * The worker does not wake up every tick: it sleeps until the next non empty slot, which it finds through one occupancy
+ * bit mask per level, and sleeps indefinitely while nothing is scheduled.
+ * Expired tasks are dispatched to the executor given at construction time.
+ */
+public class TimingWheelScheduler implements TimeoutScheduler {
+
+    public static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    static final int LEVELS = 7;
+    static final int SLOTS = 64;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private static final ThreadFactory THREAD_FACTORY = new DefaultThreadFactory(TimingWheelScheduler.class, WildFlySecurityManager.getClassLoaderPrivileged(TimingWheelScheduler.class));
+
+    private final Executor executor;
+    private final long tickNanos;
+    private final long origin = System.nanoTime();
+    private final Queue<Entry> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+
+    // owned by the worker thread
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private long currentTick = 0;
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private volatile boolean sleeping;
+
+    /**
+     * Creates a scheduler which runs the expired tasks on its own thread.
+     */
+    public TimingWheelScheduler() {
+        this(Runnable::run, DEFAULT_TICK_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a scheduler.
+     * @param executor the executor to which expired tasks are dispatched
+     * @param tick the resolution of the wheel, tasks never run before their delay elapsed but may run up to one tick after
+     * @param unit the unit of the tick
+     */
+    public TimingWheelScheduler(Executor executor, long tick, TimeUnit unit) {
+        this.executor = executor;
+        this.tickNanos = Math.max(1L, unit.toNanos(tick));
+    }
+
+    public void start() {
+        this.running = true;
+        Thread thread = THREAD_FACTORY.newThread(this::work);
+        this.worker = thread;
+        thread.start();
+    }
+
+    public void stop() {
+        this.running = false;
+        Thread thread = this.worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.worker = null;
+        }
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return this.add(new Entry(this, task, this.now() + unit.toNanos(Math.max(0L, delay)), 0L));
+    }
+
+    @Override
+    public Timeout scheduleAtFixedRate(Runnable task, long delay, long period, TimeUnit unit) {
+        if (period <= 0L) {
+            throw new IllegalArgumentException(Long.toString(period));
+        }
+        return this.add(new Entry(this, task, this.now() + unit.toNanos(Math.max(0L, delay)), unit.toNanos(period)));
+    }
+
+    private Entry add(Entry entry) {
+        this.scheduled.add(entry);
+        // the worker might sleep past the deadline of the new entry
+        this.wakeUp();
+        return entry;
+    }
+
+    void cancel(Entry entry) {
+        this.cancelled.add(entry);
+        // wake the worker up so that it releases the entry without waiting for its slot
+        this.wakeUp();
+    }
+
+    private void wakeUp() {
+        if (this.sleeping) {
+            Thread thread = this.worker;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() - this.origin;
+    }
+
+    private void work() {
+        while (this.running) {
+            this.drainCancelled();
+            this.drainScheduled();
+            final long now = this.now() / this.tickNanos;
+            long next = this.nextTick();
+            while (next <= now) {
+                this.currentTick = next;
+                this.cascade(next);
+                this.expire(next);
+                next = this.nextTick();
+            }
+            // nothing can happen until the next tick, unless something new gets scheduled
+            this.currentTick = now;
+            // publish that we are about to sleep before checking the queues, see wakeUp()
+            this.sleeping = true;
+            if (this.running && this.scheduled.isEmpty() && this.cancelled.isEmpty()) {
+                if (next == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, this.sleepNanos(next));
+                }
+            }
+            this.sleeping = false;
+        }
+    }
+
+    private long sleepNanos(long tick) {
+        final long ticks = tick - this.currentTick;
+        if (ticks >= Long.MAX_VALUE / this.tickNanos) {
+            return Long.MAX_VALUE;
+        }
+        return tick * this.tickNanos - this.now();
+    }
+
+    private void drainScheduled() {
+        for (Entry entry = this.scheduled.poll(); entry != null; entry = this.scheduled.poll()) {
+            if (entry.state == Entry.WAITING) {
+                final long tick = this.tick(entry);
+                if (tick <= this.currentTick) {
+                    this.dispatch(entry);
+                } else {
+                    this.insert(entry, tick);
+                }
+            }
+        }
+    }
+
+    private void drainCancelled() {
+        for (Entry entry = this.cancelled.poll(); entry != null; entry = this.cancelled.poll()) {
+            if (entry.level >= 0) {
+                this.unlink(entry);
+            }
+        }
+    }
+
+    /**
+     * Finds the next tick at which a slot must either expire or cascade, or {@link Long#MAX_VALUE} if the wheel is empty.
+     */
+    private long nextTick() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; ++level) {
+            final long mask = this.occupied[level];
+            if (mask != 0L) {
+                final int shift = level * SLOT_BITS;
+                // the slots of a level are visited once per turn of the level below, starting with the one after the current one
+                final long turn = (this.currentTick >>> shift) + 1;
+                final long rotated = Long.rotateRight(mask, (int) (turn & SLOT_MASK));
+                next = Math.min(next, (turn + Long.numberOfTrailingZeros(rotated)) << shift);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Moves the timeouts of the higher level slots reached by the given tick down the wheel, highest level first.
+     */
+    private void cascade(long tick) {
+        for (int level = LEVELS - 1; level > 0; --level) {
+            final int shift = level * SLOT_BITS;
+            if ((tick & ((1L << shift) - 1)) == 0L) {
+                final int slot = (int) ((tick >>> shift) & SLOT_MASK);
+                Entry entry = this.detach(level, slot);
+                while (entry != null) {
+                    final Entry next = entry.next;
+                    entry.next = null;
+                    this.insert(entry, this.tick(entry));
+                    entry = next;
+                }
+            }
+        }
+    }
+
+    private void expire(long tick) {
+        Entry entry = this.detach(0, (int) (tick & SLOT_MASK));
+        while (entry != null) {
+            final Entry next = entry.next;
+            entry.next = null;
+            if (entry.state == Entry.WAITING) {
+                this.dispatch(entry);
+            }
+            entry = next;
+        }
+    }
+
+    private void dispatch(Entry entry) {
+        if (entry.period > 0L) {
+            // fixed rate: the next deadline derives from the previous one, not from the current time
+            entry.deadline += entry.period;
+            this.insert(entry, Math.max(this.tick(entry), this.currentTick + 1));
+        } else if (!Entry.STATE_UPDATER.compareAndSet(entry, Entry.WAITING, Entry.EXPIRED)) {
+            return;
+        }
+        try {
+            this.executor.execute(entry.task);
+        } catch (Throwable e) {
+            EJB3_TIMER_LOGGER.failedToDispatchTimeout(entry.task, e);
+        }
+    }
+
+    /**
+     * The first tick at or after the deadline of the given entry.
+     */
+    private long tick(Entry entry) {
+        return (entry.deadline + this.tickNanos - 1) / this.tickNanos;
+    }
+
+    private void insert(Entry entry, long tick) {
+        final long delta = Math.max(1L, tick - this.currentTick);
+        final int level = Math.min((63 - Long.numberOfLeadingZeros(delta)) / SLOT_BITS, LEVELS - 1);
+        // beyond the span of the wheel, park the entry in the furthest slot and let it cascade back up
+        final long target = (level == LEVELS - 1) ? Math.min(tick, this.currentTick + (1L << (LEVELS * SLOT_BITS)) - 1) : tick;
+        final int slot = (int) ((target >>> (level * SLOT_BITS)) & SLOT_MASK);
+        final Entry head = this.slots[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.previous = null;
+        entry.next = head;
+        if (head != null) {
+            head.previous = entry;
+        }
+        this.slots[level][slot] = entry;
+        this.occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(Entry entry) {
+        final Entry previous = entry.previous;
+        final Entry next = entry.next;
+        if (previous != null) {
+            previous.next = next;
+        } else {
+            this.slots[entry.level][entry.slot] = next;
+            if (next == null) {
+                this.occupied[entry.level] &= ~(1L << entry.slot);
+            }
+        }
+        if (next != null) {
+            next.previous = previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+        entry.level = -1;
+    }
+
+    /**
+     * Empties a slot, returning its entries as a list linked through {@link Entry#next}.
+     */
+    private Entry detach(int level, int slot) {
+        final Entry head = this.slots[level][slot];
+        this.slots[level][slot] = null;
+        this.occupied[level] &= ~(1L << slot);
+        for (Entry entry = head; entry != null; entry = entry.next) {
+            entry.previous = null;
+            entry.level = -1;
+        }
+        return head;
+    }
+
+    private static class Entry implements Timeout {
+        static final int WAITING = 0;
+        static final int EXPIRED = 1;
+        static final int CANCELLED = 2;
+        static final AtomicIntegerFieldUpdater<Entry> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+        final TimingWheelScheduler scheduler;
+        final Runnable task;
+        final long period;
+        volatile int state = WAITING;
+
+        // owned by the worker thread
+        long deadline;
+        Entry previous;
+        Entry next;
+        int level = -1;
+        int slot;
+
+        Entry(TimingWheelScheduler scheduler, Runnable task, long deadline, long period) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (STATE_UPDATER.compareAndSet(this, WAITING, CANCELLED)) {
+                this.scheduler.cancel(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return this.task.toString();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.timerservice.spi;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the timeouts of the timers of a timer service.
+ * Tasks run on a thread of the scheduler, so they are expected to hand off any real work to an executor.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * Schedules a task to run once, after the given delay.
+     * @param task the task to run
+     * @param delay the delay, a negative delay is treated as 0
+     * @param unit the unit of the delay
+     * @return a handle to cancel the task
+     */
+    Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * Schedules a task to run after the given delay, then repeatedly at a fixed rate.
+     * Like {@link java.util.Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)}, late executions are caught up.
+     * @param task the task to run
+     * @param delay the initial delay, a negative delay is treated as 0
+     * @param period the period between two executions, which must be positive
+     * @param unit the unit of the delay and of the period
+     * @return a handle to cancel the task
+     */
+    Timeout scheduleAtFixedRate(Runnable task, long delay, long period, TimeUnit unit);
+
+    /**
+     * Releases the tasks which were cancelled but are still referenced by this scheduler, if any.
+     */
+    default void purge() {
+        // nothing to release by default
+    }
+
+    /**
+     * A scheduled task.
+     */
+    interface Timeout {
+        /**
+         * Cancels the future executions of the task. An execution in progress is not interrupted.
+         * @return true, if this prevented at least one execution, false if the task was already cancelled or if a one-shot task already ran
+         */
+        boolean cancel();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.ee.component.ComponentView;
+import org.jboss.ejb.client.EJBMethodLocator;
+import org.junit.Test;
+
+/**
+ * Tests that {@link EJBViewMethodIndex} resolves the same view methods as the scan of the view methods it replaces.
+ */
+public class EJBViewMethodIndexTestCase {
+
+    public interface Business {
+        String echo(String value);
+
+        String echo(String value, int times);
+
+        void update(long[] values, List<String> names);
+
+        void ping();
+    }
+
+    @Test
+    public void testIndexedView() throws NoSuchMethodException {
+        ComponentView view = view(new EJBViewMethodIndex());
+        this.testFindMethod(view);
+        // the index is built once, from the view methods
+        verify(view, times(1)).getViewMethods();
+    }
+
+    @Test
+    public void testView() throws NoSuchMethodException {
+        // views without an index are scanned
+        this.testFindMethod(view(null));
+    }
+
+    private void testFindMethod(ComponentView view) throws NoSuchMethodException {
+        assertEquals(Business.class.getMethod("echo", String.class), EJBViewMethodIndex.findMethod(view, new EJBMethodLocator("echo", "java.lang.String")));
+        assertEquals(Business.class.getMethod("echo", String.class, int.class), EJBViewMethodIndex.findMethod(view, new EJBMethodLocator("echo", "java.lang.String", "int")));
+        assertEquals(Business.class.getMethod("update", long[].class, List.class), EJBViewMethodIndex.findMethod(view, new EJBMethodLocator("update", "[J", "java.util.List")));
+        assertEquals(Business.class.getMethod("ping"), EJBViewMethodIndex.findMethod(view, new EJBMethodLocator("ping")));
+        for (Method method : Business.class.getMethods()) {
+            assertEquals(method, EJBViewMethodIndex.findMethod(view, EJBMethodLocator.forMethod(method)));
+        }
+
+        assertNull(EJBViewMethodIndex.findMethod(view, new EJBMethodLocator("echo", "java.lang.Object")));
+        assertNull(EJBViewMethodIndex.findMethod(view, new EJBMethodLocator("echo", "java.lang.String", "long")));
+        assertNull(EJBViewMethodIndex.findMethod(view, new EJBMethodLocator("missing")));
+    }
+
+    private static ComponentView view(EJBViewMethodIndex index) {
+        Set<Method> methods = new HashSet<>(List.of(Business.class.getMethods()));
+        ComponentView view = mock(ComponentView.class);
+        when(view.getViewMethods()).thenReturn(methods);
+        when(view.getPrivateData(EJBViewMethodIndex.class)).thenReturn(index);
+        return view;
+    }
+}
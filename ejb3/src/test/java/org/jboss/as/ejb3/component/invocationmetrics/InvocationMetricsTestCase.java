@@ -0,0 +1,108 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InvocationMetrics}.
+ */
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void testOnlyInvokedMethodsAreReported() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method toString = Object.class.getMethod("toString");
+        Method hashCode = Object.class.getMethod("hashCode");
+        InvocationMetrics.MethodMetrics toStringMetrics = metrics.getMethodMetrics(toString);
+        metrics.getMethodMetrics(hashCode);
+
+        assertTrue(metrics.getMethods().isEmpty());
+
+        metrics.startInvocation();
+        metrics.finishInvocation(toStringMetrics, TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.startInvocation();
+        metrics.finishInvocation(toString, TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(7));
+
+        assertEquals(2, metrics.getInvocations());
+        assertEquals(7, metrics.getWaitTime());
+        assertEquals(10, metrics.getExecutionTime());
+        assertEquals(0, metrics.getConcurrent());
+        assertEquals(1, metrics.getPeakConcurrent());
+
+        Map<String, InvocationMetrics.Values> methods = metrics.getMethods();
+        assertEquals(1, methods.size());
+        InvocationMetrics.Values values = methods.get("toString");
+        assertEquals(2, values.getInvocations());
+        assertEquals(7, values.getWaitTime());
+        assertEquals(10, values.getExecutionTime());
+        assertNull(values.getExecutionTimeHistogram());
+        assertNull(metrics.getExecutionTimeHistogram());
+    }
+
+    @Test
+    public void testHistograms() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics(true);
+        Method toString = Object.class.getMethod("toString");
+        for (int i = 1; i <= 100; i++) {
+            metrics.startInvocation();
+            metrics.finishInvocation(toString, 0, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(100, metrics.getExecutionTimeHistogram().getCount());
+        assertEquals(100, metrics.getWaitTimeHistogram().getCount());
+        assertEquals(0, metrics.getWaitTimeHistogram().getValueAtPercentile(99));
+        LatencyHistogram histogram = metrics.getMethods().get("toString").getExecutionTimeHistogram();
+        assertEquals(100, histogram.getCount());
+        assertWithin(50_000, histogram.getValueAtPercentile(50));
+        assertWithin(99_000, histogram.getValueAtPercentile(99));
+        assertWithin(100_000, histogram.getValueAtPercentile(99.9));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " is not within 7% of " + expected, Math.abs(actual - expected) <= expected * 7 / 100);
+    }
+
+    @Test
+    public void testPeakConcurrent() throws Exception {
+        final int threads = 8;
+        final InvocationMetrics metrics = new InvocationMetrics();
+        final InvocationMetrics.MethodMetrics methodMetrics = metrics.getMethodMetrics(Object.class.getMethod("toString"));
+        final CountDownLatch started = new CountDownLatch(threads);
+        final CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService service = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                service.submit(() -> {
+                    metrics.startInvocation();
+                    started.countDown();
+                    finish.await();
+                    metrics.finishInvocation(methodMetrics, 0, 1);
+                    return null;
+                });
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertEquals(threads, metrics.getConcurrent());
+            finish.countDown();
+        } finally {
+            service.shutdown();
+            assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(threads, metrics.getPeakConcurrent());
+        assertEquals(threads, metrics.getInvocations());
+        assertEquals(0, metrics.getConcurrent());
+    }
+}
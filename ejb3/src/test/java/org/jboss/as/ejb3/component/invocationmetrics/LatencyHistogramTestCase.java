@@ -0,0 +1,53 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (int index = 0; index < LatencyHistogram.BUCKETS; index++) {
+            long highest = LatencyHistogram.highestValue(index);
+            assertTrue(highest > previous);
+            assertEquals(index, LatencyHistogram.index(previous + 1));
+            assertEquals(index, LatencyHistogram.index(highest));
+            // the width of a bucket never exceeds 1/16th of its values
+            assertTrue((highest - previous) * LatencyHistogram.SUB_BUCKETS <= Math.max(LatencyHistogram.SUB_BUCKETS, previous + 1));
+            previous = highest;
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        for (int i = 0; i < 990; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        histogram.record(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(LatencyHistogram.highestValue(LatencyHistogram.index(100)), histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.highestValue(LatencyHistogram.index(100)), histogram.getValueAtPercentile(99));
+        assertEquals(LatencyHistogram.highestValue(LatencyHistogram.index(10_000)), histogram.getValueAtPercentile(99.9));
+        assertEquals(LatencyHistogram.highestValue(LatencyHistogram.index(1_000_000)), histogram.getValueAtPercentile(100));
+    }
+}
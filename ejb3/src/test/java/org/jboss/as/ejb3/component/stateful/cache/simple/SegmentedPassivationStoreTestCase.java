@@ -0,0 +1,139 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache.simple;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SegmentedPassivationStore}.
+ */
+public class SegmentedPassivationStoreTestCase {
+
+    private Path directory;
+    private SegmentedPassivationStore<String> store;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("passivation");
+        // small segments, so that a few instances span several of them
+        this.store = new SegmentedPassivationStore<>(this.directory, 64);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.store.close();
+        Files.deleteIfExists(this.directory);
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        for (int i = 0; i < 10; ++i) {
+            this.store.write("bean" + i, bytes("state of bean " + i));
+        }
+        assertEquals(10, this.store.size());
+        assertTrue(this.store.getSegmentCount() > 1);
+
+        assertArrayEquals(bytes("state of bean 3"), this.store.read("bean3"));
+        // activated instances are no longer passivated
+        assertNull(this.store.read("bean3"));
+        assertEquals(9, this.store.size());
+
+        assertTrue(this.store.remove("bean4"));
+        assertFalse(this.store.remove("bean4"));
+        assertNull(this.store.read("unknown"));
+
+        for (int i = 0; i < 10; ++i) {
+            if (i != 3 && i != 4) {
+                assertArrayEquals(bytes("state of bean " + i), this.store.read("bean" + i));
+            }
+        }
+        assertEquals(0, this.store.size());
+        // only the current segment is left
+        assertEquals(1, this.store.getSegmentCount());
+    }
+
+    @Test
+    public void testSegmentsAreDeletedOnceEmpty() throws IOException {
+        for (int i = 0; i < 20; ++i) {
+            this.store.write("bean" + i, new byte[32]);
+        }
+        int segments = this.store.getSegmentCount();
+        assertEquals(10, segments);
+        // empty the first segments
+        for (int i = 0; i < 10; ++i) {
+            this.store.remove("bean" + i);
+        }
+        assertEquals(segments - 5, this.store.getSegmentCount());
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        for (int i = 0; i < 10; ++i) {
+            this.store.write("bean" + i, new byte[32]);
+        }
+        this.store.close();
+        assertEquals(0, this.store.size());
+        assertEquals(0, this.store.getSegmentCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        int threads = 4;
+        int beans = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; ++t) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < beans; ++i) {
+                        String id = thread + ":" + i;
+                        this.store.write(id, bytes(id));
+                        if (i % 2 == 0) {
+                            assertArrayEquals(bytes(id), this.store.read(id));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * beans / 2, this.store.size());
+        for (int t = 0; t < threads; ++t) {
+            for (int i = 1; i < beans; i += 2) {
+                String id = t + ":" + i;
+                assertArrayEquals(bytes(id), this.store.read(id));
+            }
+        }
+        assertEquals(0, this.store.size());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBean;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstance;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstanceFactory;
+import org.jboss.as.server.ServerEnvironment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.function.Supplier;
+
+/**
+ * Unit test for the eviction, passivation and activation of a bounded {@link SimpleStatefulSessionBeanCache}.
+ */
+public class SimpleStatefulSessionBeanCacheTestCase {
+
+    private Path directory;
+    private final SimpleStatefulSessionBeanCacheStatistics statistics = new SimpleStatefulSessionBeanCacheStatistics();
+    // the payload of the next bean instance created
+    private Object payload;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("simple-cache");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testEvictionAndActivation() {
+        SimpleStatefulSessionBeanCache<UUID, TestBeanInstance> cache = this.createCache(2);
+        cache.start();
+        try {
+            StatefulSessionBean<UUID, TestBeanInstance> bean1 = cache.createStatefulSessionBean();
+            StatefulSessionBean<UUID, TestBeanInstance> bean2 = cache.createStatefulSessionBean();
+            StatefulSessionBean<UUID, TestBeanInstance> bean3 = cache.createStatefulSessionBean();
+            // Bean instances in use are never evicted
+            assertEquals(3, cache.getActiveCount());
+
+            bean1.close();
+            // the least recently used idle bean instance is evicted
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+            assertEquals(1, bean1.getInstance().prePassivated);
+            assertEquals(1L, this.statistics.getEvictionCount());
+            assertEquals(1L, this.statistics.getPassivationCount());
+
+            bean2.close();
+            bean3.close();
+            assertEquals(2, cache.getActiveCount());
+
+            StatefulSessionBean<UUID, TestBeanInstance> activated = cache.findStatefulSessionBean(bean1.getInstance().getId());
+            assertNotSame(bean1.getInstance(), activated.getInstance());
+            assertEquals(bean1.getInstance().getId(), activated.getInstance().getId());
+            assertEquals(1, activated.getInstance().postActivated);
+            assertEquals(1L, this.statistics.getActivationCount());
+            // activating bean1 evicted bean2, the least recently used idle bean instance
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+            assertEquals(2L, this.statistics.getEvictionCount());
+            assertSame(bean3.getInstance(), cache.findStatefulSessionBean(bean3.getInstance().getId()).getInstance());
+
+            assertNull(cache.findStatefulSessionBean(UUID.randomUUID()));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testFailedPassivation() {
+        SimpleStatefulSessionBeanCache<UUID, TestBeanInstance> cache = this.createCache(1);
+        cache.start();
+        try {
+            // a bean instance which cannot be serialized
+            this.payload = new Object();
+            StatefulSessionBean<UUID, TestBeanInstance> bean1 = cache.createStatefulSessionBean();
+            this.payload = null;
+            StatefulSessionBean<UUID, TestBeanInstance> bean2 = cache.createStatefulSessionBean();
+
+            bean1.close();
+            // kept in memory, and not counted as evicted
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(0, cache.getPassiveCount());
+            assertEquals(1, bean1.getInstance().prePassivated);
+            assertEquals(1, bean1.getInstance().postActivated);
+            assertEquals(0L, this.statistics.getEvictionCount());
+            assertEquals(0L, this.statistics.getPassivationCount());
+            assertSame(bean1.getInstance(), cache.findStatefulSessionBean(bean1.getInstance().getId()).getInstance());
+
+            bean2.close();
+            assertEquals(1, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+            assertEquals(1L, this.statistics.getEvictionCount());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    private SimpleStatefulSessionBeanCache<UUID, TestBeanInstance> createCache(int maxSize) {
+        ServerEnvironment environment = mock(ServerEnvironment.class);
+        when(environment.getServerTempDir()).thenReturn(this.directory.toFile());
+        when(environment.getNodeName()).thenReturn("node");
+        SimpleStatefulSessionBeanCacheStatistics statistics = this.statistics;
+        StatefulSessionBeanInstanceFactory<TestBeanInstance> factory = () -> new TestBeanInstance(this.payload);
+        return new SimpleStatefulSessionBeanCache<>(new SimpleStatefulSessionBeanCacheConfiguration<>() {
+            @Override
+            public StatefulSessionBeanInstanceFactory<TestBeanInstance> getInstanceFactory() {
+                return factory;
+            }
+
+            @Override
+            public Supplier<UUID> getIdentifierFactory() {
+                return UUID::randomUUID;
+            }
+
+            @Override
+            public Duration getTimeout() {
+                return null;
+            }
+
+            @Override
+            public ServerEnvironment getEnvironment() {
+                return environment;
+            }
+
+            @Override
+            public String getComponentName() {
+                return "component";
+            }
+
+            @Override
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            @Override
+            public SimpleStatefulSessionBeanCacheStatistics getStatistics() {
+                return statistics;
+            }
+        });
+    }
+
+    static class TestBeanInstance implements StatefulSessionBeanInstance<UUID>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final UUID id = UUID.randomUUID();
+        private final Object payload;
+        transient int prePassivated;
+        transient int postActivated;
+
+        TestBeanInstance(Object payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public UUID getId() {
+            return this.id;
+        }
+
+        @Override
+        public void prePassivate() {
+            this.prePassivated++;
+        }
+
+        @Override
+        public void postActivate() {
+            this.postActivated++;
+        }
+
+        @Override
+        public void removed() {
+        }
+    }
+}
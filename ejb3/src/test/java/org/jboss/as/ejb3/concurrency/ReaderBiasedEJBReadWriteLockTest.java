@@ -0,0 +1,200 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import jakarta.ejb.IllegalLoopbackException;
+
+import org.jboss.as.ejb3.component.singleton.ReaderBiasedEJBReadWriteLock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ReaderBiasedEJBReadWriteLock}, with the scenarios of {@link EJBReadWriteLockTest} plus contention
+ * between readers and writers.
+ */
+public class ReaderBiasedEJBReadWriteLockTest {
+
+    private ReaderBiasedEJBReadWriteLock lock;
+    private ExecutorService executor;
+
+    @Before
+    public void beforeTest() {
+        this.lock = new ReaderBiasedEJBReadWriteLock();
+        this.executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void afterTest() {
+        this.executor.shutdownNow();
+        this.lock = null;
+    }
+
+    @Test
+    public void testIllegalLoopBack() throws Exception {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            this.lock.writeLock().tryLock(1, TimeUnit.SECONDS);
+            Assert.fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException e) {
+            // expected
+        } finally {
+            readLock.unlock();
+        }
+        // once the read lock is released, the write lock can be obtained
+        Assert.assertTrue(this.lock.writeLock().tryLock(1, TimeUnit.SECONDS));
+        this.lock.writeLock().unlock();
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> writer = this.executor.submit(() -> {
+            this.lock.writeLock().lock();
+            try {
+                locked.countDown();
+                release.await();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            return null;
+        });
+        locked.await();
+        long start = System.nanoTime();
+        Assert.assertFalse(this.lock.readLock().tryLock(200, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        Assert.assertFalse(this.lock.readLock().tryLock());
+        release.countDown();
+        writer.get();
+        Assert.assertTrue(this.lock.readLock().tryLock(1, TimeUnit.SECONDS));
+        this.lock.readLock().unlock();
+    }
+
+    @Test
+    public void testWriteTimeout() throws Exception {
+        this.lock.readLock().lock();
+        try {
+            Future<Boolean> writer = this.executor.submit(() -> this.lock.writeLock().tryLock(200, TimeUnit.MILLISECONDS));
+            Assert.assertFalse(writer.get());
+            // the writer which gave up must not hold up new readers
+            Future<Boolean> reader = this.executor.submit(() -> {
+                boolean locked = this.lock.readLock().tryLock(0, TimeUnit.SECONDS);
+                if (locked) {
+                    this.lock.readLock().unlock();
+                }
+                return locked;
+            });
+            Assert.assertTrue(reader.get());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        Future<Boolean> writer = this.executor.submit(() -> {
+            boolean locked = this.lock.writeLock().tryLock(1, TimeUnit.SECONDS);
+            if (locked) {
+                this.lock.writeLock().unlock();
+            }
+            return locked;
+        });
+        Assert.assertTrue(writer.get());
+    }
+
+    @Test
+    public void testSameThreadCanGetWriteThenReadLock() throws Exception {
+        Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            Assert.assertTrue(writeLock.tryLock(1, TimeUnit.SECONDS));
+            writeLock.unlock();
+            Assert.assertTrue(this.lock.readLock().tryLock(1, TimeUnit.SECONDS));
+            this.lock.readLock().unlock();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * A reader which re-enters the read lock is not held up by a writer waiting for it.
+     */
+    @Test
+    public void testReentrantReadWithWaitingWriter() throws Exception {
+        this.lock.readLock().lock();
+        Future<Boolean> writer = this.executor.submit(() -> {
+            boolean locked = this.lock.writeLock().tryLock(5, TimeUnit.SECONDS);
+            if (locked) {
+                this.lock.writeLock().unlock();
+            }
+            return locked;
+        });
+        // give the writer the time to announce itself
+        Thread.sleep(100);
+        Assert.assertTrue(this.lock.readLock().tryLock(0, TimeUnit.SECONDS));
+        this.lock.readLock().unlock();
+        this.lock.readLock().unlock();
+        Assert.assertTrue(writer.get());
+    }
+
+    @Test
+    public void testContention() throws Exception {
+        int readers = 8;
+        int writers = 2;
+        int iterations = 20000;
+        AtomicBoolean writing = new AtomicBoolean();
+        int[] value = new int[2];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < readers; ++i) {
+            futures.add(this.executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < iterations; ++j) {
+                    Lock readLock = this.lock.readLock();
+                    Assert.assertTrue(readLock.tryLock(10, TimeUnit.SECONDS));
+                    try {
+                        Assert.assertFalse(writing.get());
+                        Assert.assertEquals(value[0], value[1]);
+                    } finally {
+                        readLock.unlock();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int i = 0; i < writers; ++i) {
+            futures.add(this.executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < iterations / 10; ++j) {
+                    Lock writeLock = this.lock.writeLock();
+                    Assert.assertTrue(writeLock.tryLock(10, TimeUnit.SECONDS));
+                    try {
+                        Assert.assertTrue(writing.compareAndSet(false, true));
+                        value[0]++;
+                        value[1]++;
+                        writing.set(false);
+                    } finally {
+                        writeLock.unlock();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(writers * (iterations / 10), value[0]);
+    }
+}
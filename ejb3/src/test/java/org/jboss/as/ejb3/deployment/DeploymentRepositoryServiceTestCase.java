@@ -0,0 +1,61 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the snapshots of the modules returned by {@link DeploymentRepositoryService}.
+ */
+public class DeploymentRepositoryServiceTestCase {
+
+    private static final DeploymentModuleIdentifier FIRST = new DeploymentModuleIdentifier("app", "first", "");
+    private static final DeploymentModuleIdentifier SECOND = new DeploymentModuleIdentifier("app", "second", "");
+
+    @Test
+    public void testSnapshots() throws Exception {
+        DeploymentRepositoryService repository = new DeploymentRepositoryService();
+        repository.start(null);
+        assertTrue(repository.getModules().isEmpty());
+        assertTrue(repository.getStartedModules().isEmpty());
+
+        ModuleDeployment first = new ModuleDeployment(FIRST, Collections.emptyMap());
+        ModuleDeployment second = new ModuleDeployment(SECOND, Collections.emptyMap());
+        repository.add(FIRST, first);
+        repository.add(SECOND, second);
+        Map<DeploymentModuleIdentifier, ModuleDeployment> modules = repository.getModules();
+        assertEquals(Map.of(FIRST, first, SECOND, second), modules);
+        assertTrue(repository.getStartedModules().isEmpty());
+        // the snapshots are read on every invocation, they are not copied and cannot be modified
+        assertSame(modules, repository.getModules());
+        assertThrows(UnsupportedOperationException.class, () -> modules.remove(FIRST));
+
+        assertTrue(repository.startDeployment(FIRST));
+        assertFalse(repository.startDeployment(new DeploymentModuleIdentifier("app", "missing", "")));
+        Map<DeploymentModuleIdentifier, ModuleDeployment> started = repository.getStartedModules();
+        assertEquals(Map.of(FIRST, first), started);
+
+        repository.remove(FIRST);
+        assertEquals(Map.of(SECOND, second), repository.getModules());
+        assertTrue(repository.getStartedModules().isEmpty());
+        // the snapshots returned before are not changed by later updates
+        assertEquals(Map.of(FIRST, first, SECOND, second), modules);
+        assertEquals(Map.of(FIRST, first), started);
+
+        repository.stop(null);
+        assertTrue(repository.getModules().isEmpty());
+        assertTrue(repository.getStartedModules().isEmpty());
+    }
+}
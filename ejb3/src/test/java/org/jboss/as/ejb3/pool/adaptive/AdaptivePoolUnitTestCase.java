@@ -0,0 +1,95 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.pool.adaptive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Test;
+
+/**
+ * Checks that {@link AdaptivePool} grows on contention, never beyond its ceiling, and shrinks back when instances idle.
+ */
+public class AdaptivePoolUnitTestCase {
+
+    @Test
+    public void testGrowsUpToCeiling() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        // no background trimming
+        AdaptivePool<MockBean> pool = new AdaptivePool<MockBean>(factory, 2, 4, 200, TimeUnit.MILLISECONDS, 1, 0, TimeUnit.MILLISECONDS);
+        pool.start();
+
+        assertEquals(2, pool.getAdaptiveSize());
+        MockBean[] beans = new MockBean[4];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(4, pool.getAdaptiveSize());
+        assertEquals(4, pool.getMaxSize());
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbLogger.ROOT_LOGGER.failedToAcquirePermit(200, TimeUnit.MILLISECONDS).getMessage(), e.getMessage());
+        }
+        assertEquals(4, pool.getAdaptiveSize());
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+        assertEquals(4, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(4, MockBean.getPostConstructs());
+        assertEquals(4, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testTrimShrinksToFloor() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        AdaptivePool<MockBean> pool = new AdaptivePool<MockBean>(factory, 1, 3, 1, TimeUnit.SECONDS, 1, 1, TimeUnit.MILLISECONDS);
+
+        MockBean[] beans = new MockBean[3];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(3, pool.getAdaptiveSize());
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+        }
+
+        Thread.sleep(10);
+        // callers waited since the previous trim, so instances are destroyed but the size is kept
+        pool.trim();
+        assertEquals(3, MockBean.getPreDestroys());
+        assertEquals(3, pool.getAdaptiveSize());
+
+        MockBean bean = pool.get();
+        pool.release(bean);
+        Thread.sleep(10);
+        pool.trim();
+        assertEquals(4, MockBean.getPreDestroys());
+        assertEquals(2, pool.getAdaptiveSize());
+        assertEquals(0, pool.getCurrentSize());
+
+        pool.setMaxSize(0);
+        assertEquals(1, pool.getMaxSize());
+        assertEquals(1, pool.getAdaptiveSize());
+        assertEquals(1, pool.getAvailableCount());
+
+        pool.stop();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Test;
+
+/**
+ * Same scenarios as {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxUnitTestCase}, plus checks that the permits
+ * spread over the stripes still add up to the max size.
+ */
+public class StripedMaxUnitTestCase {
+    AtomicInteger used = new AtomicInteger(0);
+
+    protected void setUp() throws Exception {
+        MockBean.reset();
+        used = new AtomicInteger(0);
+    }
+
+    @Test
+    public void test1() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StripedMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        MockBean[] beans = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    /**
+     * More threads than the pool size.
+     */
+    @Test
+    public void testMultiThread() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final Pool<MockBean> pool = new StripedMaxPool<MockBean>(factory, 10, 60, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        final CountDownLatch in = new CountDownLatch(1);
+        final CountDownLatch ready = new CountDownLatch(10);
+
+
+
+        Callable<Void> task = new Callable<Void>() {
+            public Void call() throws Exception {
+                MockBean bean = pool.get();
+                ready.countDown();
+                in.await();
+                pool.release(bean);
+
+                bean = null;
+
+                used.incrementAndGet();
+
+                return null;
+            }
+        };
+
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        Future<?>[] results = new Future<?>[20];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = service.submit(task);
+        }
+
+        ready.await(120, TimeUnit.SECONDS);
+        in.countDown();
+
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        service.shutdown();
+
+        pool.stop();
+
+        assertEquals(20, used.intValue());
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testTooMany() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StripedMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        MockBean[] beans = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbLogger.ROOT_LOGGER.failedToAcquirePermit(1, TimeUnit.SECONDS).getMessage(), e.getMessage());
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    /**
+     * A thread must be able to use permits and instances of any stripe.
+     */
+    @Test
+    public void testSingleThreadUsesAllStripes() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StripedMaxPool<MockBean>(factory, 7, 1, TimeUnit.SECONDS, 8);
+        pool.start();
+
+        assertEquals(7, pool.getAvailableCount());
+        MockBean[] beans = new MockBean[7];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(0, pool.getAvailableCount());
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+        assertEquals(7, pool.getAvailableCount());
+
+        // released instances are reused rather than created again
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        for (int i = 0; i < beans.length; i++) {
+            pool.discard(beans[i]);
+        }
+        assertEquals(7, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(7, MockBean.getPostConstructs());
+        assertEquals(7, MockBean.getPreDestroys());
+    }
+
+    /**
+     * A waiting thread is woken up by a release made on another stripe.
+     */
+    @Test
+    public void testBlockedGetIsReleased() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final Pool<MockBean> pool = new StripedMaxPool<MockBean>(factory, 2, 60, TimeUnit.SECONDS, 2);
+        pool.start();
+
+        final MockBean first = pool.get();
+        final MockBean second = pool.get();
+
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        Future<MockBean> waiting = service.submit(new Callable<MockBean>() {
+            public MockBean call() {
+                return pool.get();
+            }
+        });
+        try {
+            waiting.get(100, TimeUnit.MILLISECONDS);
+            fail("should have been blocked");
+        } catch (TimeoutException expected) {
+            // still waiting for a permit
+        }
+        pool.release(first);
+        assertSame(first, waiting.get(5, TimeUnit.SECONDS));
+        service.shutdown();
+
+        pool.release(first);
+        pool.release(second);
+        pool.stop();
+
+        assertEquals(2, MockBean.getPostConstructs());
+        assertEquals(2, MockBean.getPreDestroys());
+    }
+
+    /**
+     * Growing the pool wakes up a waiting thread, shrinking it keeps the permits of the instances in use.
+     */
+    @Test
+    public void testSetMaxSize() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        final Pool<MockBean> pool = new StripedMaxPool<MockBean>(factory, 2, 60, TimeUnit.SECONDS, 2);
+        pool.start();
+
+        final MockBean first = pool.get();
+        final MockBean second = pool.get();
+
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        Future<MockBean> waiting = service.submit(new Callable<MockBean>() {
+            public MockBean call() {
+                return pool.get();
+            }
+        });
+        try {
+            waiting.get(100, TimeUnit.MILLISECONDS);
+            fail("should have been blocked");
+        } catch (TimeoutException expected) {
+            // still waiting for a permit
+        }
+        pool.setMaxSize(3);
+        assertEquals(3, pool.getMaxSize());
+        final MockBean third = waiting.get(5, TimeUnit.SECONDS);
+        service.shutdown();
+        assertEquals(0, pool.getAvailableCount());
+
+        // the three instances are still in use, so no permit is available until two of them are released
+        pool.setMaxSize(1);
+        assertEquals(1, pool.getMaxSize());
+        pool.release(first);
+        pool.release(second);
+        assertEquals(0, pool.getAvailableCount());
+        pool.release(third);
+        assertEquals(1, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(3, MockBean.getPostConstructs());
+        assertEquals(3, MockBean.getPreDestroys());
+    }
+}
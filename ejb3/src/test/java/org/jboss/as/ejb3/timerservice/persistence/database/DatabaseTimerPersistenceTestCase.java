@@ -5,11 +5,34 @@
 
 package org.jboss.as.ejb3.timerservice.persistence.database;
 
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
-
+import java.util.Set;
+import javax.sql.DataSource;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transaction;
+
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence.TimerChangeListener;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -168,4 +191,111 @@ public class DatabaseTimerPersistenceTestCase {
         Assert.assertEquals("sybase", field.get(object));
     }
 
-}
\ No newline at end of file
+    /**
+     * Only the ids and states of the timers are scanned, and only the timers added by another node are loaded. A row
+     * which cannot be handled does not prevent the others from being refreshed.
+     */
+    @Test
+    public void refreshLoadsOnlyChangedTimers() throws Exception {
+        final DataSource dataSource = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        final PreparedStatement loadStates = mock(PreparedStatement.class);
+        final ResultSet states = mock(ResultSet.class);
+        when(connection.prepareStatement("load-all-timer-states...")).thenReturn(loadStates);
+        when(loadStates.executeQuery()).thenReturn(states);
+        when(states.next()).thenReturn(true, true, true, false);
+        when(states.getString(1)).thenReturn("a", "b", "c");
+        // only read for the timers in memory which are not in sync, such as b
+        when(states.getString(2)).thenReturn("UNKNOWN");
+        final PreparedStatement loadTimer = mock(PreparedStatement.class);
+        final ResultSet timer = mock(ResultSet.class);
+        when(connection.prepareStatement("load-timer...")).thenReturn(loadTimer);
+        when(loadTimer.executeQuery()).thenReturn(timer);
+
+        final TimerServiceImpl timerService = mock(TimerServiceImpl.class);
+        final TimerImpl cancelled = mock(TimerImpl.class);
+        when(cancelled.getState()).thenReturn(TimerState.CANCELED);
+        when(timerService.getTimer("b")).thenReturn(cancelled);
+        final TimerImpl removed = mock(TimerImpl.class);
+        when(removed.getState()).thenReturn(TimerState.ACTIVE);
+        when(timerService.getTimer("d")).thenReturn(removed);
+        final TimerChangeListener listener = mock(TimerChangeListener.class);
+        when(listener.getTimerService()).thenReturn(timerService);
+
+        final Properties sql = new Properties();
+        sql.setProperty("load-all-timer-states", "load-all-timer-states...");
+        sql.setProperty("load-all-timers", "load-all-timers...");
+        sql.setProperty("load-timer", "load-timer...");
+        set("sql", sql);
+        set("dataSource", dataSource);
+        object.timerDeployed("obj");
+        object.registerChangeListener("obj", listener);
+        final Set<String> ids = knownTimerIds().get("obj");
+        ids.addAll(Arrays.asList("a", "b", "d"));
+        final Constructor<?> refreshTask = Class.forName(DatabaseTimerPersistence.class.getName() + "$RefreshTask").getDeclaredConstructor(DatabaseTimerPersistence.class);
+        refreshTask.setAccessible(true);
+        set("refreshTask", refreshTask.newInstance(object));
+
+        object.refreshTimers();
+
+        verify(connection, never()).prepareStatement("load-all-timers...");
+        verify(connection, times(1)).prepareStatement("load-timer...");
+        verify(loadTimer).setString(2, "c");
+        verify(listener).timerRemoved("d");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b")), ids);
+    }
+
+    /**
+     * The timers created within a transaction are inserted with one JDBC batch per {@code batchSize} timers, and the
+     * remaining ones before the transaction completes.
+     */
+    @Test
+    public void batchedInserts() throws Exception {
+        final DataSource dataSource = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        final Properties sql = new Properties();
+        sql.setProperty("create-timer", "insert...");
+        set("sql", sql);
+        set("dataSource", dataSource);
+        set("batchSize", 2);
+
+        final Class<?> batchClass = Class.forName(DatabaseTimerPersistence.class.getName() + "$TimerBatch");
+        final Constructor<?> constructor = batchClass.getDeclaredConstructor(DatabaseTimerPersistence.class, Transaction.class);
+        constructor.setAccessible(true);
+        final Object batch = constructor.newInstance(object, mock(Transaction.class));
+        final Method add = batchClass.getDeclaredMethod("add", TimerImpl.class);
+        add.setAccessible(true);
+        for (int i = 0; i < 3; ++i) {
+            final TimerImpl timer = mock(TimerImpl.class);
+            when(timer.getId()).thenReturn(Integer.toString(i));
+            when(timer.getState()).thenReturn(TimerState.ACTIVE);
+            add.invoke(batch, timer);
+        }
+        // the first two timers fill a batch
+        verify(statement, times(2)).addBatch();
+        verify(statement, times(1)).executeBatch();
+
+        ((Synchronization) batch).beforeCompletion();
+        ((Synchronization) batch).afterCompletion(Status.STATUS_COMMITTED);
+        verify(statement, times(3)).addBatch();
+        verify(statement, times(2)).executeBatch();
+        verify(statement).setString(1, "2");
+    }
+
+    private void set(final String name, final Object value) throws ReflectiveOperationException {
+        final Field field = DatabaseTimerPersistence.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(object, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<String>> knownTimerIds() throws ReflectiveOperationException {
+        final Field field = DatabaseTimerPersistence.class.getDeclaredField("knownTimerIds");
+        field.setAccessible(true);
+        return (Map<String, Set<String>>) field.get(object);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the crash recovery of {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        this.directory = Files.createTempDirectory("timer-journal");
+        this.file = this.directory.resolve(TimerJournal.FILE_NAME);
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        try (TimerJournal journal = this.open()) {
+            journal.write(Arrays.asList(put("a", "1"), put("a", "2"), put("b", "3")));
+            journal.write(Arrays.asList(put("a", "1", "updated"), remove("a", "2")));
+        }
+        try (TimerJournal journal = this.open()) {
+            Map<String, byte[]> timers = journal.getTimers("a");
+            assertEquals(1, timers.size());
+            assertArrayEquals(bytes("updated"), timers.get("1"));
+            assertEquals(1, journal.getTimers("b").size());
+            assertTrue(journal.getTimers("c").isEmpty());
+        }
+    }
+
+    @Test
+    public void testTruncatedRecord() throws IOException {
+        long committed;
+        try (TimerJournal journal = this.open()) {
+            journal.write(Collections.singletonList(put("a", "1")));
+            committed = Files.size(this.file);
+            journal.write(Collections.singletonList(put("a", "2")));
+        }
+        // crash in the middle of the second record
+        try (RandomAccessFile raf = new RandomAccessFile(this.file.toFile(), "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        try (TimerJournal journal = this.open()) {
+            assertEquals(Collections.singleton("1"), journal.getTimers("a").keySet());
+            assertEquals(committed, Files.size(this.file));
+            // appends after the truncation point are readable
+            journal.write(Collections.singletonList(put("a", "3")));
+        }
+        try (TimerJournal journal = this.open()) {
+            assertEquals(2, journal.getTimers("a").size());
+            assertTrue(journal.getTimers("a").containsKey("3"));
+        }
+    }
+
+    @Test
+    public void testCorruptRecord() throws IOException {
+        long committed;
+        try (TimerJournal journal = this.open()) {
+            journal.write(Collections.singletonList(put("a", "1")));
+            committed = Files.size(this.file);
+            journal.write(Arrays.asList(put("a", "2"), put("a", "3")));
+        }
+        // flip a byte of the payload of the second record, the records after it must be dropped as well
+        try (RandomAccessFile raf = new RandomAccessFile(this.file.toFile(), "rw")) {
+            raf.seek(committed + 12);
+            int value = raf.read();
+            raf.seek(committed + 12);
+            raf.write(~value);
+        }
+        try (TimerJournal journal = this.open()) {
+            assertEquals(Collections.singleton("1"), journal.getTimers("a").keySet());
+            assertEquals(committed, Files.size(this.file));
+        }
+    }
+
+    @Test
+    public void testLeftoverCompaction() throws IOException {
+        try (TimerJournal journal = this.open()) {
+            journal.write(Collections.singletonList(put("a", "1")));
+        }
+        // crash before the compacted journal was renamed
+        Path compacting = this.directory.resolve(TimerJournal.FILE_NAME + ".compacting");
+        Files.write(compacting, bytes("garbage"));
+        try (TimerJournal journal = this.open()) {
+            assertFalse(Files.exists(compacting));
+            assertEquals(1, journal.getTimers("a").size());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        try (TimerJournal journal = this.open()) {
+            // 1040 records for 20 live timers, the last batch triggers a compaction
+            for (int i = 0; i < 52; ++i) {
+                List<TimerJournal.Record> batch = new ArrayList<>();
+                for (int j = 0; j < 20; ++j) {
+                    batch.add(put("a", Integer.toString(j), Integer.toString(i)));
+                }
+                journal.write(batch);
+            }
+            assertTrue(Files.size(this.file) < 20 * 32);
+            journal.write(Collections.singletonList(remove("a", "0")));
+        }
+        try (TimerJournal journal = this.open()) {
+            Map<String, byte[]> timers = journal.getTimers("a");
+            assertEquals(19, timers.size());
+            assertArrayEquals(bytes("51"), timers.get("19"));
+        }
+    }
+
+    @Test
+    public void testFailedCompaction() throws IOException {
+        // a non empty directory in place of the compacted journal makes the compaction fail
+        Path compacting = this.directory.resolve(TimerJournal.FILE_NAME + ".compacting");
+        Path blocker = compacting.resolve("blocker");
+        try (TimerJournal journal = this.open()) {
+            Files.createDirectory(compacting);
+            Files.write(blocker, bytes("blocker"));
+            for (int i = 0; i < 52; ++i) {
+                List<TimerJournal.Record> batch = new ArrayList<>();
+                for (int j = 0; j < 20; ++j) {
+                    batch.add(put("a", Integer.toString(j), Integer.toString(i)));
+                }
+                // the batches are written regardless
+                journal.write(batch);
+            }
+            assertTrue(Files.size(this.file) > 1000 * 16);
+            Files.delete(blocker);
+            Files.delete(compacting);
+            // the next batch retries the compaction
+            journal.write(Collections.singletonList(remove("a", "0")));
+            assertTrue(Files.size(this.file) < 20 * 32);
+            journal.write(Collections.singletonList(put("a", "20")));
+        }
+        try (TimerJournal journal = this.open()) {
+            Map<String, byte[]> timers = journal.getTimers("a");
+            assertEquals(20, timers.size());
+            assertFalse(timers.containsKey("0"));
+            assertArrayEquals(bytes("51"), timers.get("19"));
+            assertArrayEquals(bytes("20"), timers.get("20"));
+        }
+    }
+
+    @Test
+    public void testRecordsOfGrowingSize() throws IOException {
+        try (TimerJournal journal = this.open()) {
+            for (int i = 0; i < 16; ++i) {
+                byte[] payload = new byte[1 << i];
+                Arrays.fill(payload, (byte) i);
+                journal.write(Collections.singletonList(new TimerJournal.Record("a", Integer.toString(i), payload)));
+            }
+        }
+        try (TimerJournal journal = this.open()) {
+            Map<String, byte[]> timers = journal.getTimers("a");
+            assertEquals(16, timers.size());
+            for (int i = 0; i < 16; ++i) {
+                byte[] payload = timers.get(Integer.toString(i));
+                assertEquals(1 << i, payload.length);
+                assertEquals((byte) i, payload[payload.length - 1]);
+            }
+        }
+    }
+
+    private TimerJournal open() throws IOException {
+        TimerJournal journal = new TimerJournal(this.directory);
+        journal.open();
+        return journal;
+    }
+
+    private static TimerJournal.Record put(String timedObjectId, String timerId) {
+        return put(timedObjectId, timerId, timerId);
+    }
+
+    private static TimerJournal.Record put(String timedObjectId, String timerId, String payload) {
+        return new TimerJournal.Record(timedObjectId, timerId, bytes(payload));
+    }
+
+    private static TimerJournal.Record remove(String timedObjectId, String timerId) {
+        return new TimerJournal.Record(timedObjectId, timerId, null);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Tests the coalescing and batching of {@link WriteBehindQueue}.
+ */
+public class WriteBehindQueueTestCase {
+
+    private final List<Map<String, Integer>> batches = new ArrayList<>();
+
+    private synchronized void write(Map<String, Integer> batch) {
+        this.batches.add(new LinkedHashMap<>(batch));
+    }
+
+    @Test
+    public void testCoalescing() {
+        WriteBehindQueue<String, Integer> queue = new WriteBehindQueue<>(this::write, 1, TimeUnit.HOURS, 1024);
+        queue.start();
+        try {
+            for (int i = 0; i < 100; ++i) {
+                queue.submit("a", i);
+                queue.submit("b", -i);
+            }
+            queue.flush();
+            synchronized (this) {
+                assertEquals(1, this.batches.size());
+                Map<String, Integer> batch = this.batches.get(0);
+                assertEquals(2, batch.size());
+                assertEquals(99, batch.get("a").intValue());
+                assertEquals(-99, batch.get("b").intValue());
+            }
+        } finally {
+            queue.stop();
+        }
+    }
+
+    @Test
+    public void testFullBatch() throws InterruptedException {
+        WriteBehindQueue<String, Integer> queue = new WriteBehindQueue<>(this::write, 1, TimeUnit.HOURS, 10);
+        queue.start();
+        try {
+            for (int i = 0; i < 10; ++i) {
+                queue.submit(Integer.toString(i), i);
+            }
+            // a full batch does not wait for the delay
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (System.nanoTime() < deadline) {
+                synchronized (this) {
+                    if (!this.batches.isEmpty()) {
+                        break;
+                    }
+                }
+                Thread.sleep(10);
+            }
+            synchronized (this) {
+                assertEquals(1, this.batches.size());
+                assertEquals(10, this.batches.get(0).size());
+            }
+        } finally {
+            queue.stop();
+        }
+    }
+
+    @Test
+    public void testAwait() {
+        WriteBehindQueue<String, Integer> queue = new WriteBehindQueue<>(this::write, 1, TimeUnit.HOURS, 1024);
+        queue.start();
+        try {
+            queue.submit("a", 1);
+            long ticket = queue.submit("b", 2);
+            queue.await(ticket);
+            synchronized (this) {
+                assertEquals(1, this.batches.size());
+                assertEquals(2, this.batches.get(0).size());
+            }
+            // waiting again for a written ticket returns immediately
+            queue.await(ticket);
+        } finally {
+            queue.stop();
+        }
+    }
+
+    @Test
+    public void testStopWritesPending() {
+        WriteBehindQueue<String, Integer> queue = new WriteBehindQueue<>(this::write, 1, TimeUnit.HOURS, 1024);
+        queue.start();
+        queue.submit("a", 1);
+        queue.stop();
+        synchronized (this) {
+            assertEquals(1, this.batches.size());
+        }
+    }
+
+    @Test
+    public void testRetry() {
+        AtomicBoolean failed = new AtomicBoolean();
+        Map<String, Integer> written = new HashMap<>();
+        WriteBehindQueue<String, Integer> queue = new WriteBehindQueue<>(batch -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException();
+            }
+            synchronized (written) {
+                written.putAll(batch);
+            }
+        }, 1, TimeUnit.MILLISECONDS, 1024);
+        queue.start();
+        try {
+            long ticket = queue.submit("a", 1);
+            try {
+                // waiters of a failed batch fail, as with synchronous writes
+                queue.await(ticket);
+                fail();
+            } catch (RuntimeException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            // the failed batch is retried with the next one
+            queue.await(queue.submit("b", 2));
+            // once retried, the failed write succeeded
+            queue.await(ticket);
+            synchronized (written) {
+                assertTrue(failed.get());
+                assertEquals(1, written.get("a").intValue());
+                assertEquals(2, written.get("b").intValue());
+            }
+        } finally {
+            queue.stop();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler.Timeout;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TimingWheelScheduler}.
+ */
+public class TimingWheelSchedulerTestCase {
+
+    private TimingWheelScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        // a fine tick, so that timeouts cascade through several levels within the duration of a test
+        this.scheduler = new TimingWheelScheduler(Runnable::run, 10, TimeUnit.MICROSECONDS);
+        this.scheduler.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.scheduler.stop();
+    }
+
+    @Test
+    public void testNeverEarly() throws InterruptedException {
+        // 1ms, 50ms and 300ms respectively end up in the first, second and third levels of the wheel
+        long[] delays = { 0, 1, 50, 300 };
+        List<CountDownLatch> latches = new ArrayList<>();
+        List<long[]> elapsed = new ArrayList<>();
+        for (long delay : delays) {
+            CountDownLatch latch = new CountDownLatch(1);
+            long[] result = new long[1];
+            long start = System.nanoTime();
+            this.scheduler.schedule(() -> {
+                result[0] = System.nanoTime() - start;
+                latch.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+            latches.add(latch);
+            elapsed.add(result);
+        }
+        for (int i = 0; i < delays.length; i++) {
+            assertTrue(latches.get(i).await(10, TimeUnit.SECONDS));
+            assertTrue(elapsed.get(i)[0] >= TimeUnit.MILLISECONDS.toNanos(delays[i]));
+        }
+    }
+
+    @Test
+    public void testFixedRate() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(10);
+        long start = System.nanoTime();
+        Timeout timeout = this.scheduler.scheduleAtFixedRate(latch::countDown, 5, 10, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        // the tenth execution is due 95ms after scheduling
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(95));
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+        Timeout cancelled = this.scheduler.schedule(count::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        CountDownLatch latch = new CountDownLatch(1);
+        Timeout expired = this.scheduler.schedule(latch::countDown, 40, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, count.get());
+        assertFalse(expired.cancel());
+    }
+
+    /**
+     * Schedules and cancels a million timeouts, as a timer service with many short lived programmatic timers does.
+     */
+    @Test
+    public void testScheduleAndCancelMillion() throws InterruptedException {
+        final int count = 1_000_000;
+        AtomicInteger expired = new AtomicInteger();
+        Runnable task = expired::incrementAndGet;
+        Timeout[] timeouts = new Timeout[count];
+        for (int i = 0; i < count; i++) {
+            // spread over all the levels of the wheel
+            timeouts[i] = this.scheduler.schedule(task, 1000 + (i % 100_000) * 37L, TimeUnit.MILLISECONDS);
+        }
+        for (int i = 0; i < count; i++) {
+            assertTrue(timeouts[i].cancel());
+        }
+        // the wheel is still functional once all of them were released
+        CountDownLatch latch = new CountDownLatch(1);
+        this.scheduler.schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, expired.get());
+    }
+}
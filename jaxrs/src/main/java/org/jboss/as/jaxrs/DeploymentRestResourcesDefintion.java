@@ -4,13 +4,17 @@
  */
 package org.jboss.as.jaxrs;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBDEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.wildfly.extension.undertow.DeploymentDefinition.CONTEXT_ROOT;
 import static org.wildfly.extension.undertow.DeploymentDefinition.SERVER;
 import static org.wildfly.extension.undertow.DeploymentDefinition.VIRTUAL_HOST;
 
 import io.undertow.server.HttpServerExchange;
+import io.undertow.servlet.api.Deployment;
 import io.undertow.servlet.api.ThreadSetupHandler;
 import io.undertow.servlet.handlers.ServletHandler;
 
@@ -24,6 +28,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
 
 import jakarta.ws.rs.CookieParam;
 import jakarta.ws.rs.DefaultValue;
@@ -44,10 +50,12 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleListAttributeDefinition;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
-import org.jboss.as.controller.OperationContext.AttachmentKey;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.jaxrs.logging.JaxrsLogger;
 import org.jboss.as.server.Services;
 import org.jboss.as.server.moduleservice.ServiceModuleLoader;
@@ -77,6 +85,8 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
 
     public static final String REST_RESOURCE_NAME = "rest-resource";
 
+    static final String READ_REST_RESOURCES = "read-rest-resources";
+
     public static final AttributeDefinition RESOURCE_CLASS = new SimpleAttributeDefinitionBuilder("resource-class",
             ModelType.STRING, true).setStorageRuntime().build();
 
@@ -116,9 +126,8 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
     public static final ObjectListAttributeDefinition SUB_RESOURCE_LOCATORS = new ObjectListAttributeDefinition.Builder(
             "sub-resource-locators", SUB_RESOURCE_LOCATOR).build();
 
-    private AttachmentKey<Map<PathAddress, UndertowDeploymentService>> undertowDeployServiceKey = AttachmentKey.create(Map.class);
-    private AttachmentKey<Map<PathAddress, Module>> deploymentModuleKey = AttachmentKey.create(Map.class);
-    private AttachmentKey<Map<String, ResourceMeta>> resourceMetaKey = AttachmentKey.create(Map.class);
+    // the REST resources of the started deployments, computed on first read and released with the deployment
+    private static final Map<Deployment, RestResources> REST_RESOURCES = Collections.synchronizedMap(new WeakHashMap<>());
 
     DeploymentRestResourcesDefintion() {
         super(PathElement.pathElement(REST_RESOURCE_NAME), JaxrsExtension.getResolver("deployment"));
@@ -128,222 +137,358 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerMetric(RESOURCE_CLASS, new AbstractRestResReadHandler() {
             @Override
-            void handleAttribute(String className, List<JaxrsResourceMethodDescription> methodInvokers,
-                    List<JaxrsResourceLocatorDescription> locatorIncokers, Collection<String> servletMappings,
-                    ModelNode response) {
+            void handleAttribute(String className, RestResources restResources, ModelNode response) {
                 response.set(className);
             }
         });
         resourceRegistration.registerMetric(RESOURCE_PATHS, new AbstractRestResReadHandler() {
             @Override
-            void handleAttribute(String className, List<JaxrsResourceMethodDescription> methodInvokers,
-                    List<JaxrsResourceLocatorDescription> locatorIncokers, Collection<String> servletMappings,
-                    ModelNode response) {
-                for (JaxrsResourceMethodDescription methodDesc: methodInvokers) {
-                    response.add(methodDesc.toModelNode());
-                }
+            void handleAttribute(String className, RestResources restResources, ModelNode response) {
+                restResources.addResourcePaths(className, response);
             }
         });
 
         resourceRegistration.registerMetric(SUB_RESOURCE_LOCATORS, new AbstractRestResReadHandler() {
             @Override
-            void handleAttribute(String className, List<JaxrsResourceMethodDescription> methodInvokers,
-                    List<JaxrsResourceLocatorDescription> locatorIncokers, Collection<String> servletMappings,
-                    ModelNode response) {
-                for (JaxrsResourceLocatorDescription methodDesc: locatorIncokers) {
-                    response.add(methodDesc.toModelNode());
-                }
+            void handleAttribute(String className, RestResources restResources, ModelNode response) {
+                restResources.addSubResourceLocators(className, response);
             }
         });
     }
 
-    abstract class AbstractRestResReadHandler implements OperationStepHandler {
+    abstract static class AbstractRestResReadHandler implements OperationStepHandler {
 
         @Override
         public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
-            PathAddress address = context.getCurrentAddress();
-            String clsName = address.getLastElement().getValue();
-            final PathAddress parentAddress = address.getParent();
-            final ModelNode subModel = context.readResourceFromRoot(parentAddress.subAddress(0, parentAddress.size() - 1).append(SUBSYSTEM, UndertowExtension.SUBSYSTEM_NAME), false).getModel();
-            final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
-            final String contextPath = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
-            final String server = SERVER.resolveModelAttribute(context, subModel).asString();
-
-            Map<PathAddress, UndertowDeploymentService> deploymentServiceMap = context.getAttachment(undertowDeployServiceKey);
-            if (deploymentServiceMap == null) {
-                deploymentServiceMap = Collections.synchronizedMap(new HashMap<>());
-                context.attach(undertowDeployServiceKey, deploymentServiceMap);
-            }
-            UndertowDeploymentService undertowDeploymentService = deploymentServiceMap.get(parentAddress);
-            if (undertowDeploymentService == null) {
-                final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, contextPath));
-                undertowDeploymentService = (UndertowDeploymentService) controller.getService();
-                deploymentServiceMap.put(parentAddress, undertowDeploymentService);
-            }
-            final UndertowDeploymentService deploymentService = undertowDeploymentService;
-
-            Map<String, ResourceMeta> resourceMetaMap = context.getAttachment(resourceMetaKey);
-            if (resourceMetaMap == null) {
-                resourceMetaMap = Collections.synchronizedMap(new HashMap<>());
-                context.attach(resourceMetaKey, resourceMetaMap);
-            }
-            ResourceMeta resMeta = resourceMetaMap.get(clsName);
-            if (resMeta == null) {
-                resMeta = new ResourceMeta();
-                resourceMetaMap.put(clsName, resMeta);
-            }
-            final ResourceMeta resourceMeta = resMeta;
+            final PathAddress address = context.getCurrentAddress();
+            final String clsName = address.getLastElement().getValue();
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    try {
+                        final RestResources restResources = getRestResources(context, address.getParent());
+                        if (restResources != null && restResources.hasServlets()) {
+                            final ModelNode response = new ModelNode();
+                            handleAttribute(clsName, restResources, response);
+                            context.getResult().set(response);
+                        }
+                    } catch (Exception ex) {
+                        //WFLY-10222 we don't want a failure to read the attribute to break everything
+                        JaxrsLogger.JAXRS_LOGGER.failedToReadAttribute(ex, address, operation.get(NAME));
+                        context.addResponseWarning(Level.WARN, ex.getMessage());
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+
+        abstract void handleAttribute(String className, RestResources restResources, ModelNode response);
+    }
+
+    /**
+     * Handler of the operation that reads the REST resources of all the deployments at once.
+     */
+    static final class ReadRestResourcesHandler implements OperationStepHandler {
+
+        static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(READ_REST_RESOURCES,
+                JaxrsExtension.getResolver())
+                .setReadOnly()
+                .setRuntimeOnly()
+                .setReplyType(ModelType.LIST)
+                .setReplyValueType(ModelType.OBJECT)
+                .build();
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final ModelNode result = context.getResult().setEmptyList();
+                    for (String deployment : context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, false).getChildrenNames(DEPLOYMENT)) {
+                        final PathAddress deploymentAddress = PathAddress.pathAddress(DEPLOYMENT, deployment);
+                        final Resource deploymentResource = context.readResourceFromRoot(deploymentAddress, false);
+                        addRestResources(context, deploymentAddress, deploymentResource, result);
+                        for (String subdeployment : deploymentResource.getChildrenNames(SUBDEPLOYMENT)) {
+                            final PathAddress subdeploymentAddress = deploymentAddress.append(SUBDEPLOYMENT, subdeployment);
+                            addRestResources(context, subdeploymentAddress, context.readResourceFromRoot(subdeploymentAddress, false), result);
+                        }
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+
+        private static void addRestResources(OperationContext context, PathAddress deploymentAddress, Resource deploymentResource, ModelNode result) {
+            if (!deploymentResource.hasChild(JaxrsExtension.SUBSYSTEM_PATH)) {
+                return;
+            }
+            final PathAddress address = deploymentAddress.append(JaxrsExtension.SUBSYSTEM_PATH);
             try {
-                if(deploymentService.getDeployment() == null) {
+                final RestResources restResources = getRestResources(context, address);
+                if (restResources == null || !restResources.hasServlets()) {
                     return;
                 }
-                deploymentService.getDeployment().createThreadSetupAction(new ThreadSetupHandler.Action<>() {
-                    @Override
-                    public Object call(HttpServerExchange exchange, Object ctxObject) throws Exception {
-                        List<HttpServletDispatcher> resteasyServlets = new ArrayList<>();
-                        for (Map.Entry<String, ServletHandler> servletHandler : deploymentService.getDeployment()
-                                .getServlets()
-                                .getServletHandlers()
-                                .entrySet()) {
-                            if (HttpServletDispatcher.class.isAssignableFrom(servletHandler.getValue()
-                                    .getManagedServlet()
-                                    .getServletInfo()
-                                    .getServletClass())) {
-                                resteasyServlets.add((HttpServletDispatcher) servletHandler.getValue()
-                                        .getManagedServlet()
-                                        .getServlet()
-                                        .getInstance());
-                            }
+                for (String className : new TreeSet<>(deploymentResource.getChild(JaxrsExtension.SUBSYSTEM_PATH).getChildrenNames(REST_RESOURCE_NAME))) {
+                    final ModelNode node = new ModelNode();
+                    node.get(ADDRESS).set(address.append(REST_RESOURCE_NAME, className).toModelNode());
+                    node.get(RESOURCE_CLASS.getName()).set(className);
+                    restResources.addResourcePaths(className, node.get(RESOURCE_PATHS.getName()).setEmptyList());
+                    restResources.addSubResourceLocators(className, node.get(SUB_RESOURCE_LOCATORS.getName()).setEmptyList());
+                    result.add(node);
+                }
+            } catch (Exception ex) {
+                JaxrsLogger.JAXRS_LOGGER.failedToReadAttribute(ex, address, new ModelNode(READ_REST_RESOURCES));
+                context.addResponseWarning(Level.WARN, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the REST resources of a deployment. They are computed from the registry of its RESTEasy servlets on first use,
+     * and then served from the snapshot until the deployment is stopped.
+     *
+     * @param context the operation context
+     * @param address the address of the jaxrs subsystem resource of the deployment
+     * @return the REST resources of the deployment, or {@code null} if it is not started
+     */
+    private static RestResources getRestResources(OperationContext context, PathAddress address) throws Exception {
+        final ModelNode subModel = context.readResourceFromRoot(address.subAddress(0, address.size() - 1).append(SUBSYSTEM, UndertowExtension.SUBSYSTEM_NAME), false).getModel();
+        final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
+        final String contextPath = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
+        final String server = SERVER.resolveModelAttribute(context, subModel).asString();
+
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, contextPath));
+        if (controller == null) {
+            return null;
+        }
+        final Deployment deployment = ((UndertowDeploymentService) controller.getService()).getDeployment();
+        if (deployment == null) {
+            return null;
+        }
+        try {
+            // computed under the lock of the map, so concurrent first reads build a single snapshot
+            return REST_RESOURCES.computeIfAbsent(deployment, key -> {
+                final ModelClasses modelClasses = new ModelClasses(context, address);
+                try {
+                    return deployment.createThreadSetupAction(new ThreadSetupHandler.Action<RestResources, Object>() {
+                        @Override
+                        public RestResources call(HttpServerExchange exchange, Object ctxObject) throws Exception {
+                            return RestResources.create(deployment, contextPath, modelClasses);
+                        }
+                    }).call(null, null);
+                } catch (Exception e) {
+                    throw new RestResourcesException(e);
+                }
+            });
+        } catch (RestResourcesException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Carries the failure to create the REST resources of a deployment out of the mapping function.
+     */
+    private static final class RestResourcesException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        RestResourcesException(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+
+    /**
+     * The REST resources of a deployment, with the descriptions of their methods and locators already converted to model nodes.
+     */
+    private static final class RestResources {
+
+        // the number of RESTEasy servlets of the deployment, the descriptions are reported once per servlet
+        private final int servletCount;
+        private final Map<String, List<ModelNode>> resourcePaths;
+        private final Map<String, List<ModelNode>> subResourceLocators;
+
+        private RestResources(int servletCount, Map<String, List<ModelNode>> resourcePaths, Map<String, List<ModelNode>> subResourceLocators) {
+            this.servletCount = servletCount;
+            this.resourcePaths = resourcePaths;
+            this.subResourceLocators = subResourceLocators;
+        }
+
+        static RestResources create(Deployment deployment, String contextPath, ModelClasses modelClasses) throws Exception {
+            List<HttpServletDispatcher> resteasyServlets = new ArrayList<>();
+            for (Map.Entry<String, ServletHandler> servletHandler : deployment
+                    .getServlets()
+                    .getServletHandlers()
+                    .entrySet()) {
+                if (HttpServletDispatcher.class.isAssignableFrom(servletHandler.getValue()
+                        .getManagedServlet()
+                        .getServletInfo()
+                        .getServletClass())) {
+                    resteasyServlets.add((HttpServletDispatcher) servletHandler.getValue()
+                            .getManagedServlet()
+                            .getServlet()
+                            .getInstance());
+                }
+            }
+            if (resteasyServlets.isEmpty()) {
+                return new RestResources(0, Map.of(), Map.of());
+            }
+            // the resources are described from the registry of the first servlet, with its mappings
+            final HttpServletDispatcher resteasyServlet = resteasyServlets.get(0);
+            final Collection<String> servletMappings = resteasyServlet.getServletConfig()
+                    .getServletContext()
+                    .getServletRegistration(resteasyServlet.getServletConfig()
+                            .getServletName())
+                    .getMappings();
+            final Map<String, List<JaxrsResourceMethodDescription>> resMethodInvokers = new HashMap<>();
+            final Map<String, List<JaxrsResourceLocatorDescription>> resLocatorInvokers = new HashMap<>();
+            final ResourceMethodRegistry registry = (ResourceMethodRegistry) resteasyServlet.getDispatcher()
+                    .getRegistry();
+            for (Map.Entry<String, List<ResourceInvoker>> resource : registry.getBounded()
+                    .entrySet()) {
+                String mapping = resource.getKey();
+                List<ResourceInvoker> resouceInvokers = resource.getValue();
+                for (ResourceInvoker resourceInvoker : resouceInvokers) {
+                    if (ResourceMethodInvoker.class.isAssignableFrom(resourceInvoker.getClass())) {
+                        ResourceMethodInvoker methodInvoker = (ResourceMethodInvoker) resourceInvoker;
+                        for (String clsName : modelClasses.getClassNames(methodInvoker.getResourceClass())) {
+                            JaxrsResourceMethodDescription resMethodDesc = resMethodDescription(methodInvoker, contextPath, mapping, servletMappings, clsName);
+                            resMethodInvokers.computeIfAbsent(clsName, k -> new ArrayList<>()).add(resMethodDesc);
                         }
-                        if (!resteasyServlets.isEmpty()) {
-                            context.addStep(new OperationStepHandler() {
-                                @Override
-                                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
-                                    final ModelNode response = new ModelNode();
-                                    List<JaxrsResourceMethodDescription> resMethodInvokers = resourceMeta.methodInvokers;
-                                    List<JaxrsResourceLocatorDescription> resLocatorInvokers = resourceMeta.resLocatorInvokers;
-                                    for (HttpServletDispatcher resteasyServlet : resteasyServlets) {
-                                        final Collection<String> servletMappings = resteasyServlet.getServletConfig()
-                                                .getServletContext()
-                                                .getServletRegistration(resteasyServlet.getServletConfig()
-                                                        .getServletName())
-                                                .getMappings();
-                                        if (!resourceMeta.metaComplete) {
-                                            resourceMeta.metaComplete = true;
-                                            final ResourceMethodRegistry registry = (ResourceMethodRegistry) resteasyServlet.getDispatcher()
-                                                    .getRegistry();
-                                            for (Map.Entry<String, List<ResourceInvoker>> resource : registry.getBounded()
-                                                    .entrySet()) {
-                                                String mapping = resource.getKey();
-                                                List<ResourceInvoker> resouceInvokers = resource.getValue();
-                                                for (ResourceInvoker resourceInvoker : resouceInvokers) {
-                                                    if (ResourceMethodInvoker.class.isAssignableFrom(resourceInvoker.getClass())) {
-                                                        ResourceMethodInvoker methodInvoker = (ResourceMethodInvoker) resourceInvoker;
-                                                        Class<?> resClass = methodInvoker.getResourceClass();
-                                                        if (resClass.getCanonicalName().equals(clsName)) {
-                                                            JaxrsResourceMethodDescription resMethodDesc = resMethodDescription(methodInvoker, contextPath, mapping, servletMappings, clsName);
-                                                            resMethodInvokers.add(resMethodDesc);
-                                                        } else if (resClass.isInterface()) {
-                                                            Class<?> resClsInModel = getResourceClassInModel(clsName, context);
-                                                            if (resClass.isAssignableFrom(resClsInModel)) {
-                                                                JaxrsResourceMethodDescription resMethodDesc = resMethodDescription(methodInvoker, contextPath, mapping, servletMappings, clsName);
-                                                                resMethodInvokers.add(resMethodDesc);
-                                                            }
-                                                        }
-                                                    } else if (ResourceLocatorInvoker.class.isAssignableFrom(resourceInvoker.getClass())) {
-                                                        ResourceLocatorInvoker locatorInvoker = (ResourceLocatorInvoker) resourceInvoker;
-                                                        Class<?> resLocatorClass = locatorInvoker.getMethod()
-                                                                .getDeclaringClass();
-                                                        if (clsName.equals(resLocatorClass.getCanonicalName())) {
-                                                            ResourceClass resClass = ResourceBuilder.locatorFromAnnotations(locatorInvoker.getMethod()
-                                                                    .getReturnType());
-                                                            JaxrsResourceLocatorDescription resLocatorDesc = resLocatorDescription(resClass, contextPath, mapping, servletMappings, new ArrayList<>());
-                                                            resLocatorInvokers.add(resLocatorDesc);
-                                                        } else if (resLocatorClass.isInterface()) {
-                                                            Class<?> resClsInModel = getResourceClassInModel(clsName, context);
-                                                            if (resLocatorClass.isAssignableFrom(resClsInModel)) {
-                                                                ResourceClass resClass = ResourceBuilder.locatorFromAnnotations(locatorInvoker.getMethod()
-                                                                        .getReturnType());
-                                                                JaxrsResourceLocatorDescription resLocatorDesc = resLocatorDescription(resClass, contextPath, mapping, servletMappings, new ArrayList<>());
-                                                                resLocatorInvokers.add(resLocatorDesc);
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
-                                            Collections.sort(resMethodInvokers);
-                                            Collections.sort(resLocatorInvokers);
-                                        }
-                                        handleAttribute(clsName, resMethodInvokers, resLocatorInvokers, servletMappings, response);
-                                    }
-                                    context.getResult().set(response);
-                                }
-
-                                private Class<?> getResourceClassInModel(String clsName, OperationContext context) throws OperationFailedException {
-                                    try {
-                                        Map<PathAddress, Module> deploymentModuleMap = context.getAttachment(deploymentModuleKey);
-                                        if (deploymentModuleMap == null) {
-                                            deploymentModuleMap = Collections.synchronizedMap(new HashMap<>());
-                                            context.attach(deploymentModuleKey, deploymentModuleMap);
-                                        }
-                                        Module deployModule = deploymentModuleMap.get(parentAddress);
-                                        if (deployModule == null) {
-                                            final StringBuilder sb = new StringBuilder(ModelDescriptionConstants.DEPLOYMENT);
-                                            sb.append(".");
-                                            String deployRuntimeName = address.getElement(0).getValue();
-                                            final ModelNode deployModel = context.readResourceFromRoot(address.subAddress(0, 1))
-                                                    .getModel();
-                                            if (deployModel.isDefined() && deployModel.hasDefined(ModelDescriptionConstants.RUNTIME_NAME)) {
-                                                deployRuntimeName = deployModel.get(ModelDescriptionConstants.RUNTIME_NAME)
-                                                        .asString();
-                                            }
-                                            sb.append(deployRuntimeName);
-                                            if (address.size() > 1 && address.getElement(1)
-                                                    .getKey()
-                                                    .equals(ModelDescriptionConstants.SUBDEPLOYMENT)) {
-                                                sb.append(".");
-                                                sb.append(address.getElement(1).getValue());
-                                            }
-                                            String moduleName = sb.toString();
-                                            ServiceModuleLoader srvModuleLoader = (ServiceModuleLoader) context.getServiceRegistry(false)
-                                                    .getRequiredService(Services.JBOSS_SERVICE_MODULE_LOADER)
-                                                    .getValue();
-                                            deployModule = srvModuleLoader.loadModule(moduleName);
-                                            deploymentModuleMap.put(parentAddress, deployModule);
-                                        }
-                                        return Class.forName(clsName, false, deployModule.getClassLoader());
-                                    } catch (Exception e) {
-                                        throw new OperationFailedException(e);
-                                    }
-                                }
-
-                            }, OperationContext.Stage.RUNTIME);
+                    } else if (ResourceLocatorInvoker.class.isAssignableFrom(resourceInvoker.getClass())) {
+                        ResourceLocatorInvoker locatorInvoker = (ResourceLocatorInvoker) resourceInvoker;
+                        for (String clsName : modelClasses.getClassNames(locatorInvoker.getMethod().getDeclaringClass())) {
+                            ResourceClass resClass = ResourceBuilder.locatorFromAnnotations(locatorInvoker.getMethod()
+                                    .getReturnType());
+                            JaxrsResourceLocatorDescription resLocatorDesc = resLocatorDescription(resClass, contextPath, mapping, servletMappings, new ArrayList<>());
+                            resLocatorInvokers.computeIfAbsent(clsName, k -> new ArrayList<>()).add(resLocatorDesc);
                         }
-                        return null;
                     }
-                }).call(null, null);
-            } catch (Exception ex) {
-                //WFLY-10222 we don't want a failure to read the attribute to break everything
-                JaxrsLogger.JAXRS_LOGGER.failedToReadAttribute(ex, address, operation.get(NAME));
-                context.addResponseWarning(Level.WARN, ex.getMessage());
+                }
+            }
+            final Map<String, List<ModelNode>> resourcePaths = new HashMap<>();
+            for (Map.Entry<String, List<JaxrsResourceMethodDescription>> entry : resMethodInvokers.entrySet()) {
+                resourcePaths.put(entry.getKey(), toModelNodes(entry.getValue()));
+            }
+            final Map<String, List<ModelNode>> subResourceLocators = new HashMap<>();
+            for (Map.Entry<String, List<JaxrsResourceLocatorDescription>> entry : resLocatorInvokers.entrySet()) {
+                subResourceLocators.put(entry.getKey(), toModelNodes(entry.getValue()));
             }
+            return new RestResources(resteasyServlets.size(), resourcePaths, subResourceLocators);
         }
 
-        abstract void handleAttribute(String className, List<JaxrsResourceMethodDescription> methodInvokers,
-                List<JaxrsResourceLocatorDescription> locatorIncokers, Collection<String> servletMappings, ModelNode response);
+        private static <D extends Comparable<? super D> & ModelNodeDescription> List<ModelNode> toModelNodes(List<D> descriptions) {
+            Collections.sort(descriptions);
+            final ModelNode[] nodes = new ModelNode[descriptions.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = descriptions.get(i).toModelNode();
+            }
+            return List.of(nodes);
+        }
+
+        boolean hasServlets() {
+            return servletCount > 0;
+        }
+
+        void addResourcePaths(String className, ModelNode response) {
+            add(resourcePaths.get(className), response);
+        }
+
+        void addSubResourceLocators(String className, ModelNode response) {
+            add(subResourceLocators.get(className), response);
+        }
+
+        private void add(List<ModelNode> nodes, ModelNode response) {
+            if (nodes != null) {
+                for (int i = 0; i < servletCount; i++) {
+                    for (ModelNode node : nodes) {
+                        // adds a copy of the node
+                        response.add(node);
+                    }
+                }
+            }
+        }
     }
 
-    private class ResourceMeta {
-        private List<JaxrsResourceMethodDescription> methodInvokers;
-        private List<JaxrsResourceLocatorDescription> resLocatorInvokers;
-        private boolean metaComplete = false;
-        private ResourceMeta() {
-            this.methodInvokers = new ArrayList<>();
-            this.resLocatorInvokers = new ArrayList<>();
+    /**
+     * The resource classes registered in the management model of a deployment.
+     */
+    private static final class ModelClasses {
+
+        private final OperationContext context;
+        private final PathAddress address;
+        private final Set<String> classNames;
+        private final Map<String, Class<?>> classes = new HashMap<>();
+        private Module deployModule;
+
+        ModelClasses(OperationContext context, PathAddress address) {
+            this.context = context;
+            this.address = address;
+            this.classNames = context.readResourceFromRoot(address, false).getChildrenNames(REST_RESOURCE_NAME);
+        }
+
+        /**
+         * @param resClass the class of a resource method or locator
+         * @return the names of the resource classes in the model the methods of the specified class belong to
+         */
+        List<String> getClassNames(Class<?> resClass) throws OperationFailedException {
+            final String canonicalName = resClass.getCanonicalName();
+            if (!resClass.isInterface()) {
+                return classNames.contains(canonicalName) ? List.of(canonicalName) : List.of();
+            }
+            final List<String> names = new ArrayList<>();
+            for (String clsName : classNames) {
+                if (clsName.equals(canonicalName) || resClass.isAssignableFrom(getResourceClassInModel(clsName))) {
+                    names.add(clsName);
+                }
+            }
+            return names;
+        }
+
+        private Class<?> getResourceClassInModel(String clsName) throws OperationFailedException {
+            Class<?> cls = classes.get(clsName);
+            if (cls != null) {
+                return cls;
+            }
+            try {
+                if (deployModule == null) {
+                    final StringBuilder sb = new StringBuilder(ModelDescriptionConstants.DEPLOYMENT);
+                    sb.append(".");
+                    String deployRuntimeName = address.getElement(0).getValue();
+                    final ModelNode deployModel = context.readResourceFromRoot(address.subAddress(0, 1))
+                            .getModel();
+                    if (deployModel.isDefined() && deployModel.hasDefined(ModelDescriptionConstants.RUNTIME_NAME)) {
+                        deployRuntimeName = deployModel.get(ModelDescriptionConstants.RUNTIME_NAME)
+                                .asString();
+                    }
+                    sb.append(deployRuntimeName);
+                    if (address.size() > 1 && address.getElement(1)
+                            .getKey()
+                            .equals(ModelDescriptionConstants.SUBDEPLOYMENT)) {
+                        sb.append(".");
+                        sb.append(address.getElement(1).getValue());
+                    }
+                    String moduleName = sb.toString();
+                    ServiceModuleLoader srvModuleLoader = (ServiceModuleLoader) context.getServiceRegistry(false)
+                            .getRequiredService(Services.JBOSS_SERVICE_MODULE_LOADER)
+                            .getValue();
+                    deployModule = srvModuleLoader.loadModule(moduleName);
+                }
+                cls = Class.forName(clsName, false, deployModule.getClassLoader());
+                classes.put(clsName, cls);
+                return cls;
+            } catch (Exception e) {
+                throw new OperationFailedException(e);
+            }
         }
     }
 
-    private JaxrsResourceLocatorDescription resLocatorDescription(ResourceClass resClass, String contextPath, String mapping,
+    private interface ModelNodeDescription {
+        ModelNode toModelNode();
+    }
+
+    private static JaxrsResourceLocatorDescription resLocatorDescription(ResourceClass resClass, String contextPath, String mapping,
             Collection<String> servletMappings, List<Class<?>> resolvedCls) {
         JaxrsResourceLocatorDescription locatorRes = new JaxrsResourceLocatorDescription();
         locatorRes.resourceClass = resClass.getClazz();
@@ -382,7 +527,7 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
         return locatorRes;
     }
 
-    private JaxrsResourceMethodDescription resMethodDescription(ResourceMethodInvoker methodInvoker, String contextPath,
+    private static JaxrsResourceMethodDescription resMethodDescription(ResourceMethodInvoker methodInvoker, String contextPath,
             String mapping, Collection<String> servletMappings, String clsName) {
         JaxrsResourceMethodDescription jaxrsRes = new JaxrsResourceMethodDescription();
         jaxrsRes.consumeTypes = methodInvoker.getConsumes();
@@ -397,7 +542,7 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
         return jaxrsRes;
     }
 
-    private void addMethodParameters(JaxrsResourceMethodDescription jaxrsRes, Method method) {
+    private static void addMethodParameters(JaxrsResourceMethodDescription jaxrsRes, Method method) {
         for (Parameter param : method.getParameters()) {
             ParamInfo paramInfo = new ParamInfo();
             paramInfo.cls = param.getType();
@@ -441,7 +586,7 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
         }
     }
 
-    private static class JaxrsResourceLocatorDescription implements Comparable<JaxrsResourceLocatorDescription> {
+    private static class JaxrsResourceLocatorDescription implements Comparable<JaxrsResourceLocatorDescription>, ModelNodeDescription {
 
         private Class<?> resourceClass;
         private List<JaxrsResourceMethodDescription> methodsDescriptions = new ArrayList<>();
@@ -452,6 +597,7 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
             return resourceClass.getCanonicalName().compareTo(o.resourceClass.getCanonicalName());
         }
 
+        @Override
         public ModelNode toModelNode() {
             ModelNode node = new ModelNode();
             node.get(RESOURCE_CLASS.getName()).set(resourceClass.getCanonicalName());
@@ -481,7 +627,7 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
         }
     }
 
-    private static class JaxrsResourceMethodDescription implements Comparable<JaxrsResourceMethodDescription> {
+    private static class JaxrsResourceMethodDescription implements Comparable<JaxrsResourceMethodDescription>, ModelNodeDescription {
 
         private String resourceClass;
         private String resourcePath;
@@ -506,7 +652,8 @@ public class DeploymentRestResourcesDefintion extends SimpleResourceDefinition {
             return result;
         }
 
-        ModelNode toModelNode() {
+        @Override
+        public ModelNode toModelNode() {
             ModelNode node = new ModelNode();
             node.get(RESOURCE_PATH.getName()).set(resourcePath);
             ModelNode consumeNode = node.get(CONSUMES.getName());
@@ -18,6 +18,9 @@ class JaxrsSubsystemRegistrar implements SubsystemResourceDefinitionRegistrar {
     @Override
     public ManagementResourceRegistration register(final SubsystemRegistration parent, final ManagementResourceRegistrationContext context) {
         final ManagementResourceRegistration registration = parent.registerSubsystemModel(JaxrsSubsystemDefinition.INSTANCE);
+        if (context.isRuntimeOnlyRegistrationValid()) {
+            registration.registerOperationHandler(DeploymentRestResourcesDefintion.ReadRestResourcesHandler.DEFINITION, new DeploymentRestResourcesDefintion.ReadRestResourcesHandler());
+        }
 
         // /deployment=*/subsystem=jaxrs
         final ManagementResourceRegistration deployment = parent.registerDeploymentModel(JaxrsDeploymentDefinition.INSTANCE);
@@ -19,6 +19,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +37,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
@@ -47,6 +49,10 @@ import org.jboss.modules.Module;
  * method parameters with DefaultValue annotations at application deployment
  * time.
  * (section 3.2 of the Jakarta RESTful Web Services 2.1 specification)
+ * <p>
+ * The resource classes are found through the Jandex index, and only those with a
+ * {@link DefaultValue} parameter are loaded, on the deployment thread, to reflect on
+ * the annotated methods.
  */
 public class JaxrsMethodParameterProcessor implements DeploymentUnitProcessor {
     private final DotName PARAM_CONVERTER_PROVIDER_DOTNAME =
@@ -322,10 +328,11 @@ public class JaxrsMethodParameterProcessor implements DeploymentUnitProcessor {
      * the indexing is already done.
      * </p>
      */
-    private ArrayList<ParamDetail> getResourceClasses(final CompositeIndex index, final ClassLoader classLoader, Set<String> knownResourceClasses, boolean isFromUnitTest) {
+    private List<ParamDetail> getResourceClasses(final CompositeIndex index, final ClassLoader classLoader, Set<String> knownResourceClasses, boolean isFromUnitTest) {
 
-        ArrayList<ParamDetail> detailList = new ArrayList<>();
-        ArrayList<String> classNameArr = new ArrayList<>();
+        // the resource classes with @DefaultValue, and the names of their methods with a @DefaultValue parameter
+        // or null if any method of the class must be checked
+        Map<String, Set<String>> classNameMap = new LinkedHashMap<>();
 
         if (isFromUnitTest) {
             for (String className : knownResourceClasses) {
@@ -339,7 +346,7 @@ public class JaxrsMethodParameterProcessor implements DeploymentUnitProcessor {
                             classInfo.annotationsMap().get(DEFAULT_VALUE_DOTNAME);
 
                     if (!defaultValuesList.isEmpty()) {
-                        classNameArr.add((classInfo).name().toString());
+                        classNameMap.put((classInfo).name().toString(), null);
                     }
 
                     stream.close();
@@ -365,7 +372,16 @@ public class JaxrsMethodParameterProcessor implements DeploymentUnitProcessor {
                                 annotationsMap.get(DEFAULT_VALUE_DOTNAME);
                         if ((xInstance != null && !xInstance.isEmpty()) &&
                              (xdefaultValuesList != null && !xdefaultValuesList.isEmpty())) {
-                            classNameArr.add((classInfo).name().toString());
+                            // only the methods with a @DefaultValue parameter need to be reflected on
+                            Set<String> methodNames = new HashSet<>();
+                            for (AnnotationInstance defaultValue : xdefaultValuesList) {
+                                if (defaultValue.target().kind() == AnnotationTarget.Kind.METHOD_PARAMETER) {
+                                    methodNames.add(defaultValue.target().asMethodParameter().method().name());
+                                }
+                            }
+                            if (!methodNames.isEmpty()) {
+                                classNameMap.put((classInfo).name().toString(), methodNames);
+                            }
                         }
                     }
                 }
@@ -374,35 +390,42 @@ public class JaxrsMethodParameterProcessor implements DeploymentUnitProcessor {
 
         // resource classes with @DefaultValue
         // find methods and method params with @DefaultValue
-        for (String className : classNameArr) {
-            Class<?> clazz = null;
-            try {
-                clazz = classLoader.loadClass(className);
-                for (Method method : clazz.getMethods()) {
-                    if (clazz == method.getDeclaringClass()) {
-                        Type[] genParamTypeArr = method.getGenericParameterTypes();
-                        Annotation[][] annotationMatrix = method.getParameterAnnotations();
-
-                        for (int j = 0; j < genParamTypeArr.length; j++) {
-                            DefaultValue defaultValue = lookupDefaultValueAnn(annotationMatrix[j]);
-
-                            if (defaultValue != null) {
-                                Class<?> paramClazz = checkParamType(genParamTypeArr[j],
-                                        method, j, classLoader);
-
-                                if (paramClazz != null) {
-                                    detailList.add(new ParamDetail(method,
-                                            defaultValue, paramClazz, annotationMatrix[j]));
-                                }
+        List<ParamDetail> detailList = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : classNameMap.entrySet()) {
+            detailList.addAll(getParamDetails(entry.getKey(), entry.getValue(), classLoader));
+        }
+        return detailList;
+    }
+
+    private List<ParamDetail> getParamDetails(final String className, final Set<String> methodNames, final ClassLoader classLoader) {
+        List<ParamDetail> detailList = new ArrayList<>();
+        Class<?> clazz = null;
+        try {
+            clazz = classLoader.loadClass(className);
+            for (Method method : clazz.getMethods()) {
+                if (clazz == method.getDeclaringClass() && (methodNames == null || methodNames.contains(method.getName()))) {
+                    Type[] genParamTypeArr = method.getGenericParameterTypes();
+                    Annotation[][] annotationMatrix = method.getParameterAnnotations();
+
+                    for (int j = 0; j < genParamTypeArr.length; j++) {
+                        DefaultValue defaultValue = lookupDefaultValueAnn(annotationMatrix[j]);
+
+                        if (defaultValue != null) {
+                            Class<?> paramClazz = checkParamType(genParamTypeArr[j],
+                                    method, j, classLoader);
+
+                            if (paramClazz != null) {
+                                detailList.add(new ParamDetail(method,
+                                        defaultValue, paramClazz, annotationMatrix[j]));
                             }
                         }
                     }
                 }
-
-            } catch (ClassNotFoundException e) {
-                JAXRS_LOGGER.classIntrospectionFailure(e.getClass().getName(),
-                        e.getMessage());
             }
+
+        } catch (ClassNotFoundException e) {
+            JAXRS_LOGGER.classIntrospectionFailure(e.getClass().getName(),
+                    e.getMessage());
         }
         return detailList;
     }
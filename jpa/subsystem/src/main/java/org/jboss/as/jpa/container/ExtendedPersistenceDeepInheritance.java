@@ -5,8 +5,6 @@
 
 package org.jboss.as.jpa.container;
 
-import java.util.Map;
-
 /**
  * ExtendedPersistenceInheritance.DEEP inheritance strategy where we can inherit from any bean being created or from the
  * parent bean call stack.
@@ -33,12 +31,7 @@ public final class ExtendedPersistenceDeepInheritance implements ExtendedPersist
 
         if (result == null) {
             // walk up the BEAN call stack (this also covers the case of a bean method JNDI searching for another bean)
-            for (Map<String, ExtendedEntityManager> handle : SFSBCallStack.currentSFSBCallStack()) {
-                result = handle.get(puScopedName);
-                if(result != null) {
-                    return result;
-                }
-            }
+            result = SFSBCallStack.findExtendedPersistenceContext(puScopedName);
         }
 
         return result;
@@ -5,7 +5,7 @@
 
 package org.jboss.as.jpa.container;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,6 +20,8 @@ import org.jboss.as.jpa.messages.JpaLogger;
  */
 public class SFSBCallStack {
 
+    private static final int INITIAL_INVOCATION_STACK_SIZE = 8;
+
     private static final ThreadLocal<SFSBCallStackThreadData> CURRENT = new ThreadLocal<SFSBCallStackThreadData>() {
         @Override
         protected SFSBCallStackThreadData initialValue() {
@@ -80,25 +82,32 @@ public class SFSBCallStack {
 
 
     /**
-     * Return the current entity manager call stack
+     * Search the SFSB invocations in progress, from the first one, for an extended persistence context
      *
-     * @return call stack (may be empty but never null)
+     * @param puScopedName the scoped name of the persistence unit
+     * @return the extended persistence context, or null if none of the invocations in progress has one
      */
-    public static ArrayList<Map<String, ExtendedEntityManager>> currentSFSBCallStack() {
-        return CURRENT.get().invocationStack;
+    static ExtendedEntityManager findExtendedPersistenceContext(String puScopedName) {
+        SFSBCallStackThreadData data = CURRENT.get();
+        for (int i = 0; i < data.invocationStackSize; i++) {
+            Map<String, ExtendedEntityManager> handle = data.invocationStack[i];
+            if (handle != null) {
+                ExtendedEntityManager result = handle.get(puScopedName);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
     }
 
     /**
      * return for just the current entity manager invocation
      *
-     * @return
+     * @return the extended persistence contexts of the current invocation, or null if it has none
      */
     public static Map<String, ExtendedEntityManager> currentSFSBCallStackInvocation() {
-        ArrayList<Map<String, ExtendedEntityManager>> stack = CURRENT.get().invocationStack;
-        if ( stack != null && !stack.isEmpty()) {
-            return stack.get(stack.size() - 1);
-        }
-        return null;
+        return getCurrentCall();
     }
 
     /**
@@ -107,57 +116,55 @@ public class SFSBCallStack {
      * @param entityManagers the entity manager map
      */
     public static void pushCall(Map<String, ExtendedEntityManager> entityManagers) {
-        currentSFSBCallStack().add(entityManagers);
-
-        if (entityManagers != null) {
-            /**
-             * JPA 2.0 spec section 7.9.1 Container Responsibilities:
-             * "When a business method of the stateful session bean is invoked,
-             *  if the stateful session bean uses container managed transaction demarcation,
-             *  and the entity manager is not already associated with the current Jakarta Transactions transaction,
-             *  the container associates the entity manager with the current Jakarta Transactions transaction and
-             *  calls EntityManager.joinTransaction.
-             *  "
-             */
-            for(ExtendedEntityManager extendedEntityManager: entityManagers.values()) {
-                extendedEntityManager.internalAssociateWithJtaTx();
-            }
+        if (entityManagers == null || entityManagers.isEmpty()) {
+            // the bean has no extended persistence context, only keep its place in the call stack
+            CURRENT.get().push(null);
+            return;
         }
+        CURRENT.get().push(entityManagers);
 
+        /**
+         * JPA 2.0 spec section 7.9.1 Container Responsibilities:
+         * "When a business method of the stateful session bean is invoked,
+         *  if the stateful session bean uses container managed transaction demarcation,
+         *  and the entity manager is not already associated with the current Jakarta Transactions transaction,
+         *  the container associates the entity manager with the current Jakarta Transactions transaction and
+         *  calls EntityManager.joinTransaction.
+         *  "
+         */
+        for(ExtendedEntityManager extendedEntityManager: entityManagers.values()) {
+            extendedEntityManager.internalAssociateWithJtaTx();
+        }
     }
 
     /**
      * Pops the current SFSB invocation off the invocation call stack
      *
-     * @return the entity manager map
+     * @return the entity manager map, or null if the invocation has no extended persistence context
      */
     public static Map<String, ExtendedEntityManager> popCall() {
-        ArrayList<Map<String, ExtendedEntityManager>> stack = currentSFSBCallStack();
-        Map<String, ExtendedEntityManager> result = stack.remove(stack.size() - 1);
-        stack.trimToSize();
-        return result;
+        return CURRENT.get().pop();
     }
 
     /**
      * gets the current SFSB invocation off the invocation call stack
      *
-     * @return the entity manager map
+     * @return the entity manager map, or null if there is no invocation in progress or it has no extended persistence context
      */
     static Map<String, ExtendedEntityManager> getCurrentCall() {
-        ArrayList<Map<String, ExtendedEntityManager>> stack = currentSFSBCallStack();
-        Map<String, ExtendedEntityManager> result = null;
-        if (stack != null) {
-            result = stack.get(stack.size() - 1);
-        }
-        return result;
+        SFSBCallStackThreadData data = CURRENT.get();
+        return data.invocationStackSize > 0 ? data.invocationStack[data.invocationStackSize - 1] : null;
     }
 
 
     private static class SFSBCallStackThreadData {
         /**
-         * Each thread will have its own list of SFSB invocations in progress.
+         * Each thread will have its own list of SFSB invocations in progress, with a null entry for the invocations
+         * of beans without extended persistence context.
          */
-        private ArrayList<Map<String, ExtendedEntityManager>> invocationStack = new ArrayList<Map<String, ExtendedEntityManager>>();
+        @SuppressWarnings("unchecked")
+        private Map<String, ExtendedEntityManager>[] invocationStack = new Map[INITIAL_INVOCATION_STACK_SIZE];
+        private int invocationStackSize;
 
         /**
          * During SFSB creation, track the injected extended persistence contexts
@@ -170,6 +177,19 @@ public class SFSBCallStack {
          * two is the second level of SFSBs injected...
          */
         private int creationBeanNestingLevel = 0;
+
+        void push(Map<String, ExtendedEntityManager> entityManagers) {
+            if (invocationStackSize == invocationStack.length) {
+                invocationStack = Arrays.copyOf(invocationStack, invocationStackSize << 1);
+            }
+            invocationStack[invocationStackSize++] = entityManagers;
+        }
+
+        Map<String, ExtendedEntityManager> pop() {
+            Map<String, ExtendedEntityManager> result = invocationStack[--invocationStackSize];
+            invocationStack[invocationStackSize] = null;
+            return result;
+        }
     }
 
 }
@@ -11,10 +11,13 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.security.AccessController;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.SynchronizationType;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transaction;
 import jakarta.transaction.TransactionManager;
 import jakarta.transaction.TransactionSynchronizationRegistry;
 
@@ -26,6 +29,7 @@ import org.jboss.as.jpa.util.JPAServiceNames;
 import org.jboss.as.server.CurrentServiceContainer;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.tm.TxUtils;
 import org.wildfly.transaction.client.ContextTransactionManager;
 
 /**
@@ -49,6 +53,8 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     private transient TransactionManager transactionManager;
     private transient Boolean deferDetach;
     private transient Boolean skipQueryDetach;
+    // the entity manager last resolved by the current thread, with its transaction, until the transaction completes
+    private transient ThreadLocal<AtomicReference<TransactionEntityManager>> transactionEntityManager = ThreadLocal.withInitial(AtomicReference::new);
 
     public TransactionScopedEntityManager(String puScopedName, Map properties, EntityManagerFactory emf, SynchronizationType synchronizationType, TransactionSynchronizationRegistry transactionSynchronizationRegistry, TransactionManager transactionManager) {
         this.puScopedName = puScopedName;
@@ -62,12 +68,25 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     @Override
     protected EntityManager getEntityManager() {
         EntityManager entityManager;
-        boolean isInTx;
+        Transaction transaction = TransactionUtil.getTransaction(transactionManager);
 
-        isInTx = TransactionUtil.isInTx(transactionManager);
-
-        if (isInTx) {
+        if (transaction != null && TxUtils.isActive(transaction)) {
+            // fast path for the calls following the first one in a transaction
+            AtomicReference<TransactionEntityManager> current = transactionEntityManager.get();
+            TransactionEntityManager cached = current.get();
+            if (cached != null && cached.transaction == transaction) {
+                return cached.entityManager;
+            }
             entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType);
+            cached = new TransactionEntityManager(transaction, entityManager, current);
+            current.set(cached);
+            try {
+                // release the entity manager and transaction once completed, even if this thread never calls again
+                transactionSynchronizationRegistry.registerInterposedSynchronization(cached);
+            } catch (IllegalStateException e) {
+                // the transaction is already completing, do not cache its entity manager
+                current.compareAndSet(cached, null);
+            }
         } else {
             entityManager = NonTxEmCloser.get(puScopedName);
             if (entityManager == null) {
@@ -106,6 +125,7 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         transactionSynchronizationRegistry = (TransactionSynchronizationRegistry) currentServiceContainer().getService(JPAServiceNames.TRANSACTION_SYNCHRONIZATION_REGISTRY_SERVICE).getValue();
 
         emf = persistenceUnitService.getEntityManagerFactory();
+        transactionEntityManager = ThreadLocal.withInitial(AtomicReference::new);
     }
 
     private static ServiceContainer currentServiceContainer() {
@@ -205,6 +225,35 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     }
 
 
+    /**
+     * The entity manager of a transaction, resolved from the TransactionSynchronizationRegistry by a thread.
+     * It remains valid while the transaction is active, since the registry entry of an active transaction is never
+     * replaced, and the entity manager is only closed after the transaction completed. Once the mixed SynchronizationType
+     * check passed for it, it also keeps passing until the transaction completes.
+     * <p/>
+     * It is removed from the thread once the transaction completes, possibly by another thread, such as the transaction reaper.
+     */
+    private static final class TransactionEntityManager implements Synchronization {
+        private final Transaction transaction;
+        private final EntityManager entityManager;
+        private final AtomicReference<TransactionEntityManager> current;
+
+        TransactionEntityManager(Transaction transaction, EntityManager entityManager, AtomicReference<TransactionEntityManager> current) {
+            this.transaction = transaction;
+            this.entityManager = entityManager;
+            this.current = current;
+        }
+
+        @Override
+        public void beforeCompletion() {
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            current.compareAndSet(this, null);
+        }
+    }
+
     /**
      * throw error if Jakarta Transactions transaction already has an UNSYNCHRONIZED persistence context and a SYNCHRONIZED persistence context
      * is requested.  We are only fussy in this test, if the target component persistence context is SYNCHRONIZED.
@@ -0,0 +1,107 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.jpa.container;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.persistence.SynchronizationType;
+import jakarta.transaction.TransactionManager;
+
+import org.junit.Test;
+
+/**
+ * Tests the SFSB invocations tracked by {@link SFSBCallStack}, including those of beans without extended persistence
+ * context, which are kept as null frames.
+ */
+public class SFSBCallStackTestCase {
+
+    private static final String FIRST = "test.war#first";
+    private static final String SECOND = "test.war#second";
+
+    @Test
+    public void testNullFrames() {
+        ExtendedEntityManager first = entityManager(FIRST);
+        Map<String, ExtendedEntityManager> outer = Collections.singletonMap(FIRST, first);
+
+        assertNull(SFSBCallStack.getCurrentCall());
+        SFSBCallStack.pushCall(outer);
+        // beans without extended persistence context only keep their place in the call stack
+        SFSBCallStack.pushCall(null);
+        SFSBCallStack.pushCall(Collections.emptyMap());
+        try {
+            assertNull(SFSBCallStack.currentSFSBCallStackInvocation());
+            // the extended persistence context of an outer invocation is still found
+            assertSame(first, SFSBCallStack.findExtendedPersistenceContext(FIRST));
+            assertNull(SFSBCallStack.findExtendedPersistenceContext(SECOND));
+        } finally {
+            assertNull(SFSBCallStack.popCall());
+            assertNull(SFSBCallStack.popCall());
+        }
+        assertSame(outer, SFSBCallStack.getCurrentCall());
+        assertSame(outer, SFSBCallStack.popCall());
+        assertNull(SFSBCallStack.getCurrentCall());
+        assertNull(SFSBCallStack.findExtendedPersistenceContext(FIRST));
+    }
+
+    @Test
+    public void testFindFromFirstInvocation() {
+        ExtendedEntityManager outer = entityManager(FIRST);
+        ExtendedEntityManager inner = entityManager(FIRST);
+        ExtendedEntityManager second = entityManager(SECOND);
+        Map<String, ExtendedEntityManager> innerCall = new HashMap<>();
+        innerCall.put(FIRST, inner);
+        innerCall.put(SECOND, second);
+
+        SFSBCallStack.pushCall(Collections.singletonMap(FIRST, outer));
+        SFSBCallStack.pushCall(innerCall);
+        try {
+            // the invocations are searched from the first one
+            assertSame(outer, SFSBCallStack.findExtendedPersistenceContext(FIRST));
+            assertSame(second, SFSBCallStack.findExtendedPersistenceContext(SECOND));
+            assertSame(innerCall, SFSBCallStack.currentSFSBCallStackInvocation());
+        } finally {
+            SFSBCallStack.popCall();
+            SFSBCallStack.popCall();
+        }
+    }
+
+    @Test
+    public void testDeepCallStack() {
+        // deeper than the initial size of the call stack
+        int depth = 100;
+        ExtendedEntityManager first = entityManager(FIRST);
+        SFSBCallStack.pushCall(Collections.singletonMap(FIRST, first));
+        for (int i = 1; i < depth; i++) {
+            SFSBCallStack.pushCall((i % 2 == 0) ? Collections.singletonMap(SECOND, entityManager(SECOND)) : null);
+        }
+        try {
+            assertSame(first, SFSBCallStack.findExtendedPersistenceContext(FIRST));
+        } finally {
+            for (int i = 0; i < depth; i++) {
+                SFSBCallStack.popCall();
+            }
+        }
+        assertNull(SFSBCallStack.getCurrentCall());
+        assertNull(SFSBCallStack.findExtendedPersistenceContext(FIRST));
+    }
+
+    private static ExtendedEntityManager entityManager(String puScopedName) {
+        // no transaction is active, so pushing an invocation does not join any
+        TransactionManager transactionManager = (TransactionManager) Proxy.newProxyInstance(SFSBCallStackTestCase.class.getClassLoader(), new Class<?>[] { TransactionManager.class }, (proxy, method, args) -> {
+            if (method.getName().equals("getTransaction")) {
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        return new ExtendedEntityManager(puScopedName, null, SynchronizationType.SYNCHRONIZED, null, transactionManager);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.jboss.as.jpa.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SynchronizationType;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transaction;
+import jakarta.transaction.TransactionManager;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.Test;
+
+/**
+ * Tests the entity manager of the current transaction cached per thread by {@link TransactionScopedEntityManager}.
+ */
+public class TransactionScopedEntityManagerTestCase {
+
+    private static final String PU_SCOPED_NAME = "test.war#test";
+
+    private Transaction transaction;
+    private final Map<Object, Object> resources = new HashMap<>();
+    private final List<Synchronization> synchronizations = new ArrayList<>();
+    private int lookups;
+
+    private final TransactionScopedEntityManager entityManager = new TransactionScopedEntityManager(PU_SCOPED_NAME, null,
+            entityManagerFactory(), SynchronizationType.SYNCHRONIZED, transactionSynchronizationRegistry(), transactionManager());
+
+    @Test
+    public void testHitInTransaction() {
+        EntityManager transactional = begin();
+        assertSame(transactional, entityManager.getEntityManager());
+        assertSame(transactional, entityManager.getEntityManager());
+        assertSame(transactional, entityManager.getEntityManager());
+        // only the first call looks up the entity manager of the transaction
+        assertEquals(1, lookups);
+    }
+
+    @Test
+    public void testMissAfterCommit() {
+        EntityManager first = begin();
+        Transaction completed = transaction;
+        assertSame(first, entityManager.getEntityManager());
+        commit();
+
+        EntityManager second = begin();
+        assertNotSame(completed, transaction);
+        assertSame(second, entityManager.getEntityManager());
+        assertEquals(2, lookups);
+        assertSame(second, entityManager.getEntityManager());
+        assertEquals(2, lookups);
+    }
+
+    @Test
+    public void testReleasedOnCompletion() {
+        EntityManager transactional = begin();
+        assertSame(transactional, entityManager.getEntityManager());
+        // the transaction completes, e.g. rolled back by the transaction reaper, but the thread does not call again
+        for (Synchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(Status.STATUS_ROLLEDBACK);
+        }
+        // even the same transaction object is looked up again
+        assertSame(transactional, entityManager.getEntityManager());
+        assertEquals(2, lookups);
+    }
+
+    @Test
+    public void testMissWithoutTransaction() {
+        EntityManager transactional = begin();
+        assertSame(transactional, entityManager.getEntityManager());
+        commit();
+        transaction = null;
+
+        NonTxEmCloser.pushCall();
+        try {
+            EntityManager nonTransactional = entityManager.getEntityManager();
+            assertNotSame(transactional, nonTransactional);
+            assertSame(nonTransactional, entityManager.getEntityManager());
+        } finally {
+            NonTxEmCloser.popCall();
+        }
+        assertEquals(1, lookups);
+    }
+
+    /**
+     * Begins a new transaction, with an entity manager already registered for the persistence unit.
+     */
+    private EntityManager begin() {
+        int[] status = { Status.STATUS_ACTIVE };
+        transaction = (Transaction) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Transaction.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getStatus":
+                    return status[0];
+                case "commit":
+                    status[0] = Status.STATUS_COMMITTED;
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        resources.clear();
+        synchronizations.clear();
+        EntityManager transactional = entityManager();
+        resources.put(PU_SCOPED_NAME, transactional);
+        return transactional;
+    }
+
+    private void commit() {
+        try {
+            transaction.commit();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        for (Synchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(Status.STATUS_COMMITTED);
+        }
+    }
+
+    private TransactionManager transactionManager() {
+        return (TransactionManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { TransactionManager.class }, (proxy, method, args) -> {
+            if (method.getName().equals("getTransaction")) {
+                return transaction;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry() {
+        return (TransactionSynchronizationRegistry) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { TransactionSynchronizationRegistry.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getResource":
+                    lookups++;
+                    return resources.get(args[0]);
+                case "putResource":
+                    resources.put(args[0], args[1]);
+                    return null;
+                case "registerInterposedSynchronization":
+                    synchronizations.add((Synchronization) args[0]);
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private EntityManagerFactory entityManagerFactory() {
+        return (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EntityManagerFactory.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createEntityManager":
+                    return entityManager();
+                case "getProperties":
+                    return Collections.emptyMap();
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EntityManager.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "isOpen":
+                    return false;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
@@ -13,6 +13,7 @@ import static org.wildfly.extension.metrics.MetricMetadata.Type.GAUGE;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -93,29 +94,32 @@ public class MetricCollector {
             return;
         }
 
-        ModelNode resourceDescription = null;
+        List<Map.Entry<String, AttributeAccess>> metrics = new ArrayList<>();
         for (Map.Entry<String, AttributeAccess> entry : attributes.entrySet()) {
-            String attributeName = entry.getKey();
-
-            AttributeAccess attributeAccess = entry.getValue();
-            if (!isCollectibleMetric(attributeAccess)) {
-                continue;
+            if (isCollectibleMetric(entry.getValue())) {
+                metrics.add(entry);
             }
+        }
 
-            if (resourceDescription == null) {
-                DescriptionProvider modelDescription = managementResourceRegistration.getModelDescription(address);
-                resourceDescription = modelDescription.getModelDescription(Locale.getDefault());
-            }
+        if (!metrics.isEmpty()) {
+            DescriptionProvider modelDescription = managementResourceRegistration.getModelDescription(address);
+            ModelNode resourceDescription = modelDescription.getModelDescription(Locale.getDefault());
             PathAddress resourceAddress = resourceAddressResolver.apply(address);
-            MeasurementUnit unit = attributeAccess.getAttributeDefinition().getMeasurementUnit();
-            boolean isCounter = attributeAccess.getFlags().contains(AttributeAccess.Flag.COUNTER_METRIC);
-            String attributeDescription = resourceDescription.get(ATTRIBUTES, attributeName, DESCRIPTION).asStringOrNull();
-
-            WildFlyMetric metric = new WildFlyMetric(modelControllerClient, resourceAddress, attributeName);
-            WildFlyMetricMetadata metadata = new WildFlyMetricMetadata(attributeName, resourceAddress, prefix, attributeDescription, unit, isCounter ? COUNTER : GAUGE);
-
-            registration.addRegistrationTask(() -> registration.registerMetric(metric, metadata));
-            registration.addUnregistrationTask(metadata.getMetricID());
+            // all the metrics of the resource are read together during a scrape
+            ResourceMetricsReader reader = new ResourceMetricsReader(modelControllerClient, resourceAddress, metrics.size());
+            for (Map.Entry<String, AttributeAccess> entry : metrics) {
+                String attributeName = entry.getKey();
+                AttributeAccess attributeAccess = entry.getValue();
+                MeasurementUnit unit = attributeAccess.getAttributeDefinition().getMeasurementUnit();
+                boolean isCounter = attributeAccess.getFlags().contains(AttributeAccess.Flag.COUNTER_METRIC);
+                String attributeDescription = resourceDescription.get(ATTRIBUTES, attributeName, DESCRIPTION).asStringOrNull();
+
+                WildFlyMetric metric = new WildFlyMetric(reader, attributeName);
+                WildFlyMetricMetadata metadata = new WildFlyMetricMetadata(attributeName, resourceAddress, prefix, attributeDescription, unit, isCounter ? COUNTER : GAUGE);
+
+                registration.addRegistrationTask(() -> registration.registerMetric(metric, metadata));
+                registration.addUnregistrationTask(metadata.getMetricID());
+            }
         }
 
         for (String type : current.getChildTypes()) {
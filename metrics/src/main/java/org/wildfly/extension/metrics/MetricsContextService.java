@@ -22,6 +22,7 @@ import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StopContext;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2018 Red Hat inc.
@@ -29,12 +30,15 @@ import org.jboss.msc.service.StopContext;
 public class MetricsContextService implements Service {
 
     static final String CONTEXT_NAME = "/metrics";
+    // how long, in milliseconds, a scrape response is served to the other scrapers, ignored when the context is secured
+    private static final long RESPONSE_TTL = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("wildfly.metrics.prometheus.response-ttl", "0"));
 
     private final Consumer<MetricsContextService> consumer;
     private final Supplier<ExtensibleHttpManagement> extensibleHttpManagement;
     private Supplier<WildFlyMetricRegistry> wildflyMetricRegistry;
     private final Supplier<Boolean> securityEnabledSupplier;
     private final PrometheusExporter prometheusExporter = new PrometheusExporter();
+    private volatile HttpHandler prometheusHandler;
     private HttpHandler overrideableMetricHandler;
 
     static void install(OperationContext context, boolean securityEnabled) {
@@ -68,7 +72,10 @@ public class MetricsContextService implements Service {
 
     @Override
     public void start(StartContext context) {
-        extensibleHttpManagement.get().addManagementHandler(CONTEXT_NAME, securityEnabledSupplier.get(), new HttpHandler() {
+        boolean securityEnabled = securityEnabledSupplier.get();
+        // a response read on behalf of an authenticated caller is not shared with other callers
+        prometheusHandler = new PrometheusHandler(wildflyMetricRegistry, prometheusExporter, securityEnabled ? 0L : RESPONSE_TTL);
+        extensibleHttpManagement.get().addManagementHandler(CONTEXT_NAME, securityEnabled, new HttpHandler() {
             @Override
             public void handleRequest(HttpServerExchange exchange) throws Exception {
                 if (overrideableMetricHandler != null) {
@@ -76,14 +83,7 @@ public class MetricsContextService implements Service {
                     return;
                 }
 
-                WildFlyMetricRegistry metricRegistry = wildflyMetricRegistry.get();
-                metricRegistry.readLock();
-                try {
-                    String wildFlyMetrics = prometheusExporter.export(metricRegistry);
-                    exchange.getResponseSender().send(wildFlyMetrics);
-                } finally {
-                    metricRegistry.unlock();
-                }
+                prometheusHandler.handleRequest(exchange);
             }
         });
         consumer.accept(this);
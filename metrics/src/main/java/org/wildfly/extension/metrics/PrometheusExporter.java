@@ -4,54 +4,86 @@
  */
 package org.wildfly.extension.metrics;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Map;
 import java.util.OptionalDouble;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.wildfly.extension.metrics.MetricMetadata.MetricTag;
 
 public class PrometheusExporter {
 
-    private static final String LF = "\n";
+    private static final char LF = '\n';
 
-    public String export(WildFlyMetricRegistry registry) {
-        Set<String> alreadyExportedMetrics = new HashSet<String>();
+    // the encoding of each registered metric, computed on its first export
+    private final Map<MetricID, Sample> samples = new ConcurrentHashMap<>();
 
-        StringBuilder out = new StringBuilder();
+    public String export(WildFlyMetricRegistry registry) {
+        StringWriter out = new StringWriter();
+        try {
+            export(snapshot(registry), out);
+        } catch (IOException e) {
+            // not thrown by a StringWriter
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
 
-        for (Map.Entry<MetricID, Metric> entry : registry.getMetrics().entrySet()) {
+    /**
+     * Captures the metrics of the registry and their encodings, so that they can be exported without holding the registry lock.
+     * The caller must hold the {@link MetricRegistry#readLock() read lock} of the registry.
+     */
+    Snapshot snapshot(WildFlyMetricRegistry registry) {
+        Map<MetricID, Metric> metrics = registry.getMetrics();
+        Sample[] samples = new Sample[metrics.size()];
+        Metric[] values = new Metric[metrics.size()];
+        int i = 0;
+        for (Map.Entry<MetricID, Metric> entry : metrics.entrySet()) {
             MetricID metricID = entry.getKey();
-            String metricName = metricID.getMetricName();
-            MetricMetadata metadata = registry.getMetricMetadata().get(metricName);
-            String prometheusMetricName = toPrometheusMetricName(metricID, metadata);
-            OptionalDouble metricValue = entry.getValue().getValue();
-            // if the metric does not return a value, we skip printing the HELP and TYPE
-            if (!metricValue.isPresent()) {
-                continue;
-            }
-            if (!alreadyExportedMetrics.contains(metricName)) {
-                out.append("# HELP " + prometheusMetricName + " " + metadata.getDescription());
-                out.append(LF);
-                out.append("# TYPE " + prometheusMetricName + " " + metadata.getType());
-                out.append(LF);
-                alreadyExportedMetrics.add(metricName);
+            Sample sample = this.samples.get(metricID);
+            if (sample == null) {
+                sample = new Sample(metricID, registry.getMetricMetadata().get(metricID.getMetricName()));
+                this.samples.put(metricID, sample);
             }
-            double scaledValue = scaleToBaseUnit(metricValue.getAsDouble(), metadata.getMeasurementUnit());
-            // I'm pretty sure this is incorrect but that aligns with smallrye-metrics OpenMetricsExporter behaviour
-            if (metadata.getType() == MetricMetadata.Type.COUNTER && metadata.getMeasurementUnit() != MeasurementUnit.NONE) {
-                prometheusMetricName += "_" + metadata.getBaseMetricUnit();
-            }
-            out.append(prometheusMetricName + getTagsAsAString(metricID) + " " + scaledValue);
-            out.append(LF);
+            samples[i] = sample;
+            values[i] = entry.getValue();
+            i++;
         }
-
-        return out.toString();
+        // forget the metrics which were unregistered
+        if (this.samples.size() > metrics.size()) {
+            this.samples.keySet().retainAll(metrics.keySet());
+        }
+        return new Snapshot(samples, values);
     }
 
-    private static double scaleToBaseUnit(double value, MeasurementUnit unit) {
-        return value * MeasurementUnit.calculateOffset(unit, unit.getBaseUnits());
+    /**
+     * Reads the metrics of a snapshot and writes them in the Prometheus text format.
+     */
+    void export(Snapshot snapshot, Writer out) throws IOException {
+        String previousMetricName = null;
+        // the metrics of a management resource are read together, once per scrape
+        try (Scrape scrape = Scrape.begin()) {
+            for (int i = 0; i < snapshot.metrics.length; i++) {
+                OptionalDouble metricValue = snapshot.metrics[i].getValue();
+                // if the metric does not return a value, we skip printing the HELP and TYPE
+                if (!metricValue.isPresent()) {
+                    continue;
+                }
+                Sample sample = snapshot.samples[i];
+                // metrics are sorted by name, so the metrics sharing a HELP and TYPE follow each other
+                if (!sample.metricName.equals(previousMetricName)) {
+                    out.write(sample.header);
+                    previousMetricName = sample.metricName;
+                }
+                out.write(sample.prefix);
+                out.write(Double.toString(metricValue.getAsDouble() * sample.scale));
+                out.write(LF);
+            }
+        }
     }
 
     private static String toPrometheusMetricName(MetricID metricID, MetricMetadata metadata) {
@@ -80,8 +112,48 @@ public class PrometheusExporter {
                 out.append(",");
             }
             MetricTag tag = tags[i];
-            out.append(tag.getKey() + "=\"" + tag.getValue() + "\"");
+            out.append(tag.getKey()).append("=\"").append(tag.getValue()).append('"');
         }
         return out.append("}").toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * The parts of the exported text of a metric which do not depend on its value.
+     */
+    private static class Sample {
+        final String metricName;
+        // the HELP and TYPE lines
+        final String header;
+        // the name and tags, up to the value
+        final String prefix;
+        // converts the value to the base unit
+        final double scale;
+
+        Sample(MetricID metricID, MetricMetadata metadata) {
+            String prometheusMetricName = toPrometheusMetricName(metricID, metadata);
+            this.metricName = metricID.getMetricName();
+            this.header = "# HELP " + prometheusMetricName + " " + metadata.getDescription() + LF
+                    + "# TYPE " + prometheusMetricName + " " + metadata.getType() + LF;
+            MeasurementUnit unit = metadata.getMeasurementUnit();
+            // I'm pretty sure this is incorrect but that aligns with smallrye-metrics OpenMetricsExporter behaviour
+            if (metadata.getType() == MetricMetadata.Type.COUNTER && unit != MeasurementUnit.NONE) {
+                prometheusMetricName += "_" + metadata.getBaseMetricUnit();
+            }
+            this.prefix = prometheusMetricName + getTagsAsAString(metricID) + " ";
+            this.scale = MeasurementUnit.calculateOffset(unit, unit.getBaseUnits());
+        }
+    }
+
+    /**
+     * The metrics of a registry at a given time, with their encodings.
+     */
+    static class Snapshot {
+        final Sample[] samples;
+        final Metric[] metrics;
+
+        Snapshot(Sample[] samples, Metric[] metrics) {
+            this.samples = samples;
+            this.metrics = metrics;
+        }
+    }
+}
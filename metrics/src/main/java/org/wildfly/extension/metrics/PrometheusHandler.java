@@ -0,0 +1,164 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+
+/**
+ * Serves the metrics of the registry in the Prometheus text format.
+ * <p/>
+ * The response is written to the response stream as the metrics are read, gzip compressed if the client accepts it.
+ * The registry lock is only held while capturing the metrics to export, not while reading and writing them.
+ * <p/>
+ * With a positive time to live, the response is kept for that long and served as is to the other scrapers, so that
+ * several scrapers hitting the endpoint do not each read all the metrics.
+ */
+class PrometheusHandler implements HttpHandler {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Supplier<WildFlyMetricRegistry> registry;
+    private final PrometheusExporter exporter;
+    private final long timeToLive;
+
+    // guarded by this
+    private Response response;
+
+    /**
+     * @param registry supplies the registry of the metrics to export
+     * @param exporter the exporter of the metrics
+     * @param timeToLive how long a response is served to other scrapers, in milliseconds, 0 to disable
+     */
+    PrometheusHandler(Supplier<WildFlyMetricRegistry> registry, PrometheusExporter exporter, long timeToLive) {
+        this.registry = registry;
+        this.exporter = exporter;
+        this.timeToLive = TimeUnit.MILLISECONDS.toNanos(timeToLive);
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (exchange.isInIoThread()) {
+            // reading the metrics runs management operations
+            exchange.dispatch(this);
+            return;
+        }
+        boolean gzip = acceptsGzip(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING));
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, CONTENT_TYPE);
+        exchange.getResponseHeaders().put(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+        if (gzip) {
+            exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, GZIP);
+        }
+        if (this.timeToLive > 0) {
+            Response response = this.getResponse();
+            byte[] body = gzip ? response.getCompressed() : response.plain;
+            exchange.setResponseContentLength(body.length);
+            exchange.getResponseSender().send(ByteBuffer.wrap(body));
+        } else {
+            exchange.startBlocking();
+            this.export(gzip ? new GZIPOutputStream(exchange.getOutputStream(), BUFFER_SIZE) : exchange.getOutputStream());
+        }
+    }
+
+    private synchronized Response getResponse() throws IOException {
+        long now = System.nanoTime();
+        if ((this.response == null) || (now - this.response.created >= this.timeToLive)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+            this.export(bytes);
+            this.response = new Response(now, bytes.toByteArray());
+        }
+        return this.response;
+    }
+
+    private void export(OutputStream output) throws IOException {
+        WildFlyMetricRegistry registry = this.registry.get();
+        PrometheusExporter.Snapshot snapshot;
+        registry.readLock();
+        try {
+            snapshot = this.exporter.snapshot(registry);
+        } finally {
+            registry.unlock();
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, UTF_8), BUFFER_SIZE)) {
+            this.exporter.export(snapshot, writer);
+        }
+    }
+
+    /**
+     * Whether the Accept-Encoding request header lists gzip, or the * wildcard, with a non zero quality.
+     */
+    static boolean acceptsGzip(Iterable<String> values) {
+        if (values == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean any = false;
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                String[] parameters = coding.split(";");
+                String name = parameters[0].trim();
+                if (name.equalsIgnoreCase(GZIP)) {
+                    gzip = quality(parameters) > 0;
+                } else if (name.equals("*")) {
+                    any = quality(parameters) > 0;
+                }
+            }
+        }
+        return (gzip != null) ? gzip : any;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static class Response {
+        final long created;
+        final byte[] plain;
+        // guarded by this
+        private byte[] compressed;
+
+        Response(long created, byte[] plain) {
+            this.created = created;
+            this.plain = plain;
+        }
+
+        synchronized byte[] getCompressed() throws IOException {
+            if (this.compressed == null) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(this.plain.length / 4 + 64);
+                try (OutputStream output = new GZIPOutputStream(bytes, BUFFER_SIZE)) {
+                    output.write(this.plain);
+                }
+                this.compressed = bytes.toByteArray();
+            }
+            return this.compressed;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES_ONLY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_UNDEFINED_METRIC_VALUES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.wildfly.extension.metrics._private.MetricsLogger.LOGGER;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the metrics of a management resource, on behalf of all its {@link WildFlyMetric}s.
+ * <p/>
+ * During a {@link Scrape}, the first metric read runs a single {@code read-resource(include-runtime)} operation, whose
+ * result serves the other metrics of the resource for the rest of the scrape. Outside a scrape, or for a resource which
+ * exposes a single metric, each metric runs its own {@code read-attribute} operation.
+ */
+class ResourceMetricsReader {
+
+    private static final ModelNode UNDEFINED = new ModelNode();
+
+    static {
+        UNDEFINED.protect();
+    }
+
+    private final LocalModelControllerClient modelControllerClient;
+    private final PathAddress address;
+    private final boolean batch;
+
+    // guarded by this
+    private long scrape = 0L;
+    private ModelNode values = UNDEFINED;
+
+    /**
+     * @param modelControllerClient the client running the management operations
+     * @param address the address of the resource
+     * @param metrics the number of metrics of the resource
+     */
+    ResourceMetricsReader(LocalModelControllerClient modelControllerClient, PathAddress address, int metrics) {
+        this.modelControllerClient = modelControllerClient;
+        this.address = address;
+        this.batch = metrics > 1;
+    }
+
+    PathAddress getAddress() {
+        return this.address;
+    }
+
+    /**
+     * Reads the value of a metric of this resource.
+     * @param attributeName the name of the metric attribute
+     * @return the value of the metric, possibly undefined
+     */
+    ModelNode read(String attributeName) {
+        long scrape = Scrape.current();
+        if (!this.batch || (scrape == 0L)) {
+            return this.readAttribute(attributeName);
+        }
+        ModelNode values;
+        synchronized (this) {
+            if (this.scrape != scrape) {
+                this.values = this.readResource();
+                this.scrape = scrape;
+            }
+            values = this.values;
+        }
+        return values.hasDefined(attributeName) ? values.get(attributeName) : UNDEFINED;
+    }
+
+    private ModelNode readResource() {
+        final ModelNode readResourceOp = new ModelNode();
+        readResourceOp.get(OP).set(READ_RESOURCE_OPERATION);
+        readResourceOp.get(OP_ADDR).set(this.address.toModelNode());
+        readResourceOp.get(INCLUDE_RUNTIME).set(true);
+        readResourceOp.get(ATTRIBUTES_ONLY).set(true);
+        readResourceOp.get(INCLUDE_UNDEFINED_METRIC_VALUES).set(false);
+        ModelNode response = this.modelControllerClient.execute(readResourceOp);
+        String error = getFailureDescription(response);
+        if (error != null) {
+            // [WFLY-11933] if the value can not be read if the management resource is not accessible due to RBAC,
+            // it is logged it at a lower level.
+            if (error.contains("WFLYCTL0216")) {
+                LOGGER.debugf("Unable to read the metrics of %s: %s.", this.address, error);
+            } else {
+                LOGGER.unableToReadMetrics(this.address, error);
+            }
+            return UNDEFINED;
+        }
+        return response.get(RESULT);
+    }
+
+    private ModelNode readAttribute(String attributeName) {
+        final ModelNode readAttributeOp = new ModelNode();
+        readAttributeOp.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        readAttributeOp.get(OP_ADDR).set(this.address.toModelNode());
+        readAttributeOp.get(INCLUDE_UNDEFINED_METRIC_VALUES).set(false);
+        readAttributeOp.get(NAME).set(attributeName);
+        ModelNode response = this.modelControllerClient.execute(readAttributeOp);
+        String error = getFailureDescription(response);
+        // TODO: Revisit this handling
+        if (error != null) {
+            // [WFLY-11933] if the value can not be read if the management resource is not accessible due to RBAC,
+            // it is logged it at a lower level.
+            if (error.contains("WFLYCTL0216")) {
+                LOGGER.debugf("Unable to read attribute %s: %s.", attributeName, error);
+            } else {
+                LOGGER.unableToReadAttribute(attributeName, this.address, error);
+            }
+            return UNDEFINED;
+        }
+        return response.get(RESULT);
+    }
+
+    private static String getFailureDescription(ModelNode result) {
+        if (result.hasDefined(FAILURE_DESCRIPTION)) {
+            return result.get(FAILURE_DESCRIPTION).toString();
+        }
+        return null;
+    }
+}
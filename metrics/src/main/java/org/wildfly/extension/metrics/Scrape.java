@@ -0,0 +1,47 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The collection of all the metrics of a registry, by the current thread.
+ * <p/>
+ * While a scrape is in progress, the metrics of a management resource are read together once, see
+ * {@link ResourceMetricsReader}, instead of with one management operation each.
+ */
+final class Scrape implements AutoCloseable {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+    private static final ThreadLocal<Scrape> CURRENT = new ThreadLocal<>();
+
+    private final long id;
+
+    private Scrape(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Starts a scrape on the current thread, which must be closed once all the metrics are read.
+     */
+    static Scrape begin() {
+        Scrape scrape = new Scrape(COUNTER.incrementAndGet());
+        CURRENT.set(scrape);
+        return scrape;
+    }
+
+    /**
+     * @return the identifier of the scrape in progress on the current thread, or 0 if there is none
+     */
+    static long current() {
+        Scrape scrape = CURRENT.get();
+        return (scrape != null) ? scrape.id : 0L;
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+}
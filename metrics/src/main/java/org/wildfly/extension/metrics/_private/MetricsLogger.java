@@ -56,4 +56,8 @@ public interface MetricsLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 6, value = "Additional metrics systems discovered while configuring WildFly Metrics: %s. Please refer to the documentation for more information.")
     void multipleMetricsSystemsEnabled(String others);
+
+    @LogMessage(level = WARN)
+    @Message(id = 7, value = "Unable to read the metrics of %s: %s.")
+    void unableToReadMetrics(PathAddress address, String error);
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.extension.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.OptionalDouble;
+
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.junit.Test;
+import org.wildfly.extension.metrics.MetricMetadata.MetricTag;
+
+/**
+ * Unit test for {@link PrometheusExporter} and the content negotiation of {@link PrometheusHandler}.
+ */
+public class PrometheusExporterTestCase {
+
+    @Test
+    public void testExport() throws Exception {
+        WildFlyMetricRegistry registry = new WildFlyMetricRegistry();
+        registry.registerMetric(() -> OptionalDouble.of(3), new TestMetricMetadata("requests", MetricMetadata.Type.COUNTER, MeasurementUnit.NONE, "Requests", new MetricTag("server", "a")));
+        registry.registerMetric(() -> OptionalDouble.of(4), new TestMetricMetadata("requests", MetricMetadata.Type.COUNTER, MeasurementUnit.NONE, "Requests", new MetricTag("server", "b")));
+        registry.registerMetric(() -> OptionalDouble.of(1500), new TestMetricMetadata("processing_time", MetricMetadata.Type.GAUGE, MeasurementUnit.MILLISECONDS, "Processing time"));
+        registry.registerMetric(OptionalDouble::empty, new TestMetricMetadata("undefined", MetricMetadata.Type.GAUGE, MeasurementUnit.NONE, "Undefined"));
+
+        String expected = "# HELP processing_time_seconds Processing time\n"
+                + "# TYPE processing_time_seconds gauge\n"
+                + "processing_time_seconds 1.5\n"
+                + "# HELP requests_total Requests\n"
+                + "# TYPE requests_total counter\n"
+                + "requests_total{server=\"a\"} 3.0\n"
+                + "requests_total{server=\"b\"} 4.0\n";
+
+        PrometheusExporter exporter = new PrometheusExporter();
+        assertEquals(expected, exporter.export(registry));
+        // the second export reuses the encodings computed by the first one
+        assertEquals(expected, exporter.export(registry));
+
+        registry.unregister(new MetricID("requests", new MetricTag[] { new MetricTag("server", "b") }));
+        StringWriter out = new StringWriter();
+        exporter.export(exporter.snapshot(registry), out);
+        assertEquals(expected.replace("requests_total{server=\"b\"} 4.0\n", ""), out.toString());
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(PrometheusHandler.acceptsGzip(List.of("gzip")));
+        assertTrue(PrometheusHandler.acceptsGzip(List.of("deflate, GZIP;q=0.5")));
+        assertTrue(PrometheusHandler.acceptsGzip(List.of("identity", "*")));
+        assertFalse(PrometheusHandler.acceptsGzip(null));
+        assertFalse(PrometheusHandler.acceptsGzip(List.of("identity")));
+        assertFalse(PrometheusHandler.acceptsGzip(List.of("gzip;q=0")));
+        assertFalse(PrometheusHandler.acceptsGzip(List.of("*, gzip;q=0.0")));
+    }
+
+    private static class TestMetricMetadata implements MetricMetadata {
+        private final MetricID metricID;
+        private final Type type;
+        private final MeasurementUnit unit;
+        private final String description;
+
+        TestMetricMetadata(String name, Type type, MeasurementUnit unit, String description, MetricTag... tags) {
+            this.metricID = new MetricID(name, tags);
+            this.type = type;
+            this.unit = unit;
+            this.description = description;
+        }
+
+        @Override
+        public String getMetricName() {
+            return this.metricID.getMetricName();
+        }
+
+        @Override
+        public MetricTag[] getTags() {
+            return this.metricID.getTags();
+        }
+
+        @Override
+        public String getDescription() {
+            return this.description;
+        }
+
+        @Override
+        public MeasurementUnit getMeasurementUnit() {
+            return this.unit;
+        }
+
+        @Override
+        public Type getType() {
+            return this.type;
+        }
+
+        @Override
+        public MetricID getMetricID() {
+            return this.metricID;
+        }
+    }
+}
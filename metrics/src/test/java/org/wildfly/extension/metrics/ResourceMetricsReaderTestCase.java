@@ -0,0 +1,107 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests that {@link ResourceMetricsReader} reads the metrics of a resource with a single operation per {@link Scrape}.
+ */
+public class ResourceMetricsReaderTestCase {
+
+    private static final PathAddress ADDRESS = PathAddress.pathAddress(PathElement.pathElement("subsystem", "test"));
+
+    // the operations executed by the client
+    private final List<String> operations = new ArrayList<>();
+    // the number of operations executed, returned as the value of the metrics
+    private int count = 0;
+
+    @Test
+    public void testBatchedDuringScrape() {
+        ResourceMetricsReader reader = new ResourceMetricsReader(this.client(), ADDRESS, 2);
+        try (Scrape scrape = Scrape.begin()) {
+            assertEquals(1, reader.read("first").asInt());
+            assertEquals(1, reader.read("second").asInt());
+            assertFalse(reader.read("undefined").isDefined());
+        }
+        assertEquals(List.of(READ_RESOURCE_OPERATION), this.operations);
+
+        // the next scrape reads the resource again
+        try (Scrape scrape = Scrape.begin()) {
+            assertEquals(2, reader.read("first").asInt());
+            assertEquals(2, reader.read("second").asInt());
+        }
+        assertEquals(List.of(READ_RESOURCE_OPERATION, READ_RESOURCE_OPERATION), this.operations);
+    }
+
+    @Test
+    public void testOutsideScrape() {
+        ResourceMetricsReader reader = new ResourceMetricsReader(this.client(), ADDRESS, 2);
+        assertEquals(0L, Scrape.current());
+        assertEquals(1, reader.read("first").asInt());
+        assertEquals(2, reader.read("second").asInt());
+        assertEquals(List.of(READ_ATTRIBUTE_OPERATION + ":first", READ_ATTRIBUTE_OPERATION + ":second"), this.operations);
+    }
+
+    @Test
+    public void testSingleMetric() {
+        ResourceMetricsReader reader = new ResourceMetricsReader(this.client(), ADDRESS, 1);
+        try (Scrape scrape = Scrape.begin()) {
+            assertEquals(1, reader.read("first").asInt());
+        }
+        assertEquals(List.of(READ_ATTRIBUTE_OPERATION + ":first"), this.operations);
+    }
+
+    @Test
+    public void testScrapeClosed() {
+        long id;
+        try (Scrape scrape = Scrape.begin()) {
+            id = Scrape.current();
+        }
+        assertEquals(0L, Scrape.current());
+        try (Scrape scrape = Scrape.begin()) {
+            // each scrape has its own identifier, so that the values read by the previous one are not reused
+            assertNotEquals(id, Scrape.current());
+        }
+    }
+
+    private LocalModelControllerClient client() {
+        return (LocalModelControllerClient) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class<?>[] { LocalModelControllerClient.class }, (proxy, method, args) -> {
+            if (!method.getName().equals("execute") || !(args[0] instanceof ModelNode)) {
+                throw new UnsupportedOperationException(method.toString());
+            }
+            ModelNode operation = (ModelNode) args[0];
+            String name = operation.get(OP).asString();
+            ModelNode response = new ModelNode();
+            this.count += 1;
+            if (name.equals(READ_RESOURCE_OPERATION)) {
+                this.operations.add(name);
+                response.get(RESULT, "first").set(this.count);
+                response.get(RESULT, "second").set(this.count);
+            } else {
+                this.operations.add(name + ":" + operation.get(NAME).asString());
+                response.get(RESULT).set(this.count);
+            }
+            return response;
+        });
+    }
+}
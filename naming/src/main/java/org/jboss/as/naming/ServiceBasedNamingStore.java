@@ -13,7 +13,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -48,6 +51,11 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    /* The services of the bindings already looked up, by the name they were looked up with, cleared on any bind or unbind */
+    private final ConcurrentMap<Name, ServiceController<?>> resolvedNames = new ConcurrentHashMap<Name, ServiceController<?>>();
+    /* Incremented before the resolved names are cleared, so that a concurrent lookup does not cache a stale service */
+    private final AtomicLong bindings = new AtomicLong();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -62,13 +70,30 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final ServiceController<?> resolved = resolvedNames.get(name);
+        if (resolved != null) {
+            final Object obj = lookup(name, resolved, dereference);
+            if (obj != null) {
+                return obj;
+            }
+        }
+        final long bindings = this.bindings.get();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = lookup(name, controller, dereference);
+        if (controller != null && boundServices.contains(lookupName)) {
+            final Name key = (Name) name.clone();
+            resolvedNames.put(key, controller);
+            if (this.bindings.get() != bindings) {
+                // bound or unbound in the meantime, the controller might be stale
+                resolvedNames.remove(key, controller);
+            }
+        }
         if (obj == null) {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
-                obj = lookup(name.toString(), lower, dereference);
+                obj = lookup(name, lower, dereference);
                 //if the lower is a context that has been explicitly bound then
                 //we do not return a resolve result, as this will result in an
                 //infinite loop
@@ -106,9 +131,12 @@ public class ServiceBasedNamingStore implements NamingStore {
         return cpe;
     }
 
-    private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+    private Object lookup(final Name name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, serviceRegistry.getService(lookupName), dereference);
+    }
+
+    private Object lookup(final Name name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         try {
-            final ServiceController<?> controller = serviceRegistry.getService(lookupName);
             if (controller != null) {
                 final Object object = controller.getValue();
                 if (dereference && object instanceof ManagedReferenceFactory) {
@@ -132,13 +160,13 @@ public class ServiceBasedNamingStore implements NamingStore {
                 return null;
             }
         } catch (IllegalStateException e) {
-            NameNotFoundException n = new NameNotFoundException(name);
+            NameNotFoundException n = new NameNotFoundException(name.toString());
             n.initCause(e);
             throw n;
         } catch (SecurityException ex) {
             throw ex;
         } catch (Throwable t) {
-            throw NamingLogger.ROOT_LOGGER.lookupError(t, name);
+            throw NamingLogger.ROOT_LOGGER.lookupError(t, name.toString());
         }
     }
 
@@ -148,7 +176,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -165,7 +193,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, false);
+                final Object binding = lookup(name, child, false);
                 if (binding != null) {
                     final String bindingType;
                     if (binding instanceof ContextListManagedReferenceFactory) {
@@ -193,7 +221,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -209,7 +237,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, true);
+                final Object binding = lookup(name, child, true);
                 results.add(new Binding(childParts[childParts.length - 1], binding));
             }
         }
@@ -240,6 +268,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        clearResolvedNames();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -254,10 +283,17 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw NamingLogger.ROOT_LOGGER.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        clearResolvedNames();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        clearResolvedNames();
+    }
+
+    private void clearResolvedNames() {
+        bindings.incrementAndGet();
+        resolvedNames.clear();
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -5,6 +5,9 @@
 
 package org.jboss.as.naming.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.naming.CompositeName;
 import javax.naming.Name;
 import javax.naming.NamingException;
@@ -18,6 +21,12 @@ public class NameParser implements javax.naming.NameParser {
 
     public static final NameParser INSTANCE = new NameParser();
 
+    /* Upper bound of the parsed names kept, once reached the cache is emptied and filled again by the names in use */
+    private static final int MAX_PARSED_NAMES = 4096;
+
+    /* The names parsed recently, which are cloned rather than parsed again since names are mutable */
+    private final Map<String, Name> parsedNames = new ConcurrentHashMap<>();
+
     private NameParser() {
     }
 
@@ -29,6 +38,15 @@ public class NameParser implements javax.naming.NameParser {
      * @throws NamingException
      */
     public Name parse(String name) throws NamingException {
-        return new CompositeName(name);
+        final Name parsed = parsedNames.get(name);
+        if (parsed != null) {
+            return (Name) parsed.clone();
+        }
+        final Name result = new CompositeName(name);
+        if (parsedNames.size() >= MAX_PARSED_NAMES) {
+            parsedNames.clear();
+        }
+        parsedNames.put(name, (Name) result.clone());
+        return result;
     }
 }
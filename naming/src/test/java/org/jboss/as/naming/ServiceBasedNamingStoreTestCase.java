@@ -14,12 +14,14 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -80,6 +82,29 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupBindingAfterRebind() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+        assertEquals(value, store.lookup(new CompositeName("foo/bar")));
+        // served from the resolved names
+        assertEquals(value, store.lookup(new CompositeName("foo/bar")));
+
+        container.getRequiredService(bindingName).setMode(ServiceController.Mode.REMOVE);
+        container.awaitStability();
+        store.remove(bindingName);
+        try {
+            store.lookup(new CompositeName("foo/bar"));
+            fail("Should have thrown name not found");
+        } catch (NameNotFoundException expected) {
+        }
+
+        final Object newValue = new Object();
+        bindObject(bindingName, newValue);
+        assertEquals(newValue, store.lookup(new CompositeName("foo/bar")));
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
@@ -5,7 +5,10 @@
 package org.jboss.as.test.integration.management.deploy.runtime;
 
 import java.net.URL;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.arquillian.container.test.api.Deployment;
@@ -32,6 +35,7 @@ import org.junit.runner.RunWith;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
@@ -48,6 +52,7 @@ public class JaxrsRuntimeNameTestCase extends AbstractRuntimeTestCase {
     private static final String DEPLOYMENT_NAME = "hello-rs.war";
     private static final String JAVA_METHOD = "java-method";
     private static final String PRODUCES = "produces";
+    private static final String READ_REST_RESOURCES = "read-rest-resources";
     private static final String RESOURCE_CLASS = "resource-class";
     private static final String RESOURCE_METHODS = "resource-methods";
     private static final String RESOURCE_PATH = "resource-path";
@@ -237,6 +242,66 @@ public class JaxrsRuntimeNameTestCase extends AbstractRuntimeTestCase {
 
     }
 
+    @Test
+    public void testRestResourceSnapshot() throws Exception {
+        // the first read builds the snapshot of the deployment, the following ones are served from it
+        ModelNode first = readRestResource(HelloResource.class);
+        assertThat(performCall("hello"), is("Hello World!"));
+        assertThat(readRestResource(HelloResource.class), is(first));
+        assertThat(readRestResource(PureProxyEndPoint.class).get(RESOURCE_PATHS).asList().size(), is(1));
+    }
+
+    @Test
+    public void testRestResourceSnapshotAfterRedeploy() throws Exception {
+        ModelNode hello = readRestResource(HelloResource.class);
+        ModelNode pureProxy = readRestResource(PureProxyEndPoint.class);
+
+        ModelNode redeploy = Util.createOperation(ModelDescriptionConstants.REDEPLOY, PathAddress.pathAddress(DEPLOYMENT, DEPLOYMENT_NAME));
+        ModelNode result = controllerClient.execute(redeploy);
+        assertThat("Failed to redeploy: " + result, Operations.isSuccessfulOutcome(result), is(true));
+
+        // the redeployed application gets a snapshot of its own, built from its new registry
+        assertThat(readRestResource(HelloResource.class), is(hello));
+        assertThat(readRestResource(PureProxyEndPoint.class), is(pureProxy));
+        assertThat(performCall("hello/pure/proxy/test/Hello/World"), is("Hello World"));
+    }
+
+    @Test
+    public void testReadRestResources() throws Exception {
+        ModelNode readRestResources = Util.createOperation(READ_REST_RESOURCES, PathAddress.pathAddress(SUBSYSTEM, SUBSYSTEM_NAME));
+        ModelNode result = controllerClient.execute(readRestResources);
+        assertThat("Failed to read the REST resources: " + result, Operations.isSuccessfulOutcome(result), is(true));
+
+        Map<String, ModelNode> restResources = new HashMap<>();
+        for (ModelNode restResource : Operations.readResult(result).asList()) {
+            PathAddress address = PathAddress.pathAddress(restResource.get(ADDRESS));
+            if (address.getElement(0).getValue().equals(DEPLOYMENT_NAME)) {
+                assertThat(restResource.toString(), address.getLastElement().getValue(), is(restResource.get(RESOURCE_CLASS).asString()));
+                restResources.put(restResource.get(RESOURCE_CLASS).asString(), restResource);
+            }
+        }
+        // the resource classes of the deployment, including the one implementing the resource interface
+        assertThat(restResources.toString(), restResources.keySet().containsAll(Set.of(HelloResource.class.getCanonicalName(), PureProxyEndPoint.class.getCanonicalName())), is(true));
+        for (Class<?> resourceClass : List.of(HelloResource.class, PureProxyEndPoint.class)) {
+            // the same descriptions as the attributes of each rest-resource
+            ModelNode restResource = readRestResource(resourceClass);
+            ModelNode entry = restResources.get(resourceClass.getCanonicalName());
+            assertThat(entry.get(RESOURCE_PATHS), is(restResource.get(RESOURCE_PATHS)));
+            assertThat(entry.get(SUB_RESOURCE_LOCATORS), is(restResource.get(SUB_RESOURCE_LOCATORS)));
+        }
+        assertThat(restResources.get(HelloResource.class.getCanonicalName()).get(SUB_RESOURCE_LOCATORS).asList().size(), is(1));
+    }
+
+    private static ModelNode readRestResource(Class<?> resourceClass) throws Exception {
+        ModelNode readResource =  Util.createOperation(READ_RESOURCE_OPERATION, PathAddress.pathAddress(DEPLOYMENT, DEPLOYMENT_NAME)
+                .append(SUBSYSTEM, SUBSYSTEM_NAME)
+                .append(REST_RESOURCE_NAME, resourceClass.getCanonicalName()));
+        readResource.get(ModelDescriptionConstants.INCLUDE_RUNTIME).set(true);
+        ModelNode result = controllerClient.execute(readResource);
+        assertThat("Failed to read resource: " + result, Operations.isSuccessfulOutcome(result), is(true));
+        return Operations.readResult(result);
+    }
+
     @Test
     public void testRecursive() throws Exception {
         ModelNode readResource =  Util.createOperation(READ_RESOURCE_OPERATION, PathAddress.pathAddress(DEPLOYMENT, DEPLOYMENT_NAME));
@@ -87,6 +87,7 @@ public class AbstractValidationUnitTest {
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb3-spec-4_01.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-cache_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-cache_2_0.xsd");
+        EXCLUDED_SCHEMA_FILES.add("jboss-ejb-concurrency_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-container-interceptors_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-container-interceptors_2_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-delivery-active_1_0.xsd");
@@ -102,6 +103,7 @@ public class AbstractValidationUnitTest {
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-iiop_2_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-pool_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-pool_2_0.xsd");
+        EXCLUDED_SCHEMA_FILES.add("jboss-ejb-pool_3_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-resource-adapter-binding_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-resource-adapter-binding_2_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-security_1_0.xsd");
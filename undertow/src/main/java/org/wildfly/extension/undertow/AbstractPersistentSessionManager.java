@@ -26,9 +26,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.AbstractMap;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -87,30 +89,20 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
 
     protected abstract Map<String, SessionEntry> loadSerializedSessions(final String deploymentName) throws IOException;
 
+    /**
+     * Creates the serialized form of a session, as returned by {@link #loadSerializedSessions(String)}.
+     */
+    protected static SessionEntry createSessionEntry(Date expiry, Map<String, byte[]> data) {
+        return new SessionEntry(expiry, data);
+    }
+
     @Override
     public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, final ClassLoader classLoader) {
         try {
-            Unmarshaller unmarshaller = createUnmarshaller();
-            try {
-                long time = System.currentTimeMillis();
-                Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
-                if (data != null) {
-                    Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
-                    for (Map.Entry<String, SessionEntry> sessionEntry : data.entrySet()) {
-                        if (sessionEntry.getValue().expiry.getTime() > time) {
-                            Map<String, Object> session = new HashMap<String, Object>();
-                            for (Map.Entry<String, byte[]> sessionAttribute : sessionEntry.getValue().data.entrySet()) {
-                                unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
-                                session.put(sessionAttribute.getKey(), unmarshaller.readObject());
-                                unmarshaller.finish();
-                            }
-                            ret.put(sessionEntry.getKey(), new PersistentSession(sessionEntry.getValue().expiry, session));
-                        }
-                    }
-                    return ret;
-                }
-            } finally {
-                unmarshaller.close();
+            long time = System.currentTimeMillis();
+            Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
+            if (data != null) {
+                return loadSessionAttributes(data, time);
             }
         } catch (Exception e) {
             UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
@@ -118,6 +110,16 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         return null;
     }
 
+    private Map<String, PersistentSession> loadSessionAttributes(Map<String, SessionEntry> sessions, long time) {
+        Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
+        for (Map.Entry<String, SessionEntry> sessionEntry : sessions.entrySet()) {
+            if (sessionEntry.getValue().expiry.getTime() > time) {
+                ret.put(sessionEntry.getKey(), new PersistentSession(sessionEntry.getValue().expiry, new SessionAttributes(sessionEntry.getKey(), sessionEntry.getValue().data)));
+            }
+        }
+        return ret;
+    }
+
     protected Marshaller createMarshaller() throws IOException {
         return factory.createMarshaller(configuration);
     }
@@ -150,6 +152,59 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         return this;
     }
 
+    /**
+     * The attributes of a restored session, deserialized when they are first read, i.e. when the session is first
+     * requested, rather than the attributes of all the sessions when the deployment starts.
+     */
+    private final class SessionAttributes extends AbstractMap<String, Object> {
+        private final String sessionId;
+        private final Map<String, byte[]> data;
+        private volatile Map<String, Object> attributes;
+
+        SessionAttributes(String sessionId, Map<String, byte[]> data) {
+            this.sessionId = sessionId;
+            this.data = data;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Map<String, Object> attributes = this.attributes;
+            if (attributes == null) {
+                synchronized (this) {
+                    attributes = this.attributes;
+                    if (attributes == null) {
+                        attributes = this.deserialize();
+                        this.attributes = attributes;
+                    }
+                }
+            }
+            return attributes.entrySet();
+        }
+
+        private Map<String, Object> deserialize() {
+            Map<String, Object> attributes = new HashMap<String, Object>();
+            try {
+                Unmarshaller unmarshaller = createUnmarshaller();
+                try {
+                    for (Map.Entry<String, byte[]> sessionAttribute : this.data.entrySet()) {
+                        try {
+                            unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
+                            attributes.put(sessionAttribute.getKey(), unmarshaller.readObject());
+                            unmarshaller.finish();
+                        } catch (Exception e) {
+                            UndertowLogger.ROOT_LOGGER.failedToLoadSessionAttribute(sessionAttribute.getKey(), this.sessionId, e);
+                        }
+                    }
+                } finally {
+                    unmarshaller.close();
+                }
+            } catch (IOException e) {
+                UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+            }
+            return attributes;
+        }
+    }
+
     protected static final class SessionEntry implements Serializable {
         private final Date expiry;
         private final Map<String, byte[]> data;
@@ -4,10 +4,15 @@
  */
 package org.wildfly.extension.undertow;
 
+import static org.jboss.as.controller.registry.AttributeAccess.Flag.COUNTER_METRIC;
+
 import java.util.Collection;
 import java.util.List;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ServiceRemoveStepHandler;
@@ -19,10 +24,13 @@ import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.capability.BinaryCapabilityNameResolver;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.ValueExpression;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * @author Tomaz Cerar (c) 2013 Red Hat Inc.
@@ -96,6 +104,17 @@ class AccessLogDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    static final SimpleAttributeDefinition QUEUED_RECORDS = new SimpleAttributeDefinitionBuilder(Constants.QUEUED_RECORDS, ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition DROPPED_RECORDS = new SimpleAttributeDefinitionBuilder(Constants.DROPPED_RECORDS, ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(COUNTER_METRIC)
+            .setStorageRuntime()
+            .build();
+
     static final Collection<AttributeDefinition> ATTRIBUTES = List.of(
             // IMPORTANT -- keep these in xsd order as this order controls marshalling
             WORKER,
@@ -131,4 +150,31 @@ class AccessLogDefinition extends PersistentResourceDefinition {
         //noinspection unchecked
         return ATTRIBUTES;
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(QUEUED_RECORDS, AccessLogMetricHandler.INSTANCE);
+        resourceRegistration.registerMetric(DROPPED_RECORDS, AccessLogMetricHandler.INSTANCE);
+    }
+
+    private static class AccessLogMetricHandler implements OperationStepHandler {
+
+        static final AccessLogMetricHandler INSTANCE = new AccessLogMetricHandler();
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(ACCESS_LOG_CAPABILITY.getCapabilityServiceName(context.getCurrentAddress()));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                return;
+            }
+            AccessLogService service = (AccessLogService) controller.getValue();
+            String name = operation.get(ModelDescriptionConstants.NAME).asString();
+            if (Constants.QUEUED_RECORDS.equals(name)) {
+                context.getResult().set(service.getQueuedRecords());
+            } else if (Constants.DROPPED_RECORDS.equals(name)) {
+                context.getResult().set(service.getDroppedRecords());
+            }
+        }
+    }
 }
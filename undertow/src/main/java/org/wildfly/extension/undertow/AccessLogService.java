@@ -14,12 +14,14 @@ import io.undertow.server.handlers.accesslog.AccessLogReceiver;
 import io.undertow.server.handlers.accesslog.DefaultAccessLogReceiver;
 import io.undertow.server.handlers.accesslog.ExtendedAccessLogParser;
 import io.undertow.server.handlers.accesslog.JBossLoggingAccessLogReceiver;
+import io.undertow.server.handlers.accesslog.LogFileHeaderGenerator;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.xnio.IoUtils;
 import org.xnio.XnioWorker;
 
@@ -27,6 +29,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Locale;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -35,6 +38,12 @@ import java.util.function.Supplier;
  * @author <a href="mailto:ropalka@redhat.com">Richard Opalka</a>
  */
 final class AccessLogService implements Service<AccessLogService> {
+    // a positive size writes the access log files through an AsyncAccessLogReceiver, whose ring buffer holds that many records
+    private static final int ASYNC_BUFFER_SIZE = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.undertow.access-log.async.buffer-size", "0"));
+    private static final AsyncAccessLogReceiver.OverflowPolicy ASYNC_OVERFLOW_POLICY = overflowPolicy(WildFlySecurityManager.getPropertyPrivileged("jboss.undertow.access-log.async.overflow-policy", "block"));
+    private static final int ASYNC_SAMPLE_RATE = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("jboss.undertow.access-log.async.sample-rate", "10"));
+    private static final boolean ASYNC_COMPRESS = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.undertow.access-log.async.compress", "false"));
+
     private final Consumer<AccessLogService> serviceConsumer;
     private final Supplier<Host> host;
     private final Supplier<XnioWorker> worker;
@@ -54,6 +63,15 @@ final class AccessLogService implements Service<AccessLogService> {
     private Path directory;
     private ExchangeAttribute extendedPattern;
 
+    static AsyncAccessLogReceiver.OverflowPolicy overflowPolicy(String value) {
+        try {
+            return AsyncAccessLogReceiver.OverflowPolicy.valueOf(value.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            UndertowLogger.ROOT_LOGGER.invalidAccessLogOverflowPolicy(value, AsyncAccessLogReceiver.OverflowPolicy.BLOCK);
+            return AsyncAccessLogReceiver.OverflowPolicy.BLOCK;
+        }
+    }
+
     AccessLogService(final Consumer<AccessLogService> serviceConsumer, final Supplier<Host> host,
                      final Supplier<XnioWorker> worker, final Supplier<PathManager> pathManager,
                      final String pattern, final boolean extended, final Predicate predicate) {
@@ -97,18 +115,26 @@ final class AccessLogService implements Service<AccessLogService> {
                 }
             }
             try {
-                DefaultAccessLogReceiver.Builder builder = DefaultAccessLogReceiver.builder().setLogWriteExecutor(worker.get())
-                        .setOutputDirectory(directory)
-                        .setLogBaseName(filePrefix)
-                        .setLogNameSuffix(fileSuffix)
-                        .setRotate(rotate);
+                LogFileHeaderGenerator headerGenerator = null;
                 if(extended) {
-                    builder.setLogFileHeaderGenerator(new ExtendedAccessLogParser.ExtendedAccessLogHeaderGenerator(pattern));
+                    headerGenerator = new ExtendedAccessLogParser.ExtendedAccessLogHeaderGenerator(pattern);
                     extendedPattern = new ExtendedAccessLogParser(getClass().getClassLoader()).parse(pattern);
                 } else {
                     extendedPattern = null;
                 }
-                logReceiver = builder.build();
+                if (ASYNC_BUFFER_SIZE > 0) {
+                    AsyncAccessLogReceiver receiver = new AsyncAccessLogReceiver(directory, filePrefix, fileSuffix, rotate, ASYNC_COMPRESS, headerGenerator, ASYNC_BUFFER_SIZE, ASYNC_OVERFLOW_POLICY, ASYNC_SAMPLE_RATE);
+                    receiver.start();
+                    logReceiver = receiver;
+                } else {
+                    logReceiver = DefaultAccessLogReceiver.builder().setLogWriteExecutor(worker.get())
+                            .setOutputDirectory(directory)
+                            .setLogBaseName(filePrefix)
+                            .setLogNameSuffix(fileSuffix)
+                            .setRotate(rotate)
+                            .setLogFileHeaderGenerator(headerGenerator)
+                            .build();
+                }
             } catch (IllegalStateException e) {
                 throw new StartException(e);
             }
@@ -127,6 +153,8 @@ final class AccessLogService implements Service<AccessLogService> {
         }
         if( logReceiver instanceof DefaultAccessLogReceiver ) {
             IoUtils.safeClose((DefaultAccessLogReceiver) logReceiver);
+        } else if (logReceiver instanceof AsyncAccessLogReceiver) {
+            ((AsyncAccessLogReceiver) logReceiver).close();
         }
         logReceiver = null;
     }
@@ -139,6 +167,22 @@ final class AccessLogService implements Service<AccessLogService> {
         }
     }
 
+    /**
+     * The number of records waiting to be written, if the access log is written asynchronously.
+     */
+    long getQueuedRecords() {
+        AccessLogReceiver receiver = logReceiver;
+        return (receiver instanceof AsyncAccessLogReceiver) ? ((AsyncAccessLogReceiver) receiver).getQueuedRecords() : 0L;
+    }
+
+    /**
+     * The number of records dropped because the asynchronous writer could not keep up.
+     */
+    long getDroppedRecords() {
+        AccessLogReceiver receiver = logReceiver;
+        return (receiver instanceof AsyncAccessLogReceiver) ? ((AsyncAccessLogReceiver) receiver).getDroppedRecords() : 0L;
+    }
+
     boolean isRotate() {
         return rotate;
     }
@@ -0,0 +1,366 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.extension.undertow;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.undertow.server.handlers.accesslog.AccessLogReceiver;
+import io.undertow.server.handlers.accesslog.LogFileHeaderGenerator;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link AccessLogReceiver} which keeps the request threads off the disk.
+ * <p/>
+ * Request threads only publish their formatted record into a bounded lock free ring buffer. A single writer thread
+ * drains the ring buffer, encodes the records into one buffer and writes them with as few writes as possible, optionally
+ * gzip compressed. The writer does not poll: it sleeps while the ring buffer is empty and is woken up by the next record.
+ * <p/>
+ * When the ring buffer is full, the {@link OverflowPolicy} decides whether the request thread waits for the writer, or
+ * whether the record is dropped. Dropped records are counted.
+ * <p/>
+ * Like {@link io.undertow.server.handlers.accesslog.DefaultAccessLogReceiver}, the log file is named after its base name
+ * and suffix, and is renamed after the day of its records when rotating.
+ */
+final class AsyncAccessLogReceiver implements AccessLogReceiver, Closeable {
+
+    /**
+     * What to do with a record, when the writer cannot keep up.
+     */
+    enum OverflowPolicy {
+        /**
+         * Wait for the writer to free a slot, no record is lost.
+         */
+        BLOCK,
+        /**
+         * Drop the records which do not fit.
+         */
+        DROP,
+        /**
+         * Once the ring buffer is half full, only keep one record out of the sample rate, and drop the records which do not fit.
+         */
+        SAMPLE,
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    private final Path directory;
+    private final String baseName;
+    private final String suffix;
+    private final boolean rotate;
+    private final boolean compress;
+    private final LogFileHeaderGenerator headerGenerator;
+    private final OverflowPolicy policy;
+    private final int sampleRate;
+    private final Path file;
+
+    private final AtomicReferenceArray<String> ring;
+    private final int capacity;
+    private final int mask;
+    // the next sequence to claim
+    private final AtomicLong tail = new AtomicLong();
+    // the next sequence to write, only updated by the writer
+    private volatile long head = 0;
+    private final AtomicLong sampled = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private volatile Thread writer;
+
+    // owned by the writer thread
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private WritableByteChannel output;
+    private GZIPOutputStream gzip;
+    private LocalDate date;
+
+    /**
+     * @param directory the directory of the log files
+     * @param baseName the base name of the log files
+     * @param suffix the suffix of the log files
+     * @param rotate whether to start a new log file every day
+     * @param compress whether to gzip the log files
+     * @param headerGenerator generates the lines heading every log file, may be null
+     * @param bufferSize the number of records the ring buffer holds, rounded up to a power of 2
+     * @param policy what to do with a record which does not fit the ring buffer
+     * @param sampleRate with {@link OverflowPolicy#SAMPLE}, keep one record out of this many under load
+     */
+    AsyncAccessLogReceiver(Path directory, String baseName, String suffix, boolean rotate, boolean compress, LogFileHeaderGenerator headerGenerator, int bufferSize, OverflowPolicy policy, int sampleRate) {
+        this.directory = directory;
+        this.baseName = baseName;
+        this.suffix = suffix;
+        this.rotate = rotate;
+        this.compress = compress;
+        this.headerGenerator = headerGenerator;
+        this.policy = policy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.file = directory.resolve(baseName + suffix + (compress ? COMPRESSED_SUFFIX : ""));
+        this.capacity = Integer.highestOneBit(Math.max(2, Math.min(bufferSize, 1 << 30)) * 2 - 1);
+        this.mask = this.capacity - 1;
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    void start() {
+        this.running = true;
+        Thread thread = new Thread(this::run, "access-log-writer[" + this.file.getFileName() + "]");
+        thread.setDaemon(true);
+        this.writer = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the writer thread, once it wrote all the published records.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        Thread thread = this.writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.writer = null;
+        }
+    }
+
+    @Override
+    public void logMessage(String message) {
+        if (this.policy == OverflowPolicy.SAMPLE && this.getQueuedRecords() >= (this.capacity >> 1) && (this.sampled.getAndIncrement() % this.sampleRate) != 0) {
+            this.dropped.increment();
+            return;
+        }
+        long sequence;
+        while (true) {
+            sequence = this.tail.get();
+            if (sequence - this.head >= this.capacity) {
+                if ((this.policy != OverflowPolicy.BLOCK) || !this.running) {
+                    this.dropped.increment();
+                    return;
+                }
+                this.wakeUp();
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            } else if (this.tail.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        this.ring.lazySet((int) sequence & this.mask, message);
+        this.wakeUp();
+    }
+
+    /**
+     * The number of records waiting for the writer.
+     */
+    long getQueuedRecords() {
+        return Math.max(0L, this.tail.get() - this.head);
+    }
+
+    /**
+     * The number of records dropped because the writer could not keep up.
+     */
+    long getDroppedRecords() {
+        return this.dropped.sum();
+    }
+
+    private void wakeUp() {
+        if (this.sleeping) {
+            Thread thread = this.writer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (this.drain() == 0) {
+                    if (!this.running && this.tail.get() == this.head) {
+                        return;
+                    }
+                    // publish that we are about to sleep before checking the ring buffer, see wakeUp()
+                    this.sleeping = true;
+                    if (this.running && this.tail.get() == this.head) {
+                        LockSupport.park(this);
+                    }
+                    this.sleeping = false;
+                }
+            }
+        } finally {
+            this.closeFile();
+        }
+    }
+
+    /**
+     * Writes the published records.
+     * @return the number of records written
+     */
+    private int drain() {
+        long sequence = this.head;
+        final long available = this.tail.get();
+        if (sequence == available) {
+            return 0;
+        }
+        int count = 0;
+        try {
+            this.openFile();
+            while (sequence < available) {
+                final int index = (int) sequence & this.mask;
+                final String message = this.ring.get(index);
+                if (message == null) {
+                    // claimed but not published yet
+                    break;
+                }
+                this.ring.lazySet(index, null);
+                this.append(message);
+                this.head = ++sequence;
+                count++;
+            }
+            this.flush();
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.file, e);
+            this.buffer.clear();
+            this.closeFile();
+            // skip the records we could not write, rather than retrying forever
+            while (sequence < available) {
+                final int index = (int) sequence & this.mask;
+                if (this.ring.get(index) == null) {
+                    break;
+                }
+                this.ring.lazySet(index, null);
+                this.dropped.increment();
+                this.head = ++sequence;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void append(String message) throws IOException {
+        final byte[] bytes = message.getBytes(UTF_8);
+        if (bytes.length + 1 > this.buffer.remaining()) {
+            this.writeBuffer();
+        }
+        if (bytes.length + 1 > this.buffer.remaining()) {
+            this.write(ByteBuffer.wrap(bytes));
+        } else {
+            this.buffer.put(bytes);
+        }
+        this.buffer.put((byte) '\n');
+    }
+
+    private void flush() throws IOException {
+        this.writeBuffer();
+        if (this.gzip != null) {
+            // sync flush, so that the records written so far can be read
+            this.gzip.flush();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        this.buffer.flip();
+        this.write(this.buffer);
+        this.buffer.clear();
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            this.output.write(bytes);
+        }
+    }
+
+    private void openFile() throws IOException {
+        final LocalDate today = LocalDate.now();
+        if (this.output != null) {
+            if (!this.rotate || today.equals(this.date)) {
+                return;
+            }
+            this.closeFile();
+            this.rotate(this.date);
+        } else if (this.rotate && Files.exists(this.file)) {
+            // left over by a previous run
+            final LocalDate modified = LocalDate.ofInstant(Instant.ofEpochMilli(Files.getLastModifiedTime(this.file).toMillis()), ZoneId.systemDefault());
+            if (!today.equals(modified)) {
+                this.rotate(modified);
+            }
+        }
+        this.date = today;
+        this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        final boolean empty = this.channel.size() == 0;
+        if (this.compress) {
+            // appending a new gzip member to an existing file still makes a valid gzip file
+            this.gzip = new GZIPOutputStream(Channels.newOutputStream(this.channel), BUFFER_SIZE, true);
+            this.output = Channels.newChannel(this.gzip);
+        } else {
+            this.output = this.channel;
+        }
+        if (empty && this.headerGenerator != null) {
+            final String header = this.headerGenerator.generateHeader();
+            if (header != null) {
+                this.append(header);
+            }
+        }
+    }
+
+    private void rotate(LocalDate date) throws IOException {
+        final String extension = "." + this.suffix + (this.compress ? COMPRESSED_SUFFIX : "");
+        Path target = this.directory.resolve(this.baseName + date + extension);
+        int count = 0;
+        while (Files.exists(target)) {
+            target = this.directory.resolve(this.baseName + date + "-" + (++count) + extension);
+        }
+        Files.move(this.file, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void closeFile() {
+        try {
+            if (this.output != null) {
+                this.writeBuffer();
+                if (this.gzip != null) {
+                    this.gzip.finish();
+                }
+            }
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.file, e);
+        } finally {
+            this.buffer.clear();
+            if (this.channel != null) {
+                try {
+                    this.channel.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+            this.channel = null;
+            this.output = null;
+            this.gzip = null;
+        }
+    }
+}
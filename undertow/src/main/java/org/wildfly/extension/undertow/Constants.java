@@ -263,4 +263,6 @@ public interface Constants {
     String DIRECT = "direct";
     String LEAK_DETECTION_PERCENT = "leak-detection-percent";
     String BYTE_BUFFER_POOL = "byte-buffer-pool";
+    String QUEUED_RECORDS = "queued-records";
+    String DROPPED_RECORDS = "dropped-records";
 }
@@ -7,8 +7,6 @@ package org.wildfly.extension.undertow;
 import io.undertow.servlet.api.SessionPersistenceManager;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.marshalling.InputStreamByteInput;
-import org.jboss.marshalling.Marshaller;
-import org.jboss.marshalling.OutputStreamByteOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.StartContext;
@@ -17,21 +15,45 @@ import org.jboss.msc.service.StopContext;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.xnio.IoUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
  * Persistent session manager that stores persistent session information to disk
+ * <p>
+ * The sessions of a deployment are stored in a single file, as a header, followed by one record per session and by an
+ * index of the offsets of the records. Its last 8 bytes hold the offset of the index. A session record holds its
+ * expiration time, its id and its serialized attributes, so that loading can skip the expired sessions without reading
+ * their attributes. Files written by previous versions, as a single
+ * marshalled map of all the sessions, are still loaded.
  *
  * @author Stuart Douglas
  * @author <a href="mailto:ropalka@redhat.com">Richard Opalka</a>
  */
 public class DiskBasedModularPersistentSessionManager extends AbstractPersistentSessionManager {
+    private static final int MAGIC = 0x57465353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
     private final String path;
     private final String pathRelativeTo;
     private final Supplier<PathManager> pathManager;
@@ -74,19 +96,55 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
 
     @Override
     protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
-        File file = new File(baseDir, deploymentName);
-        FileOutputStream out = new FileOutputStream(file, false);
+        final Path file = new File(baseDir, deploymentName).toPath();
+        // written aside and moved over the previous file, which is thus never left half written
+        final Path temp = Files.createTempFile(baseDir.toPath(), deploymentName, ".tmp");
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp));
+        boolean written = false;
         try {
-            Marshaller marshaller = createMarshaller();
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream record = new DataOutputStream(bytes);
+            record.writeInt(MAGIC);
+            record.writeInt(VERSION);
+            record.writeInt(serializedData.size());
+            long position = bytes.size();
+            bytes.writeTo(out);
+
+            final long[] offsets = new long[serializedData.size()];
+            int index = 0;
+            for (Map.Entry<String, SessionEntry> session : serializedData.entrySet()) {
+                bytes.reset();
+                record.writeLong(session.getValue().getExpiry().getTime());
+                writeString(record, session.getKey());
+                record.writeInt(session.getValue().getData().size());
+                for (Map.Entry<String, byte[]> attribute : session.getValue().getData().entrySet()) {
+                    writeString(record, attribute.getKey());
+                    record.writeInt(attribute.getValue().length);
+                    record.write(attribute.getValue());
+                }
+                offsets[index++] = position;
+                position += bytes.size();
+                bytes.writeTo(out);
+            }
+
+            bytes.reset();
+            for (long offset : offsets) {
+                record.writeLong(offset);
+            }
+            record.writeLong(position);
+            bytes.writeTo(out);
+            out.close();
             try {
-                marshaller.start(new OutputStreamByteOutput(out));
-                marshaller.writeObject(serializedData);
-                marshaller.finish();
-            } finally {
-                marshaller.close();
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
             }
+            written = true;
         } finally {
             IoUtils.safeClose(out);
+            if (!written) {
+                temp.toFile().delete();
+            }
         }
     }
 
@@ -96,6 +154,23 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         if (!file.exists()) {
             return null;
         }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read fully
+            }
+            header.flip();
+            if (header.remaining() == HEADER_SIZE && header.getInt() == MAGIC && header.getInt() == VERSION) {
+                return loadIndexedSessions(channel, header.getInt());
+            }
+        }
+        return loadSerializedSessions(file);
+    }
+
+    /**
+     * Loads the sessions stored by previous versions, as a single marshalled map.
+     */
+    private Map<String, SessionEntry> loadSerializedSessions(File file) throws IOException {
         FileInputStream in = new FileInputStream(file);
         try {
             Unmarshaller unMarshaller = createUnmarshaller();
@@ -114,6 +189,63 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         } finally {
             IoUtils.safeClose(in);
         }
+    }
+
+    /**
+     * Loads the sessions of the indexed format, one record at a time, skipping expired sessions.
+     */
+    private Map<String, SessionEntry> loadIndexedSessions(FileChannel channel, int count) throws IOException {
+        final long indexOffset = read(channel, channel.size() - Long.BYTES, Long.BYTES).getLong();
+        final ByteBuffer index = read(channel, indexOffset, count * Long.BYTES);
+        final long[] offsets = new long[count + 1];
+        for (int i = 0; i < count; ++i) {
+            offsets[i] = index.getLong();
+        }
+        offsets[count] = indexOffset;
+
+        final long now = System.currentTimeMillis();
+        final Map<String, SessionEntry> sessions = new HashMap<>();
+        for (int i = 0; i < count; ++i) {
+            final long expiry = read(channel, offsets[i], Long.BYTES).getLong();
+            if (expiry <= now) {
+                // expired sessions are dropped anyway, do not bother reading their attributes
+                continue;
+            }
+            final ByteBuffer buffer = read(channel, offsets[i] + Long.BYTES, Math.toIntExact(offsets[i + 1] - offsets[i] - Long.BYTES));
+            final String id = readString(buffer);
+            final int attributes = buffer.getInt();
+            final Map<String, byte[]> data = new HashMap<>();
+            for (int j = 0; j < attributes; ++j) {
+                final String name = readString(buffer);
+                final byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                data.put(name, value);
+            }
+            sessions.put(id, createSessionEntry(new Date(expiry), data));
+        }
+        return sessions;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
 
+    private static String readString(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 }
@@ -5,11 +5,16 @@
 package org.wildfly.extension.undertow.deployment;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.jboss.vfs.VirtualFile;
 import io.undertow.server.handlers.resource.PathResourceManager;
@@ -17,6 +22,7 @@ import io.undertow.server.handlers.resource.Resource;
 import io.undertow.server.handlers.resource.ResourceChangeListener;
 import io.undertow.server.handlers.resource.ResourceManager;
 import io.undertow.util.CanonicalPathUtils;
+import io.undertow.util.ETag;
 
 /**
  * Resource manager that deals with overlays
@@ -26,18 +32,26 @@ import io.undertow.util.CanonicalPathUtils;
 public class ServletResourceManager implements ResourceManager {
 
     public static final int TRANSFER_MIN_SIZE = 1024 * 1024;
+    private static final int OVERLAY_RESOURCES_MAX_SIZE = 1024;
     private final PathResourceManager deploymentResourceManager;
     private final Collection<VirtualFile> overlays;
     private final ResourceManager[] externalOverlays;
     private final boolean explodedDeployment;
+    // the overlay resources found for a path, or empty if no overlay has the path, the least recently used evicted first
+    private final Map<String, Optional<VirtualFileResource>> overlayResources = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Optional<VirtualFileResource>> eldest) {
+            return size() > OVERLAY_RESOURCES_MAX_SIZE;
+        }
+    });
+    private final boolean cacheOverlayResources;
 
     public ServletResourceManager(final VirtualFile resourcesRoot, final Collection<VirtualFile> overlays,
                                   boolean explodedDeployment, boolean followSymlink, boolean disableFileWatchService,
                                   List<String> externalOverlays) throws IOException {
         this.explodedDeployment = explodedDeployment;
         Path physicalFile = resourcesRoot.getPhysicalFile().toPath().toRealPath();
-        deploymentResourceManager = new PathResourceManager(physicalFile, TRANSFER_MIN_SIZE, true,
-                followSymlink, !disableFileWatchService);
+        deploymentResourceManager = createPathResourceManager(physicalFile, followSymlink, disableFileWatchService);
         this.overlays = overlays;
         if(externalOverlays == null) {
             this.externalOverlays = new ResourceManager[0];
@@ -45,11 +59,29 @@ public class ServletResourceManager implements ResourceManager {
             this.externalOverlays = new ResourceManager[externalOverlays.size()];
             for (int i = 0; i < externalOverlays.size(); ++i) {
                 String path = externalOverlays.get(i);
-                PathResourceManager pr = new PathResourceManager(Paths.get(path).toRealPath(), TRANSFER_MIN_SIZE,
-                        true, followSymlink, !disableFileWatchService);
-                this.externalOverlays[i] = pr;
+                this.externalOverlays[i] = createPathResourceManager(Paths.get(path).toRealPath(), followSymlink, disableFileWatchService);
             }
         }
+        //the overlays of an exploded deployment can change, so their resources are only cached if we are notified of the changes
+        if (!explodedDeployment) {
+            this.cacheOverlayResources = true;
+        } else if (deploymentResourceManager.isResourceChangeListenerSupported()) {
+            deploymentResourceManager.registerResourceChangeListener(changes -> overlayResources.clear());
+            this.cacheOverlayResources = true;
+        } else {
+            this.cacheOverlayResources = false;
+        }
+    }
+
+    private static PathResourceManager createPathResourceManager(Path base, boolean followSymlink, boolean disableFileWatchService) {
+        return (PathResourceManager) PathResourceManager.builder()
+                .setBase(base)
+                .setTransferMinSize(TRANSFER_MIN_SIZE)
+                .setCaseSensitive(true)
+                .setFollowLinks(followSymlink)
+                .setAllowResourceChangeListeners(!disableFileWatchService)
+                .setETagFunction(ServletResourceManager::eTag)
+                .build();
     }
 
     @Override
@@ -72,19 +104,9 @@ public class ServletResourceManager implements ResourceManager {
         }
         if (overlays != null) {
             String canonical = CanonicalPathUtils.canonicalize(p); //we don't need to do this for other resources, as the underlying RM will handle it
-            for (VirtualFile overlay : overlays) {
-                VirtualFile child = overlay.getChild(canonical);
-                if (child.exists()) {
-                    try {
-                        //we make sure the child is actually a child of the parent
-                        //CanonicalPathUtils should make sure this cannot happen
-                        //but just to be safe we do it anyway
-                        child.getPathNameRelativeTo(overlay);
-                        return new ServletResource(this, new VirtualFileResource(overlay.getPhysicalFile(), child, canonical));
-                    } catch (IllegalArgumentException ignore) {
-
-                    }
-                }
+            VirtualFileResource overlayResource = getOverlayResource(canonical);
+            if (overlayResource != null) {
+                return new ServletResource(this, overlayResource);
             }
         }
         for (int i = 0; i < externalOverlays.length; ++i) {
@@ -97,6 +119,62 @@ public class ServletResourceManager implements ResourceManager {
         return null;
     }
 
+    private VirtualFileResource getOverlayResource(final String canonical) throws IOException {
+        if (!cacheOverlayResources) {
+            return findOverlayResource(canonical);
+        }
+        Optional<VirtualFileResource> cached = overlayResources.get(canonical);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        VirtualFileResource resource = findOverlayResource(canonical);
+        //missing paths are cached too, but the cache is bounded so that requests for random paths cannot fill the heap,
+        //nor keep the paths actually requested out of it
+        overlayResources.put(canonical, Optional.ofNullable(resource));
+        return resource;
+    }
+
+    private VirtualFileResource findOverlayResource(final String canonical) throws IOException {
+        for (VirtualFile overlay : overlays) {
+            VirtualFile child = overlay.getChild(canonical);
+            if (child.exists()) {
+                try {
+                    //we make sure the child is actually a child of the parent
+                    //CanonicalPathUtils should make sure this cannot happen
+                    //but just to be safe we do it anyway
+                    child.getPathNameRelativeTo(overlay);
+                    return new VirtualFileResource(overlay.getPhysicalFile(), child, canonical);
+                } catch (IllegalArgumentException ignore) {
+
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the weak ETag of a file, from its size and last modification time, so that clients can revalidate
+     * the content they cached with a conditional request.
+     *
+     * @param lastModified The last modification time of the file
+     * @param size The size of the file
+     * @return The ETag
+     */
+    static ETag eTag(long lastModified, long size) {
+        return new ETag(true, size + "-" + lastModified);
+    }
+
+    private static ETag eTag(Path path) {
+        try {
+            if (Files.isDirectory(path)) {
+                return null;
+            }
+            return eTag(Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     @Override
     public boolean isResourceChangeListenerSupported() {
         return true;
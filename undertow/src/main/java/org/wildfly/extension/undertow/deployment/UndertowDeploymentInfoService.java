@@ -114,6 +114,7 @@ import org.wildfly.security.auth.server.MechanismConfiguration;
 import org.wildfly.security.auth.server.MechanismConfigurationSelector;
 import org.wildfly.security.auth.server.SecurityDomain;
 import org.wildfly.security.http.HttpServerAuthenticationMechanismFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.xnio.IoUtils;
 
 import jakarta.servlet.Filter;
@@ -166,6 +167,9 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
     public static final String DEFAULT_SERVLET_NAME = "default";
     public static final String UNDERTOW = "undertow";
 
+    // if the default servlet serves the .br and .gz siblings of the static resources to the clients that accept these encodings
+    private static final boolean PRE_COMPRESSED_RESOURCES = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.undertow.pre-compressed-resources", "false"));
+
     private DeploymentInfo deploymentInfo;
     private Registration registration;
 
@@ -514,6 +518,10 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
                 }
 
                 d.setResourceManager(resourceManager);
+                if (PRE_COMPRESSED_RESOURCES) {
+                    //the lookups of the compressed siblings go through the caching resource manager too
+                    addPreCompressedResourceEncodings(d);
+                }
             } catch (IOException e) {
                 throw new StartException(e);
             }
@@ -1038,6 +1046,14 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
         return AuthMethodParser.parse(configuredMethod, Collections.singletonMap("CLIENT-CERT", HttpServletRequest.CLIENT_CERT_AUTH));
     }
 
+    /**
+     * Makes the default servlet serve the .br and .gz siblings of static resources, to the clients accepting these encodings.
+     */
+    static void addPreCompressedResourceEncodings(final DeploymentInfo d) {
+        d.addPreCompressedResourceEncoding("br", ".br");
+        d.addPreCompressedResourceEncoding("gzip", ".gz");
+    }
+
     private static io.undertow.servlet.api.TransportGuaranteeType transportGuaranteeType(final TransportGuaranteeType type) {
         if (type == null) {
             return io.undertow.servlet.api.TransportGuaranteeType.NONE;
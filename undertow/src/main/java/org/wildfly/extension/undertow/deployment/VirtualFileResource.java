@@ -65,7 +65,10 @@ public class VirtualFileResource implements Resource {
 
     @Override
     public ETag getETag() {
-        return null;
+        if (file.isDirectory()) {
+            return null;
+        }
+        return ServletResourceManager.eTag(file.getLastModified(), file.getSize());
     }
 
     @Override
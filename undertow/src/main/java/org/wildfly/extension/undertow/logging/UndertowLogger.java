@@ -429,4 +429,16 @@ public interface UndertowLogger extends BasicLogger {
     @Message(id = 111, value = "The annotation: '%s' will have no effect on Servlet: '%s'")
     void badAnnotationOnServlet(String annotation, String servlet);
 
+    @LogMessage(level = ERROR)
+    @Message(id = 112, value = "Failed to write access log records to %s")
+    void failedToWriteAccessLog(Path file, @Cause IOException e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 113, value = "Invalid access log overflow policy '%s', using %s")
+    void invalidAccessLogOverflowPolicy(String value, Object policy);
+
+    @LogMessage(level = WARN)
+    @Message(id = 114, value = "Failed to load attribute %s of persistent session %s")
+    void failedToLoadSessionAttribute(String attributeName, String sessionID, @Cause Exception e);
+
 }
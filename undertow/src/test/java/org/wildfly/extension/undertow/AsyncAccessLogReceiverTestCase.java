@@ -0,0 +1,135 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.extension.undertow;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link AsyncAccessLogReceiver}.
+ */
+public class AsyncAccessLogReceiverTestCase {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("access-log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        AsyncAccessLogReceiver receiver = new AsyncAccessLogReceiver(this.directory, "access_log.", "log", true, false, () -> "#Fields: test", 64, AsyncAccessLogReceiver.OverflowPolicy.BLOCK, 1);
+        receiver.start();
+        int threads = 4;
+        int records = 10000;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; ++i) {
+            int thread = i;
+            new Thread(() -> {
+                for (int j = 0; j < records; ++j) {
+                    receiver.logMessage(thread + ":" + j);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        receiver.close();
+
+        List<String> lines = Files.readAllLines(this.directory.resolve("access_log.log"), UTF_8);
+        assertEquals("#Fields: test", lines.get(0));
+        assertEquals(threads * records + 1, lines.size());
+        assertEquals(0L, receiver.getDroppedRecords());
+        assertEquals(0L, receiver.getQueuedRecords());
+        // the records of each thread are written in order
+        int[] next = new int[threads];
+        for (String line : lines.subList(1, lines.size())) {
+            String[] parts = line.split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    public void testDrop() throws Exception {
+        AsyncAccessLogReceiver receiver = new AsyncAccessLogReceiver(this.directory, "access_log.", "log", false, false, null, 4, AsyncAccessLogReceiver.OverflowPolicy.DROP, 1);
+        // the writer is not started, so only the ring buffer capacity is accepted
+        for (int i = 0; i < 10; ++i) {
+            receiver.logMessage(Integer.toString(i));
+        }
+        assertEquals(4L, receiver.getQueuedRecords());
+        assertEquals(6L, receiver.getDroppedRecords());
+        receiver.start();
+        receiver.close();
+        assertEquals(Arrays.asList("0", "1", "2", "3"), Files.readAllLines(this.directory.resolve("access_log.log"), UTF_8));
+    }
+
+    @Test
+    public void testSample() throws Exception {
+        AsyncAccessLogReceiver receiver = new AsyncAccessLogReceiver(this.directory, "access_log.", "log", false, false, null, 8, AsyncAccessLogReceiver.OverflowPolicy.SAMPLE, 2);
+        for (int i = 0; i < 8; ++i) {
+            receiver.logMessage(Integer.toString(i));
+        }
+        // the first half is accepted, then one record out of 2
+        assertEquals(6L, receiver.getQueuedRecords());
+        assertEquals(2L, receiver.getDroppedRecords());
+        receiver.start();
+        receiver.close();
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "6"), Files.readAllLines(this.directory.resolve("access_log.log"), UTF_8));
+    }
+
+    @Test
+    public void testCompress() throws Exception {
+        for (int run = 0; run < 2; ++run) {
+            AsyncAccessLogReceiver receiver = new AsyncAccessLogReceiver(this.directory, "access_log.", "log", false, true, null, 16, AsyncAccessLogReceiver.OverflowPolicy.BLOCK, 1);
+            receiver.start();
+            for (int i = 0; i < 100; ++i) {
+                receiver.logMessage(run + ":" + i);
+            }
+            receiver.close();
+        }
+        Path file = this.directory.resolve("access_log.log.gz");
+        assertTrue(Files.exists(file));
+        List<String> lines = new ArrayList<>();
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            lines.addAll(Arrays.asList(new String(input.readAllBytes(), UTF_8).split("\n")));
+        }
+        assertEquals(200, lines.size());
+        assertEquals("0:0", lines.get(0));
+        assertEquals("1:99", lines.get(199));
+    }
+
+    @Test
+    public void testOverflowPolicy() {
+        assertEquals(AsyncAccessLogReceiver.OverflowPolicy.SAMPLE, AccessLogService.overflowPolicy("sample"));
+        // an invalid value falls back to the policy which loses no record
+        assertEquals(AsyncAccessLogReceiver.OverflowPolicy.BLOCK, AccessLogService.overflowPolicy("unknown"));
+    }
+}
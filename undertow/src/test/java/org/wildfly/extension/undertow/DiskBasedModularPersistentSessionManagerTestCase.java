@@ -0,0 +1,158 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.undertow.servlet.api.SessionPersistenceManager.PersistentSession;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.modules.Module;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the file formats of {@link DiskBasedModularPersistentSessionManager}.
+ */
+public class DiskBasedModularPersistentSessionManagerTestCase {
+
+    private static final String DEPLOYMENT = "test.war";
+
+    private File directory;
+    private DiskBasedModularPersistentSessionManager manager;
+
+    @Before
+    public void start() throws Exception {
+        this.directory = Files.createTempDirectory("persistent-sessions").toFile();
+        PathManager pathManager = mock(PathManager.class);
+        when(pathManager.resolveRelativePathEntry("sessions", null)).thenReturn(this.directory.getAbsolutePath());
+        this.manager = new DiskBasedModularPersistentSessionManager(value -> { }, Module::getBootModuleLoader, () -> pathManager, "sessions", null);
+        this.manager.start(null);
+    }
+
+    @After
+    public void stop() {
+        this.manager.stop(null);
+        for (File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        long now = System.currentTimeMillis();
+        Map<String, PersistentSession> sessions = new HashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("index", i);
+            attributes.put("name", "session-" + i);
+            // every tenth session is expired, and must not be restored
+            Date expiration = new Date((i % 10 == 0) ? now - 1000 : now + 60000);
+            sessions.put("session-" + i, new PersistentSession(expiration, attributes));
+        }
+        sessions.put("empty", new PersistentSession(new Date(now + 60000), Collections.emptyMap()));
+        this.manager.persistSessions(DEPLOYMENT, sessions);
+
+        Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(91, loaded.size());
+        for (int i = 0; i < 100; ++i) {
+            PersistentSession session = loaded.get("session-" + i);
+            if (i % 10 == 0) {
+                assertNull(session);
+            } else {
+                assertEquals(sessions.get("session-" + i).getExpiration(), session.getExpiration());
+                assertEquals(i, session.getSessionData().get("index"));
+                assertEquals("session-" + i, session.getSessionData().get("name"));
+            }
+        }
+        assertEquals(Collections.emptyMap(), loaded.get("empty").getSessionData());
+    }
+
+    @Test
+    public void testLegacyFormat() throws IOException {
+        long now = System.currentTimeMillis();
+        // the format of previous versions, a single marshalled map of the serialized sessions
+        Map<String, AbstractPersistentSessionManager.SessionEntry> entries = new HashMap<>();
+        Marshaller marshaller = this.manager.createMarshaller();
+        try {
+            entries.put("live", AbstractPersistentSessionManager.createSessionEntry(new Date(now + 60000), Collections.singletonMap("name", this.serialize(marshaller, "value"))));
+            entries.put("expired", AbstractPersistentSessionManager.createSessionEntry(new Date(now - 1000), Collections.singletonMap("name", this.serialize(marshaller, "value"))));
+            try (FileOutputStream out = new FileOutputStream(new File(this.directory, DEPLOYMENT))) {
+                marshaller.start(new OutputStreamByteOutput(out));
+                marshaller.writeObject(entries);
+                marshaller.finish();
+            }
+        } finally {
+            marshaller.close();
+        }
+
+        Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(Collections.singleton("live"), loaded.keySet());
+        assertEquals("value", loaded.get("live").getSessionData().get("name"));
+    }
+
+    @Test
+    public void testReplaceFile() {
+        long now = System.currentTimeMillis();
+        this.manager.persistSessions(DEPLOYMENT, Collections.singletonMap("first", new PersistentSession(new Date(now + 60000), Collections.singletonMap("name", "first"))));
+        this.manager.persistSessions(DEPLOYMENT, Collections.singletonMap("second", new PersistentSession(new Date(now + 60000), Collections.singletonMap("name", "second"))));
+        // the file is written aside and then moved, no temporary file must be left behind
+        assertArrayEquals(new String[] { DEPLOYMENT }, this.directory.list());
+
+        Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(Collections.singleton("second"), loaded.keySet());
+        assertEquals("second", loaded.get("second").getSessionData().get("name"));
+    }
+
+    @Test
+    public void testUnreadableAttribute() throws IOException {
+        long now = System.currentTimeMillis();
+        Map<String, byte[]> data = new HashMap<>();
+        Marshaller marshaller = this.manager.createMarshaller();
+        try {
+            data.put("name", this.serialize(marshaller, "value"));
+        } finally {
+            marshaller.close();
+        }
+        data.put("corrupted", new byte[] { 1, 2, 3 });
+        Map<String, AbstractPersistentSessionManager.SessionEntry> entries = Collections.singletonMap("live", AbstractPersistentSessionManager.createSessionEntry(new Date(now + 60000), data));
+        this.manager.persistSerializedSessions(DEPLOYMENT, entries);
+
+        // the attributes are only deserialized when read, an unreadable one does not prevent loading the others
+        Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(Collections.singleton("live"), loaded.keySet());
+        assertEquals(Collections.singletonMap("name", "value"), loaded.get("live").getSessionData());
+    }
+
+    @Test
+    public void testMissingFile() {
+        assertNull(this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()));
+    }
+
+    private byte[] serialize(Marshaller marshaller, Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.start(new OutputStreamByteOutput(out));
+        marshaller.writeObject(value);
+        marshaller.finish();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.PreCompressedResourceSupplier;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.util.Headers;
+import org.jboss.vfs.VFS;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the cache of the overlay resources of {@link ServletResourceManager}, and the serving of pre-compressed resources.
+ */
+public class ServletResourceManagerTestCase {
+
+    private Path root;
+    private Path overlay;
+    private ServletResourceManager resourceManager;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("deployment");
+        overlay = Files.createTempDirectory("overlay");
+        resourceManager = new ServletResourceManager(VFS.getChild(root.toString()), Collections.singletonList(VFS.getChild(overlay.toString())), false, false, true, null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        resourceManager.close();
+        for (Path directory : new Path[] { root, overlay }) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    public void testOverlayResources() throws IOException {
+        Files.writeString(overlay.resolve("overlay.txt"), "overlay");
+        Files.writeString(root.resolve("deployment.txt"), "deployment");
+
+        Resource resource = resourceManager.getResource("/overlay.txt");
+        Assert.assertNotNull(resource);
+        Assert.assertEquals(Long.valueOf(7L), resource.getContentLength());
+        Assert.assertNotNull(resource.getETag());
+        Assert.assertNotNull(resourceManager.getResource("/deployment.txt"));
+
+        // a missing path is cached too
+        Assert.assertNull(resourceManager.getResource("/missing.txt"));
+        Files.writeString(overlay.resolve("missing.txt"), "missing");
+        Assert.assertNull(resourceManager.getResource("/missing.txt"));
+    }
+
+    @Test
+    public void testOverlayResourcesEviction() throws IOException {
+        Assert.assertNull(resourceManager.getResource("/evicted.txt"));
+        Assert.assertNull(resourceManager.getResource("/kept.txt"));
+        for (int i = 0; i < 2000; i++) {
+            Assert.assertNull(resourceManager.getResource("/random-" + i + ".txt"));
+            // used recently, so never evicted
+            Assert.assertNull(resourceManager.getResource("/kept.txt"));
+        }
+        Files.writeString(overlay.resolve("evicted.txt"), "evicted");
+        Files.writeString(overlay.resolve("kept.txt"), "kept");
+
+        // the least recently used paths were evicted, instead of the cache no longer accepting paths once full
+        Assert.assertNotNull(resourceManager.getResource("/evicted.txt"));
+        Assert.assertNull(resourceManager.getResource("/kept.txt"));
+    }
+
+    @Test
+    public void testPreCompressedResources() throws IOException {
+        Files.writeString(root.resolve("app.js"), "var a = 'aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa';");
+        Files.write(root.resolve("app.js.gz"), "gzip".getBytes(StandardCharsets.UTF_8));
+        Files.writeString(overlay.resolve("overlay.js"), "var b = 'bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb';");
+        Files.write(overlay.resolve("overlay.js.br"), "br".getBytes(StandardCharsets.UTF_8));
+
+        DeploymentInfo deploymentInfo = new DeploymentInfo();
+        UndertowDeploymentInfoService.addPreCompressedResourceEncodings(deploymentInfo);
+        // as the default servlet does
+        PreCompressedResourceSupplier supplier = new PreCompressedResourceSupplier(resourceManager);
+        deploymentInfo.getPreCompressedResources().forEach(supplier::addEncoding);
+
+        // the compressed sibling is served, the content encoding is only set when it is sent
+        Assert.assertEquals(Long.valueOf(4L), supplier.getResource(exchange("gzip, deflate"), "/app.js").getContentLength());
+        Assert.assertEquals(Long.valueOf(2L), supplier.getResource(exchange("br"), "/overlay.js").getContentLength());
+
+        // not accepted, or no compressed sibling
+        Assert.assertTrue(supplier.getResource(exchange("identity"), "/app.js").getContentLength() > 4L);
+        Assert.assertTrue(supplier.getResource(exchange("gzip"), "/overlay.js").getContentLength() > 2L);
+    }
+
+    private static HttpServerExchange exchange(String acceptEncoding) {
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        exchange.getRequestHeaders().put(Headers.ACCEPT_ENCODING, acceptEncoding);
+        return exchange;
+    }
+}